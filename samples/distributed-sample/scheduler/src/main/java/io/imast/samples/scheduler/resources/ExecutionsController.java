@@ -1,6 +1,7 @@
 package io.imast.samples.scheduler.resources;
 
 import java.util.List;
+import io.imast.work4j.channel.batch.ExecutionCompletion;
 import io.imast.work4j.controller.SchedulerController;
 import io.imast.work4j.model.execution.ExecutionUpdateInput;
 import io.imast.work4j.model.execution.JobExecutionInput;
@@ -90,6 +91,18 @@ public class ExecutionsController {
         return ResponseEntity.ok(this.schedulerController.getExecutionIndex(cluster));
     }
     
+    /**
+     * Gets the executions index the worker is eligible to run
+     * 
+     * @param cluster The target cluster 
+     * @param worker The requesting worker
+     * @return Returns job execution index
+     */
+    @GetMapping(path = "", params = {"cluster", "worker"})
+    public ResponseEntity<?> getExecutionIndex(@RequestParam(required = true) String cluster, @RequestParam(required = true) String worker){
+        return ResponseEntity.ok(this.schedulerController.getExecutionIndex(cluster, worker));
+    }
+    
     /**
      * Add a job execution to controller
      * 
@@ -113,6 +126,17 @@ public class ExecutionsController {
         return ResponseEntity.ok(this.schedulerController.updateExecution(id, input));
     }
     
+    /**
+     * Complete the batch of job executions
+     * 
+     * @param completions The completions to apply
+     * @return Returns updated entities aligned with input
+     */
+    @PutMapping(path = "complete")
+    public ResponseEntity<?> completeAll(@RequestBody List<ExecutionCompletion> completions){
+        return ResponseEntity.ok(this.schedulerController.completeExecutions(completions));
+    }
+    
     /**
      * Delete execution from scheduler
      * 
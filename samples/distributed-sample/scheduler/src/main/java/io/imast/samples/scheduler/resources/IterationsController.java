@@ -110,6 +110,39 @@ public class IterationsController {
         return ResponseEntity.ok(this.schedulerController.insertIteration(iteration));
     }
     
+    /**
+     * Create the batch of job iterations with single write
+     * 
+     * @param iterations The job iterations
+     * @return Returns saved iterations aligned with input
+     */
+    @PostMapping(path = "batch")
+    public ResponseEntity<?> postIterations(@RequestBody List<IterationInput> iterations){
+        return ResponseEntity.ok(this.schedulerController.insertIterations(iterations));
+    }
+    
+    /**
+     * Submit an iteration of job through ingestion
+     * 
+     * @param iteration The job iteration
+     * @return Returns ingestion receipt
+     */
+    @PostMapping(path = "submit")
+    public ResponseEntity<?> submitIteration(@RequestBody IterationInput iteration){
+        return ResponseEntity.ok(this.schedulerController.submitIteration(iteration));
+    }
+    
+    /**
+     * Submit the batch of job iterations through ingestion
+     * 
+     * @param iterations The job iterations
+     * @return Returns ingestion receipts aligned with input
+     */
+    @PostMapping(path = "submit/batch")
+    public ResponseEntity<?> submitIterations(@RequestBody List<IterationInput> iterations){
+        return ResponseEntity.ok(this.schedulerController.submitIterations(iterations));
+    }
+    
     /**
      * Delete iteration from scheduler
      * 
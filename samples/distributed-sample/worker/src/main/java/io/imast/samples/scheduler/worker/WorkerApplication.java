@@ -63,17 +63,20 @@ public class WorkerApplication {
         // worker channel implementation instance
         var channel = new WorkerChannelImpl(discovery);
         
-        // connect and get worker
-        var clusterWorker = new WorkerConnector(config, channel).connect();
+        // register job types before connecting
+        var builder = WorkerControllerBuilder
+                .builder(config)
+                .withChannel(channel)
+                .withJobExecutor("ECHO_JOB", context -> new EchoJob(context))
+                .withModule("ECHO_JOB", "PRINTER", new PrinterModule());
+        
+        // connect advertising supported job types and get worker
+        var clusterWorker = new WorkerConnector(config, channel, builder.getJobTypes()).connect();
         
         log.info(String.format("Connected to cluster (%s) with as worker %s in %s mode", clusterWorker.getCluster(), clusterWorker.getName(), clusterWorker.getKind()));
         
-        var workerController = Try.of(() -> WorkerControllerBuilder
-                .builder(config)
-                .withChannel(channel)
+        var workerController = Try.of(() -> builder
                 .withWorker(clusterWorker)
-                .withJobExecutor("ECHO_JOB", context -> new EchoJob(context))
-                .withModule("ECHO_JOB", "PRINTER", new PrinterModule())
                 .build()).getOrNull();
         
         try {
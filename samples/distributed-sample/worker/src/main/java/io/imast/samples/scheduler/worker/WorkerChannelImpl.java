@@ -3,6 +3,7 @@ package io.imast.samples.scheduler.worker;
 import io.imast.core.client.ReactiveBaseClient;
 import io.imast.core.discovery.DiscoveryClient;
 import io.imast.work4j.channel.SchedulerChannel;
+import io.imast.work4j.channel.batch.ExecutionCompletion;
 import io.imast.work4j.model.cluster.ClusterWorker;
 import io.imast.work4j.model.execution.CompletionSeverity;
 import io.imast.work4j.model.execution.ExecutionIndexEntry;
@@ -11,6 +12,7 @@ import io.imast.work4j.model.execution.ExecutionUpdateInput;
 import io.imast.work4j.model.execution.JobExecution;
 import io.imast.work4j.model.iterate.Iteration;
 import io.imast.work4j.model.iterate.IterationInput;
+import io.imast.work4j.model.iterate.IterationReceipt;
 import io.imast.work4j.model.cluster.WorkerHeartbeat;
 import io.imast.work4j.model.cluster.WorkerJoinInput;
 import java.util.Arrays;
@@ -62,6 +64,32 @@ public class WorkerChannelImpl extends ReactiveBaseClient implements SchedulerCh
                 .map(Arrays::asList);
     }
     
+    /**
+     * Pull the execution index the worker is eligible to run
+     * 
+     * @param cluster The target cluster
+     * @param worker The requesting worker
+     * @return Returns execution index entries
+     */
+    @Override
+    public Mono<List<ExecutionIndexEntry>> executionIndex(String cluster, String worker){
+        // build URL
+        var url = UriComponentsBuilder
+                .fromUriString(this.getApiUrl("api/v1/scheduler/executions"))
+                .queryParam("cluster", cluster)
+                .queryParam("worker", worker)
+                .build()
+                .toUriString();
+        
+        // get the mono stream
+        return this.webClient
+                .get()
+                .uri(url)
+                .retrieve()
+                .bodyToMono(ExecutionIndexEntry[].class)
+                .map(Arrays::asList);
+    }
+    
     /**
      * Exchange current status with modified entries
      * 
@@ -137,6 +165,101 @@ public class WorkerChannelImpl extends ReactiveBaseClient implements SchedulerCh
                 .bodyToMono(Iteration.class);   
     }
     
+    /**
+     * Submits iteration information to scheduler with backpressure signal
+     * 
+     * @param iteration The iteration to register
+     * @return Returns the ingestion receipt
+     */
+    @Override
+    public Mono<IterationReceipt> submit(IterationInput iteration){
+        // build URL
+        var url = UriComponentsBuilder
+                .fromUriString(this.getApiUrl("api/v1/scheduler/iterations/submit"))
+                .build()
+                .toUriString();
+        
+        // get the mono stream
+        return this.webClient
+                .post()
+                .uri(url)
+                .body(BodyInserters.fromValue(iteration))
+                .retrieve()
+                .bodyToMono(IterationReceipt.class);   
+    }
+    
+    /**
+     * Adds batch of iterations to scheduler
+     * 
+     * @param iterations The iterations to register
+     * @return Returns registered iterations aligned with input
+     */
+    @Override
+    public Mono<List<Iteration>> iterateAll(List<IterationInput> iterations){
+        // build URL
+        var url = UriComponentsBuilder
+                .fromUriString(this.getApiUrl("api/v1/scheduler/iterations/batch"))
+                .build()
+                .toUriString();
+        
+        // get the mono stream
+        return this.webClient
+                .post()
+                .uri(url)
+                .body(BodyInserters.fromValue(iterations))
+                .retrieve()
+                .bodyToMono(Iteration[].class)
+                .map(Arrays::asList);
+    }
+    
+    /**
+     * Submits batch of iterations to scheduler with backpressure signal
+     * 
+     * @param iterations The iterations to register
+     * @return Returns ingestion receipts aligned with input
+     */
+    @Override
+    public Mono<List<IterationReceipt>> submitAll(List<IterationInput> iterations){
+        // build URL
+        var url = UriComponentsBuilder
+                .fromUriString(this.getApiUrl("api/v1/scheduler/iterations/submit/batch"))
+                .build()
+                .toUriString();
+        
+        // get the mono stream
+        return this.webClient
+                .post()
+                .uri(url)
+                .body(BodyInserters.fromValue(iterations))
+                .retrieve()
+                .bodyToMono(IterationReceipt[].class)
+                .map(Arrays::asList);
+    }
+    
+    /**
+     * Completes the batch of job executions in scheduler
+     * 
+     * @param completions The completions to report
+     * @return Returns updated job executions aligned with input
+     */
+    @Override
+    public Mono<List<JobExecution>> completeAll(List<ExecutionCompletion> completions){
+        // build URL
+        var url = UriComponentsBuilder
+                .fromUriString(this.getApiUrl("api/v1/scheduler/executions/complete"))
+                .build()
+                .toUriString();
+        
+        // get the mono stream
+        return this.webClient
+                .put()
+                .uri(url)
+                .body(BodyInserters.fromValue(completions))
+                .retrieve()
+                .bodyToMono(JobExecution[].class)
+                .map(Arrays::asList);
+    }
+    
     /**
      * Registers worker into the scheduler
      * 
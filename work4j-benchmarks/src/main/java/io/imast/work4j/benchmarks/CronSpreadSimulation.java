@@ -0,0 +1,169 @@
+package io.imast.work4j.benchmarks;
+
+import io.imast.work4j.model.TriggerDefinition;
+import io.imast.work4j.model.TriggerType;
+import io.imast.work4j.worker.instance.TriggerJitter;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import org.quartz.CronExpression;
+
+/**
+ * The simulation of cron fire storms with and without spread window
+ * 
+ * Computes fire times of many executions sharing hot cron expressions over a few hours and prints the
+ * peak number of concurrently running jobs (each job runs for a fixed duration) and the peak number
+ * of fires within one second, first without spread window and then with it.
+ * 
+ * @author davitp
+ */
+public class CronSpreadSimulation {
+    
+    /**
+     * The number of executions
+     */
+    private static final int EXECUTIONS = 10000;
+    
+    /**
+     * The job duration in milliseconds
+     */
+    private static final long DURATION = 5000;
+    
+    /**
+     * The simulated time span in milliseconds
+     */
+    private static final long SPAN = 3 * 3600 * 1000L;
+    
+    /**
+     * Runs the simulation
+     * 
+     * @param args The arguments
+     * @throws ParseException
+     */
+    public static void main(String[] args) throws ParseException {
+        
+        // hourly, every fifteen minutes and daily
+        var expressions = List.of("0 0 * * * ?", "0 0/15 * * * ?", "0 0 0 * * ?");
+        
+        for(var expression : expressions){
+            
+            var before = simulate(expression, null);
+            var after = simulate(expression, 3600 * 1000L);
+            
+            System.out.println(String.format("%-16s peak running %6d -> %6d, peak fires/s %6d -> %6d", expression, before[0], after[0], before[1], after[1]));
+        }
+    }
+    
+    /**
+     * Simulates the executions with given cron expression
+     * 
+     * @param expression The cron expression
+     * @param spreadWindow The spread window or null
+     * @return Returns peak running jobs and peak fires per second
+     * @throws ParseException
+     */
+    protected static long[] simulate(String expression, Long spreadWindow) throws ParseException {
+        
+        // midnight utc as simulation start
+        var start = 0L;
+        
+        // the shared expressions
+        var crons = new HashMap<String, CronExpression>();
+        
+        var fires = new ArrayList<Long>();
+        
+        for(var i = 0; i < EXECUTIONS; ++i){
+            
+            var trigger = TriggerDefinition.builder()
+                    .name("trigger")
+                    .type(TriggerType.CRON)
+                    .cron(expression)
+                    .spreadWindow(spreadWindow)
+                    .build();
+            
+            var cron = cron(crons, TriggerJitter.cron(String.format("%024x", i * 7919L), trigger));
+            
+            // collect fires within span
+            var next = cron.getNextValidTimeAfter(new Date(start - 1));
+            
+            while(next != null && next.getTime() < start + SPAN){
+                fires.add(next.getTime());
+                next = cron.getNextValidTimeAfter(next);
+            }
+        }
+        
+        return new long[] { peakRunning(fires), peakPerSecond(fires) };
+    }
+    
+    /**
+     * Gets the shared cron expression in utc
+     * 
+     * @param crons The cache
+     * @param expression The expression
+     * @return Returns cron expression
+     * @throws ParseException
+     */
+    protected static CronExpression cron(Map<String, CronExpression> crons, String expression) throws ParseException {
+        
+        var cron = crons.get(expression);
+        
+        if(cron == null){
+            cron = new CronExpression(expression);
+            cron.setTimeZone(TimeZone.getTimeZone("UTC"));
+            crons.put(expression, cron);
+        }
+        
+        return cron;
+    }
+    
+    /**
+     * Gets the peak number of concurrently running jobs
+     * 
+     * @param fires The fire times
+     * @return Returns peak
+     */
+    protected static long peakRunning(List<Long> fires){
+        
+        // start and end events sorted by time (ends before starts at same time)
+        var events = new long[fires.size() * 2];
+        
+        for(var i = 0; i < fires.size(); ++i){
+            events[2 * i] = (fires.get(i) << 1) | 1;
+            events[2 * i + 1] = (fires.get(i) + DURATION) << 1;
+        }
+        
+        Arrays.sort(events);
+        
+        var running = 0L;
+        var peak = 0L;
+        
+        for(var event : events){
+            running += (event & 1) == 1 ? 1 : -1;
+            peak = Math.max(peak, running);
+        }
+        
+        return peak;
+    }
+    
+    /**
+     * Gets the peak number of fires within one second
+     * 
+     * @param fires The fire times
+     * @return Returns peak
+     */
+    protected static long peakPerSecond(List<Long> fires){
+        
+        var seconds = new HashMap<Long, Long>();
+        
+        for(var fire : fires){
+            seconds.merge(fire / 1000, 1L, Long::sum);
+        }
+        
+        return seconds.values().stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+}
@@ -0,0 +1,234 @@
+package io.imast.work4j.benchmarks;
+
+import io.imast.work4j.model.execution.ExecutionIndexEntry;
+import io.imast.work4j.model.execution.ExecutionStatus;
+import io.imast.work4j.worker.controller.ExecutionIndexDiff;
+import io.imast.work4j.worker.instance.ExecutionKey;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The benchmark of a single poll diff between execution index and local worker state
+ * 
+ * Compares the hash-based diff the worker used before with the merge-join diff. Run the main
+ * method (or the shaded jar with -prof gc) to get gc.alloc.rate.norm, the bytes allocated per sync.
+ * 
+ * @author davitp
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ExecutionIndexDiffBenchmark {
+
+    /**
+     * The number of index entries
+     */
+    @Param({ "10000", "100000", "1000000" })
+    public int size;
+    
+    /**
+     * The index entries
+     */
+    protected List<ExecutionIndexEntry> entries;
+    
+    /**
+     * The local executions
+     */
+    protected Set<ExecutionKey> local;
+    
+    /**
+     * The locally paused executions
+     */
+    protected Set<ExecutionKey> paused;
+    
+    /**
+     * The reusable diff
+     */
+    protected ExecutionIndexDiff diff;
+    
+    /**
+     * The version of local state
+     */
+    protected long version;
+    
+    /**
+     * Prepares the index and the local state (about 1% of entries differ)
+     */
+    @Setup
+    public void setup(){
+        
+        var random = new Random(42);
+        
+        this.entries = new ArrayList<>(this.size);
+        this.local = new HashSet<>();
+        this.paused = new HashSet<>();
+        this.diff = new ExecutionIndexDiff();
+        
+        for(var i = 0; i < this.size; ++i){
+            
+            // ObjectId-like identifiers
+            var id = String.format("%08x%016x", i, random.nextLong());
+            var jobId = String.format("%08x%016x", i / 10, 0L);
+            
+            // statuses mostly active
+            var status = random.nextInt(100) < 95 ? ExecutionStatus.ACTIVE : ExecutionStatus.PAUSED;
+            
+            this.entries.add(ExecutionIndexEntry.builder().id(id).jobId(jobId).status(status).build());
+            
+            // one percent is missing locally
+            if(random.nextInt(100) == 0){
+                continue;
+            }
+            
+            var key = new ExecutionKey(id, jobId);
+            
+            this.local.add(key);
+            
+            if(status == ExecutionStatus.PAUSED){
+                this.paused.add(key);
+            }
+        }
+    }
+    
+    /**
+     * The hash-based diff (as the worker did before)
+     * 
+     * @param blackhole The blackhole
+     */
+    @Benchmark
+    public void hashDiff(Blackhole blackhole){
+        
+        // build map out of index entries
+        var index = this.entries.stream().collect(Collectors.toMap(e -> new ExecutionKey(e.getId(), e.getJobId()), e -> e));
+        
+        // copies of local state as read from quartz
+        var all = new HashSet<>(this.local);
+        var pausedKeys = new HashSet<>(this.paused);
+        
+        var toAdd = new HashSet<ExecutionKey>();
+        var toDelete = new HashSet<ExecutionKey>();
+        var toPause = new HashSet<ExecutionKey>();
+        var toResume = new HashSet<ExecutionKey>();
+        
+        index.forEach((key, entry) -> {
+            
+            if(!all.contains(key)){
+                toAdd.add(key);
+                return;
+            }
+            
+            if(entry.getStatus() == ExecutionStatus.COMPLETED){
+                toDelete.add(key);
+                return;
+            }
+            
+            if(entry.getStatus() == ExecutionStatus.PAUSED && !pausedKeys.contains(key)){
+                toPause.add(key);
+                return;
+            }
+            
+            if(entry.getStatus() == ExecutionStatus.ACTIVE && pausedKeys.contains(key)){
+                toResume.add(key);
+            }
+        });
+        
+        all.forEach(existing -> {
+            if(!index.containsKey(existing)){
+                toDelete.add(existing);
+            }
+        });
+        
+        blackhole.consume(toAdd.stream().map(ExecutionKey::getExecutionId).collect(Collectors.toList()));
+        blackhole.consume(toDelete);
+        blackhole.consume(toPause);
+        blackhole.consume(toResume);
+    }
+    
+    /**
+     * The merge-join diff when local state is unchanged since previous poll (same version)
+     * 
+     * @param blackhole The blackhole
+     */
+    @Benchmark
+    public void mergeDiff(Blackhole blackhole){
+        this.merge(0, blackhole);
+    }
+    
+    /**
+     * The merge-join diff when local state version is unknown (local sides are copied and sorted)
+     * 
+     * @param blackhole The blackhole
+     */
+    @Benchmark
+    public void mergeDiffChangedLocal(Blackhole blackhole){
+        this.merge(-1, blackhole);
+    }
+    
+    /**
+     * The merge-join diff when local state version changed since previous poll (local sides are merged incrementally)
+     * 
+     * @param blackhole The blackhole
+     */
+    @Benchmark
+    public void mergeDiffNewVersion(Blackhole blackhole){
+        this.merge(++this.version, blackhole);
+    }
+    
+    /**
+     * Computes the merge-join diff of given local version
+     * 
+     * @param version The local version
+     * @param blackhole The blackhole
+     */
+    protected void merge(long version, Blackhole blackhole){
+        
+        blackhole.consume(this.diff.compute(this.entries, this.local, this.paused, version));
+        blackhole.consume(this.diff.addedIds());
+        
+        this.diff.forEachDeleted(blackhole::consume);
+        this.diff.forEachPaused(blackhole::consume);
+        this.diff.forEachResumed(blackhole::consume);
+        
+        this.diff.clear();
+    }
+    
+    /**
+     * Runs the benchmark with allocation profiling
+     * 
+     * @param args The arguments
+     * @throws RunnerException
+     */
+    public static void main(String[] args) throws RunnerException {
+        
+        var options = new OptionsBuilder()
+                .include(ExecutionIndexDiffBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        
+        new Runner(options).run();
+    }
+}
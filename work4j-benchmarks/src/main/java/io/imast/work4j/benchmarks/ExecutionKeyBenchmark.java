@@ -0,0 +1,137 @@
+package io.imast.work4j.benchmarks;
+
+import io.imast.work4j.worker.instance.ExecutionKey;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The benchmark of execution key hashing, lookup, formatting and parsing
+ * 
+ * Execution keys are built for every index entry, trigger group and shadow registry lookup, so the
+ * cost of these operations multiplies by the number of executions on every poll.
+ * 
+ * @author davitp
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutionKeyBenchmark {
+    
+    /**
+     * The ObjectId-like execution id
+     */
+    protected String executionId;
+    
+    /**
+     * The ObjectId-like job id
+     */
+    protected String jobId;
+    
+    /**
+     * The key
+     */
+    protected ExecutionKey key;
+    
+    /**
+     * The string form of key (trigger group)
+     */
+    protected String group;
+    
+    /**
+     * The map of keys to look up in
+     */
+    protected Map<ExecutionKey, Boolean> keys;
+    
+    /**
+     * Prepares the keys
+     */
+    @Setup
+    public void setup(){
+        
+        this.executionId = "5fd3a0c2e4b0a1b2c3d4e5f6";
+        this.jobId = "5fd3a0c2e4b0a1b2c3d4e500";
+        this.key = new ExecutionKey(this.executionId, this.jobId);
+        this.group = this.key.toString();
+        this.keys = new HashMap<>();
+        
+        for(var i = 0; i < 10000; ++i){
+            this.keys.put(new ExecutionKey(String.format("%024x", i), this.jobId), Boolean.TRUE);
+        }
+        
+        this.keys.put(this.key, Boolean.TRUE);
+    }
+    
+    /**
+     * Creates the key and computes its hash
+     * 
+     * @return Returns hash
+     */
+    @Benchmark
+    public int createAndHash(){
+        return new ExecutionKey(this.executionId, this.jobId).hashCode();
+    }
+    
+    /**
+     * Looks up the fresh key in a map (as the shadow registry does)
+     * 
+     * @return Returns the value
+     */
+    @Benchmark
+    public Boolean lookup(){
+        return this.keys.get(new ExecutionKey(this.executionId, this.jobId));
+    }
+    
+    /**
+     * Formats the key into trigger group
+     * 
+     * @return Returns string form
+     */
+    @Benchmark
+    public String format(){
+        return this.key.toString();
+    }
+    
+    /**
+     * Parses the trigger group into key
+     * 
+     * @return Returns key
+     */
+    @Benchmark
+    public ExecutionKey parse(){
+        return ExecutionKey.from(this.group);
+    }
+    
+    /**
+     * Runs the benchmark with allocation profiling
+     * 
+     * @param args The arguments
+     * @throws RunnerException
+     */
+    public static void main(String[] args) throws RunnerException {
+        
+        var options = new OptionsBuilder()
+                .include(ExecutionKeyBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        
+        new Runner(options).run();
+    }
+}
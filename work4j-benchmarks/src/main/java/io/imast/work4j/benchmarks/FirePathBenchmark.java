@@ -0,0 +1,269 @@
+package io.imast.work4j.benchmarks;
+
+import io.imast.work4j.execution.ExecutorReuse;
+import io.imast.work4j.execution.JobExecutorBase;
+import io.imast.work4j.execution.JobExecutorContext;
+import io.imast.work4j.execution.ReusableJobExecutor;
+import io.imast.work4j.model.execution.ExecutionStatus;
+import io.imast.work4j.model.execution.JobExecution;
+import io.imast.work4j.worker.JobConstants;
+import io.imast.work4j.worker.WorkerFactory;
+import io.imast.work4j.worker.instance.QuartzInstance;
+import io.imast.work4j.worker.job.ExecutorCache;
+import io.imast.work4j.worker.job.JobOps;
+import io.imast.work4j.worker.job.QuartzExecutorContext;
+import io.imast.work4j.worker.job.QuartzExecutorJob;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.JobExecutionContextImpl;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.TriggerFiredBundle;
+
+/**
+ * The benchmark of the worker fire path (quartz job to executor)
+ * 
+ * Measures the overhead around a no-op executor that reads a module and a payload value: the lookup
+ * path the worker used before (scheduler context on every fire), the executor job reading the cache
+ * from scheduler context, the executor job created with the cache by the worker job factory, and the
+ * same with a reusable singleton executor. Run the main method to get gc.alloc.rate.norm as well.
+ * 
+ * @author davitp
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FirePathBenchmark {
+    
+    /**
+     * The unique scheduler names
+     */
+    private static final AtomicInteger SCHEDULERS = new AtomicInteger();
+    
+    /**
+     * The quartz scheduler (not started)
+     */
+    protected Scheduler scheduler;
+    
+    /**
+     * The executor cache
+     */
+    protected ExecutorCache cache;
+    
+    /**
+     * The context of plain executor fire
+     */
+    protected JobExecutionContext plainContext;
+    
+    /**
+     * The context of reusable executor fire
+     */
+    protected JobExecutionContext reusableContext;
+    
+    /**
+     * Prepares the scheduler, the executors and the fired contexts
+     * 
+     * @throws Exception 
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        
+        var props = new Properties();
+        props.setProperty("org.quartz.scheduler.instanceName", "WORK4J_FIRE_" + SCHEDULERS.incrementAndGet());
+        props.setProperty("org.quartz.threadPool.threadCount", "1");
+        
+        this.scheduler = new StdSchedulerFactory(props).getScheduler();
+        
+        var factory = new WorkerFactory();
+        factory.registerExecutor("PLAIN", PlainExecutor::new);
+        factory.registerExecutor("REUSABLE", ctx -> new SingletonExecutor());
+        
+        var jobModules = new HashMap<String, Map<String, Object>>();
+        jobModules.put("PLAIN", Map.of("module", new Object()));
+        jobModules.put("REUSABLE", Map.of("module", new Object()));
+        
+        this.cache = new ExecutorCache(factory, jobModules, ExecutorCache.DEFAULT_POOL_SIZE);
+        this.cache.resolveAll();
+        
+        this.scheduler.getContext().put(JobConstants.WORKER_FACTORY, factory);
+        this.scheduler.getContext().put(JobConstants.JOB_MODULES, jobModules);
+        this.scheduler.getContext().put(JobConstants.EXECUTOR_CACHE, this.cache);
+        
+        this.plainContext = this.fired("PLAIN");
+        this.reusableContext = this.fired("REUSABLE");
+    }
+    
+    /**
+     * Releases the quartz scheduler
+     * 
+     * @throws Exception 
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.scheduler.shutdown();
+    }
+    
+    /**
+     * The lookup path the worker used before (scheduler context per fire and per module)
+     * 
+     * @throws Exception 
+     */
+    @Benchmark
+    public void contextLookup() throws Exception {
+        
+        var executorContext = new QuartzExecutorContext(this.plainContext);
+        var supplier = JobOps.getExecutor(executorContext.getType(), this.plainContext);
+        
+        supplier.apply(executorContext).execute();
+    }
+    
+    /**
+     * The executor job created by default quartz factory (reads cache from scheduler context)
+     * 
+     * @throws Exception 
+     */
+    @Benchmark
+    public void contextJob() throws Exception {
+        new QuartzExecutorJob().execute(this.plainContext);
+    }
+    
+    /**
+     * The executor job created by worker job factory
+     * 
+     * @throws Exception 
+     */
+    @Benchmark
+    public void cachedJob() throws Exception {
+        new QuartzExecutorJob(this.cache).execute(this.plainContext);
+    }
+    
+    /**
+     * The executor job created by worker job factory with reusable singleton executor
+     * 
+     * @throws Exception 
+     */
+    @Benchmark
+    public void cachedReusableJob() throws Exception {
+        new QuartzExecutorJob(this.cache).execute(this.reusableContext);
+    }
+    
+    /**
+     * Creates the context of fired job of given type
+     * 
+     * @param type The job type
+     * @return Returns fired context
+     */
+    protected JobExecutionContext fired(String type){
+        
+        var execution = JobExecution.builder()
+                .id("5fd3a0c2e4b0a1b2c3d4e5f6" + type)
+                .jobId("5fd3a0c2e4b0a1b2c3d4e500")
+                .name("fire")
+                .folder("/")
+                .type(type)
+                .status(ExecutionStatus.ACTIVE)
+                .payload(Map.of("value", 42))
+                .build();
+        
+        var instance = new QuartzInstance(this.scheduler);
+        var job = instance.initJob(instance.createJob(JobKey.jobKey(execution.getId(), execution.getJobId()), execution), execution);
+        var trigger = (OperableTrigger) TriggerBuilder.newTrigger().withIdentity("trigger", execution.getId()).forJob(job).startNow().build();
+        var now = new Date();
+        
+        return new JobExecutionContextImpl(this.scheduler, new TriggerFiredBundle(job, trigger, null, false, now, now, null, null), null);
+    }
+    
+    /**
+     * Runs the benchmark with allocation profiling
+     * 
+     * @param args The arguments
+     * @throws RunnerException
+     */
+    public static void main(String[] args) throws RunnerException {
+        
+        var options = new OptionsBuilder()
+                .include(FirePathBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        
+        new Runner(options).run();
+    }
+    
+    /**
+     * The executor created for every fire
+     */
+    public static class PlainExecutor extends JobExecutorBase {
+        
+        /**
+         * Creates new plain executor
+         * 
+         * @param context The context of fire
+         */
+        public PlainExecutor(JobExecutorContext context){
+            super(context);
+        }
+        
+        /**
+         * Reads a module and a value
+         */
+        @Override
+        public void execute(){
+            this.context.getModuleOr("module", null);
+            this.context.getValue("value", null);
+        }
+    }
+    
+    /**
+     * The executor reused by all fires of execution
+     */
+    public static class SingletonExecutor implements ReusableJobExecutor {
+        
+        /**
+         * Gets the reuse policy
+         * 
+         * @return Returns singleton
+         */
+        @Override
+        public ExecutorReuse getReuse(){
+            return ExecutorReuse.SINGLETON;
+        }
+        
+        /**
+         * Reads a module and a value
+         * 
+         * @param context The context of fire
+         */
+        @Override
+        public void execute(JobExecutorContext context){
+            context.getModuleOr("module", null);
+            context.getValue("value", null);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package io.imast.work4j.benchmarks;
+
+import io.imast.work4j.model.TriggerDefinition;
+import io.imast.work4j.model.TriggerType;
+import io.imast.work4j.model.cluster.ClusterWorker;
+import io.imast.work4j.model.execution.ExecutionStatus;
+import io.imast.work4j.model.execution.JobExecution;
+import io.imast.work4j.worker.WorkerConfiguration;
+import io.imast.work4j.worker.WorkerFactory;
+import io.imast.work4j.worker.instance.ExecutionKey;
+import io.imast.work4j.worker.instance.QuartzInstance;
+import io.imast.work4j.worker.instance.SchedulingEngine;
+import io.imast.work4j.worker.wheel.TimingWheelEngine;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.quartz.Scheduler;
+import org.quartz.impl.StdSchedulerFactory;
+
+/**
+ * The benchmark of arming and cancelling executions in scheduling engines
+ * 
+ * Compares quartz with RAMJobStore (through QuartzInstance) with the timing wheel engine. Each
+ * operation schedules a batch of cron executions and unschedules them again while the engine
+ * already holds the given number of armed executions. Engines are not started, so nothing fires.
+ * Run the main method to also print the retained heap per armed execution.
+ * 
+ * @author davitp
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class SchedulingEngineBenchmark {
+    
+    /**
+     * The size of batch per operation
+     */
+    public static final int BATCH = 1000;
+    
+    /**
+     * The cron expression that does not fire during the run
+     */
+    public static final String CRON = "0 0 0 1 1 ? 2099";
+    
+    /**
+     * The unique scheduler names
+     */
+    private static final AtomicInteger SCHEDULERS = new AtomicInteger();
+    
+    /**
+     * The engine type
+     */
+    @Param({ "quartz", "wheel" })
+    public String engineType;
+    
+    /**
+     * The number of already armed executions
+     */
+    @Param({ "10000", "100000" })
+    public int armed;
+    
+    /**
+     * The engine
+     */
+    protected SchedulingEngine engine;
+    
+    /**
+     * The quartz scheduler (quartz engine only)
+     */
+    protected Scheduler scheduler;
+    
+    /**
+     * The batch to arm and cancel
+     */
+    protected List<JobExecution> batch;
+    
+    /**
+     * The keys of batch
+     */
+    protected List<ExecutionKey> keys;
+    
+    /**
+     * Creates the engine and arms the background executions
+     * 
+     * @throws Exception 
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        
+        this.scheduler = "quartz".equals(this.engineType) ? createScheduler() : null;
+        this.engine = this.scheduler == null ? createWheel() : new QuartzInstance(this.scheduler);
+        
+        this.engine.scheduleAll(executions("bg", this.armed));
+        
+        this.batch = executions("batch", BATCH);
+        this.keys = new ArrayList<>(BATCH);
+        
+        for(var execution : this.batch){
+            this.keys.add(new ExecutionKey(execution.getId(), execution.getJobId()));
+        }
+    }
+    
+    /**
+     * Releases the quartz scheduler
+     * 
+     * @throws Exception 
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if(this.scheduler != null){
+            this.scheduler.shutdown();
+        }
+    }
+    
+    /**
+     * Schedules and unschedules the batch one by one
+     */
+    @Benchmark
+    public void scheduleAndUnschedule(){
+        
+        for(var execution : this.batch){
+            this.engine.schedule(execution);
+        }
+        
+        for(var key : this.keys){
+            this.engine.unschedule(key);
+        }
+    }
+    
+    /**
+     * Schedules the batch at once and unschedules one by one
+     */
+    @Benchmark
+    public void scheduleAllAndUnschedule(){
+        
+        this.engine.scheduleAll(this.batch);
+        
+        for(var key : this.keys){
+            this.engine.unschedule(key);
+        }
+    }
+    
+    /**
+     * Pauses and resumes the batch
+     */
+    @Benchmark
+    public void pauseAndResume(){
+        
+        for(var i = 0; i < BATCH; ++i){
+            this.engine.pause(new ExecutionKey("bg-" + i, "job"));
+        }
+        
+        for(var i = 0; i < BATCH; ++i){
+            this.engine.resume(new ExecutionKey("bg-" + i, "job"));
+        }
+    }
+    
+    /**
+     * Creates the timing wheel engine (not started)
+     * 
+     * @return Returns engine
+     */
+    public static SchedulingEngine createWheel(){
+        return new TimingWheelEngine(ClusterWorker.builder().name("bench").build(), new WorkerFactory(), Map.of(), null, WorkerConfiguration.builder().parallelism(1L).build());
+    }
+    
+    /**
+     * Creates the quartz scheduler with RAMJobStore (not started)
+     * 
+     * @return Returns scheduler
+     * @throws Exception 
+     */
+    public static Scheduler createScheduler() throws Exception {
+        
+        var props = new Properties();
+        props.setProperty("org.quartz.scheduler.instanceName", "BENCH_" + SCHEDULERS.incrementAndGet());
+        props.setProperty("org.quartz.threadPool.threadCount", "1");
+        props.setProperty("org.quartz.scheduler.skipUpdateCheck", "true");
+        
+        return new StdSchedulerFactory(props).getScheduler();
+    }
+    
+    /**
+     * Creates the cron executions
+     * 
+     * @param prefix The id prefix
+     * @param count The number of executions
+     * @return Returns executions
+     */
+    public static List<JobExecution> executions(String prefix, int count){
+        
+        var result = new ArrayList<JobExecution>(count);
+        
+        for(var i = 0; i < count; ++i){
+            
+            var trigger = TriggerDefinition.builder()
+                    .name("cron")
+                    .type(TriggerType.CRON)
+                    .cron(CRON)
+                    .build();
+            
+            result.add(JobExecution.builder()
+                    .id(prefix + "-" + i)
+                    .jobId("job")
+                    .name(prefix + "-" + i)
+                    .type("bench")
+                    .status(ExecutionStatus.ACTIVE)
+                    .triggers(List.of(trigger))
+                    .build());
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Prints the retained heap per armed execution and runs the benchmark
+     * 
+     * @param args The arguments
+     * @throws Exception 
+     */
+    public static void main(String[] args) throws Exception {
+        
+        var count = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        
+        for(var type : List.of("quartz", "wheel")){
+            
+            var engine = "quartz".equals(type) ? new QuartzInstance(createScheduler()) : createWheel();
+            var executions = executions("fp", count);
+            
+            var before = usedHeap();
+            engine.scheduleAll(executions);
+            var after = usedHeap();
+            
+            System.out.println(String.format("%s: %d bytes per armed execution (%d executions)", type, (after - before) / count, engine.getExecutions().size()));
+            
+            engine.stop();
+        }
+        
+        var options = new OptionsBuilder()
+                .include(SchedulingEngineBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        
+        new Runner(options).run();
+    }
+    
+    /**
+     * Gets the used heap after garbage collection
+     * 
+     * @return Returns used bytes
+     * @throws InterruptedException 
+     */
+    private static long usedHeap() throws InterruptedException {
+        
+        for(var i = 0; i < 3; ++i){
+            System.gc();
+            Thread.sleep(100);
+        }
+        
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+}
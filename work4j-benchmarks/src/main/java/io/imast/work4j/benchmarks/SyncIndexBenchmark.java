@@ -0,0 +1,346 @@
+package io.imast.work4j.benchmarks;
+
+import io.imast.work4j.channel.SchedulerChannel;
+import io.imast.work4j.model.cluster.ClusterWorker;
+import io.imast.work4j.model.execution.ExecutionIndexEntry;
+import io.imast.work4j.model.execution.ExecutionStatus;
+import io.imast.work4j.model.execution.JobExecution;
+import io.imast.work4j.worker.WorkerConfiguration;
+import io.imast.work4j.worker.WorkerException;
+import io.imast.work4j.worker.controller.PollingWorkerListener;
+import io.imast.work4j.worker.instance.ExecutionKey;
+import io.imast.work4j.worker.instance.SchedulingEngine;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The benchmark of a single index sync of polling listener
+ * 
+ * Runs PollingWorkerListener.syncIndex against an in-memory engine holding the local state, with the
+ * index either matching the local state or differing in about 1% of entries (change events are
+ * raised, missing executions are requested from a channel that returns nothing). Run the main
+ * method to get gc.alloc.rate.norm as well.
+ * 
+ * @author davitp
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class SyncIndexBenchmark {
+    
+    /**
+     * The number of index entries
+     */
+    @Param({ "10000", "100000", "1000000" })
+    public int size;
+    
+    /**
+     * The index matching local state
+     */
+    protected List<ExecutionIndexEntry> matching;
+    
+    /**
+     * The index differing from local state
+     */
+    protected List<ExecutionIndexEntry> changed;
+    
+    /**
+     * The listener
+     */
+    protected SyncListener listener;
+    
+    /**
+     * Prepares the local state and the indexes
+     */
+    @Setup(Level.Trial)
+    public void setup(){
+        
+        var random = new Random(42);
+        var engine = new LocalEngine();
+        
+        this.matching = new ArrayList<>(this.size);
+        this.changed = new ArrayList<>(this.size);
+        
+        for(var i = 0; i < this.size; ++i){
+            
+            // ObjectId-like identifiers
+            var id = String.format("%08x%016x", i, random.nextLong());
+            var jobId = String.format("%08x%016x", i / 10, 0L);
+            var status = random.nextInt(100) < 95 ? ExecutionStatus.ACTIVE : ExecutionStatus.PAUSED;
+            var key = new ExecutionKey(id, jobId);
+            
+            engine.executions.add(key);
+            
+            if(status == ExecutionStatus.PAUSED){
+                engine.paused.add(key);
+            }
+            
+            this.matching.add(ExecutionIndexEntry.builder().id(id).jobId(jobId).status(status).build());
+            
+            // one percent changes status or is completed
+            if(random.nextInt(100) == 0){
+                status = status == ExecutionStatus.ACTIVE ? ExecutionStatus.PAUSED : ExecutionStatus.COMPLETED;
+            }
+            
+            this.changed.add(ExecutionIndexEntry.builder().id(id).jobId(jobId).status(status).build());
+            
+            // one percent is missing locally
+            if(random.nextInt(100) == 0){
+                var missing = String.format("%08x%016x", this.size + i, random.nextLong());
+                this.changed.add(ExecutionIndexEntry.builder().id(missing).jobId(jobId).status(ExecutionStatus.ACTIVE).build());
+            }
+        }
+        
+        this.listener = new SyncListener(engine, emptyChannel());
+        this.listener.add(message -> {});
+    }
+    
+    /**
+     * Stops the listener
+     */
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        this.listener.stop();
+    }
+    
+    /**
+     * Syncs the index matching local state
+     * 
+     * @return Returns if changed
+     * @throws WorkerException 
+     */
+    @Benchmark
+    public boolean unchanged() throws WorkerException {
+        return this.listener.sync(this.matching);
+    }
+    
+    /**
+     * Syncs the index differing from local state
+     * 
+     * @return Returns if changed
+     * @throws WorkerException 
+     */
+    @Benchmark
+    public boolean changed() throws WorkerException {
+        return this.listener.sync(this.changed);
+    }
+    
+    /**
+     * Creates the channel without any executions
+     * 
+     * @return Returns channel
+     */
+    protected static SchedulerChannel emptyChannel(){
+        return (SchedulerChannel) Proxy.newProxyInstance(SchedulerChannel.class.getClassLoader(), new Class<?>[] { SchedulerChannel.class }, (proxy, method, args) -> {
+            return Flux.class.isAssignableFrom(method.getReturnType()) ? Flux.empty() : Mono.empty();
+        });
+    }
+    
+    /**
+     * Runs the benchmark with allocation profiling
+     * 
+     * @param args The arguments
+     * @throws RunnerException
+     */
+    public static void main(String[] args) throws RunnerException {
+        
+        var options = new OptionsBuilder()
+                .include(SyncIndexBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        
+        new Runner(options).run();
+    }
+    
+    /**
+     * The polling listener exposing the index sync
+     */
+    public static class SyncListener extends PollingWorkerListener {
+        
+        /**
+         * Creates new listener
+         * 
+         * @param engine The engine
+         * @param channel The channel
+         */
+        public SyncListener(SchedulingEngine engine, SchedulerChannel channel){
+            super(ClusterWorker.builder().name("benchmark").build(), engine, channel, WorkerConfiguration.builder().build());
+        }
+        
+        /**
+         * Syncs the index
+         * 
+         * @param entries The index entries
+         * @return Returns if changed
+         * @throws WorkerException 
+         */
+        public boolean sync(List<ExecutionIndexEntry> entries) throws WorkerException {
+            
+            // loads are not awaited, allow the next one
+            this.loading.set(false);
+            
+            return this.syncIndex(entries);
+        }
+    }
+    
+    /**
+     * The in-memory engine with constant local state
+     */
+    public static class LocalEngine implements SchedulingEngine {
+        
+        /**
+         * The executions
+         */
+        protected final Set<ExecutionKey> executions = new HashSet<>();
+        
+        /**
+         * The paused executions
+         */
+        protected final Set<ExecutionKey> paused = new HashSet<>();
+        
+        /**
+         * Starts the engine
+         */
+        @Override
+        public void start(){
+        }
+        
+        /**
+         * Stops the engine
+         */
+        @Override
+        public void stop(){
+        }
+        
+        /**
+         * Schedules the job execution (ignored)
+         * 
+         * @param execution The job execution
+         */
+        @Override
+        public void schedule(JobExecution execution){
+        }
+        
+        /**
+         * Schedules the job executions (ignored)
+         * 
+         * @param executions The job executions
+         */
+        @Override
+        public void scheduleAll(Collection<JobExecution> executions){
+        }
+        
+        /**
+         * Pauses the job execution (ignored)
+         * 
+         * @param key The execution key
+         */
+        @Override
+        public void pause(ExecutionKey key){
+        }
+        
+        /**
+         * Resumes the job execution (ignored)
+         * 
+         * @param key The execution key
+         */
+        @Override
+        public void resume(ExecutionKey key){
+        }
+        
+        /**
+         * Unschedules the job execution (ignored)
+         * 
+         * @param key The execution key
+         */
+        @Override
+        public void unschedule(ExecutionKey key){
+        }
+        
+        /**
+         * Gets the copy of executions
+         * 
+         * @return Returns executions
+         */
+        @Override
+        public Set<ExecutionKey> getExecutions(){
+            return new HashSet<>(this.executions);
+        }
+        
+        /**
+         * Gets the copy of paused executions
+         * 
+         * @return Returns paused executions
+         */
+        @Override
+        public Set<ExecutionKey> getPausedExecutions(){
+            return new HashSet<>(this.paused);
+        }
+        
+        /**
+         * Gets the view of executions
+         * 
+         * @return Returns executions
+         */
+        @Override
+        public Set<ExecutionKey> getExecutionsView(){
+            return Collections.unmodifiableSet(this.executions);
+        }
+        
+        /**
+         * Gets the view of paused executions
+         * 
+         * @return Returns paused executions
+         */
+        @Override
+        public Set<ExecutionKey> getPausedExecutionsView(){
+            return Collections.unmodifiableSet(this.paused);
+        }
+        
+        /**
+         * Gets the version of local state (never changes)
+         * 
+         * @return Returns version
+         */
+        @Override
+        public long getShadowVersion(){
+            return 1;
+        }
+        
+        /**
+         * Reconciles the local state (ignored)
+         */
+        @Override
+        public void reconcile(){
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package io.imast.work4j.channel.rsocket;
+
+import io.imast.work4j.model.execution.ExecutionIndexEntry;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The change of execution index pushed to worker
+ * 
+ * @author davitp
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder(toBuilder = true)
+public class ExecutionIndexDelta {
+    
+    /**
+     * The index version after applying delta
+     */
+    private String etag;
+    
+    /**
+     * Indicates that delta is a full index (replaces the known state)
+     */
+    private boolean full;
+    
+    /**
+     * The new or modified entries
+     */
+    private List<ExecutionIndexEntry> upserts;
+    
+    /**
+     * The identifiers of removed executions
+     */
+    private List<String> removed;
+}
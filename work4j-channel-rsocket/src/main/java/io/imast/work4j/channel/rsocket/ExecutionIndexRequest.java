@@ -0,0 +1,33 @@
+package io.imast.work4j.channel.rsocket;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The execution index request of worker
+ * 
+ * @author davitp
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder(toBuilder = true)
+public class ExecutionIndexRequest {
+    
+    /**
+     * The target cluster
+     */
+    private String cluster;
+    
+    /**
+     * The registered worker name (if any)
+     */
+    private String worker;
+    
+    /**
+     * The last known index version (if any)
+     */
+    private String etag;
+}
@@ -0,0 +1,135 @@
+package io.imast.work4j.channel.rsocket;
+
+import io.imast.work4j.channel.index.CompactExecutionIndex;
+import io.imast.work4j.channel.index.ExecutionIndexSnapshot;
+import io.imast.work4j.model.execution.ExecutionIndexEntry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The known state of execution index on one side of the stream
+ * 
+ * Server side computes deltas against the last pushed state, client side applies them to rebuild the index.
+ * 
+ * @author davitp
+ */
+public class ExecutionIndexState {
+    
+    /**
+     * The entries by execution id
+     */
+    protected final Map<String, ExecutionIndexEntry> entries;
+    
+    /**
+     * The version of known state (null if unknown)
+     */
+    protected String etag;
+    
+    /**
+     * Creates new instance of index state
+     */
+    public ExecutionIndexState(){
+        this.entries = new HashMap<>();
+    }
+    
+    /**
+     * Computes the delta to the given index and moves state to it
+     * 
+     * @param index The current index entries
+     * @return Returns delta or null if nothing changed
+     */
+    public synchronized ExecutionIndexDelta diff(List<ExecutionIndexEntry> index){
+        
+        // the version of index
+        var current = CompactExecutionIndex.etag(index);
+        
+        // nothing changed
+        if(current.equals(this.etag)){
+            return null;
+        }
+        
+        // the first push is the full index
+        var full = this.etag == null;
+        
+        // the changed entries
+        var upserts = new ArrayList<ExecutionIndexEntry>();
+        
+        // the remaining ids are removed
+        var removed = new HashMap<>(this.entries);
+        
+        for(var entry : index){
+            
+            var known = removed.remove(entry.getId());
+            
+            if(full || known == null || !Objects.equals(known.getJobId(), entry.getJobId()) || known.getStatus() != entry.getStatus()){
+                upserts.add(entry);
+            }
+        }
+        
+        // move to new state
+        this.entries.clear();
+        index.forEach(e -> this.entries.put(e.getId(), e));
+        this.etag = current;
+        
+        return new ExecutionIndexDelta(current, full, upserts, new ArrayList<>(removed.keySet()));
+    }
+    
+    /**
+     * Applies the delta to the state
+     * 
+     * @param delta The index delta
+     */
+    public synchronized void apply(ExecutionIndexDelta delta){
+        
+        // full index replaces state
+        if(delta.isFull()){
+            this.entries.clear();
+        }
+        
+        if(delta.getRemoved() != null){
+            delta.getRemoved().forEach(this.entries::remove);
+        }
+        
+        if(delta.getUpserts() != null){
+            delta.getUpserts().forEach(e -> this.entries.put(e.getId(), e));
+        }
+        
+        this.etag = delta.getEtag();
+    }
+    
+    /**
+     * Forgets the state
+     */
+    public synchronized void reset(){
+        this.entries.clear();
+        this.etag = null;
+    }
+    
+    /**
+     * Checks if state is known
+     * 
+     * @return Returns true if known
+     */
+    public synchronized boolean isKnown(){
+        return this.etag != null;
+    }
+    
+    /**
+     * Gets the snapshot of state relative to the given version
+     * 
+     * @param etag The version known by consumer
+     * @return Returns index snapshot
+     */
+    public synchronized ExecutionIndexSnapshot snapshot(String etag){
+        
+        // same version, nothing changed
+        if(this.etag != null && this.etag.equals(etag)){
+            return ExecutionIndexSnapshot.builder().etag(this.etag).notModified(true).build();
+        }
+        
+        return ExecutionIndexSnapshot.builder().etag(this.etag).entries(new ArrayList<>(this.entries.values())).build();
+    }
+}
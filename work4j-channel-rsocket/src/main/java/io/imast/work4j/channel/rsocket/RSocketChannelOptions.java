@@ -0,0 +1,73 @@
+package io.imast.work4j.channel.rsocket;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The options of RSocket scheduler channel
+ * 
+ * @author davitp
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RSocketChannelOptions {
+    
+    /**
+     * The scheduler server host
+     */
+    @Builder.Default
+    private String host = "localhost";
+    
+    /**
+     * The scheduler server port
+     */
+    @Builder.Default
+    private int port = 7000;
+    
+    /**
+     * The interval of keep-alive frames
+     */
+    @Builder.Default
+    private Duration keepAliveInterval = Duration.ofSeconds(20);
+    
+    /**
+     * The maximum time without keep-alive acknowledgement before connection is dropped
+     */
+    @Builder.Default
+    private Duration keepAliveMaxLifetime = Duration.ofSeconds(90);
+    
+    /**
+     * The initial delay of reconnecting
+     */
+    @Builder.Default
+    private Duration reconnectMinBackoff = Duration.ofSeconds(1);
+    
+    /**
+     * The maximum delay of reconnecting
+     */
+    @Builder.Default
+    private Duration reconnectMaxBackoff = Duration.ofSeconds(30);
+    
+    /**
+     * Subscribe to pushed index deltas instead of requesting index on each poll
+     */
+    @Builder.Default
+    private boolean streamIndex = true;
+    
+    /**
+     * Send single iterations as fire-and-forget (no result or receipt is returned)
+     */
+    @Builder.Default
+    private boolean fireAndForgetIterations = true;
+    
+    /**
+     * Send heartbeats as fire-and-forget (no updated worker is returned)
+     */
+    @Builder.Default
+    private boolean fireAndForgetHeartbeats = true;
+}
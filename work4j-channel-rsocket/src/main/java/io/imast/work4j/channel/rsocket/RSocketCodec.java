@@ -0,0 +1,523 @@
+package io.imast.work4j.channel.rsocket;
+
+import com.google.gson.reflect.TypeToken;
+import io.imast.core.json.Json;
+import io.imast.work4j.channel.batch.ExecutionCompletion;
+import io.imast.work4j.channel.index.CompactExecutionIndex;
+import io.imast.work4j.channel.index.ExecutionIndexSnapshot;
+import io.imast.work4j.model.cluster.WorkerActivity;
+import io.imast.work4j.model.cluster.WorkerHeartbeat;
+import io.imast.work4j.model.execution.CompletionSeverity;
+import io.imast.work4j.model.iterate.IterationInput;
+import io.imast.work4j.model.iterate.IterationStatus;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The compact binary codec of RSocket scheduler channel
+ * 
+ * Frequent messages (index requests and deltas, iterations, completions and heartbeats) are written 
+ * as binary records with length-prefixed UTF-8 strings, enum ordinals and optional numbers, and index 
+ * entries use the compact execution index format. Rare and rich models (executions, workers) are JSON.
+ * 
+ * @author davitp
+ */
+public class RSocketCodec {
+    
+    /**
+     * The iteration statuses
+     */
+    private static final IterationStatus[] ITERATION_STATUSES = IterationStatus.values();
+    
+    /**
+     * The completion severities
+     */
+    private static final CompletionSeverity[] SEVERITIES = CompletionSeverity.values();
+    
+    /**
+     * The worker activities
+     */
+    private static final WorkerActivity[] ACTIVITIES = WorkerActivity.values();
+    
+    /**
+     * The type of iteration payload
+     */
+    private static final Type PAYLOAD_TYPE = new TypeToken<Map<String, Object>>(){}.getType();
+    
+    /**
+     * Encodes the index request
+     * 
+     * @param request The index request
+     * @return Returns encoded request
+     */
+    public static byte[] encodeIndexRequest(ExecutionIndexRequest request){
+        return write(output -> {
+            writeString(output, request.getCluster());
+            writeString(output, request.getWorker());
+            writeString(output, request.getEtag());
+        });
+    }
+    
+    /**
+     * Decodes the index request
+     * 
+     * @param data The encoded request
+     * @return Returns index request
+     */
+    public static ExecutionIndexRequest decodeIndexRequest(byte[] data){
+        return read(data, input -> new ExecutionIndexRequest(readString(input), readString(input), readString(input)));
+    }
+    
+    /**
+     * Encodes the index snapshot
+     * 
+     * @param snapshot The index snapshot
+     * @return Returns encoded snapshot
+     */
+    public static byte[] encodeSnapshot(ExecutionIndexSnapshot snapshot){
+        return write(output -> {
+            writeString(output, snapshot.getEtag());
+            output.writeBoolean(snapshot.isNotModified());
+            writeBytes(output, snapshot.getEntries() == null ? null : CompactExecutionIndex.encode(snapshot.getEntries(), true));
+        });
+    }
+    
+    /**
+     * Decodes the index snapshot
+     * 
+     * @param data The encoded snapshot
+     * @return Returns index snapshot
+     */
+    public static ExecutionIndexSnapshot decodeSnapshot(byte[] data){
+        return read(data, input -> {
+            
+            var etag = readString(input);
+            var notModified = input.readBoolean();
+            var entries = readBytes(input);
+            
+            return new ExecutionIndexSnapshot(etag, notModified, entries == null ? null : CompactExecutionIndex.decode(entries));
+        });
+    }
+    
+    /**
+     * Encodes the index delta
+     * 
+     * @param delta The index delta
+     * @return Returns encoded delta
+     */
+    public static byte[] encodeDelta(ExecutionIndexDelta delta){
+        return write(output -> {
+            writeString(output, delta.getEtag());
+            output.writeBoolean(delta.isFull());
+            writeBytes(output, CompactExecutionIndex.encode(delta.getUpserts() == null ? List.of() : delta.getUpserts(), true));
+            writeStrings(output, delta.getRemoved());
+        });
+    }
+    
+    /**
+     * Decodes the index delta
+     * 
+     * @param data The encoded delta
+     * @return Returns index delta
+     */
+    public static ExecutionIndexDelta decodeDelta(byte[] data){
+        return read(data, input -> {
+            
+            var etag = readString(input);
+            var full = input.readBoolean();
+            var upserts = CompactExecutionIndex.decode(readBytes(input));
+            var removed = readStrings(input);
+            
+            return new ExecutionIndexDelta(etag, full, upserts, removed);
+        });
+    }
+    
+    /**
+     * Encodes the list of identifiers
+     * 
+     * @param ids The identifiers
+     * @return Returns encoded identifiers
+     */
+    public static byte[] encodeIds(List<String> ids){
+        return write(output -> writeStrings(output, ids));
+    }
+    
+    /**
+     * Decodes the list of identifiers
+     * 
+     * @param data The encoded identifiers
+     * @return Returns identifiers
+     */
+    public static List<String> decodeIds(byte[] data){
+        return read(data, RSocketCodec::readStrings);
+    }
+    
+    /**
+     * Encodes the iterations
+     * 
+     * @param iterations The iterations
+     * @return Returns encoded iterations
+     */
+    public static byte[] encodeIterations(List<IterationInput> iterations){
+        return write(output -> {
+            
+            output.writeInt(iterations.size());
+            
+            for(var iteration : iterations){
+                writeString(output, iteration.getJobId());
+                writeString(output, iteration.getExecutionId());
+                writeString(output, iteration.getWorker());
+                output.writeByte(iteration.getStatus() == null ? -1 : iteration.getStatus().ordinal());
+                writeString(output, iteration.getMessage());
+                writeString(output, iteration.getPayload() == null ? null : Json.to(iteration.getPayload()));
+                writeLong(output, iteration.getRuntime());
+                writeLong(output, iteration.getTimestamp() == null ? null : iteration.getTimestamp().getTime());
+            }
+        });
+    }
+    
+    /**
+     * Decodes the iterations
+     * 
+     * @param data The encoded iterations
+     * @return Returns iterations
+     */
+    public static List<IterationInput> decodeIterations(byte[] data){
+        return read(data, input -> {
+            
+            var count = input.readInt();
+            var result = new ArrayList<IterationInput>(count);
+            
+            for(var i = 0; i < count; ++i){
+                
+                var iteration = new IterationInput();
+                iteration.setJobId(readString(input));
+                iteration.setExecutionId(readString(input));
+                iteration.setWorker(readString(input));
+                
+                var status = input.readByte();
+                iteration.setStatus(status < 0 ? null : ITERATION_STATUSES[status]);
+                iteration.setMessage(readString(input));
+                
+                var payload = readString(input);
+                iteration.setPayload(payload == null ? null : Json.from(payload, PAYLOAD_TYPE));
+                iteration.setRuntime(readLong(input));
+                
+                var timestamp = readLong(input);
+                iteration.setTimestamp(timestamp == null ? null : new Date(timestamp));
+                
+                result.add(iteration);
+            }
+            
+            return result;
+        });
+    }
+    
+    /**
+     * Encodes the completions
+     * 
+     * @param completions The completions
+     * @return Returns encoded completions
+     */
+    public static byte[] encodeCompletions(List<ExecutionCompletion> completions){
+        return write(output -> {
+            
+            output.writeInt(completions.size());
+            
+            for(var completion : completions){
+                writeString(output, completion.getId());
+                output.writeByte(completion.getSeverity() == null ? -1 : completion.getSeverity().ordinal());
+            }
+        });
+    }
+    
+    /**
+     * Decodes the completions
+     * 
+     * @param data The encoded completions
+     * @return Returns completions
+     */
+    public static List<ExecutionCompletion> decodeCompletions(byte[] data){
+        return read(data, input -> {
+            
+            var count = input.readInt();
+            var result = new ArrayList<ExecutionCompletion>(count);
+            
+            for(var i = 0; i < count; ++i){
+                
+                var id = readString(input);
+                var severity = input.readByte();
+                
+                result.add(new ExecutionCompletion(id, severity < 0 ? null : SEVERITIES[severity]));
+            }
+            
+            return result;
+        });
+    }
+    
+    /**
+     * Encodes the heartbeat
+     * 
+     * @param heartbeat The heartbeat
+     * @return Returns encoded heartbeat
+     */
+    public static byte[] encodeHeartbeat(WorkerHeartbeat heartbeat){
+        return write(output -> {
+            writeString(output, heartbeat.getCluster());
+            writeString(output, heartbeat.getName());
+            output.writeByte(heartbeat.getActivity() == null ? -1 : heartbeat.getActivity().ordinal());
+        });
+    }
+    
+    /**
+     * Decodes the heartbeat
+     * 
+     * @param data The encoded heartbeat
+     * @return Returns heartbeat
+     */
+    public static WorkerHeartbeat decodeHeartbeat(byte[] data){
+        return read(data, input -> {
+            
+            var heartbeat = new WorkerHeartbeat();
+            heartbeat.setCluster(readString(input));
+            heartbeat.setName(readString(input));
+            
+            var activity = input.readByte();
+            heartbeat.setActivity(activity < 0 ? null : ACTIVITIES[activity]);
+            
+            return heartbeat;
+        });
+    }
+    
+    /**
+     * Encodes the object as JSON
+     * 
+     * @param value The object
+     * @return Returns encoded object
+     */
+    public static byte[] encodeJson(Object value){
+        return Json.to(value).getBytes(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Decodes the object from JSON
+     * 
+     * @param <T> The type of object
+     * @param data The encoded object
+     * @param type The type of object
+     * @return Returns decoded object
+     */
+    public static <T> T decodeJson(byte[] data, Type type){
+        return Json.from(new String(data, StandardCharsets.UTF_8), type);
+    }
+    
+    /**
+     * Writes the binary record
+     * 
+     * @param writer The record writer
+     * @return Returns record bytes
+     */
+    private static byte[] write(Writer writer){
+        
+        var output = new ByteArrayOutputStream(64);
+        
+        try(var data = new DataOutputStream(output)){
+            writer.write(data);
+        }
+        catch(IOException error){
+            throw new IllegalStateException("Could not encode channel message", error);
+        }
+        
+        return output.toByteArray();
+    }
+    
+    /**
+     * Reads the binary record
+     * 
+     * @param <T> The type of record
+     * @param data The record bytes
+     * @param reader The record reader
+     * @return Returns record
+     */
+    private static <T> T read(byte[] data, Reader<T> reader){
+        try(var input = new DataInputStream(new ByteArrayInputStream(data))){
+            return reader.read(input);
+        }
+        catch(IOException error){
+            throw new IllegalArgumentException("Could not decode channel message", error);
+        }
+    }
+    
+    /**
+     * Writes the nullable string
+     * 
+     * @param output The output
+     * @param value The value
+     * @throws IOException 
+     */
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        writeBytes(output, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Reads the nullable string
+     * 
+     * @param input The input
+     * @return Returns value
+     * @throws IOException 
+     */
+    private static String readString(DataInputStream input) throws IOException {
+        var bytes = readBytes(input);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Writes the nullable list of strings
+     * 
+     * @param output The output
+     * @param values The values
+     * @throws IOException 
+     */
+    private static void writeStrings(DataOutputStream output, List<String> values) throws IOException {
+        
+        output.writeInt(values == null ? -1 : values.size());
+        
+        if(values == null){
+            return;
+        }
+        
+        for(var value : values){
+            writeString(output, value);
+        }
+    }
+    
+    /**
+     * Reads the nullable list of strings
+     * 
+     * @param input The input
+     * @return Returns values
+     * @throws IOException 
+     */
+    private static List<String> readStrings(DataInputStream input) throws IOException {
+        
+        var count = input.readInt();
+        
+        if(count < 0){
+            return null;
+        }
+        
+        var result = new ArrayList<String>(count);
+        
+        for(var i = 0; i < count; ++i){
+            result.add(readString(input));
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Writes the nullable bytes
+     * 
+     * @param output The output
+     * @param value The value
+     * @throws IOException 
+     */
+    private static void writeBytes(DataOutputStream output, byte[] value) throws IOException {
+        
+        output.writeInt(value == null ? -1 : value.length);
+        
+        if(value != null){
+            output.write(value);
+        }
+    }
+    
+    /**
+     * Reads the nullable bytes
+     * 
+     * @param input The input
+     * @return Returns value
+     * @throws IOException 
+     */
+    private static byte[] readBytes(DataInputStream input) throws IOException {
+        
+        var length = input.readInt();
+        
+        if(length < 0){
+            return null;
+        }
+        
+        var result = new byte[length];
+        input.readFully(result);
+        
+        return result;
+    }
+    
+    /**
+     * Writes the nullable number
+     * 
+     * @param output The output
+     * @param value The value
+     * @throws IOException 
+     */
+    private static void writeLong(DataOutputStream output, Long value) throws IOException {
+        
+        output.writeBoolean(value != null);
+        
+        if(value != null){
+            output.writeLong(value);
+        }
+    }
+    
+    /**
+     * Reads the nullable number
+     * 
+     * @param input The input
+     * @return Returns value
+     * @throws IOException 
+     */
+    private static Long readLong(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readLong() : null;
+    }
+    
+    /**
+     * The binary record writer
+     */
+    @FunctionalInterface
+    private interface Writer {
+        
+        /**
+         * Writes the record
+         * 
+         * @param output The output
+         * @throws IOException 
+         */
+        void write(DataOutputStream output) throws IOException;
+    }
+    
+    /**
+     * The binary record reader
+     * 
+     * @param <T> The type of record
+     */
+    @FunctionalInterface
+    private interface Reader<T> {
+        
+        /**
+         * Reads the record
+         * 
+         * @param input The input
+         * @return Returns record
+         * @throws IOException 
+         */
+        T read(DataInputStream input) throws IOException;
+    }
+}
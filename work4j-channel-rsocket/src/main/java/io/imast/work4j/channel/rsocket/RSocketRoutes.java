@@ -0,0 +1,64 @@
+package io.imast.work4j.channel.rsocket;
+
+/**
+ * The routes of RSocket scheduler channel (sent as UTF-8 metadata of each request)
+ * 
+ * @author davitp
+ */
+public class RSocketRoutes {
+    
+    /**
+     * The execution index request (request-response)
+     */
+    public static final String INDEX = "index";
+    
+    /**
+     * The execution index deltas (request-stream)
+     */
+    public static final String INDEX_STREAM = "index.stream";
+    
+    /**
+     * The executions by ids (request-response)
+     */
+    public static final String EXECUTIONS = "executions";
+    
+    /**
+     * The execution completion (request-response)
+     */
+    public static final String COMPLETE = "complete";
+    
+    /**
+     * The batch of execution completions (request-response)
+     */
+    public static final String COMPLETE_ALL = "complete.all";
+    
+    /**
+     * The iteration (request-response or fire-and-forget)
+     */
+    public static final String ITERATE = "iterate";
+    
+    /**
+     * The batch of iterations (request-response)
+     */
+    public static final String ITERATE_ALL = "iterate.all";
+    
+    /**
+     * The iteration with ingestion receipt (request-response)
+     */
+    public static final String SUBMIT = "submit";
+    
+    /**
+     * The batch of iterations with ingestion receipts (request-response)
+     */
+    public static final String SUBMIT_ALL = "submit.all";
+    
+    /**
+     * The worker registration (request-response)
+     */
+    public static final String REGISTRATION = "registration";
+    
+    /**
+     * The worker heartbeat (request-response or fire-and-forget)
+     */
+    public static final String HEARTBEAT = "heartbeat";
+}
@@ -0,0 +1,411 @@
+package io.imast.work4j.channel.rsocket;
+
+import com.google.gson.reflect.TypeToken;
+import io.imast.work4j.channel.SchedulerChannel;
+import io.imast.work4j.channel.batch.ExecutionCompletion;
+import io.imast.work4j.channel.index.ExecutionIndexSnapshot;
+import io.imast.work4j.model.cluster.ClusterWorker;
+import io.imast.work4j.model.cluster.WorkerHeartbeat;
+import io.imast.work4j.model.cluster.WorkerJoinInput;
+import io.imast.work4j.model.execution.CompletionSeverity;
+import io.imast.work4j.model.execution.ExecutionIndexEntry;
+import io.imast.work4j.model.execution.JobExecution;
+import io.imast.work4j.model.iterate.Iteration;
+import io.imast.work4j.model.iterate.IngestionStatus;
+import io.imast.work4j.model.iterate.IterationInput;
+import io.imast.work4j.model.iterate.IterationReceipt;
+import io.rsocket.RSocket;
+import io.rsocket.core.RSocketConnector;
+import io.rsocket.transport.ClientTransport;
+import io.rsocket.transport.netty.client.TcpClientTransport;
+import io.rsocket.util.DefaultPayload;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * The worker-side scheduler channel over a single multiplexed RSocket connection
+ * 
+ * The connection is established lazily and re-established with backoff if lost. Execution index 
+ * is kept up to date by a stream of deltas pushed by server, single iterations and heartbeats are 
+ * sent as fire-and-forget by default, and the rest of operations are request-response.
+ * 
+ * @author davitp
+ */
+@Slf4j
+public class RSocketSchedulerChannel implements SchedulerChannel, AutoCloseable {
+    
+    /**
+     * The type of executions list
+     */
+    private static final Type EXECUTIONS_TYPE = new TypeToken<List<JobExecution>>(){}.getType();
+    
+    /**
+     * The type of iterations list
+     */
+    private static final Type ITERATIONS_TYPE = new TypeToken<List<Iteration>>(){}.getType();
+    
+    /**
+     * The type of receipts list
+     */
+    private static final Type RECEIPTS_TYPE = new TypeToken<List<IterationReceipt>>(){}.getType();
+    
+    /**
+     * The channel options
+     */
+    protected final RSocketChannelOptions options;
+    
+    /**
+     * The shared connection (reconnects on demand)
+     */
+    protected final Mono<RSocket> connection;
+    
+    /**
+     * The last established connection
+     */
+    protected final AtomicReference<RSocket> current;
+    
+    /**
+     * The streamed index states by cluster and worker
+     */
+    protected final Map<String, ExecutionIndexState> indexes;
+    
+    /**
+     * The index stream subscriptions by cluster and worker
+     */
+    protected final Map<String, Disposable> streams;
+    
+    /**
+     * Indicates if channel is closed
+     */
+    protected volatile boolean closed;
+    
+    /**
+     * Creates new instance of TCP channel
+     * 
+     * @param options The channel options
+     */
+    public RSocketSchedulerChannel(RSocketChannelOptions options){
+        this(options, TcpClientTransport.create(options.getHost(), options.getPort()));
+    }
+    
+    /**
+     * Creates new instance of channel over the given transport
+     * 
+     * @param options The channel options
+     * @param transport The client transport
+     */
+    public RSocketSchedulerChannel(RSocketChannelOptions options, ClientTransport transport){
+        this.options = options;
+        this.current = new AtomicReference<>();
+        this.indexes = new ConcurrentHashMap<>();
+        this.streams = new ConcurrentHashMap<>();
+        this.connection = RSocketConnector.create()
+                .keepAlive(options.getKeepAliveInterval(), options.getKeepAliveMaxLifetime())
+                .reconnect(this.backoff())
+                .connect(transport)
+                .doOnNext(this.current::set);
+    }
+    
+    /**
+     * Pull job groups for the given cluster
+     * 
+     * @param cluster The target cluster
+     * @return Returns execution index entries
+     */
+    @Override
+    public Mono<List<ExecutionIndexEntry>> executionIndex(String cluster) {
+        return this.request(RSocketRoutes.INDEX, RSocketCodec.encodeIndexRequest(new ExecutionIndexRequest(cluster, null, null)))
+                .map(data -> RSocketCodec.decodeSnapshot(data).getEntries());
+    }
+    
+    /**
+     * Pull job groups the given worker is able to run (by types and labels)
+     * 
+     * @param cluster The target cluster
+     * @param worker The registered worker name
+     * @return Returns execution index entries
+     */
+    @Override
+    public Mono<List<ExecutionIndexEntry>> executionIndex(String cluster, String worker) {
+        return this.executionIndex(cluster, worker, null).map(ExecutionIndexSnapshot::getEntries);
+    }
+    
+    /**
+     * Pull versioned job groups the given worker is able to run (served from pushed deltas when streaming)
+     * 
+     * @param cluster The target cluster
+     * @param worker The registered worker name
+     * @param etag The last known index version (if any)
+     * @return Returns execution index snapshot
+     */
+    @Override
+    public Mono<ExecutionIndexSnapshot> executionIndex(String cluster, String worker, String etag) {
+        
+        // serve from the streamed state once it is known
+        if(this.options.isStreamIndex() && worker != null){
+            
+            var state = this.indexState(cluster, worker);
+            
+            if(state.isKnown()){
+                return Mono.just(state.snapshot(etag));
+            }
+        }
+        
+        // request the index until stream catches up
+        return this.request(RSocketRoutes.INDEX, RSocketCodec.encodeIndexRequest(new ExecutionIndexRequest(cluster, worker, etag)))
+                .map(RSocketCodec::decodeSnapshot);
+    }
+    
+    /**
+     * Streams the execution index deltas of the worker
+     * 
+     * @param cluster The target cluster
+     * @param worker The registered worker name
+     * @return Returns the stream of deltas (starting with full index)
+     */
+    public Flux<ExecutionIndexDelta> indexStream(String cluster, String worker){
+        
+        // the request data
+        var data = RSocketCodec.encodeIndexRequest(new ExecutionIndexRequest(cluster, worker, null));
+        
+        return this.connection
+                .flatMapMany(socket -> socket.requestStream(DefaultPayload.create(data, RSocketRoutes.INDEX_STREAM.getBytes(StandardCharsets.UTF_8))))
+                .map(payload -> RSocketCodec.decodeDelta(SchedulerRSocketHandler.consume(payload)));
+    }
+    
+    /**
+     * Exchange current status with modified entries
+     * 
+     * @param ids The executions request ids
+     * @return Returns executions response
+     */
+    @Override
+    public Mono<List<JobExecution>> executions(List<String> ids) {
+        return this.request(RSocketRoutes.EXECUTIONS, RSocketCodec.encodeIds(ids))
+                .map(data -> RSocketCodec.<List<JobExecution>>decodeJson(data, EXECUTIONS_TYPE));
+    }
+    
+    /**
+     * Completes the job execution in scheduler
+     * 
+     * @param id The identifier of job execution
+     * @param severity The severity of completion
+     * @return Returns updated job execution
+     */
+    @Override
+    public Mono<JobExecution> complete(String id, CompletionSeverity severity) {
+        return this.request(RSocketRoutes.COMPLETE, RSocketCodec.encodeCompletions(List.of(new ExecutionCompletion(id, severity))))
+                .map(data -> RSocketCodec.<JobExecution>decodeJson(data, JobExecution.class));
+    }
+    
+    /**
+     * Completes the batch of job executions in scheduler
+     * 
+     * @param completions The completions to report
+     * @return Returns updated job executions aligned with input (null if not updated)
+     */
+    @Override
+    public Mono<List<JobExecution>> completeAll(List<ExecutionCompletion> completions) {
+        return this.request(RSocketRoutes.COMPLETE_ALL, RSocketCodec.encodeCompletions(completions))
+                .map(data -> RSocketCodec.<List<JobExecution>>decodeJson(data, EXECUTIONS_TYPE));
+    }
+    
+    /**
+     * Adds iteration information to scheduler (no result if sent as fire-and-forget)
+     * 
+     * @param iteration The iteration to register
+     * @return Returns registered iteration
+     */
+    @Override
+    public Mono<Iteration> iterate(IterationInput iteration) {
+        
+        // the request data
+        var data = RSocketCodec.encodeIterations(List.of(iteration));
+        
+        if(this.options.isFireAndForgetIterations()){
+            return this.fire(RSocketRoutes.ITERATE, data).then(Mono.empty());
+        }
+        
+        return this.request(RSocketRoutes.ITERATE, data).map(result -> RSocketCodec.<Iteration>decodeJson(result, Iteration.class));
+    }
+    
+    /**
+     * Submits iteration information to scheduler (accepted receipt once sent if fire-and-forget)
+     * 
+     * @param iteration The iteration to register
+     * @return Returns the ingestion receipt
+     */
+    @Override
+    public Mono<IterationReceipt> submit(IterationInput iteration) {
+        
+        // the request data
+        var data = RSocketCodec.encodeIterations(List.of(iteration));
+        
+        if(this.options.isFireAndForgetIterations()){
+            return this.fire(RSocketRoutes.ITERATE, data).then(Mono.fromSupplier(() -> IterationReceipt.builder().status(IngestionStatus.ACCEPTED).build()));
+        }
+        
+        return this.request(RSocketRoutes.SUBMIT, data).map(result -> RSocketCodec.<IterationReceipt>decodeJson(result, IterationReceipt.class));
+    }
+    
+    /**
+     * Adds batch of iterations to scheduler
+     * 
+     * @param iterations The iterations to register
+     * @return Returns registered iterations aligned with input (null if not registered)
+     */
+    @Override
+    public Mono<List<Iteration>> iterateAll(List<IterationInput> iterations) {
+        return this.request(RSocketRoutes.ITERATE_ALL, RSocketCodec.encodeIterations(iterations))
+                .map(data -> RSocketCodec.<List<Iteration>>decodeJson(data, ITERATIONS_TYPE));
+    }
+    
+    /**
+     * Submits batch of iterations to scheduler with backpressure signal
+     * 
+     * @param iterations The iterations to register
+     * @return Returns ingestion receipts aligned with input (null if not registered)
+     */
+    @Override
+    public Mono<List<IterationReceipt>> submitAll(List<IterationInput> iterations) {
+        return this.request(RSocketRoutes.SUBMIT_ALL, RSocketCodec.encodeIterations(iterations))
+                .map(data -> RSocketCodec.<List<IterationReceipt>>decodeJson(data, RECEIPTS_TYPE));
+    }
+    
+    /**
+     * Registers worker into the scheduler
+     * 
+     * @param input The worker input to register
+     * @return Returns registered worker
+     */
+    @Override
+    public Mono<ClusterWorker> registration(WorkerJoinInput input) {
+        return this.request(RSocketRoutes.REGISTRATION, RSocketCodec.encodeJson(input))
+                .map(data -> RSocketCodec.<ClusterWorker>decodeJson(data, ClusterWorker.class));
+    }
+    
+    /**
+     * Send a Heartbeat signal to from worker scheduler (no result if sent as fire-and-forget)
+     * 
+     * @param heartbeat The worker reported heartbeat
+     * @return Returns updated agent definition
+     */
+    @Override
+    public Mono<ClusterWorker> heartbeat(WorkerHeartbeat heartbeat) {
+        
+        // the request data
+        var data = RSocketCodec.encodeHeartbeat(heartbeat);
+        
+        if(this.options.isFireAndForgetHeartbeats()){
+            return this.fire(RSocketRoutes.HEARTBEAT, data).then(Mono.empty());
+        }
+        
+        return this.request(RSocketRoutes.HEARTBEAT, data).map(result -> RSocketCodec.<ClusterWorker>decodeJson(result, ClusterWorker.class));
+    }
+    
+    /**
+     * Closes the index streams and connection
+     */
+    @Override
+    public void close() {
+        
+        this.closed = true;
+        
+        // stop streaming
+        this.streams.values().forEach(Disposable::dispose);
+        this.streams.clear();
+        
+        // close connection
+        var socket = this.current.getAndSet(null);
+        
+        if(socket != null){
+            socket.dispose();
+        }
+    }
+    
+    /**
+     * Gets the index state of worker (subscribes to deltas on first use)
+     * 
+     * @param cluster The target cluster
+     * @param worker The registered worker name
+     * @return Returns index state
+     */
+    protected ExecutionIndexState indexState(String cluster, String worker){
+        
+        // the key of stream
+        var key = cluster + "/" + worker;
+        
+        return this.indexes.computeIfAbsent(key, k -> {
+            
+            var state = new ExecutionIndexState();
+            
+            // apply deltas and start over with full index when stream is broken
+            var stream = this.indexStream(cluster, worker)
+                    .doOnNext(state::apply)
+                    .doOnError(error -> {
+                        log.warn("RSocketSchedulerChannel: Execution index stream is broken, resubscribing", error);
+                        state.reset();
+                    })
+                    .doOnComplete(state::reset)
+                    .retryWhen(this.backoff())
+                    .repeatWhen(completed -> completed.delayElements(this.options.getReconnectMinBackoff()))
+                    .subscribe();
+            
+            this.streams.put(k, stream);
+            
+            return state;
+        });
+    }
+    
+    /**
+     * Sends the request-response interaction
+     * 
+     * @param route The route
+     * @param data The request data
+     * @return Returns response data
+     */
+    protected Mono<byte[]> request(String route, byte[] data){
+        
+        if(this.closed){
+            return Mono.error(new IllegalStateException("The channel is closed"));
+        }
+        
+        return this.connection
+                .flatMap(socket -> socket.requestResponse(DefaultPayload.create(data, route.getBytes(StandardCharsets.UTF_8))))
+                .map(SchedulerRSocketHandler::consume);
+    }
+    
+    /**
+     * Sends the fire-and-forget interaction
+     * 
+     * @param route The route
+     * @param data The request data
+     * @return Returns completion when sent
+     */
+    protected Mono<Void> fire(String route, byte[] data){
+        
+        if(this.closed){
+            return Mono.error(new IllegalStateException("The channel is closed"));
+        }
+        
+        return this.connection.flatMap(socket -> socket.fireAndForget(DefaultPayload.create(data, route.getBytes(StandardCharsets.UTF_8))));
+    }
+    
+    /**
+     * The reconnection backoff
+     * 
+     * @return Returns retry spec
+     */
+    protected Retry backoff(){
+        return Retry.backoff(Long.MAX_VALUE, this.options.getReconnectMinBackoff()).maxBackoff(this.options.getReconnectMaxBackoff());
+    }
+}
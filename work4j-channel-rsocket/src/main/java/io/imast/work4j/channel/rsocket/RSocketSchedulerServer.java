@@ -0,0 +1,105 @@
+package io.imast.work4j.channel.rsocket;
+
+import io.imast.work4j.channel.SchedulerChannel;
+import io.rsocket.Closeable;
+import io.rsocket.SocketAcceptor;
+import io.rsocket.core.RSocketServer;
+import io.rsocket.transport.ServerTransport;
+import io.rsocket.transport.netty.server.CloseableChannel;
+import io.rsocket.transport.netty.server.TcpServerTransport;
+import java.net.InetSocketAddress;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The RSocket server exposing a scheduler channel (typically the bundled channel of controller) to workers
+ * 
+ * Each worker keeps a single multiplexed connection to the server.
+ * 
+ * @author davitp
+ */
+@Slf4j
+public class RSocketSchedulerServer implements AutoCloseable {
+    
+    /**
+     * The server transport
+     */
+    protected final ServerTransport<? extends Closeable> transport;
+    
+    /**
+     * The request handler
+     */
+    protected final SchedulerRSocketHandler handler;
+    
+    /**
+     * The running server
+     */
+    protected Closeable server;
+    
+    /**
+     * Creates new instance of TCP server
+     * 
+     * @param backend The backing scheduler channel
+     * @param options The server options
+     */
+    public RSocketSchedulerServer(SchedulerChannel backend, RSocketServerOptions options){
+        this(backend, options, TcpServerTransport.create(options.getHost(), options.getPort()));
+    }
+    
+    /**
+     * Creates new instance of server over the given transport
+     * 
+     * @param backend The backing scheduler channel
+     * @param options The server options
+     * @param transport The server transport
+     */
+    public RSocketSchedulerServer(SchedulerChannel backend, RSocketServerOptions options, ServerTransport<? extends Closeable> transport){
+        this.transport = transport;
+        this.handler = new SchedulerRSocketHandler(backend, options.getIndexPushInterval());
+    }
+    
+    /**
+     * Starts the server
+     */
+    public synchronized void start(){
+        
+        // already started
+        if(this.server != null){
+            return;
+        }
+        
+        this.server = RSocketServer.create(SocketAcceptor.with(this.handler)).bind(this.transport).block();
+        
+        log.info("RSocketSchedulerServer: Started at {}", this.address());
+    }
+    
+    /**
+     * Gets the bound address of TCP server
+     * 
+     * @return Returns bound address or null
+     */
+    public synchronized InetSocketAddress address(){
+        return this.server instanceof CloseableChannel ? ((CloseableChannel) this.server).address() : null;
+    }
+    
+    /**
+     * Stops the server
+     */
+    public synchronized void stop(){
+        
+        // not started
+        if(this.server == null){
+            return;
+        }
+        
+        this.server.dispose();
+        this.server = null;
+    }
+    
+    /**
+     * Stops the server
+     */
+    @Override
+    public void close() {
+        this.stop();
+    }
+}
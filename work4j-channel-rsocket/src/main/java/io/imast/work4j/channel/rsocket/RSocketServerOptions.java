@@ -0,0 +1,37 @@
+package io.imast.work4j.channel.rsocket;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The options of RSocket scheduler server
+ * 
+ * @author davitp
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RSocketServerOptions {
+    
+    /**
+     * The host to bind
+     */
+    @Builder.Default
+    private String host = "0.0.0.0";
+    
+    /**
+     * The port to bind (0 for any free port)
+     */
+    @Builder.Default
+    private int port = 7000;
+    
+    /**
+     * The interval of checking execution index for changes to push
+     */
+    @Builder.Default
+    private Duration indexPushInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,269 @@
+package io.imast.work4j.channel.rsocket;
+
+import io.imast.work4j.channel.SchedulerChannel;
+import io.imast.work4j.channel.index.ExecutionIndexSnapshot;
+import io.imast.work4j.model.cluster.WorkerJoinInput;
+import io.imast.work4j.model.execution.ExecutionIndexEntry;
+import io.imast.work4j.model.iterate.IngestionStatus;
+import io.imast.work4j.model.iterate.IterationInput;
+import io.netty.buffer.ByteBufUtil;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.util.DefaultPayload;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The server-side RSocket handler serving worker requests from the backing scheduler channel
+ * 
+ * Backend calls may block (the bundled channel talks to the database eagerly), so they are always
+ * subscribed on the bounded elastic scheduler and never run on the transport event loop.
+ * 
+ * @author davitp
+ */
+@Slf4j
+public class SchedulerRSocketHandler implements RSocket {
+    
+    /**
+     * The backing scheduler channel
+     */
+    protected final SchedulerChannel backend;
+    
+    /**
+     * The interval of checking execution index for changes to push
+     */
+    protected final Duration indexPushInterval;
+    
+    /**
+     * The shared index polls by cluster and worker
+     */
+    protected final Map<String, Flux<List<ExecutionIndexEntry>>> polls;
+    
+    /**
+     * Creates new instance of handler
+     * 
+     * @param backend The backing scheduler channel
+     * @param indexPushInterval The interval of checking execution index for changes
+     */
+    public SchedulerRSocketHandler(SchedulerChannel backend, Duration indexPushInterval){
+        this.backend = backend;
+        this.indexPushInterval = indexPushInterval;
+        this.polls = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Handles request-response interactions
+     * 
+     * @param payload The request payload
+     * @return Returns response payload
+     */
+    @Override
+    public Mono<Payload> requestResponse(Payload payload) {
+        
+        // the route and data of request
+        var route = payload.getMetadataUtf8();
+        var data = consume(payload);
+        
+        return this.offload(() -> this.respond(route, data)).map(DefaultPayload::create);
+    }
+    
+    /**
+     * Handles fire-and-forget interactions
+     * 
+     * @param payload The request payload
+     * @return Returns completion signal
+     */
+    @Override
+    public Mono<Void> fireAndForget(Payload payload) {
+        
+        // the route and data of request
+        var route = payload.getMetadataUtf8();
+        var data = consume(payload);
+        
+        return this.offload(() -> {
+            switch(route){
+                case RSocketRoutes.ITERATE:
+                    return this.iterate(RSocketCodec.decodeIterations(data).get(0));
+                case RSocketRoutes.HEARTBEAT:
+                    return this.backend.heartbeat(RSocketCodec.decodeHeartbeat(data)).then();
+                default:
+                    return Mono.<Void>error(new IllegalArgumentException(String.format("The route %s does not support fire-and-forget", route)));
+            }
+        })
+        .doOnError(error -> log.error("SchedulerRSocketHandler: Could not handle {} message", route, error))
+        .onErrorResume(error -> Mono.empty());
+    }
+    
+    /**
+     * Handles request-stream interactions
+     * 
+     * @param payload The request payload
+     * @return Returns stream of payloads
+     */
+    @Override
+    public Flux<Payload> requestStream(Payload payload) {
+        
+        // the route and data of request
+        var route = payload.getMetadataUtf8();
+        var data = consume(payload);
+        
+        // only index deltas are streamed
+        if(!RSocketRoutes.INDEX_STREAM.equals(route)){
+            return Flux.error(new IllegalArgumentException(String.format("The route %s does not support streaming", route)));
+        }
+        
+        // the index request
+        var request = RSocketCodec.decodeIndexRequest(data);
+        
+        // the last pushed state of this stream
+        var state = new ExecutionIndexState();
+        
+        // push changes of shared index poll only (slow consumers skip to the latest index)
+        return this.poll(request)
+                .onBackpressureLatest()
+                .<ExecutionIndexDelta>handle((entries, sink) -> {
+                    
+                    var delta = state.diff(entries);
+                    
+                    if(delta != null){
+                        sink.next(delta);
+                    }
+                })
+                .map(delta -> DefaultPayload.create(RSocketCodec.encodeDelta(delta)));
+    }
+    
+    /**
+     * Responds to the request-response interaction
+     * 
+     * @param route The route of request
+     * @param data The request data
+     * @return Returns response data
+     */
+    protected Mono<byte[]> respond(String route, byte[] data){
+        
+        switch(route){
+            case RSocketRoutes.INDEX:
+                var request = RSocketCodec.decodeIndexRequest(data);
+                var snapshot = request.getWorker() == null
+                        ? this.backend.executionIndex(request.getCluster()).map(entries -> ExecutionIndexSnapshot.builder().entries(entries).build())
+                        : this.backend.executionIndex(request.getCluster(), request.getWorker(), request.getEtag());
+                return snapshot.map(RSocketCodec::encodeSnapshot);
+            case RSocketRoutes.EXECUTIONS:
+                return this.backend.executions(RSocketCodec.decodeIds(data)).map(RSocketCodec::encodeJson);
+            case RSocketRoutes.COMPLETE:
+                var completion = RSocketCodec.decodeCompletions(data).get(0);
+                return this.backend.complete(completion.getId(), completion.getSeverity()).map(RSocketCodec::encodeJson);
+            case RSocketRoutes.COMPLETE_ALL:
+                return this.backend.completeAll(RSocketCodec.decodeCompletions(data)).map(RSocketCodec::encodeJson);
+            case RSocketRoutes.ITERATE:
+                return this.backend.iterate(RSocketCodec.decodeIterations(data).get(0)).map(RSocketCodec::encodeJson);
+            case RSocketRoutes.ITERATE_ALL:
+                return this.backend.iterateAll(RSocketCodec.decodeIterations(data)).map(RSocketCodec::encodeJson);
+            case RSocketRoutes.SUBMIT:
+                return this.backend.submit(RSocketCodec.decodeIterations(data).get(0)).map(RSocketCodec::encodeJson);
+            case RSocketRoutes.SUBMIT_ALL:
+                return this.backend.submitAll(RSocketCodec.decodeIterations(data)).map(RSocketCodec::encodeJson);
+            case RSocketRoutes.REGISTRATION:
+                return this.backend.registration(RSocketCodec.decodeJson(data, WorkerJoinInput.class)).map(RSocketCodec::encodeJson);
+            case RSocketRoutes.HEARTBEAT:
+                return this.backend.heartbeat(RSocketCodec.decodeHeartbeat(data)).map(RSocketCodec::encodeJson);
+            default:
+                return Mono.error(new IllegalArgumentException(String.format("The route %s is not supported", route)));
+        }
+    }
+    
+    /**
+     * Registers the fire-and-forget iteration (written directly if ingestion rejects it, the worker cannot retry)
+     * 
+     * @param iteration The iteration
+     * @return Returns completion signal
+     */
+    protected Mono<Void> iterate(IterationInput iteration){
+        return this.backend.submit(iteration).flatMap(receipt -> {
+            
+            if(receipt.getStatus() != IngestionStatus.REJECTED){
+                return Mono.<Void>empty();
+            }
+            
+            log.warn("SchedulerRSocketHandler: Fire-and-forget iteration of execution {} was rejected by ingestion (pending {}), writing directly", iteration.getExecutionId(), receipt.getPending());
+            
+            return this.backend.iterate(iteration).then();
+        });
+    }
+    
+    /**
+     * Subscribes the backend call on the bounded elastic scheduler
+     * 
+     * @param <T> The type of result
+     * @param call The backend call
+     * @return Returns deferred result
+     */
+    protected <T> Mono<T> offload(Supplier<Mono<T>> call){
+        return Mono.defer(call).subscribeOn(Schedulers.boundedElastic());
+    }
+    
+    /**
+     * Gets the index poll shared by all streams of the same cluster and worker
+     * 
+     * @param request The index request
+     * @return Returns the stream of index entries
+     */
+    protected Flux<List<ExecutionIndexEntry>> poll(ExecutionIndexRequest request){
+        
+        // the key of poll
+        var key = String.format("%s/%s", request.getCluster(), request.getWorker() == null ? "" : request.getWorker());
+        
+        return this.polls.computeIfAbsent(key, k -> {
+            
+            // the poll reference to remove once the last stream is gone
+            var poll = new AtomicReference<Flux<List<ExecutionIndexEntry>>>();
+            
+            // check index periodically and replay the latest one to joining streams
+            poll.set(Flux.interval(Duration.ZERO, this.indexPushInterval)
+                    .onBackpressureDrop()
+                    .concatMap(tick -> this.offload(() -> this.index(request))
+                            .doOnError(error -> log.error("SchedulerRSocketHandler: Could not load execution index for stream", error))
+                            .onErrorResume(error -> Mono.empty()), 1)
+                    .doFinally(signal -> this.polls.remove(k, poll.get()))
+                    .replay(1)
+                    .refCount());
+            
+            return poll.get();
+        });
+    }
+    
+    /**
+     * Loads the execution index for the request
+     * 
+     * @param request The index request
+     * @return Returns index entries
+     */
+    protected Mono<List<ExecutionIndexEntry>> index(ExecutionIndexRequest request){
+        return request.getWorker() == null 
+                ? this.backend.executionIndex(request.getCluster())
+                : this.backend.executionIndex(request.getCluster(), request.getWorker());
+    }
+    
+    /**
+     * Copies the payload data and releases it
+     * 
+     * @param payload The payload
+     * @return Returns payload data
+     */
+    static byte[] consume(Payload payload){
+        try{
+            return ByteBufUtil.getBytes(payload.sliceData());
+        }
+        finally{
+            payload.release();
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package io.imast.work4j.channel.rsocket;
+
+import io.imast.work4j.channel.SchedulerChannel;
+import io.imast.work4j.channel.batch.ExecutionCompletion;
+import io.imast.work4j.model.cluster.ClusterWorker;
+import io.imast.work4j.model.cluster.WorkerHeartbeat;
+import io.imast.work4j.model.cluster.WorkerJoinInput;
+import io.imast.work4j.model.execution.CompletionSeverity;
+import io.imast.work4j.model.execution.ExecutionIndexEntry;
+import io.imast.work4j.model.execution.ExecutionStatus;
+import io.imast.work4j.model.execution.JobExecution;
+import io.imast.work4j.model.iterate.IngestionStatus;
+import io.imast.work4j.model.iterate.Iteration;
+import io.imast.work4j.model.iterate.IterationInput;
+import io.imast.work4j.model.iterate.IterationReceipt;
+import io.imast.work4j.model.iterate.IterationStatus;
+import io.rsocket.transport.local.LocalClientTransport;
+import io.rsocket.transport.local.LocalServerTransport;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The loopback round trip of RSocket channel over local transport
+ * 
+ * @author davitp
+ */
+public class RSocketLoopbackTest {
+
+    /**
+     * The timeout of blocking calls
+     */
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    
+    /**
+     * The backing channel stub
+     */
+    private StubChannel backend;
+    
+    /**
+     * The server
+     */
+    private RSocketSchedulerServer server;
+    
+    /**
+     * The name of local transport
+     */
+    private String name;
+    
+    /**
+     * Starts the server over local transport
+     */
+    @BeforeEach
+    public void setUp(){
+        this.name = "work4j-" + UUID.randomUUID();
+        this.backend = new StubChannel();
+        this.server = new RSocketSchedulerServer(this.backend, RSocketServerOptions.builder().indexPushInterval(Duration.ofMillis(50)).build(), LocalServerTransport.create(this.name));
+        this.server.start();
+    }
+    
+    /**
+     * Stops the server
+     */
+    @AfterEach
+    public void tearDown(){
+        this.server.stop();
+    }
+    
+    /**
+     * The index is served with etag and not modified once known
+     */
+    @Test
+    public void indexRoundTrip(){
+        
+        this.backend.entries = List.of(entry("e1"), entry("e2"));
+        
+        try(var channel = this.client(false, false)){
+            
+            var snapshot = channel.executionIndex("default", "worker", null).block(TIMEOUT);
+            
+            assertEquals(List.of("e1", "e2"), ids(snapshot.getEntries()));
+            assertFalse(snapshot.isNotModified());
+            
+            var again = channel.executionIndex("default", "worker", snapshot.getEtag()).block(TIMEOUT);
+            
+            assertTrue(again.isNotModified());
+            assertNull(again.getEntries());
+            
+            // backend calls are not run on transport threads
+            assertTrue(this.backend.threads.stream().allMatch(thread -> thread.startsWith("boundedElastic")), this.backend.threads.toString());
+        }
+    }
+    
+    /**
+     * The index stream pushes full index and then changes only
+     */
+    @Test
+    public void indexStream(){
+        
+        this.backend.entries = List.of(entry("e1"), entry("e2"));
+        
+        try(var channel = this.client(true, false)){
+            
+            var deltas = channel.indexStream("default", "worker")
+                    .doOnNext(delta -> this.backend.entries = List.of(entry("e2"), entry("e3")))
+                    .take(2)
+                    .collectList()
+                    .block(TIMEOUT);
+            
+            assertTrue(deltas.get(0).isFull());
+            assertEquals(List.of("e1", "e2"), ids(deltas.get(0).getUpserts()));
+            
+            assertFalse(deltas.get(1).isFull());
+            assertEquals(List.of("e3"), ids(deltas.get(1).getUpserts()));
+            assertEquals(List.of("e1"), deltas.get(1).getRemoved());
+        }
+    }
+    
+    /**
+     * The concurrent streams of same worker share a single index poll
+     */
+    @Test
+    public void indexStreamShared(){
+        
+        this.backend.entries = List.of(entry("e1"));
+        
+        try(var channel = this.client(true, false)){
+            
+            var deltas = Flux.merge(channel.indexStream("default", "worker").take(1), channel.indexStream("default", "worker").take(1))
+                    .collectList()
+                    .block(TIMEOUT);
+            
+            assertEquals(2, deltas.size());
+            assertTrue(deltas.stream().allMatch(ExecutionIndexDelta::isFull));
+            assertEquals(1, this.backend.threads.size());
+        }
+    }
+    
+    /**
+     * The fire-and-forget iteration reaches the backend
+     */
+    @Test
+    public void fireAndForgetIteration(){
+        
+        try(var channel = this.client(false, true)){
+            
+            var receipt = channel.submit(iteration("e1")).block(TIMEOUT);
+            
+            assertEquals(IngestionStatus.ACCEPTED, receipt.getStatus());
+            
+            await(() -> this.backend.submitted.size() == 1);
+            
+            assertEquals("e1", this.backend.submitted.peek().getExecutionId());
+            assertTrue(this.backend.iterated.isEmpty());
+        }
+    }
+    
+    /**
+     * The fire-and-forget iteration rejected by ingestion is written directly
+     */
+    @Test
+    public void fireAndForgetRejectedIteration(){
+        
+        this.backend.status = IngestionStatus.REJECTED;
+        
+        try(var channel = this.client(false, true)){
+            
+            channel.iterate(iteration("e1")).block(TIMEOUT);
+            
+            await(() -> this.backend.iterated.size() == 1);
+            
+            assertEquals("e1", this.backend.iterated.peek().getExecutionId());
+        }
+    }
+    
+    /**
+     * The batch of completions is sent in single request
+     */
+    @Test
+    public void completeAll(){
+        
+        try(var channel = this.client(false, false)){
+            
+            var completions = List.of(new ExecutionCompletion("e1", CompletionSeverity.SUCCESS), new ExecutionCompletion("e2", CompletionSeverity.FAIL));
+            var executions = channel.completeAll(completions).block(TIMEOUT);
+            
+            assertEquals(2, executions.size());
+            assertEquals("e1", executions.get(0).getId());
+            assertEquals(CompletionSeverity.FAIL, executions.get(1).getCompletionSeverity());
+        }
+    }
+    
+    /**
+     * Creates the client over local transport
+     * 
+     * @param streamIndex Stream the index or not
+     * @param fireAndForget Send iterations as fire-and-forget or not
+     * @return Returns client channel
+     */
+    private RSocketSchedulerChannel client(boolean streamIndex, boolean fireAndForget){
+        
+        var options = RSocketChannelOptions.builder()
+                .streamIndex(streamIndex)
+                .fireAndForgetIterations(fireAndForget)
+                .build();
+        
+        return new RSocketSchedulerChannel(options, LocalClientTransport.create(this.name));
+    }
+    
+    /**
+     * Waits until the condition holds
+     * 
+     * @param condition The condition
+     */
+    private static void await(BooleanSupplier condition){
+        
+        var deadline = System.nanoTime() + TIMEOUT.toNanos();
+        
+        while(!condition.getAsBoolean()){
+            
+            assertTrue(System.nanoTime() < deadline, "Condition was not met in time");
+            
+            Mono.delay(Duration.ofMillis(10)).block();
+        }
+    }
+    
+    /**
+     * Creates the index entry
+     * 
+     * @param id The execution id
+     * @return Returns index entry
+     */
+    private static ExecutionIndexEntry entry(String id){
+        return ExecutionIndexEntry.builder().id(id).jobId(id).status(ExecutionStatus.ACTIVE).type("TEST").build();
+    }
+    
+    /**
+     * Creates the iteration input
+     * 
+     * @param id The execution id
+     * @return Returns iteration input
+     */
+    private static IterationInput iteration(String id){
+        return IterationInput.builder().executionId(id).jobId(id).worker("worker").status(IterationStatus.SUCCESS).build();
+    }
+    
+    /**
+     * Gets the ids of entries
+     * 
+     * @param entries The index entries
+     * @return Returns execution ids
+     */
+    private static List<String> ids(List<ExecutionIndexEntry> entries){
+        return entries.stream().map(ExecutionIndexEntry::getId).sorted().collect(Collectors.toList());
+    }
+    
+    /**
+     * The backing channel stub
+     */
+    private static class StubChannel implements SchedulerChannel {
+        
+        /**
+         * The current index entries
+         */
+        private volatile List<ExecutionIndexEntry> entries = List.of();
+        
+        /**
+         * The status of ingestion receipts
+         */
+        private volatile IngestionStatus status = IngestionStatus.ACCEPTED;
+        
+        /**
+         * The submitted iterations
+         */
+        private final Queue<IterationInput> submitted = new ConcurrentLinkedQueue<>();
+        
+        /**
+         * The directly registered iterations
+         */
+        private final Queue<IterationInput> iterated = new ConcurrentLinkedQueue<>();
+        
+        /**
+         * The threads index was loaded on
+         */
+        private final Queue<String> threads = new ConcurrentLinkedQueue<>();
+        
+        @Override
+        public Mono<List<ExecutionIndexEntry>> executionIndex(String cluster) {
+            this.threads.add(Thread.currentThread().getName());
+            return Mono.just(this.entries);
+        }
+        
+        @Override
+        public Mono<List<JobExecution>> executions(List<String> ids) {
+            return Mono.just(ids.stream().map(id -> JobExecution.builder().id(id).build()).collect(Collectors.toList()));
+        }
+        
+        @Override
+        public Mono<JobExecution> complete(String id, CompletionSeverity severity) {
+            return Mono.just(JobExecution.builder().id(id).status(ExecutionStatus.COMPLETED).completionSeverity(severity).build());
+        }
+        
+        @Override
+        public Mono<Iteration> iterate(IterationInput iteration) {
+            this.iterated.add(iteration);
+            return Mono.just(Iteration.builder().executionId(iteration.getExecutionId()).build());
+        }
+        
+        @Override
+        public Mono<IterationReceipt> submit(IterationInput iteration) {
+            
+            if(this.status != IngestionStatus.REJECTED){
+                this.submitted.add(iteration);
+            }
+            
+            return Mono.just(IterationReceipt.builder().status(this.status).build());
+        }
+        
+        @Override
+        public Mono<ClusterWorker> registration(WorkerJoinInput input) {
+            return Mono.empty();
+        }
+        
+        @Override
+        public Mono<ClusterWorker> heartbeat(WorkerHeartbeat heartbeat) {
+            return Mono.empty();
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package io.imast.work4j.channel;
 
+import io.imast.work4j.channel.batch.ExecutionCompletion;
+import io.imast.work4j.channel.index.CompactExecutionIndex;
+import io.imast.work4j.channel.index.ExecutionIndexSnapshot;
 import io.imast.work4j.model.cluster.ClusterWorker;
 import io.imast.work4j.model.iterate.*;
 import io.imast.work4j.model.execution.CompletionSeverity;
@@ -8,6 +11,9 @@ import io.imast.work4j.model.execution.JobExecution;
 import io.imast.work4j.model.cluster.WorkerHeartbeat;
 import io.imast.work4j.model.cluster.WorkerJoinInput;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -25,6 +31,40 @@ public interface SchedulerChannel {
      */
     public Mono<List<ExecutionIndexEntry>> executionIndex(String cluster);
     
+    /**
+     * Pull job groups the given worker is able to run (by types and labels)
+     * 
+     * @param cluster The target cluster
+     * @param worker The registered worker name
+     * @return Returns execution index entries
+     */
+    public default Mono<List<ExecutionIndexEntry>> executionIndex(String cluster, String worker){
+        return this.executionIndex(cluster);
+    }
+    
+    /**
+     * Pull versioned job groups the given worker is able to run (not modified if version matches)
+     * 
+     * @param cluster The target cluster
+     * @param worker The registered worker name
+     * @param etag The last known index version (if any)
+     * @return Returns execution index snapshot
+     */
+    public default Mono<ExecutionIndexSnapshot> executionIndex(String cluster, String worker, String etag){
+        return this.executionIndex(cluster, worker).map(entries -> {
+            
+            // the current version
+            var current = CompactExecutionIndex.etag(entries);
+            
+            // same version, nothing changed
+            if(current.equals(etag)){
+                return ExecutionIndexSnapshot.builder().etag(current).notModified(true).build();
+            }
+            
+            return ExecutionIndexSnapshot.builder().etag(current).entries(entries).build();
+        });
+    }
+    
     /**
      * Exchange current status with modified entries
      * 
@@ -33,6 +73,30 @@ public interface SchedulerChannel {
      */
     public Mono<List<JobExecution>> executions(List<String> ids);
     
+    /**
+     * Streams the executions by identifiers in chunks of default size with default concurrency
+     * 
+     * @param ids The executions request ids
+     * @return Returns stream of executions
+     */
+    public default Flux<JobExecution> executionStream(List<String> ids){
+        return this.executionStream(ids, 100, 4);
+    }
+    
+    /**
+     * Streams the executions by identifiers loading chunks on demand with bounded concurrency
+     * 
+     * @param ids The executions request ids
+     * @param chunkSize The number of executions to load in a single request
+     * @param concurrency The maximum number of chunk requests in flight
+     * @return Returns stream of executions
+     */
+    public default Flux<JobExecution> executionStream(List<String> ids, int chunkSize, int concurrency){
+        return Flux.fromIterable(ids)
+                .buffer(chunkSize)
+                .flatMap(chunk -> this.executions(chunk).flatMapIterable(l -> l), concurrency, 1);
+    }
+    
     /**
      * Completes the job execution in scheduler
      * 
@@ -50,6 +114,55 @@ public interface SchedulerChannel {
      */
     public Mono<Iteration> iterate(IterationInput iteration);
     
+    /**
+     * Submits iteration information to scheduler with backpressure signal
+     * 
+     * @param iteration The iteration to register
+     * @return Returns the ingestion receipt
+     */
+    public default Mono<IterationReceipt> submit(IterationInput iteration){
+        return this.iterate(iteration).map(i -> IterationReceipt.builder().id(i.getId()).status(IngestionStatus.ACCEPTED).build());
+    }
+    
+    /**
+     * Adds batch of iterations to scheduler
+     * 
+     * @param iterations The iterations to register
+     * @return Returns registered iterations aligned with input (null if not registered)
+     */
+    public default Mono<List<Iteration>> iterateAll(List<IterationInput> iterations){
+        return Flux.fromIterable(iterations)
+                .concatMap(i -> this.iterate(i).map(Optional::of).defaultIfEmpty(Optional.empty()))
+                .collectList()
+                .map(results -> results.stream().map(o -> o.orElse(null)).collect(Collectors.toList()));
+    }
+    
+    /**
+     * Submits batch of iterations to scheduler with backpressure signal
+     * 
+     * @param iterations The iterations to register
+     * @return Returns ingestion receipts aligned with input (null if not registered)
+     */
+    public default Mono<List<IterationReceipt>> submitAll(List<IterationInput> iterations){
+        return Flux.fromIterable(iterations)
+                .concatMap(i -> this.submit(i).map(Optional::of).defaultIfEmpty(Optional.empty()))
+                .collectList()
+                .map(results -> results.stream().map(o -> o.orElse(null)).collect(Collectors.toList()));
+    }
+    
+    /**
+     * Completes the batch of job executions in scheduler
+     * 
+     * @param completions The completions to report
+     * @return Returns updated job executions aligned with input (null if not updated)
+     */
+    public default Mono<List<JobExecution>> completeAll(List<ExecutionCompletion> completions){
+        return Flux.fromIterable(completions)
+                .concatMap(c -> this.complete(c.getId(), c.getSeverity()).map(Optional::of).defaultIfEmpty(Optional.empty()))
+                .collectList()
+                .map(results -> results.stream().map(o -> o.orElse(null)).collect(Collectors.toList()));
+    }
+    
     /**
      * Registers worker into the scheduler
      * 
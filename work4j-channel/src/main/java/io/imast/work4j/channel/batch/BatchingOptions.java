@@ -0,0 +1,48 @@
+package io.imast.work4j.channel.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The options of batching scheduler channel
+ * 
+ * @author davitp
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchingOptions {
+    
+    /**
+     * The maximum number of reports in a single batch
+     */
+    @Builder.Default
+    private Integer batchSize = 100;
+    
+    /**
+     * The maximum age of buffered report before flush (milliseconds)
+     */
+    @Builder.Default
+    private Long maxAge = 200L;
+    
+    /**
+     * The maximum number of buffered reports per kind (overflowing calls fail)
+     */
+    @Builder.Default
+    private Integer capacity = 10000;
+    
+    /**
+     * The maximum number of batch requests in flight
+     */
+    @Builder.Default
+    private Integer maxInFlight = 4;
+    
+    /**
+     * The maximum time to wait for pending reports on close (milliseconds)
+     */
+    @Builder.Default
+    private Long closeTimeout = 10000L;
+}
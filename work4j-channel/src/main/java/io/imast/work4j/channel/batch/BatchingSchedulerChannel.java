@@ -0,0 +1,521 @@
+package io.imast.work4j.channel.batch;
+
+import io.imast.work4j.channel.SchedulerChannel;
+import io.imast.work4j.channel.index.ExecutionIndexSnapshot;
+import io.imast.work4j.model.cluster.ClusterWorker;
+import io.imast.work4j.model.cluster.WorkerHeartbeat;
+import io.imast.work4j.model.cluster.WorkerJoinInput;
+import io.imast.work4j.model.execution.CompletionSeverity;
+import io.imast.work4j.model.execution.ExecutionIndexEntry;
+import io.imast.work4j.model.execution.JobExecution;
+import io.imast.work4j.model.iterate.Iteration;
+import io.imast.work4j.model.iterate.IterationInput;
+import io.imast.work4j.model.iterate.IterationReceipt;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * The scheduler channel decorator that batches iteration and completion reports
+ * 
+ * Reports are enqueued eagerly (on call) and flushed when a batch is full, when the 
+ * oldest report reaches maximum age or when channel is closed. The number of batch requests 
+ * in flight is bounded, and overflowing the buffer fails the call with overflow error.
+ * 
+ * @author davitp
+ */
+@Slf4j
+public class BatchingSchedulerChannel implements SchedulerChannel, AutoCloseable {
+    
+    /**
+     * The target channel
+     */
+    protected final SchedulerChannel channel;
+    
+    /**
+     * The batching options
+     */
+    protected final BatchingOptions options;
+    
+    /**
+     * The permits of in-flight batch requests
+     */
+    protected final Semaphore inFlight;
+    
+    /**
+     * The flushing executor
+     */
+    protected final ScheduledExecutorService flusher;
+    
+    /**
+     * The iterations lane
+     */
+    protected final Lane<IterationInput, Iteration> iterations;
+    
+    /**
+     * The submissions lane
+     */
+    protected final Lane<IterationInput, IterationReceipt> submissions;
+    
+    /**
+     * The completions lane
+     */
+    protected final Lane<ExecutionCompletion, JobExecution> completions;
+    
+    /**
+     * Indicates if channel is closed
+     */
+    protected volatile boolean closed;
+    
+    /**
+     * Creates new instance of batching scheduler channel
+     * 
+     * @param channel The target channel
+     * @param options The batching options
+     */
+    public BatchingSchedulerChannel(SchedulerChannel channel, BatchingOptions options){
+        this.channel = channel;
+        this.options = options;
+        this.inFlight = new Semaphore(options.getMaxInFlight());
+        this.iterations = new Lane<>(channel::iterateAll);
+        this.submissions = new Lane<>(channel::submitAll);
+        this.completions = new Lane<>(channel::completeAll);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "work4j-report-batching");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        // flush aged reports periodically
+        this.flusher.scheduleAtFixedRate(this::flushAll, options.getMaxAge(), options.getMaxAge(), TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Pull job groups for the given cluster
+     * 
+     * @param cluster The target cluster
+     * @return Returns execution index entries
+     */
+    @Override
+    public Mono<List<ExecutionIndexEntry>> executionIndex(String cluster) {
+        return this.channel.executionIndex(cluster);
+    }
+    
+    /**
+     * Pull job groups the given worker is able to run (by types and labels)
+     * 
+     * @param cluster The target cluster
+     * @param worker The registered worker name
+     * @return Returns execution index entries
+     */
+    @Override
+    public Mono<List<ExecutionIndexEntry>> executionIndex(String cluster, String worker) {
+        return this.channel.executionIndex(cluster, worker);
+    }
+    
+    /**
+     * Pull versioned job groups the given worker is able to run (not modified if version matches)
+     * 
+     * @param cluster The target cluster
+     * @param worker The registered worker name
+     * @param etag The last known index version (if any)
+     * @return Returns execution index snapshot
+     */
+    @Override
+    public Mono<ExecutionIndexSnapshot> executionIndex(String cluster, String worker, String etag) {
+        return this.channel.executionIndex(cluster, worker, etag);
+    }
+
+    /**
+     * Exchange current status with modified entries
+     * 
+     * @param ids The executions request ids
+     * @return Returns executions response
+     */
+    @Override
+    public Mono<List<JobExecution>> executions(List<String> ids) {
+        return this.channel.executions(ids);
+    }
+    
+    /**
+     * Streams the executions by identifiers loading chunks on demand with bounded concurrency
+     * 
+     * @param ids The executions request ids
+     * @param chunkSize The number of executions to load in a single request
+     * @param concurrency The maximum number of chunk requests in flight
+     * @return Returns stream of executions
+     */
+    @Override
+    public Flux<JobExecution> executionStream(List<String> ids, int chunkSize, int concurrency) {
+        return this.channel.executionStream(ids, chunkSize, concurrency);
+    }
+
+    /**
+     * Completes the job execution in scheduler (batched)
+     * 
+     * @param id The identifier of job execution
+     * @param severity The severity of completion
+     * @return Returns updated job execution
+     */
+    @Override
+    public Mono<JobExecution> complete(String id, CompletionSeverity severity) {
+        return this.completions.enqueue(new ExecutionCompletion(id, severity));
+    }
+
+    /**
+     * Adds iteration information to scheduler (batched)
+     * 
+     * @param iteration The iteration to register
+     * @return Returns registered iteration
+     */
+    @Override
+    public Mono<Iteration> iterate(IterationInput iteration) {
+        return this.iterations.enqueue(iteration);
+    }
+    
+    /**
+     * Submits iteration information to scheduler with backpressure signal (batched)
+     * 
+     * @param iteration The iteration to register
+     * @return Returns the ingestion receipt
+     */
+    @Override
+    public Mono<IterationReceipt> submit(IterationInput iteration) {
+        return this.submissions.enqueue(iteration);
+    }
+    
+    /**
+     * Adds batch of iterations to scheduler
+     * 
+     * @param iterations The iterations to register
+     * @return Returns registered iterations
+     */
+    @Override
+    public Mono<List<Iteration>> iterateAll(List<IterationInput> iterations) {
+        return this.channel.iterateAll(iterations);
+    }
+    
+    /**
+     * Submits batch of iterations to scheduler
+     * 
+     * @param iterations The iterations to register
+     * @return Returns ingestion receipts
+     */
+    @Override
+    public Mono<List<IterationReceipt>> submitAll(List<IterationInput> iterations) {
+        return this.channel.submitAll(iterations);
+    }
+    
+    /**
+     * Completes the batch of job executions in scheduler
+     * 
+     * @param completions The completions to report
+     * @return Returns updated job executions
+     */
+    @Override
+    public Mono<List<JobExecution>> completeAll(List<ExecutionCompletion> completions) {
+        return this.channel.completeAll(completions);
+    }
+
+    /**
+     * Registers worker into the scheduler
+     * 
+     * @param input The worker input to register
+     * @return Returns registered worker
+     */
+    @Override
+    public Mono<ClusterWorker> registration(WorkerJoinInput input) {
+        return this.channel.registration(input);
+    }
+
+    /**
+     * Send a Heartbeat signal to from worker scheduler
+     * 
+     * @param heartbeat The worker reported heartbeat
+     * @return Returns updated agent definition
+     */
+    @Override
+    public Mono<ClusterWorker> heartbeat(WorkerHeartbeat heartbeat) {
+        return this.channel.heartbeat(heartbeat);
+    }
+    
+    /**
+     * Gets the number of buffered reports
+     * 
+     * @return Returns buffered reports count
+     */
+    public int getBuffered(){
+        return this.iterations.size() + this.submissions.size() + this.completions.size();
+    }
+    
+    /**
+     * Flushes the buffered reports and waits for in-flight batches (bounded by close timeout)
+     */
+    @Override
+    public void close() {
+        
+        // already closed
+        if(this.closed){
+            return;
+        }
+        
+        this.closed = true;
+        this.flusher.shutdown();
+        
+        // the deadline of close
+        var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.options.getCloseTimeout());
+        
+        try{
+            // flush until everything is sent or timeout
+            while(this.getBuffered() > 0 && System.nanoTime() < deadline){
+                
+                this.flushAll();
+                
+                // wait for the permits to be returned
+                if(this.getBuffered() > 0){
+                    Thread.sleep(10);
+                }
+            }
+            
+            // wait for all in-flight batches
+            var remaining = Math.max(0, deadline - System.nanoTime());
+            
+            if(this.inFlight.tryAcquire(this.options.getMaxInFlight(), remaining, TimeUnit.NANOSECONDS)){
+                this.inFlight.release(this.options.getMaxInFlight());
+            }
+        }
+        catch(InterruptedException error){
+            Thread.currentThread().interrupt();
+        }
+        
+        // report lost entries if any
+        if(this.getBuffered() > 0){
+            log.warn("BatchingSchedulerChannel: Closed with {} unsent reports", this.getBuffered());
+        }
+    }
+    
+    /**
+     * Flushes all the lanes
+     */
+    protected void flushAll(){
+        try{
+            this.iterations.flush(false);
+            this.submissions.flush(false);
+            this.completions.flush(false);
+        }
+        catch(Throwable error){
+            log.error("BatchingSchedulerChannel: Could not flush reports", error);
+        }
+    }
+    
+    /**
+     * The pending report
+     * 
+     * @param <I> The type of input
+     * @param <O> The type of output
+     */
+    protected static class Pending<I, O> {
+        
+        /**
+         * The report input
+         */
+        protected final I input;
+        
+        /**
+         * The result sink
+         */
+        protected final Sinks.One<O> sink;
+        
+        /**
+         * Creates new pending report
+         * 
+         * @param input The report input
+         */
+        protected Pending(I input){
+            this.input = input;
+            this.sink = Sinks.one();
+        }
+    }
+    
+    /**
+     * The batching lane of single report kind
+     * 
+     * @param <I> The type of input
+     * @param <O> The type of output
+     */
+    protected class Lane<I, O> {
+        
+        /**
+         * The batch sender
+         */
+        protected final Function<List<I>, Mono<List<O>>> sender;
+        
+        /**
+         * The buffered reports
+         */
+        protected final ArrayDeque<Pending<I, O>> buffer;
+        
+        /**
+         * Creates new lane
+         * 
+         * @param sender The batch sender
+         */
+        protected Lane(Function<List<I>, Mono<List<O>>> sender){
+            this.sender = sender;
+            this.buffer = new ArrayDeque<>();
+        }
+        
+        /**
+         * Gets the number of buffered reports
+         * 
+         * @return Returns buffered count
+         */
+        protected synchronized int size(){
+            return this.buffer.size();
+        }
+        
+        /**
+         * Enqueues the report
+         * 
+         * @param input The report input
+         * @return Returns the result of report
+         */
+        protected Mono<O> enqueue(I input){
+            
+            // the pending report
+            var pending = new Pending<I, O>(input);
+            
+            // the size after enqueue
+            int size;
+            
+            synchronized(this){
+                
+                // buffer is full or channel is closed
+                if(closed || this.buffer.size() >= options.getCapacity()){
+                    return Mono.error(Exceptions.failWithOverflow("The report buffer is full"));
+                }
+                
+                this.buffer.add(pending);
+                size = this.buffer.size();
+            }
+            
+            // flush full batch right away
+            if(size >= options.getBatchSize()){
+                this.flush(true);
+            }
+            
+            return pending.sink.asMono();
+        }
+        
+        /**
+         * Sends the buffered batches while permits are available
+         * 
+         * @param fullOnly Flush only full batches
+         */
+        protected void flush(boolean fullOnly){
+            
+            while(true){
+                
+                // the batch to send
+                List<Pending<I, O>> batch;
+                
+                synchronized(this){
+                    
+                    // nothing to send
+                    if(this.buffer.isEmpty() || (fullOnly && this.buffer.size() < options.getBatchSize())){
+                        return;
+                    }
+                    
+                    // all permits are in use, flush will continue once batch is done
+                    if(!inFlight.tryAcquire()){
+                        return;
+                    }
+                    
+                    // take a batch
+                    batch = new ArrayList<>(Math.min(this.buffer.size(), options.getBatchSize()));
+                    
+                    while(!this.buffer.isEmpty() && batch.size() < options.getBatchSize()){
+                        batch.add(this.buffer.poll());
+                    }
+                }
+                
+                this.send(batch);
+            }
+        }
+        
+        /**
+         * Sends the batch and resolves results
+         * 
+         * @param batch The batch to send
+         */
+        protected void send(List<Pending<I, O>> batch){
+            
+            // the batch request
+            Mono<List<O>> request;
+            
+            try{
+                request = this.sender.apply(batch.stream().map(p -> p.input).collect(Collectors.toList()));
+            }
+            catch(Throwable error){
+                request = Mono.error(error);
+            }
+            
+            request.subscribe(
+                results -> this.resolve(batch, results),
+                error -> {
+                    batch.forEach(p -> p.sink.tryEmitError(error));
+                    this.release();
+                },
+                () -> {
+                    // unresolved if completed without results
+                    batch.forEach(p -> p.sink.tryEmitEmpty());
+                    this.release();
+                });
+        }
+        
+        /**
+         * Resolves the results of batch
+         * 
+         * @param batch The batch
+         * @param results The results aligned with batch
+         */
+        protected void resolve(List<Pending<I, O>> batch, List<O> results){
+            
+            for(var i = 0; i < batch.size(); ++i){
+                
+                // the result of report
+                var result = results != null && i < results.size() ? results.get(i) : null;
+                
+                if(result == null){
+                    batch.get(i).sink.tryEmitEmpty();
+                }
+                else{
+                    batch.get(i).sink.tryEmitValue(result);
+                }
+            }
+        }
+        
+        /**
+         * Releases the in-flight permit and continues with full batches
+         */
+        protected void release(){
+            inFlight.release();
+            
+            // keep draining full batches without waiting for the next tick
+            if(!closed){
+                this.flush(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.imast.work4j.channel.batch;
+
+import io.imast.work4j.model.execution.CompletionSeverity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The completion report of job execution
+ * 
+ * @author davitp
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder(toBuilder = true)
+public class ExecutionCompletion {
+    
+    /**
+     * The identifier of job execution
+     */
+    private String id;
+    
+    /**
+     * The severity of completion
+     */
+    private CompletionSeverity severity;
+}
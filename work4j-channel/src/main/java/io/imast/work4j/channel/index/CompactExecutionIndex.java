@@ -0,0 +1,439 @@
+package io.imast.work4j.channel.index;
+
+import io.imast.work4j.model.execution.ExecutionIndexEntry;
+import io.imast.work4j.model.execution.ExecutionStatus;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The compact binary codec of execution index
+ * 
+ * Layout: magic (2 bytes), version (1 byte), flags (1 byte) and then body (deflated if flagged).
+ * Body is the entry count followed by entries sorted by execution id, each one as 
+ * [shared prefix length with previous id][rest of id][job reference][status byte].
+ * Identifiers are 12-byte ObjectIds if all of them are 24-char hex values, otherwise length-prefixed UTF-8 strings.
+ * Job reference is a varint: zero for a new job id (followed by id), otherwise 1-based index of a previously seen one.
+ * 
+ * @author davitp
+ */
+public class CompactExecutionIndex {
+    
+    /**
+     * The format magic
+     */
+    private static final byte[] MAGIC = { 'W', '4' };
+    
+    /**
+     * The format version
+     */
+    private static final byte VERSION = 1;
+    
+    /**
+     * The compressed body flag
+     */
+    private static final int FLAG_DEFLATE = 1;
+    
+    /**
+     * The text identifiers flag
+     */
+    private static final int FLAG_TEXT_IDS = 2;
+    
+    /**
+     * The length of binary ObjectId
+     */
+    private static final int OBJECT_ID_LENGTH = 12;
+    
+    /**
+     * The hex digits
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    
+    /**
+     * The known statuses
+     */
+    private static final ExecutionStatus[] STATUSES = ExecutionStatus.values();
+    
+    /**
+     * Encodes the index entries into compact form
+     * 
+     * @param entries The index entries
+     * @param compress If body should be deflated
+     * @return Returns encoded index
+     */
+    public static byte[] encode(List<ExecutionIndexEntry> entries, boolean compress){
+        
+        // sorted copy of entries
+        var sorted = sorted(entries);
+        
+        // use binary ids only if all of them are ObjectIds
+        var binary = sorted.stream().allMatch(e -> isObjectId(e.getId()) && isObjectId(e.getJobId()));
+        
+        // the flags of format
+        var flags = (compress ? FLAG_DEFLATE : 0) | (binary ? 0 : FLAG_TEXT_IDS);
+        
+        var output = new ByteArrayOutputStream(16 + sorted.size() * 16);
+        
+        try{
+            // write header
+            output.write(MAGIC);
+            output.write(VERSION);
+            output.write(flags);
+            
+            // the body stream
+            OutputStream body = compress ? new DeflaterOutputStream(output) : output;
+            
+            writeBody(new DataOutputStream(body), sorted, binary);
+            
+            body.close();
+        }
+        catch(IOException error){
+            throw new IllegalStateException("Could not encode execution index", error);
+        }
+        
+        return output.toByteArray();
+    }
+    
+    /**
+     * Decodes the index entries from compact form
+     * 
+     * @param data The encoded index
+     * @return Returns index entries sorted by execution id
+     */
+    public static List<ExecutionIndexEntry> decode(byte[] data){
+        
+        // validate header
+        if(data == null || data.length < 4 || data[0] != MAGIC[0] || data[1] != MAGIC[1]){
+            throw new IllegalArgumentException("The data is not a compact execution index");
+        }
+        
+        // validate version
+        if(data[2] != VERSION){
+            throw new IllegalArgumentException(String.format("The compact execution index version %s is not supported", data[2]));
+        }
+        
+        // the flags of format
+        var flags = data[3];
+        
+        try{
+            // the body stream
+            InputStream body = new ByteArrayInputStream(data, 4, data.length - 4);
+            
+            if((flags & FLAG_DEFLATE) != 0){
+                body = new InflaterInputStream(body);
+            }
+            
+            try(var input = new DataInputStream(body)){
+                return readBody(input, (flags & FLAG_TEXT_IDS) == 0);
+            }
+        }
+        catch(IOException error){
+            throw new IllegalArgumentException("Could not decode execution index", error);
+        }
+    }
+    
+    /**
+     * Computes the content hash of index (independent of entries order)
+     * 
+     * @param entries The index entries
+     * @return Returns the content hash
+     */
+    public static String etag(List<ExecutionIndexEntry> entries){
+        
+        try{
+            // hash the uncompressed canonical form
+            var digest = MessageDigest.getInstance("SHA-256").digest(encode(entries, false));
+            
+            return hex(Arrays.copyOf(digest, 16));
+        }
+        catch(NoSuchAlgorithmException error){
+            throw new IllegalStateException("SHA-256 is not available", error);
+        }
+    }
+    
+    /**
+     * Writes the body of index
+     * 
+     * @param output The output stream
+     * @param sorted The sorted entries
+     * @param binary If ids are binary
+     * @throws IOException 
+     */
+    private static void writeBody(DataOutputStream output, List<ExecutionIndexEntry> sorted, boolean binary) throws IOException {
+        
+        // entry count
+        writeVarInt(output, sorted.size());
+        
+        // the previous id and job dictionary
+        byte[] previous = new byte[0];
+        var jobs = new HashMap<String, Integer>();
+        
+        for(var entry : sorted){
+            
+            // the current id
+            var current = binary ? objectId(entry.getId()) : entry.getId().getBytes(StandardCharsets.UTF_8);
+            
+            // the shared prefix with previous id
+            var shared = 0;
+            
+            while(shared < current.length && shared < previous.length && shared < 255 && current[shared] == previous[shared]){
+                shared++;
+            }
+            
+            // write prefix-delta of id
+            output.writeByte(shared);
+            
+            if(!binary){
+                writeVarInt(output, current.length - shared);
+            }
+            
+            output.write(current, shared, current.length - shared);
+            
+            // write job reference
+            var job = jobs.get(entry.getJobId());
+            
+            if(job != null){
+                writeVarInt(output, job);
+            }
+            else{
+                writeVarInt(output, 0);
+                writeId(output, entry.getJobId(), binary);
+                jobs.put(entry.getJobId(), jobs.size() + 1);
+            }
+            
+            // write status
+            output.writeByte(entry.getStatus() == null ? 0xff : entry.getStatus().ordinal());
+            
+            previous = current;
+        }
+        
+        output.flush();
+    }
+    
+    /**
+     * Reads the body of index
+     * 
+     * @param input The input stream
+     * @param binary If ids are binary
+     * @return Returns entries
+     * @throws IOException 
+     */
+    private static List<ExecutionIndexEntry> readBody(DataInputStream input, boolean binary) throws IOException {
+        
+        // entry count
+        var count = readVarInt(input);
+        
+        // the result
+        var result = new ArrayList<ExecutionIndexEntry>(count);
+        
+        // the previous id and job dictionary
+        byte[] previous = new byte[0];
+        var jobs = new ArrayList<String>();
+        
+        for(var i = 0; i < count; ++i){
+            
+            // read prefix-delta of id
+            var shared = input.readUnsignedByte();
+            var rest = binary ? OBJECT_ID_LENGTH - shared : readVarInt(input);
+            var current = new byte[shared + rest];
+            
+            System.arraycopy(previous, 0, current, 0, shared);
+            input.readFully(current, shared, rest);
+            
+            // read job reference
+            var reference = readVarInt(input);
+            String jobId;
+            
+            if(reference == 0){
+                jobId = readId(input, binary);
+                jobs.add(jobId);
+            }
+            else{
+                jobId = jobs.get(reference - 1);
+            }
+            
+            // read status
+            var status = input.readUnsignedByte();
+            
+            result.add(ExecutionIndexEntry.builder()
+                    .id(binary ? hex(current) : new String(current, StandardCharsets.UTF_8))
+                    .jobId(jobId)
+                    .status(status < STATUSES.length ? STATUSES[status] : null)
+                    .build());
+            
+            previous = current;
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Writes the full id
+     * 
+     * @param output The output
+     * @param id The id
+     * @param binary If ids are binary
+     * @throws IOException 
+     */
+    private static void writeId(DataOutputStream output, String id, boolean binary) throws IOException {
+        
+        if(binary){
+            output.write(objectId(id));
+            return;
+        }
+        
+        var bytes = id.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(output, bytes.length);
+        output.write(bytes);
+    }
+    
+    /**
+     * Reads the full id
+     * 
+     * @param input The input
+     * @param binary If ids are binary
+     * @return Returns id
+     * @throws IOException 
+     */
+    private static String readId(DataInputStream input, boolean binary) throws IOException {
+        
+        var bytes = new byte[binary ? OBJECT_ID_LENGTH : readVarInt(input)];
+        input.readFully(bytes);
+        
+        return binary ? hex(bytes) : new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Writes unsigned variable-length integer
+     * 
+     * @param output The output
+     * @param value The value
+     * @throws IOException 
+     */
+    private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+        
+        while((value & ~0x7f) != 0){
+            output.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        
+        output.writeByte(value);
+    }
+    
+    /**
+     * Reads unsigned variable-length integer
+     * 
+     * @param input The input
+     * @return Returns value
+     * @throws IOException 
+     */
+    private static int readVarInt(DataInputStream input) throws IOException {
+        
+        var value = 0;
+        
+        for(var shift = 0; shift < 32; shift += 7){
+            
+            var b = input.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            
+            if((b & 0x80) == 0){
+                return value;
+            }
+        }
+        
+        throw new IOException("Malformed variable-length integer");
+    }
+    
+    /**
+     * Gets the sorted copy of entries
+     * 
+     * @param entries The entries
+     * @return Returns sorted entries
+     */
+    private static List<ExecutionIndexEntry> sorted(List<ExecutionIndexEntry> entries){
+        
+        var sorted = new ArrayList<ExecutionIndexEntry>(entries == null ? 0 : entries.size());
+        
+        if(entries != null){
+            sorted.addAll(entries);
+        }
+        
+        // hex ObjectIds sort the same way as their binary form
+        sorted.sort(Comparator.comparing(ExecutionIndexEntry::getId));
+        
+        return sorted;
+    }
+    
+    /**
+     * Checks if the value is a hex ObjectId
+     * 
+     * @param value The value
+     * @return Returns true if 24-char lowercase hex
+     */
+    private static boolean isObjectId(String value){
+        
+        if(value == null || value.length() != OBJECT_ID_LENGTH * 2){
+            return false;
+        }
+        
+        for(var i = 0; i < value.length(); ++i){
+            
+            var c = value.charAt(i);
+            
+            if(!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))){
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Converts hex ObjectId to bytes
+     * 
+     * @param value The hex value
+     * @return Returns bytes
+     */
+    private static byte[] objectId(String value){
+        
+        var bytes = new byte[OBJECT_ID_LENGTH];
+        
+        for(var i = 0; i < OBJECT_ID_LENGTH; ++i){
+            bytes[i] = (byte) ((Character.digit(value.charAt(i * 2), 16) << 4) | Character.digit(value.charAt(i * 2 + 1), 16));
+        }
+        
+        return bytes;
+    }
+    
+    /**
+     * Converts bytes to hex
+     * 
+     * @param bytes The bytes
+     * @return Returns hex value
+     */
+    private static String hex(byte[] bytes){
+        
+        var chars = new char[bytes.length * 2];
+        
+        for(var i = 0; i < bytes.length; ++i){
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        
+        return new String(chars);
+    }
+}
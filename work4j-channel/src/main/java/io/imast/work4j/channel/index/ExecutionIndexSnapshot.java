@@ -0,0 +1,35 @@
+package io.imast.work4j.channel.index;
+
+import io.imast.work4j.model.execution.ExecutionIndexEntry;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The versioned snapshot of execution index
+ * 
+ * @author davitp
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder(toBuilder = true)
+public class ExecutionIndexSnapshot {
+    
+    /**
+     * The content hash of index
+     */
+    private String etag;
+    
+    /**
+     * Indicates that index did not change since the requested version (entries are missing)
+     */
+    private boolean notModified;
+    
+    /**
+     * The index entries
+     */
+    private List<ExecutionIndexEntry> entries;
+}
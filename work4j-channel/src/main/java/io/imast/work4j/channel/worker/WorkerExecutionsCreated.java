@@ -0,0 +1,37 @@
+package io.imast.work4j.channel.worker;
+
+import io.imast.work4j.model.execution.JobExecution;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * The message for worker that indicates creation of a burst of new executions
+ * 
+ * @author davitp
+ */
+@Data
+@Builder(toBuilder = true)
+@AllArgsConstructor
+public class WorkerExecutionsCreated implements WorkerMessage {
+    
+    /**
+     * The execution instances
+     */
+    private List<JobExecution> executions;
+    
+    /**
+     * The callback to run once executions are applied (optional)
+     */
+    private Runnable applied;
+    
+    /**
+     * Creates the message without applied callback
+     * 
+     * @param executions The execution instances
+     */
+    public WorkerExecutionsCreated(List<JobExecution> executions){
+        this(executions, null);
+    }
+}
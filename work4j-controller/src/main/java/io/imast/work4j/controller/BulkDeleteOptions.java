@@ -0,0 +1,31 @@
+package io.imast.work4j.controller;
+
+import io.imast.work4j.data.BatchOptions;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The options of bulk deletes in controller
+ * 
+ * @author davitp
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkDeleteOptions {
+    
+    /**
+     * The number of matching documents above which chunked deletes are used
+     */
+    @Builder.Default
+    private Long threshold = 10000L;
+    
+    /**
+     * The batching options of chunked deletes
+     */
+    @Builder.Default
+    private BatchOptions batch = BatchOptions.builder().build();
+}
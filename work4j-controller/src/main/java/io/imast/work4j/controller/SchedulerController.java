@@ -1,5 +1,12 @@
 package io.imast.work4j.controller;
 
+import io.imast.core.Str;
+import io.imast.work4j.channel.batch.ExecutionCompletion;
+import io.imast.work4j.channel.index.CompactExecutionIndex;
+import io.imast.work4j.channel.index.ExecutionIndexSnapshot;
+import io.imast.work4j.controller.archive.ExecutionArchiver;
+import io.imast.work4j.controller.assign.RendezvousAssignment;
+import io.imast.work4j.controller.ingest.IterationIngestion;
 import io.imast.work4j.data.SchedulerDataRepository;
 import io.imast.work4j.data.exception.SchedulerDataException;
 import io.imast.work4j.model.JobDefinition;
@@ -9,16 +16,22 @@ import io.imast.work4j.model.cluster.ClusterDefinition;
 import io.imast.work4j.model.cluster.ClusterWorker;
 import io.imast.work4j.model.cluster.WorkerHeartbeat;
 import io.imast.work4j.model.cluster.WorkerJoinInput;
+import io.imast.work4j.model.cluster.WorkerKind;
 import io.imast.work4j.model.execution.ExecutionStatus;
 import io.imast.work4j.model.execution.ExecutionUpdateInput;
 import io.imast.work4j.model.execution.ExecutionIndexEntry;
 import io.imast.work4j.model.execution.ExecutionsResponse;
 import io.imast.work4j.model.execution.JobExecution;
 import io.imast.work4j.model.execution.JobExecutionInput;
+import io.imast.work4j.model.iterate.IngestionStatus;
 import io.imast.work4j.model.iterate.Iteration;
 import io.imast.work4j.model.iterate.IterationInput;
+import io.imast.work4j.model.iterate.IterationReceipt;
 import io.imast.work4j.model.iterate.IterationStatus;
+import io.imast.work4j.model.iterate.Iterations;
 import io.imast.work4j.model.iterate.IterationsResponse;
+import io.vavr.control.Try;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -37,13 +50,75 @@ public class SchedulerController  {
      */
     protected final SchedulerDataRepository data;
     
+    /**
+     * The optional background archiver
+     */
+    protected final ExecutionArchiver archiver;
+    
+    /**
+     * The bulk delete options
+     */
+    protected final BulkDeleteOptions bulkDelete;
+    
+    /**
+     * The optional iteration ingestion pipeline
+     */
+    protected final IterationIngestion ingestion;
+    
     /**
      * Creates new instance of Scheduler Job Controller
      * 
      * @param data The scheduler data repository
      */
     public SchedulerController(SchedulerDataRepository data){
+        this(data, null, null, null);
+    }
+    
+    /**
+     * Creates new instance of Scheduler Job Controller
+     * 
+     * @param data The scheduler data repository
+     * @param archiver The optional background archiver
+     * @param bulkDelete The bulk delete options (defaults if missing)
+     * @param ingestion The optional iteration ingestion pipeline
+     */
+    public SchedulerController(SchedulerDataRepository data, ExecutionArchiver archiver, BulkDeleteOptions bulkDelete, IterationIngestion ingestion){
         this.data = data;
+        this.archiver = archiver;
+        this.bulkDelete = bulkDelete == null ? BulkDeleteOptions.builder().build() : bulkDelete;
+        this.ingestion = ingestion;
+    }
+    
+    /**
+     * Starts the background services of controller
+     */
+    public void start(){
+        
+        // start ingestion if configured
+        if(this.ingestion != null){
+            this.ingestion.start();
+        }
+        
+        // start archiving if configured
+        if(this.archiver != null){
+            this.archiver.start();
+        }
+    }
+    
+    /**
+     * Stops the background services of controller
+     */
+    public void stop(){
+        
+        // stop archiving if configured
+        if(this.archiver != null){
+            this.archiver.stop();
+        }
+        
+        // stop ingestion (flushing pending iterations) if configured
+        if(this.ingestion != null){
+            this.ingestion.stop();
+        }
     }
         
     /**
@@ -198,6 +273,90 @@ public class SchedulerController  {
         return this.data.getExecutionIndex(cluster);
     }
     
+    /**
+     * Gets the set of execution index entries the given worker is able to run
+     * 
+     * @param cluster The cluster to filter
+     * @param worker The name of registered worker
+     * @return Returns set of execution entries
+     * @throws SchedulerDataException
+     */
+    public List<ExecutionIndexEntry> getExecutionIndex(String cluster, String worker) throws SchedulerDataException {
+        
+        // the cluster definition
+        var definition = Str.blank(worker) ? Optional.<ClusterDefinition>empty() : this.data.getClusterByName(cluster);
+        
+        // the workers of cluster
+        List<ClusterWorker> workers = definition.map(ClusterDefinition::getWorkers).orElse(null);
+        
+        // lookup the registered worker within cluster
+        var registered = workers == null ? Optional.<ClusterWorker>empty() : workers.stream().filter(w -> worker.equals(w.getName())).findFirst();
+        
+        // unknown worker gets the whole cluster index
+        if(registered.isEmpty()){
+            return this.data.getExecutionIndex(cluster);
+        }
+        
+        // the requesting worker
+        var current = registered.get();
+        
+        // the entries worker is able to run
+        var entries = this.data.getExecutionIndex(cluster, current.getTypes(), current.getLabels());
+        
+        // no assignment required, worker gets all entries
+        if(current.getKind() != WorkerKind.BALANCED || !current.isAssigned()){
+            return entries;
+        }
+        
+        // the live assigned workers
+        var candidates = RendezvousAssignment.candidates(workers, new Date());
+        
+        // make sure the requesting worker takes part even if its heartbeat is late
+        if(candidates.stream().noneMatch(w -> w.getName().equals(current.getName()))){
+            candidates.add(current);
+        }
+        
+        return RendezvousAssignment.shard(entries, current, candidates);
+    }
+    
+    /**
+     * Gets the versioned execution index for the given worker
+     * 
+     * @param cluster The cluster to filter
+     * @param worker The name of registered worker
+     * @param etag The last known version of index
+     * @return Returns index snapshot (not modified if version matches)
+     * @throws SchedulerDataException
+     */
+    public ExecutionIndexSnapshot getExecutionIndexSnapshot(String cluster, String worker, String etag) throws SchedulerDataException {
+        
+        // the current index entries
+        var entries = this.getExecutionIndex(cluster, worker);
+        
+        // the current version
+        var current = CompactExecutionIndex.etag(entries);
+        
+        // same version, nothing changed
+        if(current.equals(etag)){
+            return ExecutionIndexSnapshot.builder().etag(current).notModified(true).build();
+        }
+        
+        return ExecutionIndexSnapshot.builder().etag(current).entries(entries).build();
+    }
+    
+    /**
+     * Gets the compact (binary) execution index for the given worker
+     * 
+     * @param cluster The cluster to filter
+     * @param worker The name of registered worker
+     * @param compress If index should be compressed
+     * @return Returns encoded index
+     * @throws SchedulerDataException
+     */
+    public byte[] getCompactExecutionIndex(String cluster, String worker, boolean compress) throws SchedulerDataException {
+        return CompactExecutionIndex.encode(this.getExecutionIndex(cluster, worker), compress);
+    }
+    
     /**
      * Gets the job executions by id
      * 
@@ -232,6 +391,31 @@ public class SchedulerController  {
         return this.data.updateExecution(id, input);
     }
     
+    /**
+     * Completes the batch of job executions (each one is updated on its own)
+     * 
+     * @param completions The completions to apply
+     * @return Returns updated job executions aligned with input (null if not updated)
+     */
+    public List<JobExecution> completeExecutions(List<ExecutionCompletion> completions) {
+        
+        var result = new ArrayList<JobExecution>(completions.size());
+        
+        for(var completion : completions){
+            
+            // a failed completion does not fail the batch
+            var updated = Try.of(() -> this.data.updateExecution(completion.getId(), new ExecutionUpdateInput(ExecutionStatus.COMPLETED, completion.getSeverity())));
+            
+            if(updated.isFailure()){
+                log.warn("SchedulerController: Could not complete the execution {}: {}", completion.getId(), updated.getCause().toString());
+            }
+            
+            result.add(updated.getOrNull());
+        }
+        
+        return result;
+    }
+    
     /**
      * Deletes the job execution by id
      * 
@@ -262,6 +446,12 @@ public class SchedulerController  {
      * @throws SchedulerDataException
      */
     public long deleteAllExecutionsByStatus(List<ExecutionStatus> statuses) throws SchedulerDataException {
+        
+        // use chunked deletes for large sets
+        if(this.isBulk(this.data.countExecutions(statuses))){
+            return this.data.deleteAllExecutionsByStatus(statuses, this.bulkDelete.getBatch());
+        }
+        
         return this.data.deleteAllExecutionsByStatus(statuses);
     }
     
@@ -272,6 +462,12 @@ public class SchedulerController  {
      * @throws SchedulerDataException
      */
     public long deleteAllExecutions() throws SchedulerDataException {
+        
+        // use chunked deletes for large sets
+        if(this.isBulk(this.data.countExecutions(null))){
+            return this.data.deleteAllExecutions(this.bulkDelete.getBatch());
+        }
+        
         return this.data.deleteAllExecutions();
     }
     
@@ -344,6 +540,105 @@ public class SchedulerController  {
         return this.data.insertIteration(input);
     }
     
+    /**
+     * Inserts the batch of job iterations into the data store with single write
+     * 
+     * @param inputs The job iterations to save
+     * @return Returns saved job iterations aligned with input (null if not valid)
+     * @throws SchedulerDataException
+     */
+    public List<Iteration> insertIterations(List<IterationInput> inputs) throws SchedulerDataException {
+        
+        var result = new ArrayList<Iteration>(inputs.size());
+        var valid = new ArrayList<Iteration>(inputs.size());
+        
+        for(var input : inputs){
+            
+            // an invalid iteration does not fail the batch
+            var validation = Iterations.validate(input);
+            
+            if(!validation.isEmpty()){
+                log.warn("SchedulerController: Skipping invalid iteration: {}", validation);
+                result.add(null);
+                continue;
+            }
+            
+            var iteration = Iterations.create(input, this.data.generateId());
+            
+            result.add(iteration);
+            valid.add(iteration);
+        }
+        
+        // write all at once
+        if(!valid.isEmpty()){
+            this.data.insertIterations(valid);
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Submits a job iteration through the ingestion pipeline (written synchronously if not configured)
+     * 
+     * @param input The job iteration to save
+     * @return Returns the ingestion receipt
+     * @throws SchedulerDataException
+     */
+    public IterationReceipt submitIteration(IterationInput input) throws SchedulerDataException {
+        
+        // ingestion is configured
+        if(this.ingestion != null){
+            return this.ingestion.submit(input);
+        }
+        
+        // write synchronously
+        var iteration = this.data.insertIteration(input);
+        
+        return IterationReceipt.builder()
+                .id(iteration.getId())
+                .status(IngestionStatus.ACCEPTED)
+                .pending(0)
+                .build();
+    }
+    
+    /**
+     * Submits the batch of job iterations through the ingestion pipeline (written with single write if not configured)
+     * 
+     * @param inputs The job iterations to save
+     * @return Returns ingestion receipts aligned with input (null if not valid)
+     * @throws SchedulerDataException
+     */
+    public List<IterationReceipt> submitIterations(List<IterationInput> inputs) throws SchedulerDataException {
+        
+        // write synchronously
+        if(this.ingestion == null){
+            
+            var result = new ArrayList<IterationReceipt>(inputs.size());
+            
+            for(var iteration : this.insertIterations(inputs)){
+                result.add(iteration == null ? null : IterationReceipt.builder().id(iteration.getId()).status(IngestionStatus.ACCEPTED).pending(0).build());
+            }
+            
+            return result;
+        }
+        
+        var result = new ArrayList<IterationReceipt>(inputs.size());
+        
+        for(var input : inputs){
+            
+            // an invalid iteration does not fail the batch
+            var receipt = Try.of(() -> this.ingestion.submit(input));
+            
+            if(receipt.isFailure()){
+                log.warn("SchedulerController: Could not submit the iteration: {}", receipt.getCause().toString());
+            }
+            
+            result.add(receipt.getOrNull());
+        }
+        
+        return result;
+    }
+    
     /**
      * Deletes an entry by id and returns deleted one
      * 
@@ -363,6 +658,12 @@ public class SchedulerController  {
      * @throws SchedulerDataException
      */
     public long deleteJobIterations(String jobId) throws SchedulerDataException {
+        
+        // use chunked deletes for large sets
+        if(this.isBulk(this.data.countIterations(jobId))){
+            return this.data.deleteJobIterations(jobId, this.bulkDelete.getBatch());
+        }
+        
         return this.data.deleteJobIterations(jobId);
     }
     
@@ -384,6 +685,12 @@ public class SchedulerController  {
      * @throws SchedulerDataException
      */
     public long deleteAllIterations() throws SchedulerDataException {
+        
+        // use chunked deletes for large sets
+        if(this.isBulk(this.data.countIterations(null))){
+            return this.data.deleteAllIterations(this.bulkDelete.getBatch());
+        }
+        
         return this.data.deleteAllIterations();
     }
     
@@ -461,4 +768,74 @@ public class SchedulerController  {
     public long deleteAllClusters() throws SchedulerDataException {
         return this.data.deleteAllClusters();
     }
+    
+    /**
+     * Runs a single archiving pass immediately
+     * 
+     * @return Returns number of archived documents
+     * @throws SchedulerDataException
+     */
+    public long archive() throws SchedulerDataException {
+        
+        // archiving is not configured
+        if(this.archiver == null){
+            return 0;
+        }
+        
+        return this.archiver.archive();
+    }
+    
+    /**
+     * Gets the archived job execution by id
+     * 
+     * @param id The id of target job execution
+     * @return Returns the archived job execution if found
+     * @throws SchedulerDataException
+     */
+    public Optional<JobExecution> getArchivedExecutionById(String id) throws SchedulerDataException {
+        return this.data.getArchivedExecutionById(id);
+    }
+    
+    /**
+     * Gets the page of archived executions
+     * 
+     * @param cluster The optional target cluster to filter
+     * @param type The optional type to filter by
+     * @param page The page number 
+     * @param size The page size
+     * @return Returns page of archived executions
+     * @throws SchedulerDataException
+     */
+    public ExecutionsResponse getArchivedExecutionsPage(String cluster, String type, int page, int size) throws SchedulerDataException {
+        return this.data.getArchivedExecutionsPage(cluster, type, page, size);
+    }
+    
+    /**
+     * Gets the page of archived iterations ordered by timestamp
+     * 
+     * @param jobId The job id to filter iterations
+     * @param executionId The execution id to filter by
+     * @param statuses The set of target statuses to lookup
+     * @param page The page number
+     * @param size The page size
+     * @return Returns a page of archived iterations with given filter
+     * @throws SchedulerDataException
+     */
+    public IterationsResponse getArchivedIterationsPage(String jobId, String executionId, List<IterationStatus> statuses, int page, int size) throws SchedulerDataException {
+        return this.data.getArchivedIterationsPage(jobId, executionId, statuses, page, size);
+    }
+    
+    /**
+     * Checks if the number of documents requires chunked deletion
+     * 
+     * @param count The number of documents to delete
+     * @return Returns true if chunked deletion should be used
+     */
+    protected boolean isBulk(long count){
+        
+        // the configured threshold
+        var threshold = this.bulkDelete.getThreshold();
+        
+        return threshold != null && count > threshold;
+    }
 }
@@ -1,6 +1,13 @@
 package io.imast.work4j.controller;
 
+import io.imast.work4j.controller.archive.ArchiveOptions;
+import io.imast.work4j.controller.archive.ExecutionArchiver;
+import io.imast.work4j.controller.ingest.IngestionOptions;
+import io.imast.work4j.controller.ingest.IterationIngestion;
+import io.imast.work4j.controller.metrics.InstrumentedRepository;
+import io.imast.work4j.controller.metrics.RepositoryMetrics;
 import io.imast.work4j.data.SchedulerDataRepository;
+import java.time.Duration;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -15,6 +22,31 @@ public class SchedulerControllerBuilder {
      * The data repository for scheduler
      */
     protected SchedulerDataRepository data;
+    
+    /**
+     * The archiving options (archiving is disabled if missing)
+     */
+    protected ArchiveOptions archiveOptions;
+    
+    /**
+     * The bulk delete options
+     */
+    protected BulkDeleteOptions bulkDeleteOptions;
+    
+    /**
+     * The iteration ingestion options (synchronous writes if missing)
+     */
+    protected IngestionOptions ingestionOptions;
+    
+    /**
+     * The repository metrics sink (instrumentation is disabled if missing)
+     */
+    protected RepositoryMetrics metrics;
+    
+    /**
+     * The threshold of slow repository calls to report
+     */
+    protected Duration slowThreshold;
         
     /**
      * Creates new instance of Scheduler Job Controller Builder
@@ -42,12 +74,79 @@ public class SchedulerControllerBuilder {
         return this;
     }
     
+    /**
+     * Use the background archiving of completed executions and old iterations
+     * 
+     * @param options The archiving options
+     * @return Returns builder instance for chaining
+     */
+    public SchedulerControllerBuilder withArchiving(ArchiveOptions options){
+        this.archiveOptions = options;
+        return this;
+    }
+    
+    /**
+     * Use the given bulk delete options (chunked deletes above threshold)
+     * 
+     * @param options The bulk delete options
+     * @return Returns builder instance for chaining
+     */
+    public SchedulerControllerBuilder withBulkDelete(BulkDeleteOptions options){
+        this.bulkDeleteOptions = options;
+        return this;
+    }
+    
+    /**
+     * Use the asynchronous, batched iteration ingestion
+     * 
+     * @param options The ingestion options
+     * @return Returns builder instance for chaining
+     */
+    public SchedulerControllerBuilder withIngestion(IngestionOptions options){
+        this.ingestionOptions = options;
+        return this;
+    }
+    
+    /**
+     * Use the metrics for data repository calls
+     * 
+     * @param metrics The repository metrics sink
+     * @return Returns builder instance for chaining
+     */
+    public SchedulerControllerBuilder withMetrics(RepositoryMetrics metrics){
+        this.metrics = metrics;
+        return this;
+    }
+    
+    /**
+     * Use the metrics for data repository calls and report calls slower than threshold
+     * 
+     * @param metrics The repository metrics sink
+     * @param slowThreshold The threshold of slow calls
+     * @return Returns builder instance for chaining
+     */
+    public SchedulerControllerBuilder withMetrics(RepositoryMetrics metrics, Duration slowThreshold){
+        this.metrics = metrics;
+        this.slowThreshold = slowThreshold;
+        return this;
+    }
+    
     /**
      * Builds the final controller instance
      * 
      * @return Returns controller instance
      */
     public SchedulerController build(){
-        return new SchedulerController(this.data);
+        
+        // the data repository (instrumented if requested)
+        var repository = this.metrics == null ? this.data : InstrumentedRepository.wrap(this.data, this.metrics, this.slowThreshold);
+        
+        // the archiver if requested
+        var archiver = this.archiveOptions == null ? null : new ExecutionArchiver(repository, this.archiveOptions);
+        
+        // the ingestion pipeline if requested
+        var ingestion = this.ingestionOptions == null ? null : new IterationIngestion(repository, this.ingestionOptions);
+        
+        return new SchedulerController(repository, archiver, this.bulkDeleteOptions, ingestion);
     }
 }
@@ -0,0 +1,49 @@
+package io.imast.work4j.controller.archive;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The archiving options
+ * 
+ * @author davitp
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArchiveOptions {
+    
+    /**
+     * The retention of completed executions in the hot collection
+     */
+    @Builder.Default
+    private Duration executionRetention = Duration.ofDays(30);
+    
+    /**
+     * The retention of iterations in the hot collection
+     */
+    @Builder.Default
+    private Duration iterationRetention = Duration.ofDays(30);
+    
+    /**
+     * The maximum number of documents moved in a single write
+     */
+    @Builder.Default
+    private Integer batchSize = 500;
+    
+    /**
+     * The pause between consecutive batches to pace the load (milliseconds)
+     */
+    @Builder.Default
+    private Long batchDelay = 100L;
+    
+    /**
+     * The frequency of archiving runs (milliseconds)
+     */
+    @Builder.Default
+    private Long interval = 3600000L;
+}
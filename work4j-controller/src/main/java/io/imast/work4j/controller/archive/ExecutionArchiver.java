@@ -0,0 +1,142 @@
+package io.imast.work4j.controller.archive;
+
+import io.imast.core.Lang;
+import io.imast.work4j.data.SchedulerDataRepository;
+import io.imast.work4j.data.exception.SchedulerDataException;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The background archiver of completed executions and old iterations
+ * 
+ * @author davitp
+ */
+@Slf4j
+public class ExecutionArchiver {
+    
+    /**
+     * The scheduler data repository
+     */
+    protected final SchedulerDataRepository data;
+    
+    /**
+     * The archiving options
+     */
+    protected final ArchiveOptions options;
+    
+    /**
+     * The background executor
+     */
+    protected ScheduledExecutorService executor;
+    
+    /**
+     * Creates new instance of execution archiver
+     * 
+     * @param data The scheduler data repository
+     * @param options The archiving options
+     */
+    public ExecutionArchiver(SchedulerDataRepository data, ArchiveOptions options){
+        this.data = data;
+        this.options = options;
+    }
+    
+    /**
+     * Starts the periodic archiving
+     */
+    public synchronized void start(){
+        
+        // already started
+        if(this.executor != null){
+            return;
+        }
+        
+        // single daemon thread is enough for archiving
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "work4j-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        // schedule periodic runs
+        this.executor.scheduleWithFixedDelay(this::run, this.options.getInterval(), this.options.getInterval(), TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Stops the periodic archiving
+     */
+    public synchronized void stop(){
+        
+        // not started
+        if(this.executor == null){
+            return;
+        }
+        
+        this.executor.shutdownNow();
+        this.executor = null;
+    }
+    
+    /**
+     * Runs a single archiving pass
+     * 
+     * @return Returns number of archived documents
+     * @throws SchedulerDataException
+     */
+    public long archive() throws SchedulerDataException {
+        
+        // the current moment
+        var now = System.currentTimeMillis();
+        
+        // the batch size
+        var batchSize = this.options.getBatchSize();
+        
+        // total moved documents
+        var total = 0L;
+        
+        // archive completed executions (with their iterations) batch by batch
+        var executionsBefore = new Date(now - this.options.getExecutionRetention().toMillis());
+        
+        for(var moved = this.data.archiveExecutions(executionsBefore, batchSize); moved > 0; moved = this.data.archiveExecutions(executionsBefore, batchSize)){
+            total += moved;
+            this.pace();
+        }
+        
+        // archive old iterations batch by batch
+        var iterationsBefore = new Date(now - this.options.getIterationRetention().toMillis());
+        
+        for(var moved = this.data.archiveIterations(iterationsBefore, batchSize); moved > 0; moved = this.data.archiveIterations(iterationsBefore, batchSize)){
+            total += moved;
+            this.pace();
+        }
+        
+        return total;
+    }
+    
+    /**
+     * Runs the archiving pass in background
+     */
+    protected void run(){
+        try{
+            var archived = this.archive();
+            log.debug("ExecutionArchiver: Archived documents count: {}", archived);
+        }
+        catch(Throwable error){
+            log.error("ExecutionArchiver: Archiving failed", error);
+        }
+    }
+    
+    /**
+     * Pauses between batches to keep load on the data store bounded
+     */
+    protected void pace(){
+        
+        // the delay between batches
+        var delay = this.options.getBatchDelay();
+        
+        if(delay != null && delay > 0){
+            Lang.wait(delay.intValue());
+        }
+    }
+}
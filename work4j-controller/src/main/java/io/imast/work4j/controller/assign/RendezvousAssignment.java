@@ -0,0 +1,188 @@
+package io.imast.work4j.controller.assign;
+
+import io.imast.work4j.model.cluster.ClusterWorker;
+import io.imast.work4j.model.cluster.WorkerKind;
+import io.imast.work4j.model.execution.ExecutionIndexEntry;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The rendezvous (highest random weight) assignment of executions over live balanced workers
+ * 
+ * @author davitp
+ */
+public class RendezvousAssignment {
+    
+    /**
+     * The FNV-1a offset basis
+     */
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    
+    /**
+     * The FNV-1a prime
+     */
+    private static final long FNV_PRIME = 0x100000001b3L;
+    
+    /**
+     * Gets the live workers taking part in assignment
+     * 
+     * @param workers The cluster workers
+     * @param now The current time
+     * @return Returns live assigned workers
+     */
+    public static List<ClusterWorker> candidates(List<ClusterWorker> workers, Date now){
+        
+        // no workers at all
+        if(workers == null){
+            return new ArrayList<>();
+        }
+        
+        return workers.stream()
+                .filter(w -> w.getKind() == WorkerKind.BALANCED && w.isAssigned())
+                .filter(w -> !isIdle(w, now))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Gets the shard of index entries assigned to the given worker
+     * 
+     * @param entries The index entries the worker is able to run
+     * @param worker The requesting worker
+     * @param candidates The live assigned workers
+     * @return Returns entries assigned to worker
+     */
+    public static List<ExecutionIndexEntry> shard(List<ExecutionIndexEntry> entries, ClusterWorker worker, List<ClusterWorker> candidates){
+        
+        // the result shard
+        var result = new ArrayList<ExecutionIndexEntry>(entries.size());
+        
+        for(var entry : entries){
+            
+            // the winner among eligible candidates
+            var winner = owner(entry, candidates);
+            
+            // keep entry if the worker wins or there is no other live owner
+            if(winner == null || winner.getName().equals(worker.getName())){
+                result.add(entry);
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Gets the owner of the entry among eligible candidates
+     * 
+     * @param entry The index entry
+     * @param candidates The live assigned workers
+     * @return Returns the owner or null if no eligible candidate
+     */
+    public static ClusterWorker owner(ExecutionIndexEntry entry, List<ClusterWorker> candidates){
+        
+        // the best candidate
+        ClusterWorker best = null;
+        var bestScore = 0L;
+        
+        for(var candidate : candidates){
+            
+            // skip candidates not able to run the entry
+            if(!eligible(entry, candidate)){
+                continue;
+            }
+            
+            // the weight of candidate for entry
+            var score = score(candidate.getName(), entry.getId());
+            
+            // select highest weight (compare unsigned, tie broken by name)
+            if(best == null || Long.compareUnsigned(score, bestScore) > 0 || (score == bestScore && candidate.getName().compareTo(best.getName()) < 0)){
+                best = candidate;
+                bestScore = score;
+            }
+        }
+        
+        return best;
+    }
+    
+    /**
+     * Checks if the worker is able to run the entry by type and selectors
+     * 
+     * @param entry The index entry
+     * @param worker The worker
+     * @return Returns true if eligible
+     */
+    public static boolean eligible(ExecutionIndexEntry entry, ClusterWorker worker){
+        
+        // check the type if worker advertises types
+        if(worker.getTypes() != null && !worker.getTypes().isEmpty() && entry.getType() != null && !worker.getTypes().contains(entry.getType())){
+            return false;
+        }
+        
+        // no selectors to match
+        if(entry.getSelectorKeys() == null || entry.getSelectorKeys().isEmpty()){
+            return true;
+        }
+        
+        // worker labels as keys
+        var labels = new HashSet<String>();
+        
+        if(worker.getLabels() != null){
+            worker.getLabels().forEach((k, v) -> labels.add(String.format("%s=%s", k, v)));
+        }
+        
+        return labels.containsAll(entry.getSelectorKeys());
+    }
+    
+    /**
+     * Computes the rendezvous weight of worker for the execution
+     * 
+     * @param worker The worker name
+     * @param execution The execution id
+     * @return Returns the weight
+     */
+    public static long score(String worker, String execution){
+        
+        // FNV-1a over worker and execution
+        var hash = FNV_OFFSET;
+        
+        for(var b : worker.getBytes(StandardCharsets.UTF_8)){
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        
+        hash = (hash ^ 0xff) * FNV_PRIME;
+        
+        for(var b : execution.getBytes(StandardCharsets.UTF_8)){
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        
+        // final avalanche (murmur3 fmix64)
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        
+        return hash;
+    }
+    
+    /**
+     * Checks if the worker is idle as of now
+     * 
+     * @param worker The worker to check
+     * @param now The now time to consider
+     * @return Returns if idle
+     */
+    public static boolean isIdle(ClusterWorker worker, Date now){
+        
+        // no update information
+        if(worker.getUpdated() == null){
+            return true;
+        }
+        
+        // if updated time considering maximum idle time is before current time consider as idle
+        return worker.getUpdated().getTime() + worker.getMaxIdle() < now.getTime();
+    }
+}
@@ -1,6 +1,8 @@
 package io.imast.work4j.controller.channel;
 
 import io.imast.work4j.channel.SchedulerChannel;
+import io.imast.work4j.channel.batch.ExecutionCompletion;
+import io.imast.work4j.channel.index.ExecutionIndexSnapshot;
 import io.imast.work4j.controller.SchedulerController;
 import io.imast.work4j.model.cluster.ClusterWorker;
 import io.imast.work4j.model.cluster.WorkerHeartbeat;
@@ -12,6 +14,7 @@ import io.imast.work4j.model.execution.ExecutionStatus;
 import io.imast.work4j.model.execution.JobExecution;
 import io.imast.work4j.model.iterate.Iteration;
 import io.imast.work4j.model.iterate.IterationInput;
+import io.imast.work4j.model.iterate.IterationReceipt;
 import io.vavr.control.Try;
 import java.util.List;
 import reactor.core.publisher.Mono;
@@ -56,6 +59,47 @@ public class BundledSchedulerChannel implements SchedulerChannel {
         return Mono.empty();
     }
     
+    /**
+     * Pull job groups the given worker is able to run (by types and labels)
+     * 
+     * @param cluster The target cluster
+     * @param worker The registered worker name
+     * @return Returns execution index entries
+     */
+    @Override
+    public Mono<List<ExecutionIndexEntry>> executionIndex(String cluster, String worker) {
+        // try get executions
+        var executions = Try.of(() -> this.controller.getExecutionIndex(cluster, worker));
+        
+        // in case of success build and return response
+        if(executions.isSuccess()){
+            return Mono.just(executions.get());
+        }
+        
+        return Mono.empty();
+    }
+    
+    /**
+     * Pull versioned job groups the given worker is able to run (not modified if version matches)
+     * 
+     * @param cluster The target cluster
+     * @param worker The registered worker name
+     * @param etag The last known index version (if any)
+     * @return Returns execution index snapshot
+     */
+    @Override
+    public Mono<ExecutionIndexSnapshot> executionIndex(String cluster, String worker, String etag) {
+        // try get snapshot
+        var snapshot = Try.of(() -> this.controller.getExecutionIndexSnapshot(cluster, worker, etag));
+        
+        // in case of success build and return response
+        if(snapshot.isSuccess()){
+            return Mono.just(snapshot.get());
+        }
+        
+        return Mono.empty();
+    }
+    
     /**
      * Exchange current status with modified entries
      * 
@@ -116,6 +160,82 @@ public class BundledSchedulerChannel implements SchedulerChannel {
         return Mono.empty();
     }
     
+    /**
+     * Submits iteration information to scheduler with backpressure signal
+     * 
+     * @param iteration The iteration to register
+     * @return Returns the ingestion receipt
+     */
+    @Override
+    public Mono<IterationReceipt> submit(IterationInput iteration){
+        // do submit iteration
+        var submitted = Try.of(() -> this.controller.submitIteration(iteration));
+        
+        // in case of success build and return response
+        if(submitted.isSuccess()){
+            return Mono.just(submitted.get());
+        }
+        
+        return Mono.empty();
+    }
+    
+    /**
+     * Adds batch of iterations to scheduler with single write
+     * 
+     * @param iterations The iterations to register
+     * @return Returns registered iterations aligned with input (null if not registered)
+     */
+    @Override
+    public Mono<List<Iteration>> iterateAll(List<IterationInput> iterations){
+        // do create iterations
+        var created = Try.of(() -> this.controller.insertIterations(iterations));
+        
+        // in case of success build and return response
+        if(created.isSuccess()){
+            return Mono.just(created.get());
+        }
+        
+        return Mono.empty();
+    }
+    
+    /**
+     * Submits batch of iterations to scheduler with backpressure signal
+     * 
+     * @param iterations The iterations to register
+     * @return Returns ingestion receipts aligned with input (null if not registered)
+     */
+    @Override
+    public Mono<List<IterationReceipt>> submitAll(List<IterationInput> iterations){
+        // do submit iterations
+        var submitted = Try.of(() -> this.controller.submitIterations(iterations));
+        
+        // in case of success build and return response
+        if(submitted.isSuccess()){
+            return Mono.just(submitted.get());
+        }
+        
+        return Mono.empty();
+    }
+    
+    /**
+     * Completes the batch of job executions in scheduler
+     * 
+     * @param completions The completions to report
+     * @return Returns updated job executions aligned with input (null if not updated)
+     */
+    @Override
+    public Mono<List<JobExecution>> completeAll(List<ExecutionCompletion> completions){
+        // do update the executions
+        var updated = Try.of(() -> this.controller.completeExecutions(completions));
+        
+        // in case of success build and return response
+        if(updated.isSuccess()){
+            return Mono.just(updated.get());
+        }
+        
+        return Mono.empty();
+    }
+    
     /**
      * Registers worker into the scheduler
      * 
@@ -0,0 +1,60 @@
+package io.imast.work4j.controller.ingest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The iteration ingestion options
+ * 
+ * @author davitp
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class IngestionOptions {
+    
+    /**
+     * The capacity of ingestion queue
+     */
+    @Builder.Default
+    private Integer capacity = 10000;
+    
+    /**
+     * The fraction of capacity after which callers are throttled
+     */
+    @Builder.Default
+    private Double highWatermark = 0.8;
+    
+    /**
+     * The maximum number of iterations written at once
+     */
+    @Builder.Default
+    private Integer batchSize = 500;
+    
+    /**
+     * The maximum time to collect a batch before writing (milliseconds)
+     */
+    @Builder.Default
+    private Long flushInterval = 200L;
+    
+    /**
+     * The number of write retries for a failed batch
+     */
+    @Builder.Default
+    private Integer retries = 3;
+    
+    /**
+     * The delay between write retries (milliseconds)
+     */
+    @Builder.Default
+    private Long retryDelay = 1000L;
+    
+    /**
+     * The maximum time to wait for pending writes on stop (milliseconds)
+     */
+    @Builder.Default
+    private Long shutdownTimeout = 10000L;
+}
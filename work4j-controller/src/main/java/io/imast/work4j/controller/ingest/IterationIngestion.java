@@ -0,0 +1,347 @@
+package io.imast.work4j.controller.ingest;
+
+import io.imast.core.Lang;
+import io.imast.work4j.data.SchedulerDataRepository;
+import io.imast.work4j.data.exception.SchedulerDataException;
+import io.imast.work4j.model.iterate.IngestionStatus;
+import io.imast.work4j.model.iterate.Iteration;
+import io.imast.work4j.model.iterate.IterationInput;
+import io.imast.work4j.model.iterate.IterationReceipt;
+import io.imast.work4j.model.iterate.Iterations;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The asynchronous, batched iteration ingestion pipeline
+ * 
+ * @author davitp
+ */
+@Slf4j
+public class IterationIngestion {
+    
+    /**
+     * The scheduler data repository
+     */
+    protected final SchedulerDataRepository data;
+    
+    /**
+     * The ingestion options
+     */
+    protected final IngestionOptions options;
+    
+    /**
+     * The bounded queue of pending iterations
+     */
+    protected final BlockingQueue<Iteration> queue;
+    
+    /**
+     * The number of pending iterations after which callers are throttled
+     */
+    protected final int throttleAt;
+    
+    /**
+     * The number of written iterations
+     */
+    protected final AtomicLong written;
+    
+    /**
+     * The number of dropped iterations (after failed retries)
+     */
+    protected final AtomicLong dropped;
+    
+    /**
+     * The dedicated writer thread
+     */
+    protected Thread writer;
+    
+    /**
+     * Indicates if pipeline is running
+     */
+    protected volatile boolean running;
+    
+    /**
+     * Creates new instance of iteration ingestion
+     * 
+     * @param data The scheduler data repository
+     * @param options The ingestion options
+     */
+    public IterationIngestion(SchedulerDataRepository data, IngestionOptions options){
+        this.data = data;
+        this.options = options;
+        this.queue = new ArrayBlockingQueue<>(options.getCapacity());
+        this.throttleAt = (int) Math.ceil(options.getCapacity() * options.getHighWatermark());
+        this.written = new AtomicLong();
+        this.dropped = new AtomicLong();
+    }
+    
+    /**
+     * Starts the writer
+     */
+    public synchronized void start(){
+        
+        // already started
+        if(this.running){
+            return;
+        }
+        
+        this.running = true;
+        this.writer = new Thread(this::drain, "work4j-ingestion");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+    
+    /**
+     * Stops the writer after flushing pending iterations (bounded by shutdown timeout)
+     */
+    public synchronized void stop(){
+        
+        // not started
+        if(!this.running){
+            return;
+        }
+        
+        this.running = false;
+        
+        try {
+            this.writer.join(this.options.getShutdownTimeout());
+        }
+        catch(InterruptedException error){
+            Thread.currentThread().interrupt();
+        }
+        
+        // report lost entries if any
+        if(!this.queue.isEmpty()){
+            log.warn("IterationIngestion: Stopped with {} pending iterations", this.queue.size());
+        }
+        
+        this.writer = null;
+    }
+    
+    /**
+     * Submits the iteration for asynchronous write
+     * 
+     * @param input The iteration input
+     * @return Returns the ingestion receipt
+     * @throws SchedulerDataException
+     */
+    public IterationReceipt submit(IterationInput input) throws SchedulerDataException {
+        
+        // validation log
+        var validation = Iterations.validate(input);
+        
+        // in case of any error raise an exception
+        if(!validation.isEmpty()){
+            throw new SchedulerDataException("Invalid Iteration", validation);
+        }
+        
+        // build new iteration to save
+        var iteration = Iterations.create(input, this.data.generateId());
+        
+        // pipeline is not running, write synchronously
+        if(!this.running){
+            return this.writeNow(iteration);
+        }
+        
+        // queue is full, push back to caller
+        if(!this.queue.offer(iteration)){
+            return IterationReceipt.builder()
+                    .status(IngestionStatus.REJECTED)
+                    .pending(this.queue.size())
+                    .build();
+        }
+        
+        // stopped meanwhile, the writer may have done its last drain (if it took the iteration it writes it)
+        if(!this.running && this.queue.remove(iteration)){
+            return this.writeNow(iteration);
+        }
+        
+        // the number of pending iterations
+        var pending = this.queue.size();
+        
+        return IterationReceipt.builder()
+                .id(iteration.getId())
+                .status(pending >= this.throttleAt ? IngestionStatus.THROTTLED : IngestionStatus.ACCEPTED)
+                .pending(pending)
+                .build();
+    }
+    
+    /**
+     * Writes the iteration synchronously
+     * 
+     * @param iteration The iteration
+     * @return Returns the ingestion receipt
+     * @throws SchedulerDataException
+     */
+    protected IterationReceipt writeNow(Iteration iteration) throws SchedulerDataException {
+        
+        this.data.insertIterations(List.of(iteration));
+        this.written.incrementAndGet();
+        
+        return IterationReceipt.builder()
+                .id(iteration.getId())
+                .status(IngestionStatus.ACCEPTED)
+                .pending(this.queue.size())
+                .build();
+    }
+    
+    /**
+     * Checks if the writer is running
+     * 
+     * @return Returns true if running
+     */
+    public boolean isRunning(){
+        return this.running;
+    }
+    
+    /**
+     * Gets the number of pending iterations
+     * 
+     * @return Returns pending count
+     */
+    public long getPending(){
+        return this.queue.size();
+    }
+    
+    /**
+     * Gets the number of written iterations
+     * 
+     * @return Returns written count
+     */
+    public long getWritten(){
+        return this.written.get();
+    }
+    
+    /**
+     * Gets the number of dropped iterations
+     * 
+     * @return Returns dropped count
+     */
+    public long getDropped(){
+        return this.dropped.get();
+    }
+    
+    /**
+     * Drains the queue in size- or time-bounded batches
+     */
+    protected void drain(){
+        
+        // the batch limits
+        var batchSize = this.options.getBatchSize();
+        var flushNanos = TimeUnit.MILLISECONDS.toNanos(this.options.getFlushInterval());
+        
+        // the reusable batch
+        var batch = new ArrayList<Iteration>(batchSize);
+        
+        // set if writer is interrupted
+        var interrupted = false;
+        
+        while(!interrupted && (this.running || !this.queue.isEmpty())){
+            
+            try{
+                // wait for the first element
+                var first = this.queue.poll(flushNanos, TimeUnit.NANOSECONDS);
+                
+                if(first == null){
+                    continue;
+                }
+                
+                batch.add(first);
+                
+                // collect until batch is full or flush interval passes
+                var deadline = System.nanoTime() + flushNanos;
+                
+                while(batch.size() < batchSize){
+                    
+                    // take everything immediately available
+                    this.queue.drainTo(batch, batchSize - batch.size());
+                    
+                    // time left for the batch
+                    var remaining = deadline - System.nanoTime();
+                    
+                    if(batch.size() >= batchSize || remaining <= 0 || !this.running){
+                        break;
+                    }
+                    
+                    // wait for the next one
+                    var next = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    
+                    if(next == null){
+                        break;
+                    }
+                    
+                    batch.add(next);
+                }
+                
+                this.write(batch);
+            }
+            catch(InterruptedException error){
+                
+                // the flag is cleared, flush collected and queued iterations and exit
+                interrupted = true;
+                this.running = false;
+                this.flush(batch);
+            }
+            finally{
+                batch.clear();
+            }
+        }
+        
+        // restore the interrupt flag
+        if(interrupted){
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Writes the collected batch and everything left in queue (in batches)
+     * 
+     * @param batch The collected batch
+     */
+    protected void flush(List<Iteration> batch){
+        
+        var batchSize = this.options.getBatchSize();
+        
+        do {
+            this.queue.drainTo(batch, batchSize - batch.size());
+            
+            if(!batch.isEmpty()){
+                this.write(batch);
+                batch.clear();
+            }
+        }
+        while(!this.queue.isEmpty());
+    }
+    
+    /**
+     * Writes the batch with retries
+     * 
+     * @param batch The batch to write
+     */
+    protected void write(List<Iteration> batch){
+        
+        for(var attempt = 0; attempt <= this.options.getRetries(); ++attempt){
+            
+            try{
+                this.data.insertIterations(batch);
+                this.written.addAndGet(batch.size());
+                return;
+            }
+            catch(Throwable error){
+                log.warn(String.format("IterationIngestion: Could not write batch of %s iterations (attempt %s)", batch.size(), attempt + 1), error);
+            }
+            
+            // delay before retry
+            if(attempt < this.options.getRetries()){
+                Lang.wait(this.options.getRetryDelay().intValue());
+            }
+        }
+        
+        this.dropped.addAndGet(batch.size());
+        log.error("IterationIngestion: Dropped batch of {} iterations", batch.size());
+    }
+}
@@ -0,0 +1,233 @@
+package io.imast.work4j.controller.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * The dependency-free in-memory repository metrics with fixed latency histograms
+ * 
+ * @author davitp
+ */
+public class InMemoryRepositoryMetrics implements RepositoryMetrics {
+    
+    /**
+     * The default histogram bucket bounds (milliseconds)
+     */
+    public static final long[] DEFAULT_BOUNDS = { 1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000 };
+    
+    /**
+     * The histogram bucket bounds (milliseconds)
+     */
+    protected final long[] bounds;
+    
+    /**
+     * The per-method stats
+     */
+    protected final Map<String, Stats> stats;
+    
+    /**
+     * Creates new instance of in-memory metrics with default buckets
+     */
+    public InMemoryRepositoryMetrics(){
+        this(DEFAULT_BOUNDS);
+    }
+    
+    /**
+     * Creates new instance of in-memory metrics
+     * 
+     * @param bounds The histogram bucket bounds (milliseconds, ascending)
+     */
+    public InMemoryRepositoryMetrics(long[] bounds){
+        this.bounds = Arrays.copyOf(bounds, bounds.length);
+        this.stats = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Records the start of a repository call
+     * 
+     * @param method The name of repository method
+     */
+    @Override
+    public void started(String method) {
+        this.stats(method).inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records the successful completion of a repository call
+     * 
+     * @param method The name of repository method
+     * @param nanos The duration of call in nanoseconds
+     * @param size The size of result (number of items or affected documents)
+     */
+    @Override
+    public void completed(String method, long nanos, long size) {
+        
+        // the method stats
+        var target = this.stats(method);
+        
+        // record the call
+        this.record(target, nanos);
+        target.size.add(size);
+    }
+
+    /**
+     * Records the failure of a repository call
+     * 
+     * @param method The name of repository method
+     * @param nanos The duration of call in nanoseconds
+     * @param error The failure reason
+     */
+    @Override
+    public void failed(String method, long nanos, Throwable error) {
+        
+        // the method stats
+        var target = this.stats(method);
+        
+        // record the call
+        this.record(target, nanos);
+        target.errors.increment();
+    }
+    
+    /**
+     * Gets the snapshot of all method metrics
+     * 
+     * @return Returns metrics snapshot per method
+     */
+    public Map<String, MethodMetrics> snapshot(){
+        return this.stats.entrySet().stream().collect(Collectors.toMap(e -> e.getKey(), e -> this.snapshot(e.getKey(), e.getValue())));
+    }
+    
+    /**
+     * Resets all the metrics
+     */
+    public void reset(){
+        this.stats.clear();
+    }
+    
+    /**
+     * Records the call duration
+     * 
+     * @param target The target stats
+     * @param nanos The duration of call
+     */
+    protected void record(Stats target, long nanos){
+        
+        // call is no longer in flight
+        target.inFlight.decrementAndGet();
+        
+        // count the call and duration
+        target.calls.increment();
+        target.nanos.add(nanos);
+        target.max.accumulateAndGet(nanos, Math::max);
+        
+        // find the histogram bucket
+        var millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        var index = Arrays.binarySearch(this.bounds, millis);
+        
+        target.buckets[index < 0 ? -index - 1 : index].increment();
+    }
+    
+    /**
+     * Gets or creates the stats of method
+     * 
+     * @param method The method name
+     * @return Returns method stats
+     */
+    protected Stats stats(String method){
+        return this.stats.computeIfAbsent(method, m -> new Stats(this.bounds.length + 1));
+    }
+    
+    /**
+     * Makes the snapshot of method stats
+     * 
+     * @param method The method name
+     * @param stats The method stats
+     * @return Returns snapshot
+     */
+    protected MethodMetrics snapshot(String method, Stats stats){
+        
+        // the bucket bounds and counts
+        var bucketBounds = new ArrayList<Long>(this.bounds.length);
+        var bucketCounts = new ArrayList<Long>(stats.buckets.length);
+        
+        for(var bound : this.bounds){
+            bucketBounds.add(bound);
+        }
+        
+        for(var bucket : stats.buckets){
+            bucketCounts.add(bucket.sum());
+        }
+        
+        return MethodMetrics.builder()
+                .method(method)
+                .calls(stats.calls.sum())
+                .errors(stats.errors.sum())
+                .inFlight(stats.inFlight.get())
+                .totalNanos(stats.nanos.sum())
+                .maxNanos(stats.max.get())
+                .totalSize(stats.size.sum())
+                .bucketBounds(bucketBounds)
+                .bucketCounts(bucketCounts)
+                .build();
+    }
+    
+    /**
+     * The mutable stats of single method
+     */
+    protected static class Stats {
+        
+        /**
+         * The number of calls
+         */
+        protected final LongAdder calls = new LongAdder();
+        
+        /**
+         * The number of errors
+         */
+        protected final LongAdder errors = new LongAdder();
+        
+        /**
+         * The total duration
+         */
+        protected final LongAdder nanos = new LongAdder();
+        
+        /**
+         * The total result size
+         */
+        protected final LongAdder size = new LongAdder();
+        
+        /**
+         * The maximum duration
+         */
+        protected final AtomicLong max = new AtomicLong();
+        
+        /**
+         * The number of calls in flight
+         */
+        protected final AtomicLong inFlight = new AtomicLong();
+        
+        /**
+         * The histogram buckets
+         */
+        protected final LongAdder[] buckets;
+        
+        /**
+         * Creates new stats
+         * 
+         * @param buckets The number of buckets
+         */
+        protected Stats(int buckets){
+            this.buckets = new LongAdder[buckets];
+            
+            for(var i = 0; i < buckets; ++i){
+                this.buckets[i] = new LongAdder();
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package io.imast.work4j.controller.metrics;
+
+import io.imast.work4j.data.SchedulerDataRepository;
+import io.imast.work4j.model.JobRequestResult;
+import io.imast.work4j.model.execution.ExecutionsResponse;
+import io.imast.work4j.model.iterate.IterationsResponse;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The metrics-instrumented decorator of scheduler data repository
+ * 
+ * @author davitp
+ */
+@Slf4j
+public class InstrumentedRepository implements InvocationHandler {
+    
+    /**
+     * The target repository
+     */
+    protected final SchedulerDataRepository target;
+    
+    /**
+     * The metrics sink
+     */
+    protected final RepositoryMetrics metrics;
+    
+    /**
+     * The slow call threshold in nanoseconds (disabled if not positive)
+     */
+    protected final long slowNanos;
+    
+    /**
+     * The metric keys of methods (overloads are told apart by parameter types)
+     */
+    protected final ConcurrentHashMap<Method, String> keys;
+    
+    /**
+     * Creates new instance of instrumented repository handler
+     * 
+     * @param target The target repository
+     * @param metrics The metrics sink
+     * @param slowThreshold The slow call threshold
+     */
+    protected InstrumentedRepository(SchedulerDataRepository target, RepositoryMetrics metrics, Duration slowThreshold){
+        this.target = target;
+        this.metrics = metrics;
+        this.slowNanos = slowThreshold == null ? 0 : slowThreshold.toNanos();
+        this.keys = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Decorates the repository with metrics
+     * 
+     * @param target The target repository
+     * @param metrics The metrics sink
+     * @param slowThreshold The optional slow call threshold
+     * @return Returns instrumented repository
+     */
+    public static SchedulerDataRepository wrap(SchedulerDataRepository target, RepositoryMetrics metrics, Duration slowThreshold){
+        
+        // the handler of calls
+        var handler = new InstrumentedRepository(target, metrics, slowThreshold);
+        
+        return (SchedulerDataRepository) Proxy.newProxyInstance(SchedulerDataRepository.class.getClassLoader(), new Class<?>[] { SchedulerDataRepository.class }, handler);
+    }
+    
+    /**
+     * Invokes the target repository method and records the metrics
+     * 
+     * @param proxy The proxy instance
+     * @param method The invoked method
+     * @param args The method arguments
+     * @return Returns the result of target method
+     * @throws Throwable 
+     */
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        
+        // object methods are not instrumented
+        if(method.getDeclaringClass() == Object.class){
+            return method.invoke(this.target, args);
+        }
+        
+        // the key of method
+        var name = this.keys.computeIfAbsent(method, this::keyOf);
+        
+        // start the call
+        this.metrics.started(name);
+        var start = System.nanoTime();
+        
+        try{
+            // invoke the target
+            var result = method.invoke(this.target, args);
+            var nanos = System.nanoTime() - start;
+            
+            this.metrics.completed(name, nanos, this.sizeOf(result));
+            this.checkSlow(name, nanos, args);
+            
+            return result;
+        }
+        catch(InvocationTargetException error){
+            var nanos = System.nanoTime() - start;
+            
+            this.metrics.failed(name, nanos, error.getCause());
+            this.checkSlow(name, nanos, args);
+            
+            throw error.getCause();
+        }
+    }
+    
+    /**
+     * Logs the call if it is slower than threshold
+     * 
+     * @param method The method name
+     * @param nanos The duration of call
+     * @param args The arguments of call
+     */
+    protected void checkSlow(String method, long nanos, Object[] args){
+        
+        // not slow or disabled
+        if(this.slowNanos <= 0 || nanos < this.slowNanos){
+            return;
+        }
+        
+        log.warn("InstrumentedRepository: Slow call {} took {} ms with arguments {}", method, nanos / 1000000, this.describe(args));
+    }
+    
+    /**
+     * Gets the metric key of method
+     * 
+     * @param method The method
+     * @return Returns method name with parameter types
+     */
+    protected String keyOf(Method method){
+        return method.getName() + Arrays.stream(method.getParameterTypes()).map(Class::getSimpleName).collect(Collectors.joining(",", "(", ")"));
+    }
+    
+    /**
+     * Describes the arguments by types and sizes (values are not logged)
+     * 
+     * @param args The arguments of call
+     * @return Returns description
+     */
+    protected String describe(Object[] args){
+        
+        if(args == null){
+            return "[]";
+        }
+        
+        return Arrays.stream(args).map(arg -> {
+            
+            if(arg == null){
+                return "null";
+            }
+            
+            if(arg instanceof Collection){
+                return String.format("%s[%s]", arg.getClass().getSimpleName(), ((Collection<?>) arg).size());
+            }
+            
+            if(arg instanceof Map){
+                return String.format("%s[%s]", arg.getClass().getSimpleName(), ((Map<?, ?>) arg).size());
+            }
+            
+            if(arg.getClass().isArray()){
+                return String.format("%s[%s]", arg.getClass().getComponentType().getSimpleName(), Array.getLength(arg));
+            }
+            
+            return arg.getClass().getSimpleName();
+            
+        }).collect(Collectors.joining(", ", "[", "]"));
+    }
+    
+    /**
+     * Gets the size of result
+     * 
+     * @param result The result of call
+     * @return Returns number of items or affected documents
+     */
+    protected long sizeOf(Object result){
+        
+        if(result == null){
+            return 0;
+        }
+        
+        if(result instanceof Collection){
+            return ((Collection<?>) result).size();
+        }
+        
+        if(result instanceof Optional){
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        
+        if(result instanceof Number){
+            return ((Number) result).longValue();
+        }
+        
+        if(result instanceof ExecutionsResponse){
+            return this.sizeOf(((ExecutionsResponse) result).getExecutions());
+        }
+        
+        if(result instanceof IterationsResponse){
+            return this.sizeOf(((IterationsResponse) result).getResults());
+        }
+        
+        if(result instanceof JobRequestResult){
+            return this.sizeOf(((JobRequestResult) result).getJobs());
+        }
+        
+        return 1;
+    }
+}
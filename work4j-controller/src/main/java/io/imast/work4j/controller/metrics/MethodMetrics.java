@@ -0,0 +1,64 @@
+package io.imast.work4j.controller.metrics;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The snapshot of metrics for a single repository method
+ * 
+ * @author davitp
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MethodMetrics {
+    
+    /**
+     * The name of method
+     */
+    private String method;
+    
+    /**
+     * The number of calls
+     */
+    private long calls;
+    
+    /**
+     * The number of failed calls
+     */
+    private long errors;
+    
+    /**
+     * The number of calls currently in flight
+     */
+    private long inFlight;
+    
+    /**
+     * The total duration of all calls (nanoseconds)
+     */
+    private long totalNanos;
+    
+    /**
+     * The maximum duration of a call (nanoseconds)
+     */
+    private long maxNanos;
+    
+    /**
+     * The total size of results
+     */
+    private long totalSize;
+    
+    /**
+     * The upper bounds of latency histogram buckets (milliseconds)
+     */
+    private List<Long> bucketBounds;
+    
+    /**
+     * The number of calls in each latency bucket (last one is overflow)
+     */
+    private List<Long> bucketCounts;
+}
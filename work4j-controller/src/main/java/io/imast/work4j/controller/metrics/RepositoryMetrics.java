@@ -0,0 +1,34 @@
+package io.imast.work4j.controller.metrics;
+
+/**
+ * The metrics SPI for scheduler data repository calls
+ * 
+ * @author davitp
+ */
+public interface RepositoryMetrics {
+    
+    /**
+     * Records the start of a repository call
+     * 
+     * @param method The repository method with parameter types, e.g. deleteAllExecutions(BatchOptions)
+     */
+    public void started(String method);
+    
+    /**
+     * Records the successful completion of a repository call
+     * 
+     * @param method The repository method with parameter types, e.g. deleteAllExecutions(BatchOptions)
+     * @param nanos The duration of call in nanoseconds
+     * @param size The size of result (number of items or affected documents)
+     */
+    public void completed(String method, long nanos, long size);
+    
+    /**
+     * Records the failure of a repository call
+     * 
+     * @param method The repository method with parameter types, e.g. deleteAllExecutions(BatchOptions)
+     * @param nanos The duration of call in nanoseconds
+     * @param error The failure reason
+     */
+    public void failed(String method, long nanos, Throwable error);
+}
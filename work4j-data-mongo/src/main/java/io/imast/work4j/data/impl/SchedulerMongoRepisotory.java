@@ -1,17 +1,26 @@
 package io.imast.work4j.data.impl;
 
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.client.ClientSession;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gt;
 import static com.mongodb.client.model.Filters.in;
 import static com.mongodb.client.model.Filters.lt;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.InsertManyOptions;
 import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
 import static com.mongodb.client.model.Projections.fields;
 import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Sorts.ascending;
 import static com.mongodb.client.model.Sorts.descending;
 import io.imast.core.Lang;
 import io.imast.core.Str;
@@ -28,6 +37,7 @@ import io.imast.work4j.model.execution.JobExecutionInput;
 import io.imast.work4j.model.iterate.Iteration;
 import io.imast.work4j.model.iterate.IterationInput;
 import io.imast.work4j.model.iterate.IterationStatus;
+import io.imast.work4j.model.iterate.Iterations;
 import io.imast.work4j.model.iterate.IterationsResponse;
 import io.imast.work4j.model.cluster.WorkerActivity;import java.util.ArrayList;
 import java.util.Arrays;
@@ -41,6 +51,7 @@ import org.bson.BsonDocument;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
+import io.imast.work4j.data.BatchOptions;
 import io.imast.work4j.data.SchedulerDataRepository;
 import io.imast.work4j.model.Jobs;
 import io.imast.work4j.model.cluster.ClusterDefinition;
@@ -97,6 +108,16 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
      */
     private final MongoCollection<JobExecution> executions;
     
+    /**
+     * The archived executions collection
+     */
+    private final MongoCollection<JobExecution> archivedExecutions;
+    
+    /**
+     * The archived iterations collection
+     */
+    private final MongoCollection<Iteration> archivedIterations;
+    
     /**
      * Indicates if operations should be transactional
      */
@@ -116,6 +137,8 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
         this.iterations = MongoOps.withPojo(this.mongoDatabase.getCollection(this.collection("iterations"), Iteration.class));
         this.clusters = MongoOps.withPojo(this.mongoDatabase.getCollection(this.collection("clusters"), ClusterDefinition.class));
         this.executions = MongoOps.withPojo(this.mongoDatabase.getCollection(this.collection("executions"), JobExecution.class));
+        this.archivedExecutions = MongoOps.withPojo(this.mongoDatabase.getCollection(this.collection("executions_archive"), JobExecution.class));
+        this.archivedIterations = MongoOps.withPojo(this.mongoDatabase.getCollection(this.collection("iterations_archive"), Iteration.class));
         this.transactional = transactional;
     }
     
@@ -147,15 +170,39 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
             // index executions by update time
             this.executions.createIndex(Indexes.descending("modified"), new IndexOptions().name("executions_by_modified"));
             
+            // index executions by cluster and type for worker indexation
+            this.executions.createIndex(Indexes.ascending("cluster", "type"), new IndexOptions().name("executions_by_cluster_type"));
+            
+            // index executions by cluster and selector keys for label matching (bounded by worker label keys)
+            this.executions.createIndex(Indexes.ascending("cluster", "selectorKeys"), new IndexOptions().name("executions_by_cluster_selector_keys"));
+            
+            // index executions by status and update time for archiving
+            this.executions.createIndex(Indexes.ascending("status", "modified"), new IndexOptions().name("executions_by_status_modified"));
+            
             // index iterations by timestamp for easy paging
             this.iterations.createIndex(Indexes.descending("timestamp"), new IndexOptions().name("iteration_by_timestamp_desc"));
             
             // index iterations by execution id for easy filtering
             this.iterations.createIndex(Indexes.ascending("executionId"), new IndexOptions().name("iteration_by_exec_id_desc"));
             
+            // index iterations by job id for counting and deleting per job
+            this.iterations.createIndex(Indexes.ascending("jobId"), new IndexOptions().name("iteration_by_job_id"));
+            
+            // index archived executions by name
+            this.archivedExecutions.createIndex(Indexes.ascending("name"), new IndexOptions().name("archived_executions_by_name"));
+            
+            // index archived executions by job id
+            this.archivedExecutions.createIndex(Indexes.ascending("jobId"), new IndexOptions().name("archived_executions_by_jobId"));
+            
+            // index archived iterations by timestamp for easy paging
+            this.archivedIterations.createIndex(Indexes.descending("timestamp"), new IndexOptions().name("archived_iteration_by_timestamp_desc"));
+            
+            // index archived iterations by execution id for easy filtering
+            this.archivedIterations.createIndex(Indexes.ascending("executionId"), new IndexOptions().name("archived_iteration_by_exec_id_desc"));
+            
             // index clusters by "cluster" value to ensure uniqueness
             this.clusters.createIndex(Indexes.ascending("cluster"), new IndexOptions().name("clusters_by_cluster_unique").unique(true));
-
+        
         }
         catch (Throwable e){
             throw new SchedulerDataException("Indexing Error", Arrays.asList("Could not create schema indexes"), e);
@@ -188,7 +235,7 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
         
         // combined filter
         var combined = filters.isEmpty() ? new BsonDocument() : and(filters);
-
+        
         // find all elements with filter
         return this.handle(() -> MongoOps.withinSession(this.transactional, this.client, session -> {
             return this.definitions.find(session, combined).into(new ArrayList<>());
@@ -608,7 +655,7 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
         
         // the target filters
         var filters = new ArrayList<Bson>();
-
+        
         // filter by cluster
         filters.add(eq("cluster", cluster));
         
@@ -624,6 +671,62 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
         }));
     }
     
+    /**
+     * Gets the set of execution index entries the worker is able to run
+     * 
+     * @param cluster The cluster to filter
+     * @param types The job types supported by worker (all types if missing)
+     * @param labels The worker labels to match execution selectors
+     * @return Returns set of execution entries
+     * @throws SchedulerDataException
+     */
+    @Override
+    public List<ExecutionIndexEntry> getExecutionIndex(String cluster, List<String> types, Map<String, String> labels) throws SchedulerDataException {
+        
+        // check the cluster
+        if(Str.blank(cluster)){
+            throw new SchedulerDataException("Invalid Cluster", Arrays.asList("The cluster is required for indexation"));
+        }
+        
+        // the target filters
+        var filters = new ArrayList<Bson>();
+        
+        // filter by cluster
+        filters.add(eq("cluster", cluster));
+        
+        // filter by supported types if given
+        if(types != null && !types.isEmpty()){
+            filters.add(in("type", types));
+        }
+        
+        // the worker label keys
+        var keys = Jobs.labelKeys(labels);
+        
+        // candidates have no selectors or share a key with worker labels (index bounds, unlike a negated match)
+        var candidates = new ArrayList<Object>(keys);
+        candidates.add(new ArrayList<String>());
+        candidates.add(null);
+        
+        filters.add(in("selectorKeys", candidates));
+        
+        // find all elements with filter
+        var entries = this.handle(() -> MongoOps.withinSession(this.transactional, this.client, session -> {
+            
+            // get filtered page
+            return this.executions
+                    .find(session, and(filters), ExecutionIndexEntry.class)
+                    .projection(fields(include("_id", "jobId", "status", "type", "selectorKeys")))
+                    .into(new ArrayList<>());
+        
+        }));
+        
+        // every selector key of execution should be within worker labels
+        var owned = new HashSet<String>(keys);
+        entries.removeIf(entry -> entry.getSelectorKeys() != null && !owned.containsAll(entry.getSelectorKeys()));
+        
+        return entries;
+    }
+    
     /**
      * Gets the job executions by id
      * 
@@ -706,6 +809,8 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
                     .modified(now)
                     .submited(now)
                     .extra(jobDefinition.getExtra())
+                    .selectors(jobDefinition.getSelectors())
+                    .selectorKeys(Jobs.labelKeys(jobDefinition.getSelectors()))
                     .build();
             
             // perform insert operation
@@ -876,15 +981,7 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
     public long deleteAllExecutionsByStatus(List<ExecutionStatus> statuses) throws SchedulerDataException {
         
         // the deletion filter
-        Bson filter;
-        
-        // no status to filter consider all, otherwise use statuses
-        if(statuses == null || statuses.isEmpty()){
-            filter = new BsonDocument();
-        }
-        else{
-            filter = in("status", statuses.stream().map(s -> s.name()));
-        }
+        var filter = this.statusFilter(statuses);
         
         // do within transaction 
         return this.handle(() -> MongoOps.withinSession(this.transactional, this.client, session -> {
@@ -906,6 +1003,54 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
         }));
     }
     
+    /**
+     * Counts the executions by given status codes
+     * 
+     * @param statuses The target statuses to count (all if missing)
+     * @return Returns number of executions
+     * @throws SchedulerDataException
+     */
+    @Override
+    public long countExecutions(List<ExecutionStatus> statuses) throws SchedulerDataException {
+        
+        // unfiltered count is served from collection metadata
+        if(statuses == null || statuses.isEmpty()){
+            return this.handle(() -> this.executions.estimatedDocumentCount());
+        }
+        
+        // the status filter
+        var filter = this.statusFilter(statuses);
+        
+        return this.handle(() -> MongoOps.withinSession(this.transactional, this.client, session -> {
+            return this.executions.countDocuments(session, filter);
+        }));
+    }
+    
+    /**
+     * Deletes all the executions by given status codes in id-ordered batches
+     * 
+     * @param statuses The target statuses to delete
+     * @param options The batching options
+     * @return Returns number of deleted executions
+     * @throws SchedulerDataException
+     */
+    @Override
+    public long deleteAllExecutionsByStatus(List<ExecutionStatus> statuses, BatchOptions options) throws SchedulerDataException {
+        return this.deleteChunked(this.executions, this.statusFilter(statuses), options);
+    }
+    
+    /**
+     * Deletes all the executions in id-ordered batches
+     * 
+     * @param options The batching options
+     * @return Returns number of deleted executions
+     * @throws SchedulerDataException
+     */
+    @Override
+    public long deleteAllExecutions(BatchOptions options) throws SchedulerDataException {
+        return this.deleteChunked(this.executions, new BsonDocument(), options);
+    }
+    
     /**
      * Gets all the job iterations 
      * 
@@ -1011,7 +1156,7 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
         
         // if any status is given to filter
         if(statuses != null && !statuses.isEmpty()){
-            filters.add(in("status", statuses.stream().map(s -> s.name())));
+            filters.add(in("status", statuses.stream().map(s -> s.name()).collect(Collectors.toList())));
         }
         
         // make combined filter
@@ -1046,27 +1191,7 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
     public Iteration insertIteration(IterationInput input) throws SchedulerDataException {
         
         // validation log
-        var validation = new ArrayList<String>();
-        
-        // make sure job id is provided
-        if(Str.blank(input.getJobId())){
-            validation.add("The job id is mandatory for iteration");
-        }
-        
-        // make sure execution id is provided
-        if(Str.blank(input.getExecutionId())){
-            validation.add("The execution id is mandatory for iteration");
-        }
-        
-        // make sure worker id is provided
-        if(Str.blank(input.getWorker())){
-            validation.add("The worker name is mandatory for iteration");
-        }
-        
-        // make sure status is given
-        if(input.getStatus() == null){
-            validation.add("The iteration must have a status");
-        }
+        var validation = Iterations.validate(input);
         
         // in case of any error raise an exception
         if(!validation.isEmpty()){
@@ -1113,6 +1238,73 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
         }));   
     }
     
+    /**
+     * Inserts the batch of prepared iterations (with assigned ids) into the data store
+     * 
+     * @param iterations The iterations to save
+     * @return Returns number of saved iterations
+     * @throws SchedulerDataException
+     */
+    @Override
+    public long insertIterations(List<Iteration> iterations) throws SchedulerDataException {
+        
+        // nothing to insert
+        if(iterations == null || iterations.isEmpty()){
+            return 0;
+        }
+        
+        // every iteration should have an identifier
+        if(iterations.stream().anyMatch(i -> i == null || Str.blank(i.getId()))){
+            throw new SchedulerDataException("Invalid Iteration", Arrays.asList("The batch iterations should have assigned identifiers"));
+        }
+        
+        // do within transaction 
+        return this.handle(() -> MongoOps.withinSession(this.transactional, this.client, session -> {
+            
+            // the iterations to insert
+            var inserting = iterations;
+            
+            // a duplicate key aborts the transaction, so existing entries (retried batch) are skipped up front
+            if(this.transactional){
+                
+                var existing = this.iterations
+                        .find(session, in("_id", iterations.stream().map(Iteration::getId).collect(Collectors.toList())))
+                        .projection(include("_id"))
+                        .map(Iteration::getId)
+                        .into(new HashSet<>());
+                
+                inserting = iterations.stream().filter(i -> !existing.contains(i.getId())).collect(Collectors.toList());
+                
+                if(inserting.isEmpty()){
+                    return 0L;
+                }
+            }
+            
+            try{
+                return (long) this.iterations.insertMany(session, inserting, new InsertManyOptions().ordered(false)).getInsertedIds().size();
+            }
+            catch(MongoBulkWriteException error){
+                
+                // already existing entries (retried batch) are fine, otherwise rethrow
+                if(error.getWriteErrors().stream().anyMatch(e -> ErrorCategory.fromErrorCode(e.getCode()) != ErrorCategory.DUPLICATE_KEY)){
+                    throw error;
+                }
+                
+                return (long) error.getWriteResult().getInsertedCount();
+            }
+        }));
+    }
+    
+    /**
+     * Generates a new identifier for the entity in the data store format
+     * 
+     * @return Returns new identifier
+     */
+    @Override
+    public String generateId() {
+        return ObjectId.get().toHexString();
+    }
+    
     /**
      * Deletes an entry by id and returns deleted one
      * 
@@ -1127,7 +1319,7 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
         if(Str.blank(id)){
             throw new SchedulerDataException("Missing Iteration Id", Arrays.asList("Iteration ID is required"));
         }
-
+        
         // do within transaction 
         return this.handle(() -> MongoOps.withinSession(this.transactional, this.client, session -> {
             
@@ -1200,6 +1392,60 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
         }));
     }
     
+    /**
+     * Counts the iterations (optionally filtered by job id)
+     * 
+     * @param jobId The optional job id to filter
+     * @return Returns number of iterations
+     * @throws SchedulerDataException
+     */
+    @Override
+    public long countIterations(String jobId) throws SchedulerDataException {
+        
+        // unfiltered count is served from collection metadata
+        if(Str.blank(jobId)){
+            return this.handle(() -> this.iterations.estimatedDocumentCount());
+        }
+        
+        // the job filter
+        var filter = eq("jobId", jobId);
+        
+        return this.handle(() -> MongoOps.withinSession(this.transactional, this.client, session -> {
+            return this.iterations.countDocuments(session, filter);
+        }));
+    }
+    
+    /**
+     * Deletes all the iterations for the given job id in id-ordered batches
+     * 
+     * @param jobId The target job id
+     * @param options The batching options
+     * @return Returns number of removed job iteration entries
+     * @throws SchedulerDataException
+     */
+    @Override
+    public long deleteJobIterations(String jobId, BatchOptions options) throws SchedulerDataException {
+        
+        // job id is required
+        if(Str.blank(jobId)){
+            throw new SchedulerDataException("Missing Job Id", Arrays.asList("Job ID is required"));
+        }
+        
+        return this.deleteChunked(this.iterations, eq("jobId", jobId), options);
+    }
+    
+    /**
+     * Deletes all the iterations in id-ordered batches
+     * 
+     * @param options The batching options
+     * @return Returns number of deleted records
+     * @throws SchedulerDataException
+     */
+    @Override
+    public long deleteAllIterations(BatchOptions options) throws SchedulerDataException {
+        return this.deleteChunked(this.iterations, new BsonDocument(), options);
+    }
+    
     /**
      * Deletes all the iterations before given timestamp
      * 
@@ -1221,6 +1467,231 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
         }));
     }
     
+    /**
+     * Moves a batch of completed executions modified before given timestamp (along with their iterations) into the archive
+     * 
+     * @param before The timestamp to filter completed executions
+     * @param batchSize The maximum number of documents to move in a single write
+     * @return Returns number of archived executions
+     * @throws SchedulerDataException
+     */
+    @Override
+    public long archiveExecutions(Date before, int batchSize) throws SchedulerDataException {
+        
+        // timestamp is required
+        if(before == null){
+            throw new SchedulerDataException("Missing Timestamp", Arrays.asList("The timestamp is required"));
+        }
+        
+        // batch size should be positive
+        if(batchSize <= 0){
+            throw new SchedulerDataException("Invalid Batch", Arrays.asList("The batch size should be a positive value"));
+        }
+        
+        // the completed executions filter
+        var filter = and(eq("status", ExecutionStatus.COMPLETED.name()), lt("modified", before));
+        
+        // select the batch of executions to move (identifiers only, documents are taken when removed)
+        List<JobExecution> batch = this.handle(() -> MongoOps.withinSession(this.transactional, this.client, session -> {
+            return this.executions
+                    .find(session, filter)
+                    .projection(include("_id"))
+                    .sort(ascending("_id"))
+                    .limit(batchSize)
+                    .into(new ArrayList<>());
+        }));
+        
+        // nothing to archive
+        if(batch.isEmpty()){
+            return 0;
+        }
+        
+        // the identifiers of executions in batch
+        var ids = batch.stream().map(JobExecution::getId).collect(Collectors.toList());
+        
+        // move executions themselves (the filter is applied again, so executions changed in the meantime stay)
+        List<String> archived = this.handle(() -> MongoOps.withinSession(this.transactional, this.client, session -> {
+            
+            // remove from the hot collection taking the current state
+            var removed = new ArrayList<JobExecution>();
+            
+            for(var id : ids){
+                
+                var execution = this.executions.findOneAndDelete(session, and(this.hasId(id), filter));
+                
+                if(execution != null){
+                    removed.add(execution);
+                }
+            }
+            
+            // copy into archive what was actually removed (upsert to keep operation idempotent)
+            if(!removed.isEmpty()){
+                this.archivedExecutions.bulkWrite(session, removed.stream().map(this::archiveModel).collect(Collectors.toList()), new BulkWriteOptions().ordered(false));
+            }
+            
+            return removed.stream().map(JobExecution::getId).collect(Collectors.toList());
+        }));
+        
+        // nothing was removed
+        if(archived.isEmpty()){
+            return 0;
+        }
+        
+        // move iterations once executions are gone (each portion in own session to keep writes bounded)
+        long moved;
+        
+        do {
+            moved = this.moveIterations(in("executionId", archived), batchSize);
+        }
+        while(moved >= batchSize);
+        
+        return archived.size();
+    }
+    
+    /**
+     * Moves a batch of iterations before given timestamp into the archive
+     * 
+     * @param before The timestamp to filter iterations
+     * @param batchSize The maximum number of documents to move in a single write
+     * @return Returns number of archived iterations
+     * @throws SchedulerDataException
+     */
+    @Override
+    public long archiveIterations(Date before, int batchSize) throws SchedulerDataException {
+        
+        // timestamp is required
+        if(before == null){
+            throw new SchedulerDataException("Missing Timestamp", Arrays.asList("The timestamp is required"));
+        }
+        
+        // batch size should be positive
+        if(batchSize <= 0){
+            throw new SchedulerDataException("Invalid Batch", Arrays.asList("The batch size should be a positive value"));
+        }
+        
+        return this.moveIterations(lt("timestamp", before), batchSize);
+    }
+    
+    /**
+     * Gets the archived job execution by id
+     * 
+     * @param id The id of target job execution
+     * @return Returns the archived job execution if found
+     * @throws SchedulerDataException
+     */
+    @Override
+    public Optional<JobExecution> getArchivedExecutionById(String id) throws SchedulerDataException {
+        
+        // id is required
+        if(Str.blank(id)){
+            throw new SchedulerDataException("Missing Id", Arrays.asList("Execution ID is required"));
+        }
+        
+        return this.handle(() -> MongoOps.withinSession(this.transactional, this.client, session -> {
+            return Optional.ofNullable(this.archivedExecutions.find(session, this.hasId(id)).first());
+        }));
+    }
+    
+    /**
+     * Gets the page of archived executions
+     * 
+     * @param cluster The optional target cluster to filter
+     * @param type The optional type to filter by
+     * @param page The page number 
+     * @param size The page size
+     * @return Returns page of archived executions
+     * @throws SchedulerDataException
+     */
+    @Override
+    public ExecutionsResponse getArchivedExecutionsPage(String cluster, String type, int page, int size) throws SchedulerDataException {
+        
+        // the target filters
+        var filters = new ArrayList<Bson>();
+        
+        // add type filter if given
+        if(!Str.blank(type)){
+            filters.add(eq("type", type));
+        }
+        
+        // add cluster filter if given
+        if(!Str.blank(cluster)){
+            filters.add(eq("cluster", cluster));
+        }
+        
+        // combined filter
+        var combined = filters.isEmpty() ? new BsonDocument() : and(filters);
+        
+        // find all elements with filter
+        return this.handle(() -> MongoOps.withinSession(this.transactional, this.client, session -> {
+            
+            // get filtered page
+            var filtered = this.archivedExecutions
+                    .find(session, combined)
+                    .sort(descending("name"))
+                    .skip(page * size)
+                    .limit(size)
+                    .into(new ArrayList<>());
+            
+            // count overall documents in query
+            var count = this.archivedExecutions.countDocuments(session, combined);
+            
+            return new ExecutionsResponse(filtered, count);
+        }));
+    }
+    
+    /**
+     * Gets the page of archived iterations ordered by timestamp (optionally filter by job id and statuses)
+     * 
+     * @param jobId The job id to filter iterations
+     * @param executionId The execution id to filter by
+     * @param statuses The set of target statuses to lookup
+     * @param page The page number
+     * @param size The page size
+     * @return Returns a page of archived iterations with given filter
+     * @throws SchedulerDataException
+     */
+    @Override
+    public IterationsResponse getArchivedIterationsPage(String jobId, String executionId, List<IterationStatus> statuses, int page, int size) throws SchedulerDataException {
+        
+        // set of filters
+        var filters = new ArrayList<Bson>();
+        
+        // filter by job id
+        if(!Str.blank(jobId)){
+            filters.add(eq("jobId", jobId));
+        }
+        
+        // filter by execution id
+        if(!Str.blank(executionId)){
+            filters.add(eq("executionId", executionId));
+        }
+        
+        // if any status is given to filter
+        if(statuses != null && !statuses.isEmpty()){
+            filters.add(in("status", statuses.stream().map(s -> s.name()).collect(Collectors.toList())));
+        }
+        
+        // make combined filter
+        var combined = filters.isEmpty() ? new BsonDocument() : and(filters);
+        
+        // find all elements with filter
+        return this.handle(() -> MongoOps.withinSession(this.transactional, this.client, session -> {
+            
+            // get filtered page
+            var filtered = this.archivedIterations
+                    .find(session, combined)
+                    .sort(descending("timestamp"))
+                    .skip(page * size)
+                    .limit(size)
+                    .into(new ArrayList<>());
+            
+            // count overall documents in query
+            var count = this.archivedIterations.countDocuments(session, combined);
+            
+            return new IterationsResponse(filtered, count);
+        }));
+    }
+    
     /**
      * Gets all the clusters
      * 
@@ -1255,6 +1726,27 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
             return Optional.ofNullable(this.clusters.find(session, this.hasId(id)).first());
         }));
     }
+    
+    /**
+     * Gets the cluster by name
+     * 
+     * @param cluster The cluster name
+     * @return Returns cluster definition if found
+     * @throws SchedulerDataException
+     */
+    @Override
+    public Optional<ClusterDefinition> getClusterByName(String cluster) throws SchedulerDataException {
+        
+        // cluster is required
+        if(Str.blank(cluster)){
+            throw new SchedulerDataException("Missing Cluster", Arrays.asList("Cluster name is required"));
+        }
+        
+        // find the cluster by name
+        return this.handle(() -> MongoOps.withinSession(this.transactional, this.client, session -> {
+            return Optional.ofNullable(this.clusters.find(session, eq("cluster", cluster)).first());
+        }));
+    }
    
     /**
      * Join the worker to the cluster
@@ -1388,7 +1880,7 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
         if(Str.blank(id)){
             throw new SchedulerDataException("Missing Cluster Id", Arrays.asList("Cluster ID is required"));
         }
-
+        
         // do within transaction 
         return this.handle(() -> MongoOps.withinSession(this.transactional, this.client, session -> {
             
@@ -1516,7 +2008,7 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
         
         return issues;
     }
-
+    
     /**
      * Update the existing job definition with given input
      * @param session The session context of client
@@ -1545,6 +2037,15 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
         // perform replace operation and get result
         this.definitions.replaceOne(session, this.hasId(existing.getId()), toUpdate);
         
+        // selectors are snapshotted into executions, keep them matching the definition
+        if(!Jobs.labelKeys(existing.getSelectors()).equals(Jobs.labelKeys(input.getSelectors()))){
+            
+            // the changed selectors
+            var selectors = new Document("selectors", input.getSelectors()).append("selectorKeys", Jobs.labelKeys(input.getSelectors()));
+            
+            this.executions.updateMany(session, eq("jobId", existing.getId()), new Document("$set", selectors));
+        }
+        
         // try get updated item
         var updated = this.definitions.find(session, this.hasId(existing.getId())).first();
     
@@ -1576,7 +2077,146 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
             throw new SchedulerDataException(e);
         }
     }
-
+    
+    /**
+     * Deletes the documents matching the filter in id-ordered batches (each batch in own session)
+     * 
+     * @param <T> The type of documents
+     * @param collection The target collection
+     * @param filter The deletion filter
+     * @param options The batching options
+     * @return Returns number of deleted documents
+     */
+    protected <T> long deleteChunked(MongoCollection<T> collection, Bson filter, BatchOptions options) throws SchedulerDataException {
+        
+        // use defaults if options are missing
+        var batching = options == null ? BatchOptions.builder().build() : options;
+        
+        // batch size should be positive
+        if(batching.getBatchSize() == null || batching.getBatchSize() <= 0){
+            throw new SchedulerDataException("Invalid Batch", Arrays.asList("The batch size should be a positive value"));
+        }
+        
+        // the raw view of collection to read identifiers only
+        var raw = collection.withDocumentClass(Document.class);
+        
+        // the last deleted identifier and total count
+        String last = null;
+        var total = 0L;
+        
+        while(true){
+            
+            // the batch filter (continue after the last seen id)
+            var batchFilter = last == null ? filter : and(filter, gt("_id", last));
+            
+            // select the next portion of identifiers
+            List<String> ids = this.handle(() -> MongoOps.withinSession(false, this.client, session -> {
+                return raw.find(session, batchFilter)
+                        .projection(include("_id"))
+                        .sort(ascending("_id"))
+                        .limit(batching.getBatchSize())
+                        .map(document -> document.getString("_id"))
+                        .into(new ArrayList<>());
+            }));
+            
+            // nothing left
+            if(ids.isEmpty()){
+                break;
+            }
+            
+            // delete the portion
+            total += this.handle(() -> MongoOps.withinSession(this.transactional, this.client, session -> {
+                return collection.deleteMany(session, in("_id", ids)).getDeletedCount();
+            }));
+            
+            // remember the position
+            last = ids.get(ids.size() - 1);
+            
+            // report progress if requested
+            if(batching.getProgress() != null){
+                batching.getProgress().accept(total);
+            }
+            
+            // last portion was incomplete
+            if(ids.size() < batching.getBatchSize()){
+                break;
+            }
+            
+            // pace the deletion
+            if(batching.getPause() != null && batching.getPause() > 0){
+                Lang.wait(batching.getPause().intValue());
+            }
+        }
+        
+        return total;
+    }
+    
+    /**
+     * Builds the status filter for executions
+     * 
+     * @param statuses The statuses to filter (all if missing)
+     * @return Returns the status filter
+     */
+    protected Bson statusFilter(List<ExecutionStatus> statuses){
+        
+        // no status to filter consider all, otherwise use statuses
+        if(statuses == null || statuses.isEmpty()){
+            return new BsonDocument();
+        }
+        
+        return in("status", statuses.stream().map(s -> s.name()).collect(Collectors.toList()));
+    }
+    
+    /**
+     * Moves a single batch of iterations matching the filter into the archive
+     * 
+     * @param filter The iterations filter
+     * @param batchSize The maximum number of iterations to move
+     * @return Returns number of moved iterations
+     */
+    protected long moveIterations(Bson filter, int batchSize) throws SchedulerDataException {
+        return this.handle(() -> MongoOps.withinSession(this.transactional, this.client, session -> {
+            
+            // select the portion of iterations
+            var portion = this.iterations
+                    .find(session, filter)
+                    .sort(ascending("_id"))
+                    .limit(batchSize)
+                    .into(new ArrayList<>());
+            
+            // nothing to move
+            if(portion.isEmpty()){
+                return 0L;
+            }
+            
+            // copy into archive (upsert to keep operation idempotent)
+            this.archivedIterations.bulkWrite(session, portion.stream().map(this::archiveModel).collect(Collectors.toList()), new BulkWriteOptions().ordered(false));
+            
+            // remove from the hot collection
+            return this.iterations.deleteMany(session, in("_id", portion.stream().map(Iteration::getId).collect(Collectors.toList()))).getDeletedCount();
+        }));
+    }
+    
+    /**
+     * Builds the archive write model for the execution
+     * 
+     * @param execution The execution to archive
+     * @return Returns the upsert model
+     */
+    protected WriteModel<JobExecution> archiveModel(JobExecution execution){
+        return new ReplaceOneModel<>(this.hasId(execution.getId()), execution, new ReplaceOptions().upsert(true));
+    }
+    
+    /**
+     * Builds the archive write model for the iteration
+     * 
+     * @param iteration The iteration to archive
+     * @return Returns the upsert model
+     */
+    protected WriteModel<Iteration> archiveModel(Iteration iteration){
+        return new ReplaceOneModel<>(this.hasId(iteration.getId()), iteration, new ReplaceOptions().upsert(true));
+    }
+    
     /**
      * Builds the identity filter
      * 
@@ -1586,7 +2226,7 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
     protected Bson hasId(String id){
         return eq("_id", id);
     }
-
+    
     
     /**
      * Creates a new cluster and inserts into the system
@@ -1596,10 +2236,10 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
      * @return Returns created cluster 
      */
     protected ClusterDefinition insertCluster(ClientSession session, WorkerJoinInput input) throws SchedulerDataException {
-
+        
         // new entity id
         var newId = ObjectId.get().toHexString();
-
+        
         // the now time
         var now = new Date();
         
@@ -1612,10 +2252,10 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
                 .created(now)
                 .updated(now)
                 .build();
-
+        
         // try insert
         var insertResult = this.clusters.insertOne(session, newCluster);
-
+        
         // check insert result
         if(insertResult == null || insertResult.getInsertedId() == null){
             throw new SchedulerDataException("Cluster Error", Arrays.asList("Cluster was not saved due to internal issue"));
@@ -1623,7 +2263,7 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
         
         // get inserted object back
         var existingCluster = this.clusters.find(session, this.hasId(newId)).first();
-
+        
         // could not save cluster, something went wrong
         if(existingCluster == null){
             throw new SchedulerDataException("Cluster Error", Arrays.asList("Could not save cluster for the first time"));
@@ -1641,7 +2281,7 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
      * @return Returns joined worker
      */
     protected ClusterWorker joinWorker(ClientSession session, ClusterDefinition cluster, WorkerJoinInput input) {
-
+        
         // the current time
         var now = new Date();
  
@@ -1657,6 +2297,9 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
                 .persistence(input.isPersistence())
                 .persistenceMethod(input.getPersistenceMethod())
                 .maxIdle(maxIdle)
+                .types(input.getTypes())
+                .labels(input.getLabels())
+                .assigned(input.isAssigned())
                 .updated(now);
         
         // the list of workers 
@@ -1766,7 +2409,7 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
         // if updated time considering maximum idle time is before current time consider as idle
         return updated + maxIdle < current;
     }
-
+    
     /**
      * Updates existing cluster definition in the storage
      * 
@@ -1775,7 +2418,7 @@ public class SchedulerMongoRepisotory implements SchedulerDataRepository {
      * @return Returns the updated cluster
      */
     protected ClusterDefinition updateCluster(ClientSession session, ClusterDefinition cluster) {
-
+        
         // perform replace operation and get result
         this.clusters.replaceOne(session, this.hasId(cluster.getId()), cluster);
         
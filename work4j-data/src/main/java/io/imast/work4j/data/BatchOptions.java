@@ -0,0 +1,36 @@
+package io.imast.work4j.data;
+
+import java.util.function.Consumer;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The options of batched (chunked) data operations
+ * 
+ * @author davitp
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchOptions {
+    
+    /**
+     * The maximum number of documents processed in a single batch
+     */
+    @Builder.Default
+    private Integer batchSize = 1000;
+    
+    /**
+     * The pause between consecutive batches (milliseconds)
+     */
+    @Builder.Default
+    private Long pause = 50L;
+    
+    /**
+     * The optional progress callback receiving total number of processed documents so far
+     */
+    private Consumer<Long> progress;
+}
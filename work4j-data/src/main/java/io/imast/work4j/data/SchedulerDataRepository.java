@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -166,6 +167,17 @@ public interface SchedulerDataRepository {
      */
     public List<ExecutionIndexEntry> getExecutionIndex(String cluster) throws SchedulerDataException;
     
+    /**
+     * Gets the set of execution index entries the worker is able to run
+     * 
+     * @param cluster The cluster to filter
+     * @param types The job types supported by worker (all types if missing)
+     * @param labels The worker labels to match execution selectors
+     * @return Returns set of execution entries
+     * @throws SchedulerDataException
+     */
+    public List<ExecutionIndexEntry> getExecutionIndex(String cluster, List<String> types, Map<String, String> labels) throws SchedulerDataException;
+    
     /**
      * Gets the job executions by id
      * 
@@ -245,6 +257,34 @@ public interface SchedulerDataRepository {
      */
     public long deleteAllExecutions() throws SchedulerDataException;
     
+    /**
+     * Counts the executions by given status codes
+     * 
+     * @param statuses The target statuses to count (all if missing, estimated from metadata)
+     * @return Returns number of executions
+     * @throws SchedulerDataException
+     */
+    public long countExecutions(List<ExecutionStatus> statuses) throws SchedulerDataException;
+    
+    /**
+     * Deletes all the executions by given status codes in id-ordered batches
+     * 
+     * @param statuses The target statuses to delete
+     * @param options The batching options
+     * @return Returns number of deleted executions
+     * @throws SchedulerDataException
+     */
+    public long deleteAllExecutionsByStatus(List<ExecutionStatus> statuses, BatchOptions options) throws SchedulerDataException;
+    
+    /**
+     * Deletes all the executions in id-ordered batches
+     * 
+     * @param options The batching options
+     * @return Returns number of deleted executions
+     * @throws SchedulerDataException
+     */
+    public long deleteAllExecutions(BatchOptions options) throws SchedulerDataException;
+    
     /**
      * Updates the execution status of the given job instance
      * 
@@ -286,6 +326,22 @@ public interface SchedulerDataRepository {
      */
     public Iteration insertIteration(IterationInput iterationInput) throws SchedulerDataException;
     
+    /**
+     * Inserts the batch of prepared iterations (with assigned ids) into the data store
+     * 
+     * @param iterations The iterations to save
+     * @return Returns number of saved iterations
+     * @throws SchedulerDataException
+     */
+    public long insertIterations(List<Iteration> iterations) throws SchedulerDataException;
+    
+    /**
+     * Generates a new identifier for the entity in the data store format
+     * 
+     * @return Returns new identifier
+     */
+    public String generateId();
+    
     /**
      * Deletes an entry by id and returns deleted one
      * 
@@ -321,6 +377,34 @@ public interface SchedulerDataRepository {
      */
     public long deleteAllIterations() throws SchedulerDataException;
     
+    /**
+     * Counts the iterations (optionally filtered by job id)
+     * 
+     * @param jobId The optional job id to filter (all if missing, estimated from metadata)
+     * @return Returns number of iterations
+     * @throws SchedulerDataException
+     */
+    public long countIterations(String jobId) throws SchedulerDataException;
+    
+    /**
+     * Deletes all the iterations for the given job id in id-ordered batches
+     * 
+     * @param jobId The target job id
+     * @param options The batching options
+     * @return Returns number of removed job iteration entries
+     * @throws SchedulerDataException
+     */
+    public long deleteJobIterations(String jobId, BatchOptions options) throws SchedulerDataException;
+    
+    /**
+     * Deletes all the iterations in id-ordered batches
+     * 
+     * @param options The batching options
+     * @return Returns number of deleted records
+     * @throws SchedulerDataException
+     */
+    public long deleteAllIterations(BatchOptions options) throws SchedulerDataException;
+    
     /**
      * Deletes all the iterations before given timestamp
      * 
@@ -330,6 +414,60 @@ public interface SchedulerDataRepository {
      */
     public long deleteIterationsBefore(Date timestamp) throws SchedulerDataException;
     
+    /**
+     * Moves a batch of completed executions modified before given timestamp (along with their iterations) into the archive
+     * 
+     * @param before The timestamp to filter completed executions
+     * @param batchSize The maximum number of documents to move in a single write
+     * @return Returns number of archived executions
+     * @throws SchedulerDataException
+     */
+    public long archiveExecutions(Date before, int batchSize) throws SchedulerDataException;
+    
+    /**
+     * Moves a batch of iterations before given timestamp into the archive
+     * 
+     * @param before The timestamp to filter iterations
+     * @param batchSize The maximum number of documents to move in a single write
+     * @return Returns number of archived iterations
+     * @throws SchedulerDataException
+     */
+    public long archiveIterations(Date before, int batchSize) throws SchedulerDataException;
+    
+    /**
+     * Gets the archived job execution by id
+     * 
+     * @param id The id of target job execution
+     * @return Returns the archived job execution if found
+     * @throws SchedulerDataException
+     */
+    public Optional<JobExecution> getArchivedExecutionById(String id) throws SchedulerDataException;
+    
+    /**
+     * Gets the page of archived executions
+     * 
+     * @param cluster The optional target cluster to filter
+     * @param type The optional type to filter by
+     * @param page The page number 
+     * @param size The page size
+     * @return Returns page of archived executions
+     * @throws SchedulerDataException
+     */
+    public ExecutionsResponse getArchivedExecutionsPage(String cluster, String type, int page, int size) throws SchedulerDataException;
+    
+    /**
+     * Gets the page of archived iterations ordered by timestamp (optionally filter by job id and statuses)
+     * 
+     * @param jobId The job id to filter iterations
+     * @param executionId The execution id to filter by
+     * @param statuses The set of target statuses to lookup
+     * @param page The page number
+     * @param size The page size
+     * @return Returns a page of archived iterations with given filter
+     * @throws SchedulerDataException
+     */
+    public IterationsResponse getArchivedIterationsPage(String jobId, String executionId, List<IterationStatus> statuses, int page, int size) throws SchedulerDataException;
+    
     /**
      * Gets all the clusters
      * 
@@ -347,6 +485,15 @@ public interface SchedulerDataRepository {
      */
     public Optional<ClusterDefinition> getClusterById(String id) throws SchedulerDataException;
     
+    /**
+     * Gets the cluster by name
+     * 
+     * @param cluster The cluster name
+     * @return Returns cluster definition if found
+     * @throws SchedulerDataException
+     */
+    public Optional<ClusterDefinition> getClusterByName(String cluster) throws SchedulerDataException;
+    
     /**
      * Join the worker to the cluster
      * 
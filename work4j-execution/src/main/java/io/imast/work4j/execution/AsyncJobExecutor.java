@@ -0,0 +1,40 @@
+package io.imast.work4j.execution;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * The job executor that completes asynchronously
+ * 
+ * The worker thread is released as soon as the stage is returned, the iteration (with the output put
+ * into context and the failure of stage if any) is reported when the stage completes, and the
+ * concurrency cap of worker counts the stages in flight. Reactor based executors may return
+ * mono.toFuture().
+ * 
+ * @author davitp
+ */
+public interface AsyncJobExecutor extends JobExecutor {
+    
+    /**
+     * Starts the specified logic for the single triggered job instance
+     * 
+     * @return Returns the stage completing when job is done
+     * @throws JobExecutorException In case of any internal errors while starting
+     */
+    public CompletionStage<?> executeAsync() throws JobExecutorException;
+    
+    /**
+     * Executes the logic and waits for completion (for callers that cannot wait asynchronously)
+     * 
+     * @throws JobExecutorException In case of any internal errors
+     */
+    @Override
+    public default void execute() throws JobExecutorException {
+        try {
+            this.executeAsync().toCompletableFuture().join();
+        }
+        catch(CompletionException error){
+            throw new JobExecutorException("Asynchronous job execution failed", error.getCause());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package io.imast.work4j.execution;
+
+/**
+ * The reuse policy of job executor instances
+ * 
+ * @author davitp
+ */
+public enum ExecutorReuse {
+    
+    /**
+     * A new executor is created for every fire
+     */
+    NONE,
+    
+    /**
+     * A single executor per job execution is reused by all its fires (should be thread-safe)
+     */
+    SINGLETON,
+    
+    /**
+     * Executors of the job type are pooled, every fire borrows an idle one exclusively
+     */
+    POOLED
+}
@@ -0,0 +1,44 @@
+package io.imast.work4j.execution;
+
+/**
+ * The job executor that may be reused by many fires
+ * 
+ * The executor is created once by the supplier (with the context of first fire) and keeps its
+ * expensive state such as clients or parsers. Every fire passes its own context, and the executor is
+ * closed when worker drops it (execution is unscheduled, pool is full or worker stops).
+ * 
+ * @author davitp
+ */
+public interface ReusableJobExecutor extends JobExecutor {
+    
+    /**
+     * Gets the reuse policy of executor
+     * 
+     * @return Returns reuse policy
+     */
+    public ExecutorReuse getReuse();
+    
+    /**
+     * Executes the specified logic for the single triggered job instance
+     * 
+     * @param context The context of fire
+     * @throws JobExecutorException In case of any internal errors
+     */
+    public void execute(JobExecutorContext context) throws JobExecutorException;
+    
+    /**
+     * Executes without context of fire (not supported by reusable executors)
+     * 
+     * @throws JobExecutorException Always
+     */
+    @Override
+    public default void execute() throws JobExecutorException {
+        throw new JobExecutorException("Reusable executor requires the context of fire");
+    }
+    
+    /**
+     * Releases the resources of executor
+     */
+    public default void close(){
+    }
+}
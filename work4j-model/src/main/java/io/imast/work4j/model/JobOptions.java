@@ -22,4 +22,9 @@ public class JobOptions implements Serializable {
      * In case of silent reporting the iteration success/failure will not be reported.
      */
     private boolean silentIterations;   
+    
+    /**
+     * The priority of execution fires (higher runs first when worker is saturated, 5 if not set)
+     */
+    private Integer priority;
 }
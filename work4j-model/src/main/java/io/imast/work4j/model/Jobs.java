@@ -1,6 +1,10 @@
 package io.imast.work4j.model;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * The jobs constants
@@ -23,4 +27,23 @@ public class Jobs {
      * The folder regex pattern
      */
     public static final Pattern FOLDER_REGEX = Pattern.compile("^(\\/[A-Za-z0-9_]+)*\\/$");
+    
+    /**
+     * Builds the label index keys ("key=value") out of selectors or labels
+     * 
+     * @param labels The selectors or labels map
+     * @return Returns the sorted list of keys
+     */
+    public static List<String> labelKeys(Map<String, String> labels){
+        
+        // nothing to index
+        if(labels == null || labels.isEmpty()){
+            return new ArrayList<>();
+        }
+        
+        return labels.entrySet().stream()
+                .map(e -> String.format("%s=%s", e.getKey(), e.getValue()))
+                .sorted()
+                .collect(Collectors.toList());
+    }
 }
@@ -39,6 +39,21 @@ public class TriggerDefinition implements Serializable {
      */
     private Long period;
     
+    /**
+     * The maximum phase offset of periodic fires in milliseconds (deterministic per execution, capped by period)
+     */
+    private Long jitter;
+    
+    /**
+     * The window in milliseconds to spread cron fires of executions over (stable per execution, opt-in)
+     */
+    private Long spreadWindow;
+    
+    /**
+     * The priority of trigger fires (overrides the priority of job options)
+     */
+    private Integer priority;
+    
     /**
      * The start time for trigger
      */
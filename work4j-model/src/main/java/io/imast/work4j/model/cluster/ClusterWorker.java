@@ -2,6 +2,8 @@ package io.imast.work4j.model.cluster;
 
 import java.io.Serializable;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -62,4 +64,19 @@ public class ClusterWorker implements Serializable {
      * The update time of worker
      */
     private Date updated;
-}
\ No newline at end of file
+    
+    /**
+     * The job types the worker is able to execute (all types if missing)
+     */
+    private List<String> types;
+    
+    /**
+     * The worker labels to match job selectors
+     */
+    private Map<String, String> labels;
+    
+    /**
+     * Checks if the balanced worker receives only executions assigned by controller
+     */
+    private boolean assigned;
+}
@@ -1,6 +1,8 @@
 package io.imast.work4j.model.cluster;
 
 import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -51,4 +53,19 @@ public class WorkerJoinInput implements Serializable {
      * The maximum idle time in milliseconds
      */
     private long maxIdle;
+    
+    /**
+     * The job types the worker is able to execute (all types if missing)
+     */
+    private List<String> types;
+    
+    /**
+     * The worker labels to match job selectors
+     */
+    private Map<String, String> labels;
+    
+    /**
+     * Checks if the balanced worker receives only executions assigned by controller
+     */
+    private boolean assigned;
 }
@@ -1,5 +1,6 @@
 package io.imast.work4j.model.execution;
 
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -30,4 +31,14 @@ public class ExecutionIndexEntry {
      * The execution status
      */
     private ExecutionStatus status;
+    
+    /**
+     * The job type (used for assignment, optional)
+     */
+    private String type;
+    
+    /**
+     * The selector keys of execution (used for assignment, optional)
+     */
+    private List<String> selectorKeys;
 }
@@ -105,4 +105,14 @@ public class JobExecution {
      * The extra information required for execution
      */
     private Map<String, Object> extra;
+    
+    /**
+     * The set of selectors
+     */
+    private Map<String, String> selectors;
+    
+    /**
+     * The precomputed selector keys ("key=value") used for label matching
+     */
+    private List<String> selectorKeys;
 }
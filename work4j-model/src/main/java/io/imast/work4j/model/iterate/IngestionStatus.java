@@ -0,0 +1,24 @@
+package io.imast.work4j.model.iterate;
+
+/**
+ * The status of iteration ingestion
+ * 
+ * @author davitp
+ */
+public enum IngestionStatus {
+    
+    /**
+     * The iteration is accepted
+     */
+    ACCEPTED,
+    
+    /**
+     * The iteration is accepted but the ingestion queue is close to its capacity (caller should slow down)
+     */
+    THROTTLED,
+    
+    /**
+     * The iteration is not accepted as ingestion queue is full (caller should retry later)
+     */
+    REJECTED
+}
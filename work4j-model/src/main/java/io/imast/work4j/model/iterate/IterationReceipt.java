@@ -0,0 +1,33 @@
+package io.imast.work4j.model.iterate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The receipt of submitted iteration
+ * 
+ * @author davitp
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder(toBuilder = true)
+public class IterationReceipt {
+    
+    /**
+     * The assigned iteration id (missing if rejected)
+     */
+    private String id;
+    
+    /**
+     * The ingestion status
+     */
+    private IngestionStatus status;
+    
+    /**
+     * The number of iterations pending to be written
+     */
+    private long pending;
+}
@@ -0,0 +1,74 @@
+package io.imast.work4j.model.iterate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The iterations helper
+ * 
+ * @author davitp
+ */
+public class Iterations {
+    
+    /**
+     * Validates the iteration input
+     * 
+     * @param input The iteration input
+     * @return Returns validation log (empty if valid)
+     */
+    public static List<String> validate(IterationInput input){
+        
+        // validation log
+        var validation = new ArrayList<String>();
+        
+        // input is required
+        if(input == null){
+            validation.add("The iteration input is mandatory");
+            return validation;
+        }
+        
+        // make sure job id is provided
+        if(input.getJobId() == null || input.getJobId().isBlank()){
+            validation.add("The job id is mandatory for iteration");
+        }
+        
+        // make sure execution id is provided
+        if(input.getExecutionId() == null || input.getExecutionId().isBlank()){
+            validation.add("The execution id is mandatory for iteration");
+        }
+        
+        // make sure worker id is provided
+        if(input.getWorker() == null || input.getWorker().isBlank()){
+            validation.add("The worker name is mandatory for iteration");
+        }
+        
+        // make sure status is given
+        if(input.getStatus() == null){
+            validation.add("The iteration must have a status");
+        }
+        
+        return validation;
+    }
+    
+    /**
+     * Creates the iteration to save from input
+     * 
+     * @param input The iteration input
+     * @param id The identifier of iteration
+     * @return Returns iteration
+     */
+    public static Iteration create(IterationInput input, String id){
+        return Iteration.builder()
+                .id(id)
+                .jobId(input.getJobId())
+                .executionId(input.getExecutionId())
+                .worker(input.getWorker())
+                .status(input.getStatus())
+                .message(input.getMessage())
+                .payload(input.getPayload())
+                .runtime(input.getRuntime())
+                .timestamp(input.getTimestamp() == null ? new Date() : input.getTimestamp())
+                .build();
+    }
+}
@@ -61,4 +61,29 @@ public class JobConstants {
      * The job factory
      */
     public static final String WORKER_FACTORY = "WORKER_FACTORY";
+    
+    /**
+     * The executor cache
+     */
+    public static final String EXECUTOR_CACHE = "EXECUTOR_CACHE";
+    
+    /**
+     * The trigger multiplexer
+     */
+    public static final String TRIGGER_MULTIPLEXER = "TRIGGER_MULTIPLEXER";
+    
+    /**
+     * The group of shared schedule jobs and triggers
+     */
+    public static final String MULTIPLEX_GROUP = "_WORK4J_MULTIPLEX";
+    
+    /**
+     * The stage of asynchronous job in execution context
+     */
+    public static final String ASYNC_STAGE = "_WORK4J_ASYNC_STAGE";
+    
+    /**
+     * The bulkhead which admitted the fire in execution context
+     */
+    public static final String BULKHEAD_ADMITTED = "_WORK4J_BULKHEAD_ADMITTED";
 }
@@ -0,0 +1,19 @@
+package io.imast.work4j.worker;
+
+/**
+ * The type of scheduling engine of worker
+ * 
+ * @author davitp
+ */
+public enum SchedulingEngineType {
+    
+    /**
+     * The quartz-based engine (supports persistence and clustering)
+     */
+    QUARTZ,
+    
+    /**
+     * The in-memory timing wheel engine (no persistence)
+     */
+    TIMING_WHEEL
+}
@@ -0,0 +1,19 @@
+package io.imast.work4j.worker;
+
+/**
+ * The type of thread pool running the jobs
+ * 
+ * @author davitp
+ */
+public enum ThreadPoolType {
+    
+    /**
+     * The default quartz pool of platform threads (one thread per concurrent job)
+     */
+    PLATFORM,
+    
+    /**
+     * The pool of virtual threads (Java 21 or later), falls back to a bounded platform pool
+     */
+    VIRTUAL
+}
@@ -1,5 +1,6 @@
 package io.imast.work4j.worker;
 
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -80,4 +81,77 @@ public class WorkerConfiguration {
      * The data source password
      */
     private String dataSourcePassword;
+    
+    /**
+     * The worker labels to match job selectors
+     */
+    private Map<String, String> labels;
+    
+    /**
+     * Use controller-side execution assignment in balanced mode (no quartz clustering)
+     */
+    private Boolean assigned;
+    
+    /**
+     * The directory to spool iteration and completion reports during controller outages (not spooled if missing)
+     */
+    private String spoolDirectory;
+    
+    /**
+     * The number of executions to load in a single request (100 if missing)
+     */
+    private Integer executionChunkSize;
+    
+    /**
+     * The maximum number of execution loading requests in flight (4 if missing)
+     */
+    private Integer executionLoadConcurrency;
+    
+    /**
+     * The rate of full reconciliation of local state with job store in milliseconds (ten polling periods if missing)
+     */
+    private Long reconcileRate;
+    
+    /**
+     * The number of lock stripes guarding execution changes (64 if missing)
+     */
+    private Integer lockStripes;
+    
+    /**
+     * The number of threads applying changes of independent executions in parallel (applied on the receiving thread if missing)
+     */
+    private Integer applyThreads;
+    
+    /**
+     * The type of thread pool running the jobs (quartz platform pool if missing)
+     */
+    private ThreadPoolType threadPoolType;
+    
+    /**
+     * The maximum number of concurrently running jobs, separate from thread count (parallelism if missing)
+     * 
+     * Asynchronous executions hold their slot until done, set it above parallelism to let more of them
+     * be in flight than there are threads.
+     */
+    private Integer maxConcurrency;
+    
+    /**
+     * The type of scheduling engine (quartz if missing)
+     */
+    private SchedulingEngineType engineType;
+    
+    /**
+     * The tick of timing wheel engine in milliseconds (10 if missing)
+     */
+    private Long wheelTick;
+    
+    /**
+     * Share a single quartz trigger among executions with identical cron schedule (quartz engine without persistence only)
+     */
+    private Boolean multiplexTriggers;
+    
+    /**
+     * The maximum number of idle pooled executors per job type (parallelism if missing)
+     */
+    private Integer executorPoolSize;
 }
@@ -7,6 +7,8 @@ import io.imast.work4j.model.cluster.ClusterWorker;
 import io.imast.work4j.model.cluster.WorkerJoinInput;
 import io.imast.work4j.model.cluster.WorkerKind;
 import io.vavr.control.Try;
+import java.util.ArrayList;
+import java.util.Collection;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -26,6 +28,11 @@ public class WorkerConnector {
      * The configuration
      */
     protected final WorkerConfiguration config;
+    
+    /**
+     * The job types supported by worker (all types if missing)
+     */
+    protected final Collection<String> types;
    
     /**
      * Creates new instance of worker connector
@@ -34,8 +41,20 @@ public class WorkerConnector {
      * @param channel The scheduler channel
      */
     public WorkerConnector(WorkerConfiguration config, SchedulerChannel channel){
+        this(config, channel, null);
+    }
+    
+    /**
+     * Creates new instance of worker connector advertising supported job types
+     * 
+     * @param config The configuration
+     * @param channel The scheduler channel
+     * @param types The supported job types (see WorkerFactory.getTypes)
+     */
+    public WorkerConnector(WorkerConfiguration config, SchedulerChannel channel, Collection<String> types){
         this.config = config;
         this.channel = channel; 
+        this.types = types;
     }
     
     /**
@@ -80,6 +99,9 @@ public class WorkerConnector {
                 .persistenceMethod(persistence.name())
                 .kind(this.mapKind(this.config.getClusteringType()))
                 .maxIdle(this.config.getHeartbeatRate())
+                .types(this.types == null ? null : new ArrayList<>(this.types))
+                .labels(this.config.getLabels())
+                .assigned(Boolean.TRUE.equals(this.config.getAssigned()))
                 .build();
         
         // number of tries
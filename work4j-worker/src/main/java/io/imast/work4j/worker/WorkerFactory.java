@@ -5,9 +5,12 @@ import io.imast.work4j.execution.JobExecutor;
 import io.imast.work4j.execution.JobExecutorContext;
 import io.imast.work4j.model.TriggerDefinition;
 import io.imast.work4j.model.execution.JobExecution;
+import io.imast.work4j.worker.bulkhead.Bulkhead;
+import io.imast.work4j.worker.bulkhead.BulkheadOptions;
 import io.imast.work4j.worker.job.QuartzExecutorJob;
 import io.vavr.control.Try;
 import java.time.ZoneId;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -37,11 +40,17 @@ public class WorkerFactory {
      */
     protected final Map<String, Function<JobExecutorContext, JobExecutor>> jobClasses;
     
+    /**
+     * The bulkheads by job type
+     */
+    protected final Map<String, Bulkhead> bulkheads;
+    
     /**
      * Creates new instance of job factory
      */
     public WorkerFactory(){
         this.jobClasses = new HashMap<>();
+        this.bulkheads = new HashMap<>();
     }
     
     /**
@@ -72,4 +81,38 @@ public class WorkerFactory {
     public Function<JobExecutorContext, JobExecutor> getExecutor(String type){
         return this.jobClasses.getOrDefault(type, null);
     }
+    
+    /**
+     * Register a bulkhead (concurrency limit) for the given job type
+     * 
+     * @param type The job type
+     * @param options The bulkhead options
+     */
+    public void registerBulkhead(String type, BulkheadOptions options){
+        
+        var previous = this.bulkheads.put(type, new Bulkhead(type, options));
+        
+        if(previous != null){
+            previous.shutdown();
+        }
+    }
+    
+    /**
+     * Gets the bulkhead of the given job type
+     * 
+     * @param type The job type
+     * @return Returns bulkhead or null
+     */
+    public Bulkhead getBulkhead(String type){
+        return type == null ? null : this.bulkheads.get(type);
+    }
+    
+    /**
+     * Gets the registered bulkheads
+     * 
+     * @return Returns bulkheads
+     */
+    public Collection<Bulkhead> getBulkheads(){
+        return this.bulkheads.values();
+    }
 }
@@ -0,0 +1,484 @@
+package io.imast.work4j.worker.bulkhead;
+
+import io.imast.work4j.execution.JobExecutorException;
+import io.imast.work4j.worker.instance.ExecutionPriority;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The concurrency limit (and optionally dedicated pool) of a single job type
+ * 
+ * A fire holds a permit of bulkhead until it completes (until its stage completes for asynchronous
+ * executors). Without dedicated pool a fire with free permit runs on the calling thread, queued fires
+ * are handed over to the worker threads of bulkhead (at most limit of them, started on demand and
+ * retired when idle) and never run on the thread completing the previous fire, which may be an IO
+ * thread of asynchronous executor. Queued fires run with higher priority first, then in order of
+ * arrival. With dedicated pool all fires run on its threads. Fires of vetoing bulkheads are admitted
+ * up front and skipped if there is no permit. Fires still queued on shutdown complete exceptionally.
+ * 
+ * @author davitp
+ */
+@Slf4j
+public class Bulkhead {
+
+    /**
+     * The time to keep idle worker threads (seconds)
+     */
+    protected static final long IDLE_TIMEOUT = 60;
+    
+    /**
+     * The job type
+     */
+    protected final String type;
+    
+    /**
+     * The handling of fires over the limit
+     */
+    protected final OverflowPolicy policy;
+    
+    /**
+     * The concurrency limit
+     */
+    protected final int limit;
+    
+    /**
+     * The maximum number of queued fires
+     */
+    protected final int queueCapacity;
+    
+    /**
+     * The permits of fires in flight
+     */
+    protected final Semaphore permits;
+    
+    /**
+     * The queued fires
+     */
+    protected final PriorityBlockingQueue<Pending> queue;
+    
+    /**
+     * The arrival order of queued fires
+     */
+    protected final AtomicLong sequence;
+    
+    /**
+     * The number of queued fires
+     */
+    protected final AtomicInteger queued;
+    
+    /**
+     * The number of pending drain requests (only one thread drains)
+     */
+    protected final AtomicInteger drains;
+    
+    /**
+     * The dedicated pool if any
+     */
+    protected final ExecutorService pool;
+    
+    /**
+     * The worker threads running queued fires without dedicated pool
+     */
+    protected final ExecutorService workers;
+    
+    /**
+     * Indicates if bulkhead is shut down
+     */
+    protected volatile boolean shutdown;
+    
+    /**
+     * Creates new bulkhead of job type
+     * 
+     * @param type The job type
+     * @param options The bulkhead options
+     */
+    public Bulkhead(String type, BulkheadOptions options){
+        
+        var poolSize = options.getPoolSize() == null ? 0 : options.getPoolSize();
+        var maxConcurrency = options.getMaxConcurrency() == null ? poolSize : options.getMaxConcurrency();
+        
+        if(maxConcurrency <= 0){
+            throw new IllegalArgumentException("Bulkhead of type " + type + " needs a positive concurrency limit or pool size");
+        }
+        
+        this.type = type;
+        this.policy = options.getPolicy() == null ? OverflowPolicy.QUEUE : options.getPolicy();
+        this.limit = maxConcurrency;
+        this.queueCapacity = options.getQueueCapacity() == null || options.getQueueCapacity() < 0 ? Integer.MAX_VALUE : options.getQueueCapacity();
+        this.permits = new Semaphore(maxConcurrency);
+        this.queue = new PriorityBlockingQueue<>();
+        this.sequence = new AtomicLong();
+        this.queued = new AtomicInteger();
+        this.drains = new AtomicInteger();
+        
+        var counter = new AtomicInteger();
+        ThreadFactory threads = runnable -> {
+            var thread = new Thread(runnable, String.format("WORK4J_BULKHEAD_%s-%s", type, counter.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        };
+        
+        if(poolSize <= 0){
+            
+            // every queued fire holds a permit, so limit threads are enough
+            var workers = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, IDLE_TIMEOUT, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threads);
+            workers.allowCoreThreadTimeOut(true);
+            
+            this.pool = null;
+            this.workers = workers;
+            return;
+        }
+        
+        this.pool = Executors.newFixedThreadPool(poolSize, threads);
+        this.workers = this.pool;
+    }
+    
+    /**
+     * Gets the job type
+     * 
+     * @return Returns job type
+     */
+    public String getType(){
+        return this.type;
+    }
+    
+    /**
+     * Gets the handling of fires over the limit
+     * 
+     * @return Returns overflow policy
+     */
+    public OverflowPolicy getPolicy(){
+        return this.policy;
+    }
+    
+    /**
+     * Gets the concurrency limit
+     * 
+     * @return Returns the maximum number of fires in flight
+     */
+    public int getLimit(){
+        return this.limit;
+    }
+    
+    /**
+     * Gets the number of fires in flight
+     * 
+     * @return Returns the number of held permits
+     */
+    public int getRunning(){
+        return this.limit - this.permits.availablePermits();
+    }
+    
+    /**
+     * Gets the number of queued fires
+     * 
+     * @return Returns queue length
+     */
+    public int getQueued(){
+        return this.queued.get();
+    }
+    
+    /**
+     * Tries to take a permit for the fire (the fire is then executed with executeAdmitted)
+     * 
+     * @return Returns true if admitted
+     */
+    public boolean tryAdmit(){
+        return this.permits.tryAcquire();
+    }
+    
+    /**
+     * Gives back the permit of admitted fire which is not going to be executed
+     */
+    public void cancelAdmitted(){
+        this.release();
+    }
+    
+    /**
+     * Executes the fire of default priority taking a permit or queueing it
+     * 
+     * @param task The fire task
+     * @return Returns the stage of fire or null if already done
+     * @throws JobExecutorException
+     */
+    public CompletionStage<?> execute(Task task) throws JobExecutorException {
+        return this.execute(task, ExecutionPriority.DEFAULT);
+    }
+    
+    /**
+     * Executes the fire taking a permit or queueing it
+     * 
+     * @param task The fire task
+     * @param priority The priority of fire in queue
+     * @return Returns the stage of fire or null if already done
+     * @throws JobExecutorException
+     */
+    public CompletionStage<?> execute(Task task, int priority) throws JobExecutorException {
+        
+        if(this.shutdown){
+            throw new JobExecutorException("The bulkhead of type " + this.type + " is shut down");
+        }
+        
+        // vetoing bulkhead does not queue
+        if(this.policy == OverflowPolicy.VETO){
+            
+            if(!this.tryAdmit()){
+                throw new JobExecutorException("The concurrency limit of type " + this.type + " is reached");
+            }
+            
+            return this.executeAdmitted(task);
+        }
+        
+        // run on current thread if there is a free permit
+        if(this.pool == null && this.queue.isEmpty() && this.permits.tryAcquire()){
+            return this.runInline(task);
+        }
+        
+        if(this.queued.incrementAndGet() > this.queueCapacity){
+            this.queued.decrementAndGet();
+            throw new JobExecutorException("The queue of type " + this.type + " is full");
+        }
+        
+        var pending = new Pending(task, priority, this.sequence.getAndIncrement());
+        
+        this.queue.add(pending);
+        this.drain();
+        
+        return pending.future;
+    }
+    
+    /**
+     * Executes the admitted fire (the permit is held)
+     * 
+     * @param task The fire task
+     * @return Returns the stage of fire or null if already done
+     * @throws JobExecutorException
+     */
+    public CompletionStage<?> executeAdmitted(Task task) throws JobExecutorException {
+        
+        if(this.pool == null){
+            return this.runInline(task);
+        }
+        
+        var pending = new Pending(task, ExecutionPriority.DEFAULT, 0);
+        
+        try {
+            this.pool.execute(() -> this.run(pending));
+        }
+        catch(RuntimeException error){
+            this.release();
+            throw new JobExecutorException("Could not hand over the fire of type " + this.type, error);
+        }
+        
+        return pending.future;
+    }
+    
+    /**
+     * Stops the worker threads and fails the queued fires
+     */
+    public void shutdown(){
+        
+        this.shutdown = true;
+        this.workers.shutdownNow();
+        
+        // queued fires are not going to run
+        var pending = this.queue.poll();
+        
+        while(pending != null){
+            this.queued.decrementAndGet();
+            pending.future.completeExceptionally(new JobExecutorException("The bulkhead of type " + this.type + " is shut down"));
+            pending = this.queue.poll();
+        }
+    }
+    
+    /**
+     * Runs the fire on current thread (the permit is held)
+     * 
+     * @param task The fire task
+     * @return Returns the stage of fire or null if already done
+     * @throws JobExecutorException
+     */
+    protected CompletionStage<?> runInline(Task task) throws JobExecutorException {
+        
+        CompletionStage<?> stage;
+        
+        try {
+            stage = task.run();
+        }
+        catch(JobExecutorException | RuntimeException error){
+            this.release();
+            throw error;
+        }
+        
+        // synchronous fire is done
+        if(stage == null){
+            this.release();
+            return null;
+        }
+        
+        return stage.whenComplete((value, error) -> this.release());
+    }
+    
+    /**
+     * Runs the queued or handed over fire (the permit is held)
+     * 
+     * @param pending The pending fire
+     */
+    protected void run(Pending pending){
+        
+        CompletionStage<?> stage;
+        
+        try {
+            stage = pending.task.run();
+        }
+        catch(Throwable error){
+            this.release();
+            pending.future.completeExceptionally(error);
+            return;
+        }
+        
+        // synchronous fire is done
+        if(stage == null){
+            this.release();
+            pending.future.complete(null);
+            return;
+        }
+        
+        stage.whenComplete((value, error) -> {
+            this.release();
+            
+            if(error != null){
+                pending.future.completeExceptionally(error);
+            }
+            else {
+                pending.future.complete(value);
+            }
+        });
+    }
+    
+    /**
+     * Gives back the permit and runs queued fires
+     */
+    protected void release(){
+        this.permits.release();
+        this.drain();
+    }
+    
+    /**
+     * Hands over queued fires to worker threads while there are permits (reentrant calls are handled by the draining thread)
+     */
+    protected void drain(){
+        
+        if(this.drains.getAndIncrement() != 0){
+            return;
+        }
+        
+        do {
+            while(!this.queue.isEmpty() && this.permits.tryAcquire()){
+                
+                var pending = this.queue.poll();
+                
+                // taken by other thread in the meantime
+                if(pending == null){
+                    this.permits.release();
+                    continue;
+                }
+                
+                this.queued.decrementAndGet();
+                
+                try {
+                    this.workers.execute(() -> this.run(pending));
+                }
+                catch(RuntimeException error){
+                    this.permits.release();
+                    pending.future.completeExceptionally(error);
+                    
+                    if(!this.shutdown){
+                        log.error("Bulkhead: Could not run queued fire of type {}", this.type, error);
+                    }
+                }
+            }
+        }
+        while(this.drains.decrementAndGet() != 0);
+    }
+    
+    /**
+     * The fire of job type
+     */
+    @FunctionalInterface
+    public interface Task {
+        
+        /**
+         * Runs the fire
+         * 
+         * @return Returns the stage of asynchronous fire or null if done
+         * @throws JobExecutorException
+         */
+        public CompletionStage<?> run() throws JobExecutorException;
+    }
+    
+    /**
+     * The queued fire ordered by priority and then by arrival
+     */
+    protected static class Pending implements Comparable<Pending> {
+        
+        /**
+         * The fire task
+         */
+        protected final Task task;
+        
+        /**
+         * The priority of fire
+         */
+        protected final int priority;
+        
+        /**
+         * The arrival order
+         */
+        protected final long sequence;
+        
+        /**
+         * The completion of fire
+         */
+        protected final CompletableFuture<Object> future;
+        
+        /**
+         * Creates new queued fire
+         * 
+         * @param task The fire task
+         * @param priority The priority of fire
+         * @param sequence The arrival order
+         */
+        protected Pending(Task task, int priority, long sequence){
+            this.task = task;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.future = new CompletableFuture<>();
+        }
+        
+        /**
+         * Compares with other fire (higher priority first)
+         * 
+         * @param other The other fire
+         * @return Returns comparison result
+         */
+        @Override
+        public int compareTo(Pending other){
+            
+            var result = Integer.compare(other.priority, this.priority);
+            
+            return result != 0 ? result : Long.compare(this.sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package io.imast.work4j.worker.bulkhead;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The options of job type bulkhead
+ * 
+ * @author davitp
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkheadOptions {
+    
+    /**
+     * The maximum number of fires of type in flight (pool size if not set)
+     */
+    private Integer maxConcurrency;
+    
+    /**
+     * The number of dedicated threads (fires run on the shared pool if not set)
+     */
+    private Integer poolSize;
+    
+    /**
+     * The handling of fires over the limit
+     */
+    @Builder.Default
+    private OverflowPolicy policy = OverflowPolicy.QUEUE;
+    
+    /**
+     * The maximum number of queued fires (unbounded if not set, fires over it fail)
+     */
+    private Integer queueCapacity;
+}
@@ -0,0 +1,19 @@
+package io.imast.work4j.worker.bulkhead;
+
+/**
+ * The handling of fires over the concurrency limit of job type
+ * 
+ * @author davitp
+ */
+public enum OverflowPolicy {
+    
+    /**
+     * The fire waits in the queue of bulkhead until a running fire of type completes
+     */
+    QUEUE,
+    
+    /**
+     * The fire is vetoed (skipped) and the trigger continues with next fire time
+     */
+    VETO
+}
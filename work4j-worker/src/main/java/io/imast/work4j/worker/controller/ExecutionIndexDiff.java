@@ -0,0 +1,906 @@
+package io.imast.work4j.worker.controller;
+
+import io.imast.work4j.model.execution.ExecutionIndexEntry;
+import io.imast.work4j.model.execution.ExecutionStatus;
+import io.imast.work4j.worker.instance.ExecutionKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * The allocation-light diff between execution index and local state of worker
+ * 
+ * Both sides are copied into reusable arrays, sorted by execution id and merge-joined. Identifiers
+ * are packed into 96-bit keys (a long and an int) when all of them are ObjectIds, and compared as
+ * strings otherwise. Buffers grow on demand and are kept across polls, so a steady-state diff only
+ * allocates the list of identifiers to load. If the caller passes the version of local state, the
+ * sorted local sides are kept and reused while the version does not change, so an unchanged worker
+ * only pays for the index side. Once the version changes, local sides given as sets are updated
+ * incrementally: kept keys stay in their sorted order, only the new ones are sorted and merged in,
+ * so a change of few executions costs a linear pass instead of a full sort. The instance is not
+ * thread-safe.
+ * 
+ * @author davitp
+ */
+public class ExecutionIndexDiff {
+
+    /**
+     * The length of hex ObjectId
+     */
+    private static final int OBJECT_ID_LENGTH = 24;
+    
+    /**
+     * The size of range sorted by insertion
+     */
+    private static final int INSERTION_SORT_SIZE = 16;
+    
+    /**
+     * The index side
+     */
+    protected final Side index;
+    
+    /**
+     * The local side
+     */
+    protected final LocalSide local;
+    
+    /**
+     * The paused side
+     */
+    protected final LocalSide pausedSide;
+    
+    /**
+     * The index references to add
+     */
+    protected int[] added;
+    
+    /**
+     * The local references to delete
+     */
+    protected int[] deleted;
+    
+    /**
+     * The local references to pause
+     */
+    protected int[] paused;
+    
+    /**
+     * The local references to resume
+     */
+    protected int[] resumed;
+    
+    /**
+     * The number of entries to add
+     */
+    protected int addedCount;
+    
+    /**
+     * The number of executions to delete
+     */
+    protected int deletedCount;
+    
+    /**
+     * The number of executions to pause
+     */
+    protected int pausedCount;
+    
+    /**
+     * The number of executions to resume
+     */
+    protected int resumedCount;
+    
+    /**
+     * The number of locally paused executions
+     */
+    protected int localPausedCount;
+    
+    /**
+     * The version of local sides (negative if unknown)
+     */
+    protected long localVersion;
+    
+    /**
+     * The index entries of last diff
+     */
+    protected List<ExecutionIndexEntry> entries;
+    
+    /**
+     * Creates new instance of diff
+     */
+    public ExecutionIndexDiff(){
+        this.index = new Side();
+        this.local = new LocalSide();
+        this.pausedSide = new LocalSide();
+        this.added = new int[16];
+        this.deleted = new int[16];
+        this.paused = new int[16];
+        this.resumed = new int[16];
+        this.localVersion = -1;
+    }
+    
+    /**
+     * Computes the diff of index and local state
+     * 
+     * @param entries The index entries
+     * @param executions The local executions
+     * @param pausedExecutions The locally paused executions
+     * @return Returns true if any change is required
+     */
+    public boolean compute(List<ExecutionIndexEntry> entries, Collection<ExecutionKey> executions, Collection<ExecutionKey> pausedExecutions){
+        return this.compute(entries, executions, pausedExecutions, -1);
+    }
+    
+    /**
+     * Computes the diff of index and local state of the given version
+     * 
+     * @param entries The index entries
+     * @param executions The local executions
+     * @param pausedExecutions The locally paused executions
+     * @param version The version of local state read before the collections (negative if unknown)
+     * @return Returns true if any change is required
+     */
+    public boolean compute(List<ExecutionIndexEntry> entries, Collection<ExecutionKey> executions, Collection<ExecutionKey> pausedExecutions, long version){
+        
+        this.entries = entries;
+        this.addedCount = 0;
+        this.deletedCount = 0;
+        this.pausedCount = 0;
+        this.resumedCount = 0;
+        
+        // copy index side
+        this.index.reset(entries.size());
+        
+        for(var i = 0; i < entries.size(); ++i){
+            this.index.add(entries.get(i).getId(), i);
+        }
+        
+        // update local and paused sides unless the same version is already there (incrementally if versioned)
+        if(version < 0 || version != this.localVersion){
+            this.local.update(executions, version >= 0);
+            this.pausedSide.update(pausedExecutions, version >= 0);
+            this.localPausedCount = this.pausedSide.side.size;
+            this.localVersion = version;
+        }
+        
+        // the current local sides
+        var local = this.local.side;
+        var localKeys = this.local.keys;
+        var pausedSide = this.pausedSide.side;
+        var pausedKeys = this.pausedSide.keys;
+        
+        // compare packed keys only if all sides are packed
+        var packed = this.index.packed && local.packed && pausedSide.packed;
+        
+        // sorted sides are only scanned to check the order
+        this.index.sort(packed);
+        local.sort(packed);
+        pausedSide.sort(packed);
+        
+        // merge-join sorted sides
+        var i = 0;
+        var j = 0;
+        var p = 0;
+        
+        while(i < this.index.size || j < local.size){
+            
+            // the order of current items
+            var order = i >= this.index.size ? 1 : j >= local.size ? -1 : compare(this.index, i, local, j, packed);
+            
+            // in index only, need to add
+            if(order < 0){
+                this.added = push(this.added, this.addedCount++, this.index.refs[i++]);
+                continue;
+            }
+            
+            // local only, need to delete
+            if(order > 0){
+                this.deleted = push(this.deleted, this.deletedCount++, local.refs[j++]);
+                continue;
+            }
+            
+            // move paused cursor up to the local item
+            while(p < pausedSide.size && compare(pausedSide, p, local, j, packed) < 0){
+                p++;
+            }
+            
+            // the local item is paused if cursor points to the same key
+            var isPaused = p < pausedSide.size 
+                    && compare(pausedSide, p, local, j, packed) == 0 
+                    && Objects.equals(pausedKeys[pausedSide.refs[p]].getJobId(), localKeys[local.refs[j]].getJobId());
+            
+            // the matching pair
+            var entry = entries.get(this.index.refs[i++]);
+            var localRef = local.refs[j++];
+            var key = localKeys[localRef];
+            
+            // same execution id but other job, replace
+            if(!Objects.equals(key.getJobId(), entry.getJobId())){
+                this.deleted = push(this.deleted, this.deletedCount++, localRef);
+                this.added = push(this.added, this.addedCount++, this.index.refs[i - 1]);
+                continue;
+            }
+            
+            // item is completed need to remove
+            if(entry.getStatus() == ExecutionStatus.COMPLETED){
+                this.deleted = push(this.deleted, this.deletedCount++, localRef);
+                continue;
+            }
+            
+            // index says entry should be paused but its not paused
+            if(entry.getStatus() == ExecutionStatus.PAUSED && !isPaused){
+                this.paused = push(this.paused, this.pausedCount++, localRef);
+                continue;
+            }
+            
+            // index says entry should be active but its paused
+            if(entry.getStatus() == ExecutionStatus.ACTIVE && isPaused){
+                this.resumed = push(this.resumed, this.resumedCount++, localRef);
+            }
+        }
+        
+        return this.addedCount + this.deletedCount + this.pausedCount + this.resumedCount > 0;
+    }
+    
+    /**
+     * Gets the identifiers of executions to load
+     * 
+     * @return Returns execution ids
+     */
+    public List<String> addedIds(){
+        
+        var result = new ArrayList<String>(this.addedCount);
+        
+        for(var i = 0; i < this.addedCount; ++i){
+            result.add(this.entries.get(this.added[i]).getId());
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Visits the executions to delete
+     * 
+     * @param consumer The consumer
+     */
+    public void forEachDeleted(Consumer<ExecutionKey> consumer){
+        this.visit(this.deleted, this.deletedCount, consumer);
+    }
+    
+    /**
+     * Visits the executions to pause
+     * 
+     * @param consumer The consumer
+     */
+    public void forEachPaused(Consumer<ExecutionKey> consumer){
+        this.visit(this.paused, this.pausedCount, consumer);
+    }
+    
+    /**
+     * Visits the executions to resume
+     * 
+     * @param consumer The consumer
+     */
+    public void forEachResumed(Consumer<ExecutionKey> consumer){
+        this.visit(this.resumed, this.resumedCount, consumer);
+    }
+    
+    /**
+     * Gets the number of index entries
+     * 
+     * @return Returns index size
+     */
+    public int getIndexCount(){
+        return this.index.size;
+    }
+    
+    /**
+     * Gets the number of local executions
+     * 
+     * @return Returns local size
+     */
+    public int getLocalCount(){
+        return this.local.side.size;
+    }
+    
+    /**
+     * Gets the number of locally paused executions
+     * 
+     * @return Returns paused local size
+     */
+    public int getLocalPausedCount(){
+        return this.localPausedCount;
+    }
+    
+    /**
+     * Gets the number of executions to add
+     * 
+     * @return Returns count
+     */
+    public int getAddedCount(){
+        return this.addedCount;
+    }
+    
+    /**
+     * Gets the number of executions to delete
+     * 
+     * @return Returns count
+     */
+    public int getDeletedCount(){
+        return this.deletedCount;
+    }
+    
+    /**
+     * Gets the number of executions to pause
+     * 
+     * @return Returns count
+     */
+    public int getPausedCount(){
+        return this.pausedCount;
+    }
+    
+    /**
+     * Gets the number of executions to resume
+     * 
+     * @return Returns count
+     */
+    public int getResumedCount(){
+        return this.resumedCount;
+    }
+    
+    /**
+     * Releases references to the last index (local sides are kept if versioned)
+     */
+    public void clear(){
+        
+        this.entries = null;
+        this.index.clear();
+        
+        // keep versioned local sides for the next diff
+        if(this.localVersion >= 0){
+            return;
+        }
+        
+        this.reset();
+    }
+    
+    /**
+     * Releases references to all the last diff inputs (buffers are kept)
+     */
+    public void reset(){
+        this.entries = null;
+        this.localVersion = -1;
+        this.localPausedCount = 0;
+        this.index.clear();
+        this.local.clear();
+        this.pausedSide.clear();
+    }
+    
+    /**
+     * Visits the local keys by references
+     * 
+     * @param refs The local references
+     * @param count The number of references
+     * @param consumer The consumer
+     */
+    protected void visit(int[] refs, int count, Consumer<ExecutionKey> consumer){
+        for(var i = 0; i < count; ++i){
+            consumer.accept(this.local.keys[refs[i]]);
+        }
+    }
+    
+    /**
+     * Compares items of two sides
+     * 
+     * @param a The first side
+     * @param i The item of first side
+     * @param b The second side
+     * @param j The item of second side
+     * @param packed If packed keys should be compared
+     * @return Returns comparison result
+     */
+    protected static int compare(Side a, int i, Side b, int j, boolean packed){
+        
+        if(!packed){
+            return a.ids[a.refs[i]].compareTo(b.ids[b.refs[j]]);
+        }
+        
+        var order = Long.compareUnsigned(a.high[i], b.high[j]);
+        
+        return order != 0 ? order : Integer.compareUnsigned(a.low[i], b.low[j]);
+    }
+    
+    /**
+     * Pushes the value into the growing buffer
+     * 
+     * @param buffer The buffer
+     * @param position The position to write
+     * @param value The value
+     * @return Returns the buffer (grown if needed)
+     */
+    protected static int[] push(int[] buffer, int position, int value){
+        
+        if(position == buffer.length){
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        
+        buffer[position] = value;
+        
+        return buffer;
+    }
+    
+    /**
+     * Parses the hex digit
+     * 
+     * @param c The character
+     * @return Returns digit value or -1
+     */
+    protected static int hex(char c){
+        
+        if(c >= '0' && c <= '9'){
+            return c - '0';
+        }
+        
+        if(c >= 'a' && c <= 'f'){
+            return c - 'a' + 10;
+        }
+        
+        if(c >= 'A' && c <= 'F'){
+            return c - 'A' + 10;
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * The local side of diff with its keys, kept sorted across versions of local state
+     */
+    protected static class LocalSide {
+        
+        /**
+         * The sorted side
+         */
+        protected Side side = new Side();
+        
+        /**
+         * The keys by reference
+         */
+        protected ExecutionKey[] keys = new ExecutionKey[16];
+        
+        /**
+         * The side being built
+         */
+        protected Side spare = new Side();
+        
+        /**
+         * The keys of side being built
+         */
+        protected ExecutionKey[] spareKeys = new ExecutionKey[16];
+        
+        /**
+         * The keys missing in side
+         */
+        protected final Side fresh = new Side();
+        
+        /**
+         * The keys missing in side by reference
+         */
+        protected ExecutionKey[] freshKeys = new ExecutionKey[16];
+        
+        /**
+         * The keys in side
+         */
+        protected final Set<ExecutionKey> known = new HashSet<>();
+        
+        /**
+         * Indicates if side is sorted and matches known keys
+         */
+        protected boolean tracked;
+        
+        /**
+         * Updates the side with the current keys
+         * 
+         * @param current The current keys
+         * @param incremental Update the previous side in place if possible
+         */
+        protected void update(Collection<ExecutionKey> current, boolean incremental){
+            
+            // sets only (membership is checked), the side sorted by previous diff
+            if(incremental && this.tracked && current instanceof Set){
+                this.merge((Set<ExecutionKey>) current);
+                return;
+            }
+            
+            // collections may change concurrently, so buffers may need to grow
+            this.keys = copy(current, this.side, this.keys);
+            
+            // track the keys if next update may be incremental (side is sorted by diff)
+            this.known.clear();
+            this.tracked = incremental && current instanceof Set;
+            
+            if(this.tracked){
+                this.known.addAll(Arrays.asList(this.keys).subList(0, this.side.size));
+            }
+        }
+        
+        /**
+         * Merges the current keys into the sorted side: kept keys stay in order and new ones are merged in
+         * 
+         * @param current The current keys
+         */
+        protected void merge(Set<ExecutionKey> current){
+            
+            // the keys which are not in side yet
+            this.fresh.reset(0);
+            
+            var count = 0;
+            for(var key : current){
+                
+                if(this.known.contains(key)){
+                    continue;
+                }
+                
+                this.freshKeys = put(this.freshKeys, count, key);
+                this.fresh.add(key.getExecutionId(), count++);
+            }
+            
+            // compare packed keys only if both are packed
+            var packed = this.side.packed && this.fresh.packed;
+            
+            this.fresh.sort(packed);
+            
+            // merge kept keys of side with fresh keys in order
+            this.spare.reset(this.side.size + this.fresh.size);
+            
+            var i = 0;
+            var f = 0;
+            var size = 0;
+            
+            while(i < this.side.size || f < this.fresh.size){
+                
+                // the next key in order
+                var fromSide = f >= this.fresh.size || (i < this.side.size && compare(this.side, i, this.fresh, f, packed) <= 0);
+                var source = fromSide ? this.side : this.fresh;
+                var position = fromSide ? i++ : f++;
+                var key = fromSide ? this.keys[source.refs[position]] : this.freshKeys[source.refs[position]];
+                
+                // the key is gone
+                if(fromSide && !current.contains(key)){
+                    this.known.remove(key);
+                    continue;
+                }
+                
+                // the key is new
+                if(!fromSide){
+                    this.known.add(key);
+                }
+                
+                // keep packed id as is
+                this.spareKeys = put(this.spareKeys, size, key);
+                this.spare.move(source, position, size++);
+            }
+            
+            // release previous side and swap
+            Arrays.fill(this.keys, 0, this.side.size, null);
+            Arrays.fill(this.freshKeys, 0, this.fresh.size, null);
+            this.side.clear();
+            this.fresh.clear();
+            
+            var side = this.side;
+            this.side = this.spare;
+            this.spare = side;
+            
+            var keys = this.keys;
+            this.keys = this.spareKeys;
+            this.spareKeys = keys;
+        }
+        
+        /**
+         * Releases all the references
+         */
+        protected void clear(){
+            Arrays.fill(this.keys, 0, this.side.size, null);
+            this.side.clear();
+            this.known.clear();
+            this.tracked = false;
+        }
+        
+        /**
+         * Copies the keys into the side
+         * 
+         * @param keys The keys to copy
+         * @param side The target side
+         * @param buffer The keys buffer
+         * @return Returns the keys buffer (grown if needed)
+         */
+        protected static ExecutionKey[] copy(Collection<ExecutionKey> keys, Side side, ExecutionKey[] buffer){
+            
+            side.reset(keys.size());
+            
+            var count = 0;
+            for(var key : keys){
+                buffer = put(buffer, count, key);
+                side.add(key.getExecutionId(), count++);
+            }
+            
+            return buffer;
+        }
+        
+        /**
+         * Puts the key into the growing buffer
+         * 
+         * @param buffer The buffer
+         * @param position The position to write
+         * @param key The key
+         * @return Returns the buffer (grown if needed)
+         */
+        protected static ExecutionKey[] put(ExecutionKey[] buffer, int position, ExecutionKey key){
+            
+            if(position == buffer.length){
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            
+            buffer[position] = key;
+            
+            return buffer;
+        }
+    }
+    
+    /**
+     * The sorted side of diff with parallel key arrays
+     */
+    protected static class Side {
+        
+        /**
+         * The high 64 bits of packed ids
+         */
+        protected long[] high = new long[16];
+        
+        /**
+         * The low 32 bits of packed ids
+         */
+        protected int[] low = new int[16];
+        
+        /**
+         * The ids by reference (not reordered by sort)
+         */
+        protected String[] ids = new String[16];
+        
+        /**
+         * The references to source items
+         */
+        protected int[] refs = new int[16];
+        
+        /**
+         * The number of items
+         */
+        protected int size;
+        
+        /**
+         * Indicates if all ids are packed
+         */
+        protected boolean packed;
+        
+        /**
+         * Resets the side for the expected size
+         * 
+         * @param expected The expected number of items
+         */
+        protected void reset(int expected){
+            
+            this.size = 0;
+            this.packed = true;
+            this.ensure(expected);
+        }
+        
+        /**
+         * Releases references to ids
+         */
+        protected void clear(){
+            Arrays.fill(this.ids, 0, this.size, null);
+            this.size = 0;
+        }
+        
+        /**
+         * Adds the item
+         * 
+         * @param id The item id
+         * @param ref The reference to source item
+         */
+        protected void add(String id, int ref){
+            
+            this.ensure(this.size + 1);
+            
+            var position = this.size++;
+            
+            this.ids[position] = id == null ? "" : id;
+            this.refs[position] = ref;
+            
+            // pack only while all previous ids were packed
+            if(this.packed){
+                this.packed = this.pack(this.ids[position], position);
+            }
+        }
+        
+        /**
+         * Adds the item of other side keeping its packed key
+         * 
+         * @param source The source side
+         * @param position The position in source side
+         * @param ref The reference to source item
+         */
+        protected void move(Side source, int position, int ref){
+            
+            this.ensure(this.size + 1);
+            
+            var target = this.size++;
+            
+            this.ids[target] = source.ids[source.refs[position]];
+            this.refs[target] = ref;
+            this.high[target] = source.high[position];
+            this.low[target] = source.low[position];
+            this.packed = this.packed && source.packed;
+        }
+        
+        /**
+         * Packs the ObjectId into the key arrays
+         * 
+         * @param id The id
+         * @param position The position
+         * @return Returns true if packed
+         */
+        protected boolean pack(String id, int position){
+            
+            if(id.length() != OBJECT_ID_LENGTH){
+                return false;
+            }
+            
+            var high = 0L;
+            var low = 0;
+            
+            for(var i = 0; i < OBJECT_ID_LENGTH; ++i){
+                
+                var digit = hex(id.charAt(i));
+                
+                if(digit < 0){
+                    return false;
+                }
+                
+                if(i < 16){
+                    high = (high << 4) | digit;
+                }
+                else{
+                    low = (low << 4) | digit;
+                }
+            }
+            
+            this.high[position] = high;
+            this.low[position] = low;
+            
+            return true;
+        }
+        
+        /**
+         * Grows the buffers to fit the size
+         * 
+         * @param capacity The required capacity
+         */
+        protected void ensure(int capacity){
+            
+            if(capacity <= this.refs.length){
+                return;
+            }
+            
+            var length = Math.max(capacity, this.refs.length * 2);
+            
+            this.high = Arrays.copyOf(this.high, length);
+            this.low = Arrays.copyOf(this.low, length);
+            this.ids = Arrays.copyOf(this.ids, length);
+            this.refs = Arrays.copyOf(this.refs, length);
+        }
+        
+        /**
+         * Sorts the items by key in place (skipped if already sorted)
+         * 
+         * @param packed If packed keys should be compared
+         */
+        protected void sort(boolean packed){
+            
+            // index usually comes sorted by id
+            for(var i = 1; i < this.size; ++i){
+                if(compare(this, i - 1, this, i, packed) > 0){
+                    this.quickSort(0, this.size - 1, packed);
+                    return;
+                }
+            }
+        }
+        
+        /**
+         * Sorts the range with quick sort (median of three, insertion sort for small ranges)
+         * 
+         * @param from The first item
+         * @param to The last item (inclusive)
+         * @param packed If packed keys should be compared
+         */
+        protected void quickSort(int from, int to, boolean packed){
+            
+            while(to - from > INSERTION_SORT_SIZE){
+                
+                // median of three as pivot moved to the start
+                var middle = (from + to) >>> 1;
+                
+                if(compare(this, middle, this, from, packed) < 0){
+                    this.swap(middle, from);
+                }
+                if(compare(this, to, this, from, packed) < 0){
+                    this.swap(to, from);
+                }
+                if(compare(this, to, this, middle, packed) < 0){
+                    this.swap(to, middle);
+                }
+                
+                this.swap(from, middle);
+                
+                // partition around pivot (Hoare scheme)
+                var left = from;
+                var right = to + 1;
+                
+                while(true){
+                    
+                    while(compare(this, ++left, this, from, packed) < 0 && left < to);
+                    while(compare(this, from, this, --right, packed) < 0);
+                    
+                    if(left >= right){
+                        break;
+                    }
+                    
+                    this.swap(left, right);
+                }
+                
+                this.swap(from, right);
+                
+                // recurse into smaller part to bound the depth
+                if(right - from < to - right){
+                    this.quickSort(from, right - 1, packed);
+                    from = right + 1;
+                }
+                else{
+                    this.quickSort(right + 1, to, packed);
+                    to = right - 1;
+                }
+            }
+            
+            // insertion sort for small range
+            for(var i = from + 1; i <= to; ++i){
+                for(var j = i; j > from && compare(this, j, this, j - 1, packed) < 0; --j){
+                    this.swap(j, j - 1);
+                }
+            }
+        }
+        
+        /**
+         * Swaps two items
+         * 
+         * @param i The first item
+         * @param j The second item
+         */
+        protected void swap(int i, int j){
+            
+            var high = this.high[i];
+            this.high[i] = this.high[j];
+            this.high[j] = high;
+            
+            var low = this.low[i];
+            this.low[i] = this.low[j];
+            this.low[j] = low;
+            
+            var ref = this.refs[i];
+            this.refs[i] = this.refs[j];
+            this.refs[j] = ref;
+        }
+    }
+}
@@ -1,28 +1,27 @@
 package io.imast.work4j.worker.controller;
 
 import io.imast.work4j.channel.SchedulerChannel;
+import io.imast.work4j.channel.index.ExecutionIndexSnapshot;
 import io.imast.work4j.channel.worker.WorkerExecutionCompleted;
-import io.imast.work4j.channel.worker.WorkerExecutionCreated;
 import io.imast.work4j.channel.worker.WorkerExecutionPaused;
 import io.imast.work4j.channel.worker.WorkerExecutionResumed;
+import io.imast.work4j.channel.worker.WorkerExecutionsCreated;
 import io.imast.work4j.channel.worker.WorkerListener;
 import io.imast.work4j.channel.worker.WorkerMessage;
 import io.imast.work4j.model.cluster.ClusterWorker;
 import io.imast.work4j.model.execution.ExecutionIndexEntry;
-import io.imast.work4j.model.execution.ExecutionStatus;
+import io.imast.work4j.model.execution.JobExecution;
 import io.imast.work4j.worker.WorkerConfiguration;
 import io.imast.work4j.worker.WorkerException;
-import io.imast.work4j.worker.instance.QuartzInstance;
-import io.imast.work4j.worker.instance.ExecutionKey;
-import java.util.ArrayList;
-import java.util.HashSet;
+import io.imast.work4j.worker.instance.SchedulingEngine;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -37,11 +36,11 @@ public class PollingWorkerListener implements WorkerListener {
      * The worker instance
      */
     protected final ClusterWorker worker;
-
+    
     /**
-     * The quartz instance
+     * The scheduling engine instance
      */
-    protected final QuartzInstance instance;
+    protected final SchedulingEngine instance;
     
     /**
      * The scheduler channel
@@ -57,7 +56,7 @@ public class PollingWorkerListener implements WorkerListener {
      * The asynchronous executor
      */
     protected final ScheduledExecutorService asyncExecutor;
-
+    
     /**
      * The set of consumers
      */
@@ -68,22 +67,57 @@ public class PollingWorkerListener implements WorkerListener {
      */
     protected final int executionChunkSize;
     
+    /**
+     * The maximum number of execution loading requests in flight
+     */
+    protected final int executionLoadConcurrency;
+    
+    /**
+     * Indicates that executions are being loaded (next syncs are skipped until done)
+     */
+    protected final AtomicBoolean loading;
+    
+    /**
+     * The reusable index diff
+     */
+    protected final ExecutionIndexDiff diff;
+    
+    /**
+     * The rate of full reconciliation with job store
+     */
+    protected final long reconcileRate;
+    
+    /**
+     * The time of last full reconciliation
+     */
+    protected long lastReconcile;
+    
+    /**
+     * The version of index the local state is known to be in sync with
+     */
+    protected volatile String syncedEtag;
+    
     /**
      * The scheduler channel
      * 
      * @param worker The worker instance
-     * @param instance The quartz instance
+     * @param instance The scheduling engine instance
      * @param channel The polling channel
      * @param config The worker configuration
      */
-    public PollingWorkerListener(ClusterWorker worker, QuartzInstance instance, SchedulerChannel channel, WorkerConfiguration config){
+    public PollingWorkerListener(ClusterWorker worker, SchedulingEngine instance, SchedulerChannel channel, WorkerConfiguration config){
         this.worker = worker;
         this.instance = instance;
         this.channel = channel;
         this.config = config;
         this.asyncExecutor = Executors.newScheduledThreadPool(1);
         this.consumers = new LinkedList<>();
-        this.executionChunkSize = 100;
+        this.executionChunkSize = config.getExecutionChunkSize() == null || config.getExecutionChunkSize() <= 0 ? 100 : config.getExecutionChunkSize();
+        this.executionLoadConcurrency = config.getExecutionLoadConcurrency() == null || config.getExecutionLoadConcurrency() <= 0 ? 4 : config.getExecutionLoadConcurrency();
+        this.loading = new AtomicBoolean(false);
+        this.diff = new ExecutionIndexDiff();
+        this.reconcileRate = config.getReconcileRate() == null || config.getReconcileRate() <= 0 ? 10 * (config.getPollingRate() == null ? 0 : config.getPollingRate()) : config.getReconcileRate();
+        this.lastReconcile = System.currentTimeMillis();
     }
     
     /**
@@ -99,7 +133,7 @@ public class PollingWorkerListener implements WorkerListener {
         
         this.asyncExecutor.scheduleAtFixedRate(() -> this.sync(), 0, this.config.getPollingRate(), TimeUnit.MILLISECONDS);
     }
-
+    
     /**
      * Add a given consumer
      * 
@@ -109,7 +143,7 @@ public class PollingWorkerListener implements WorkerListener {
     public void add(Consumer<WorkerMessage> consumer) {
         this.consumers.add(consumer);
     }
-
+    
     /**
      * Remove the given consumer
      * 
@@ -119,7 +153,7 @@ public class PollingWorkerListener implements WorkerListener {
     public void remove(Consumer<WorkerMessage> consumer) {
         this.consumers.removeLastOccurrence(consumer);
     }
-
+    
     /**
      * Stop the listener
      */
@@ -149,12 +183,45 @@ public class PollingWorkerListener implements WorkerListener {
      */
     protected void syncImpl() throws WorkerException{
         
-        // get metadata for cluster
-        this.channel.executionIndex(this.worker.getCluster()).subscribe(
-                this::syncIndex, 
+        // previous sync is still loading executions, do not overlap
+        if(this.loading.get()){
+            log.debug("PollingListener: Skipping sync while executions are being loaded");
+            return;
+        }
+        
+        // periodically reload local state from job store (changes are tracked in memory otherwise)
+        if(System.currentTimeMillis() - this.lastReconcile >= this.reconcileRate){
+            this.instance.reconcile();
+            this.lastReconcile = System.currentTimeMillis();
+            this.syncedEtag = null;
+        }
+        
+        // get metadata for cluster (skipped by scheduler if not modified since last in-sync version)
+        this.channel.executionIndex(this.worker.getCluster(), this.worker.getName(), this.syncedEtag).subscribe(
+                this::syncSnapshot, 
                 err -> log.error("PollingListener: Could not pull execution index.", err));
     }
     
+    /**
+     * Do sync operation based on received index snapshot
+     * 
+     * @param snapshot The received index snapshot
+     * @throws WorkerException 
+     */
+    protected void syncSnapshot(ExecutionIndexSnapshot snapshot) throws WorkerException {
+        
+        // nothing changed since last in-sync version
+        if(snapshot == null || snapshot.isNotModified()){
+            return;
+        }
+        
+        // apply the changes
+        var changed = this.syncIndex(snapshot.getEntries());
+        
+        // remember the version only if local state already matched it
+        this.syncedEtag = changed ? null : snapshot.getEtag();
+    }
+    
     /**
      * Raise update message
      * 
@@ -163,144 +230,104 @@ public class PollingWorkerListener implements WorkerListener {
     protected void raise(WorkerMessage message){
         this.consumers.forEach(consumer -> consumer.accept(message));
     }
-
+    
     /**
-     * Do sync operation based on received entries
+     * Raise the burst of created executions and track until it is applied
      * 
-     * @param entries The received index entries
-     * @throws WorkerException 
+     * @param executions The created executions
+     * @param release The release of pending chunk
+     * @param pending The number of pending chunks
      */
-    protected void syncIndex(List<ExecutionIndexEntry> entries) throws WorkerException {
-
-        // check if no groups
-        if(entries == null){
+    protected void raiseCreated(List<JobExecution> executions, Runnable release, AtomicInteger pending){
+        
+        // nobody applies the chunk
+        if(this.consumers.isEmpty()){
             return;
         }
-
-        // build map out of index entries
-        var index = entries.stream().collect(Collectors.toMap(e -> new ExecutionKey(e.getId(), e.getJobId()), e -> e));
-        
-        // the keys of index
-        var indexKeys = index.keySet();
-        
-        // the set of paused jobs
-        var paused = this.instance.getPausedExecutions();
-        
-        // the set of executions
-        var all = this.instance.getExecutions();
-        
-        // missing execution keys 
-        var toAdd = new HashSet<ExecutionKey>();
         
-        // collect all entities that needs to be deleted
-        var toDelete = new HashSet<ExecutionKey>();
+        pending.incrementAndGet();
         
-        // entries to pause
-        var toPause = new HashSet<ExecutionKey>();
+        // released only once even if several consumers apply it
+        var once = new AtomicBoolean(false);
         
-        // entries to resume
-        var toResume = new HashSet<ExecutionKey>();
-        
-        // check all the index entries
-        indexKeys.forEach(idx -> {
-        
-            // if any item is in index but not running/paused currently then consider missing
-            if(!all.contains(idx)){
-                toAdd.add(idx);
-                return;
-            }
-            
-            // get the entry
-            var entry = index.get(idx);
-            
-            // item is completed need to remove
-            if(entry.getStatus() == ExecutionStatus.COMPLETED){
-                toDelete.add(idx);
-                return;
-            }
-            
-            // if index says entry should be paused but its not paused do it
-            if(entry.getStatus() == ExecutionStatus.PAUSED && !paused.contains(idx)){
-                toPause.add(idx);
-                return;
-            }
-            
-            // if index says entry should be active but its paused, activate it
-            if(entry.getStatus() == ExecutionStatus.ACTIVE && paused.contains(idx)){
-                toResume.add(idx);
+        this.raise(new WorkerExecutionsCreated(executions, () -> {
+            if(once.compareAndSet(false, true)){
+                release.run();
             }
-        });
+        }));
+    }
+    
+    /**
+     * Do sync operation based on received entries
+     * 
+     * @param entries The received index entries
+     * @return Returns true if any change was applied
+     * @throws WorkerException 
+     */
+    protected boolean syncIndex(List<ExecutionIndexEntry> entries) throws WorkerException {
+        
+        // check if no groups
+        if(entries == null){
+            return false;
+        }
         
-        // check all currently existing items
-        all.forEach(existing -> {
+        // live views of local state (reconciled first if stale)
+        var executions = this.instance.getExecutionsView();
+        var paused = this.instance.getPausedExecutionsView();
         
-            // if entry is running but index does not contain info about it delete
-            if(!index.containsKey(existing)){
-                toDelete.add(existing);
-            } 
-        });
+        // merge-join index with local state, unchanged local state is not copied again
+        var changed = this.diff.compute(entries, executions, paused, this.instance.getShadowVersion());
         
-        log.info(String.format("PollingWorkerListener: Current: Index(%s), All(%s), Paused(%s)", index.size(), all.size(), paused.size()));
+        log.info(String.format("PollingWorkerListener: Current: Index(%s), All(%s), Paused(%s)", this.diff.getIndexCount(), this.diff.getLocalCount(), this.diff.getLocalPausedCount()));
         
         // if there is nothing to do as per change comparison
-        if(toAdd.size() + toDelete.size() + toPause.size() + toResume.size() == 0){
-            return;
+        if(!changed){
+            this.diff.clear();
+            return false;
         }
         
-        log.info(String.format("PollingWorkerListener: Changes: Add(%s), Delete(%s), Pause(%s), Resume(%s)", toAdd.size(), toDelete.size(), toPause.size(), toResume.size()));
-
+        log.info(String.format("PollingWorkerListener: Changes: Add(%s), Delete(%s), Pause(%s), Resume(%s)", this.diff.getAddedCount(), this.diff.getDeletedCount(), this.diff.getPausedCount(), this.diff.getResumedCount()));
+        
         // raise completed events
-        toDelete.forEach(key -> this.raise(new WorkerExecutionCompleted(key.getExecutionId(), key.getJobId())));
+        this.diff.forEachDeleted(key -> this.raise(new WorkerExecutionCompleted(key.getExecutionId(), key.getJobId())));
         
         // raise pause events
-        toPause.forEach(key -> this.raise(new WorkerExecutionPaused(key.getExecutionId(), key.getJobId())));
+        this.diff.forEachPaused(key -> this.raise(new WorkerExecutionPaused(key.getExecutionId(), key.getJobId())));
         
         // raise resume events
-        toResume.forEach(key -> this.raise(new WorkerExecutionResumed(key.getExecutionId(), key.getJobId())));
+        this.diff.forEachResumed(key -> this.raise(new WorkerExecutionResumed(key.getExecutionId(), key.getJobId())));
         
-        // the portions of jobs to load
-        var portions = new ArrayList<ArrayList<String>>();
+        // the identifiers of missing executions
+        var ids = this.diff.addedIds();
         
-        // first portion
-        portions.add(new ArrayList<>());
+        // do not hold references to index between polls
+        this.diff.clear();
         
-        // for each adding item break into its portion
-        toAdd.forEach(key -> {
-            
-            // add a portion if previous is full
-            if(portions.get(portions.size() - 1).size() >= this.executionChunkSize){
-                portions.add(new ArrayList<>());
-            }
-            
-            // insert into last portion
-            portions.get(portions.size() - 1).add(key.getExecutionId());
-        });
+        // nothing to load
+        if(ids.isEmpty()){
+            return true;
+        }
+        
+        // mark as loading to skip overlapping syncs
+        this.loading.set(true);
         
-        // load missing elements for each portion
-        portions.forEach(portion -> {
-            
-            // nothing to do with empty portions
-            if(portion == null || portion.isEmpty()){
-                return;
+        // loading is done once the stream is over and every raised chunk is applied (the stream itself holds one)
+        var pending = new AtomicInteger(1);
+        Runnable release = () -> {
+            if(pending.decrementAndGet() == 0){
+                this.loading.set(false);
             }
-            
-            // load portion
-            var load = this.channel.executions(portion);
-            
-            // on completion generate all required messages
-            load.subscribe(
-                response -> {
-                    
-                    // nothing to do, no result
-                    if(response == null || response.isEmpty()){
-                        return;
-                    }
-                    
-                    response.forEach(exec -> this.raise(new WorkerExecutionCreated(exec)));
-                    
-                }, 
-                error ->  log.error("PollingListener: Could not load portion of executions", error)
-            );
-        });
+        };
+        
+        // stream missing executions in chunks with bounded concurrency, each chunk is scheduled at once
+        this.channel.executionStream(ids, this.executionChunkSize, this.executionLoadConcurrency)
+                .buffer(this.executionChunkSize)
+                .doFinally(signal -> release.run())
+                .subscribe(
+                    execs -> this.raiseCreated(execs, release, pending),
+                    error -> log.error("PollingListener: Could not load executions", error)
+                );
+        
+        return true;
     }
 }
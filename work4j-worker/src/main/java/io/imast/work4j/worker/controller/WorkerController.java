@@ -5,6 +5,7 @@ import io.imast.work4j.channel.worker.WorkerExecutionCompleted;
 import io.imast.work4j.channel.worker.WorkerExecutionCreated;
 import io.imast.work4j.channel.worker.WorkerExecutionPaused;
 import io.imast.work4j.channel.worker.WorkerExecutionResumed;
+import io.imast.work4j.channel.worker.WorkerExecutionsCreated;
 import io.imast.work4j.channel.worker.WorkerListener;
 import io.imast.work4j.channel.worker.WorkerMessage;
 import io.imast.work4j.model.cluster.ClusterWorker;
@@ -12,30 +13,41 @@ import io.imast.work4j.model.cluster.WorkerActivity;
 import io.imast.work4j.model.cluster.WorkerHeartbeat;
 import io.imast.work4j.worker.WorkerConfiguration;
 import io.imast.work4j.worker.WorkerException;
-import io.imast.work4j.worker.instance.QuartzInstance;
+import io.imast.work4j.worker.instance.SchedulingEngine;
 import io.imast.work4j.worker.instance.ExecutionKey;
+import io.vavr.control.Try;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * The worker controller  
  * 
  * @author davitp
  */
+@Slf4j
 public class WorkerController {
    
     /**
-     * The quartz instance
+     * The scheduling engine instance
      */
-    protected final QuartzInstance instance;
+    protected final SchedulingEngine instance;
     
     /**
      * The scheduler channel
      */
     protected SchedulerChannel channel;
-
+    
     /**
      * The listeners
      */
@@ -57,21 +69,80 @@ public class WorkerController {
     protected final ClusterWorker worker;
     
     /**
-     * Creates new controller based on quartz instance and communication channel
+     * The single-threaded lanes applying execution changes (null if applied on receiving thread)
+     */
+    protected final ExecutorService[] lanes;
+    
+    /**
+     * The time to wait for pending changes of lanes on stop (seconds)
+     */
+    protected static final long LANES_TIMEOUT = 30;
+    
+    /**
+     * The maximum number of pending changes of a lane (receiving thread waits once reached)
+     */
+    protected static final int LANE_CAPACITY = 256;
+    
+    /**
+     * Creates new controller based on scheduling engine and communication channel
      * 
      * @param worker The worker instance
-     * @param instance The quartz instance
+     * @param instance The scheduling engine instance
      * @param channel The channel
      * @param listeners The worker listeners
      * @param config The worker configuration
      */
-    public WorkerController(ClusterWorker worker, QuartzInstance instance, SchedulerChannel channel, List<WorkerListener> listeners, WorkerConfiguration config){
+    public WorkerController(ClusterWorker worker, SchedulingEngine instance, SchedulerChannel channel, List<WorkerListener> listeners, WorkerConfiguration config){
         this.worker = worker;
         this.instance = instance;
         this.channel = channel;
         this.listeners = listeners;
         this.config = config;
         this.asyncExecutor = Executors.newScheduledThreadPool(1);
+        this.lanes = this.createLanes(config.getApplyThreads());
+    }
+    
+    /**
+     * Creates the lanes to apply changes of independent executions in parallel
+     * 
+     * @param threads The number of threads
+     * @return Returns lanes or null if changes are applied on receiving thread
+     */
+    protected ExecutorService[] createLanes(Integer threads){
+        
+        // apply on receiving thread
+        if(threads == null || threads <= 1){
+            return null;
+        }
+        
+        var result = new ExecutorService[threads];
+        
+        for(var i = 0; i < threads; ++i){
+            result[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(LANE_CAPACITY), WorkerController::await);
+        }
+        
+        return result;
+    }
+        
+    /**
+     * Waits for the room in the full lane, so the receiving side is slowed down instead of queueing unbounded changes
+     * 
+     * @param task The task to queue
+     * @param lane The lane
+     */
+    protected static void await(Runnable task, ThreadPoolExecutor lane){
+        
+        if(lane.isShutdown()){
+            throw new RejectedExecutionException("The lane is shut down");
+        }
+        
+        try {
+            lane.getQueue().put(task);
+        }
+        catch(InterruptedException error){
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for the lane", error);
+        }
     }
         
     /**
@@ -86,7 +157,7 @@ public class WorkerController {
         this.listeners.forEach(listener -> {
             // register listner function
             listener.add(this::recieved);
-
+            
             // start listening
             listener.start();
         });
@@ -106,8 +177,6 @@ public class WorkerController {
      */
     public void stop() throws WorkerException{
         
-        this.instance.stop();
-        
         // subscribe to all listeners
         this.listeners.forEach(listener -> {
             // stop listening
@@ -119,14 +188,185 @@ public class WorkerController {
         
         // shutdown all async tasks
         this.asyncExecutor.shutdown();
+        
+        // shutdown lanes and wait for pending changes to be applied while engine is running
+        if(this.lanes != null){
+            
+            Arrays.stream(this.lanes).forEach(ExecutorService::shutdown);
+            
+            try {
+                for(var lane : this.lanes){
+                    if(!lane.awaitTermination(LANES_TIMEOUT, TimeUnit.SECONDS)){
+                        log.warn("WorkerController: Pending execution changes were not applied in time, dropping them");
+                        lane.shutdownNow();
+                    }
+                }
+            }
+            catch(InterruptedException error){
+                Arrays.stream(this.lanes).forEach(ExecutorService::shutdownNow);
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        this.instance.stop();
+        
+        // flush buffered reports if channel batches them
+        if(this.channel instanceof AutoCloseable){
+            Try.run(() -> ((AutoCloseable) this.channel).close());
+        }
     }
     
     /**
      * Process received update 
      * 
+     * Changes of the same execution always go to the same lane, so they stay ordered while
+     * independent executions are applied in parallel. A burst of created executions is split
+     * by lanes and each part is scheduled at once.
+     * 
      * @param message The message to process 
      */
     protected void recieved(WorkerMessage message){
+        
+        // apply on receiving thread
+        if(this.lanes == null){
+            this.apply(message);
+            return;
+        }
+        
+        // split the burst by lanes
+        if(message instanceof WorkerExecutionsCreated){
+            
+            // cast to concrete type
+            var msg = (WorkerExecutionsCreated) message;
+            
+            // group executions by lane
+            var groups = msg.getExecutions()
+                    .stream()
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.groupingBy(exec -> this.lane(new ExecutionKey(exec.getId(), exec.getJobId()))));
+            
+            // nothing to apply
+            if(groups.isEmpty()){
+                this.applied(msg);
+                return;
+            }
+            
+            // the burst is applied once every part is applied
+            var parts = new AtomicInteger(groups.size());
+            Runnable applied = () -> {
+                if(parts.decrementAndGet() == 0){
+                    this.applied(msg);
+                }
+            };
+            
+            groups.forEach((lane, executions) -> this.submit(lane, new WorkerExecutionsCreated(executions, applied)));
+            return;
+        }
+        
+        // the key of changed execution
+        var key = this.key(message);
+        
+        // unknown message
+        if(key == null){
+            this.apply(message);
+            return;
+        }
+        
+        this.submit(this.lane(key), message);
+    }
+    
+    /**
+     * Submits the message to the lane
+     * 
+     * @param lane The lane index
+     * @param message The message to apply
+     */
+    protected void submit(int lane, WorkerMessage message){
+        
+        var submitted = Try.run(() -> this.lanes[lane].execute(() -> {
+            
+            // apply and log failure as there is no caller to handle it
+            var result = Try.run(() -> this.apply(message));
+            
+            if(result.isFailure()){
+                log.error("WorkerController: Could not apply the change", result.getCause());
+            }
+        }));
+        
+        if(submitted.isFailure()){
+            log.warn("WorkerController: The change is dropped as worker is stopped", submitted.getCause());
+            this.applied(message);
+        }
+    }
+    
+    /**
+     * Notifies the sender that the burst of executions is applied (or dropped)
+     * 
+     * @param message The message
+     */
+    protected void applied(WorkerMessage message){
+        
+        if(!(message instanceof WorkerExecutionsCreated)){
+            return;
+        }
+        
+        var callback = ((WorkerExecutionsCreated) message).getApplied();
+        
+        if(callback != null){
+            callback.run();
+        }
+    }
+    
+    /**
+     * Gets the lane of the execution key
+     * 
+     * @param key The execution key
+     * @return Returns lane index
+     */
+    protected int lane(ExecutionKey key){
+        
+        var hash = key.hashCode();
+        
+        return Math.floorMod(hash ^ (hash >>> 16), this.lanes.length);
+    }
+    
+    /**
+     * Gets the execution key of the message
+     * 
+     * @param message The message
+     * @return Returns execution key or null
+     */
+    protected ExecutionKey key(WorkerMessage message){
+        
+        if(message instanceof WorkerExecutionCreated){
+            var execution = ((WorkerExecutionCreated) message).getExecution();
+            return execution == null ? null : new ExecutionKey(execution.getId(), execution.getJobId());
+        }
+        
+        if(message instanceof WorkerExecutionCompleted){
+            var msg = (WorkerExecutionCompleted) message;
+            return new ExecutionKey(msg.getExecutionId(), msg.getJobId());
+        }
+        
+        if(message instanceof WorkerExecutionPaused){
+            var msg = (WorkerExecutionPaused) message;
+            return new ExecutionKey(msg.getExecutionId(), msg.getJobId());
+        }
+        
+        if(message instanceof WorkerExecutionResumed){
+            var msg = (WorkerExecutionResumed) message;
+            return new ExecutionKey(msg.getExecutionId(), msg.getJobId());
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Applies the received update to the quartz instance
+     * 
+     * @param message The message to apply 
+     */
+    protected void apply(WorkerMessage message){
        
         // an execution is created so needs to be scheduled
         if(message instanceof WorkerExecutionCreated){
@@ -138,6 +378,21 @@ public class WorkerController {
             this.instance.schedule(msg.getExecution());
         }
         
+        // a burst of executions is created so needs to be scheduled at once
+        if(message instanceof WorkerExecutionsCreated){
+            
+            // cast to concrete type
+            var msg = (WorkerExecutionsCreated) message;
+            
+            // schedule all in single store call
+            try {
+                this.instance.scheduleAll(msg.getExecutions());
+            }
+            finally {
+                this.applied(msg);
+            }
+        }
+        
         // an execution is completed so needs to be unscheduled
         if(message instanceof WorkerExecutionCompleted){
             
@@ -3,6 +3,8 @@ package io.imast.work4j.worker.controller;
 import java.util.List;
 import java.util.Properties;
 import io.imast.work4j.channel.SchedulerChannel;
+import io.imast.work4j.channel.batch.BatchingOptions;
+import io.imast.work4j.channel.batch.BatchingSchedulerChannel;
 import io.imast.work4j.channel.worker.WorkerListener;
 import io.imast.work4j.execution.JobExecutor;
 import io.imast.work4j.execution.JobExecutorContext;
@@ -10,16 +12,29 @@ import io.imast.work4j.model.cluster.ClusterWorker;
 import io.imast.work4j.model.cluster.WorkerKind;
 import io.imast.work4j.worker.JobConstants;
 import io.imast.work4j.worker.PersistenceType;
+import io.imast.work4j.worker.SchedulingEngineType;
+import io.imast.work4j.worker.ThreadPoolType;
 import io.imast.work4j.worker.WorkerConfiguration;
 import io.imast.work4j.worker.WorkerException;
 import io.imast.work4j.worker.WorkerFactory;
+import io.imast.work4j.worker.bulkhead.BulkheadOptions;
 import io.imast.work4j.worker.instance.EveryJobListener;
 import io.imast.work4j.worker.instance.EveryTriggerListener;
 import io.imast.work4j.worker.instance.JobSchedulerListener;
 import io.imast.work4j.worker.instance.QuartzInstance;
+import io.imast.work4j.worker.instance.TriggerMultiplexer;
+import io.imast.work4j.worker.instance.SchedulingEngine;
+import io.imast.work4j.worker.instance.WorkerThreadPool;
+import io.imast.work4j.worker.job.ExecutorCache;
+import io.imast.work4j.worker.job.WorkerJobFactory;
+import io.imast.work4j.worker.spool.SpoolOptions;
+import io.imast.work4j.worker.spool.SpoolingSchedulerChannel;
+import io.imast.work4j.worker.wheel.TimingWheelEngine;
 import io.vavr.control.Try;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
 import org.quartz.JobListener;
 import org.quartz.SchedulerListener;
 import org.quartz.TriggerListener;
@@ -104,6 +119,16 @@ public class WorkerControllerBuilder {
      */
     private SchedulerChannel schedulerChannel;
     
+    /**
+     * The report batching options (reports are sent one by one if missing)
+     */
+    private BatchingOptions batchingOptions;
+    
+    /**
+     * The report spool options (uses spool directory from configuration if missing)
+     */
+    private SpoolOptions spoolOptions;
+    
     /**
      * Creates new instance of builder from configuration
      * 
@@ -140,6 +165,28 @@ public class WorkerControllerBuilder {
         return this;
     }
     
+    /**
+     * Batches iteration and completion reports sent through the channel
+     * 
+     * @param options The batching options
+     * @return Returns builder for chaining
+     */
+    public WorkerControllerBuilder withReportBatching(BatchingOptions options){
+        this.batchingOptions = options;
+        return this;
+    }
+    
+    /**
+     * Spools iteration and completion reports on disk and replays them to the channel
+     * 
+     * @param options The spool options
+     * @return Returns builder for chaining
+     */
+    public WorkerControllerBuilder withReportSpool(SpoolOptions options){
+        this.spoolOptions = options;
+        return this;
+    }
+    
     /**
      * Sets a worker instance for the controller
      * 
@@ -163,6 +210,33 @@ public class WorkerControllerBuilder {
         return this;
     }
     
+    /**
+     * Adds a job type and class association with concurrency limits of type
+     * 
+     * @param type The job type code
+     * @param executorSupplier The job class instance
+     * @param bulkhead The bulkhead options of type
+     * @return Returns builder for chaining
+     */
+    public WorkerControllerBuilder withJobExecutor(String type, Function<JobExecutorContext, JobExecutor> executorSupplier, BulkheadOptions bulkhead){
+        this.factory.registerExecutor(type, executorSupplier);
+        return this.withBulkhead(type, bulkhead);
+    }
+    
+    /**
+     * Limits the concurrency of job type (optionally with a dedicated pool)
+     * 
+     * @param type The job type code
+     * @param options The bulkhead options
+     * @return Returns builder for chaining
+     */
+    public WorkerControllerBuilder withBulkhead(String type, BulkheadOptions options){
+        if(options != null){
+            this.factory.registerBulkhead(type, options);
+        }
+        return this;
+    }
+    
     /**
      * Adds instances for required job modules
      * 
@@ -176,6 +250,15 @@ public class WorkerControllerBuilder {
         return this;
     }
     
+    /**
+     * Gets the job types registered so far (to be advertised by WorkerConnector)
+     * 
+     * @return Returns registered job types
+     */
+    public Set<String> getJobTypes(){
+        return new HashSet<>(this.factory.getTypes());
+    }
+    
     /**
      * Use the given listener
      * 
@@ -197,8 +280,8 @@ public class WorkerControllerBuilder {
         // props
         var props = new Properties();
         
-        // the worker is balanced
-        var clustered = this.worker.getKind() == WorkerKind.BALANCED;
+        // the worker is balanced (assigned workers get own shard and do not need quartz clustering)
+        var clustered = this.worker.getKind() == WorkerKind.BALANCED && !this.worker.isAssigned();
         
         // use worker name as instance name for scheduler
         var instanceName = clustered ? this.worker.getCluster() : this.worker.getName();
@@ -211,10 +294,19 @@ public class WorkerControllerBuilder {
         props.setProperty("org.quartz.scheduler.instanceId", "WORK4J_" + instanceId);
         props.setProperty("org.quartz.threadPool.threadCount", this.config.getParallelism().toString());
         
+        // use worker pool so that asynchronous executions count against the cap until done
+        props.setProperty("org.quartz.threadPool.class", WorkerThreadPool.class.getName());
+        props.setProperty("org.quartz.threadPool.virtual", Boolean.toString(this.config.getThreadPoolType() == ThreadPoolType.VIRTUAL));
+        
+        // the concurrency cap
+        if(this.config.getMaxConcurrency() != null){
+            props.setProperty("org.quartz.threadPool.maxConcurrency", this.config.getMaxConcurrency().toString());
+        }
+        
         // other props
         props.setProperty("org.quartz.scheduler.skipUpdateCheck", "true");
         props.setProperty("org.quartz.scheduler.jobFactory.class", "org.quartz.simpl.SimpleJobFactory");
-
+        
         // mark as clustered if needed
         if(clustered){
             props.setProperty("org.quartz.jobStore.isClustered", "true");
@@ -226,10 +318,10 @@ public class WorkerControllerBuilder {
         
         // should set persistance-related attributes
         if(isJdbc){
-
+            
             // prefix for data store property
             var dsPropPrefix = String.format("org.quartz.dataSource.%s", this.config.getDataSource());
-
+            
             
             // data store properties
             props.setProperty(String.format("%s.%s", dsPropPrefix, "driver"), JDBC_DRIVERS.get(this.config.getPersistenceType()));
@@ -269,10 +361,11 @@ public class WorkerControllerBuilder {
     /**
      * Initialize an instance of quartz scheduler 
      * 
+     * @param executors The resolved executors by job type
      * @return Returns ready-to-use quartz scheduler instance
      * @throws WorkerException 
      */
-    private Scheduler initScheduler() throws WorkerException{
+    private Scheduler initScheduler(ExecutorCache executors) throws WorkerException{
      
         // properties for the quartz scheduler
         var props = this.quartzProps();
@@ -295,11 +388,15 @@ public class WorkerControllerBuilder {
         
         // the scheduler object
         var scheduler = tryScheduler.get();
-
+        
         // initialize context modules of scheduler
         try {
             scheduler.getContext().put(JobConstants.WORKER_FACTORY, this.factory);
             scheduler.getContext().put(JobConstants.JOB_MODULES, this.jobModules);
+            scheduler.getContext().put(JobConstants.EXECUTOR_CACHE, executors);
+            
+            // executor jobs are created with resolved executors
+            scheduler.setJobFactory(new WorkerJobFactory(executors));
         }
         catch(SchedulerException ex){
             throw new WorkerException("Could not add context modules to scheduler", ex);
@@ -309,7 +406,8 @@ public class WorkerControllerBuilder {
         try{
             scheduler.getListenerManager().addSchedulerListener(new JobSchedulerListener(scheduler, this.schedulerChannel));
             scheduler.getListenerManager().addJobListener(new EveryJobListener(this.worker, this.schedulerChannel));
-            scheduler.getListenerManager().addTriggerListener(new EveryTriggerListener(this.schedulerChannel));
+            scheduler.getListenerManager().addTriggerListener(new EveryTriggerListener(this.schedulerChannel, executors));
+            scheduler.getListenerManager().addSchedulerListener(executors.evictionListener());
         }
         catch(SchedulerException ex){
             throw new WorkerException("Could not register Work4j listeners to quartz scheduler", ex);
@@ -334,6 +432,78 @@ public class WorkerControllerBuilder {
         return scheduler;
     }
     
+    /**
+     * Initialize the scheduling engine by configuration
+     * 
+     * @return Returns scheduling engine
+     * @throws WorkerException 
+     */
+    private SchedulingEngine initEngine() throws WorkerException{
+        
+        // quartz engine is the default
+        if(this.config.getEngineType() != SchedulingEngineType.TIMING_WHEEL){
+            
+            // resolve executors of registered types up front
+            var poolSize = this.config.getExecutorPoolSize() == null ? (this.config.getParallelism() == null ? ExecutorCache.DEFAULT_POOL_SIZE : this.config.getParallelism().intValue()) : this.config.getExecutorPoolSize();
+            var executors = new ExecutorCache(this.factory, this.jobModules, poolSize);
+            executors.resolveAll();
+            
+            // create a scheduler instance
+            var scheduler = this.initScheduler(executors);
+            
+            // lock stripes of execution changes
+            var stripes = this.config.getLockStripes() == null || this.config.getLockStripes() <= 0 ? QuartzInstance.DEFAULT_STRIPES : this.config.getLockStripes();
+            
+            // every execution has own triggers
+            if(!Boolean.TRUE.equals(this.config.getMultiplexTriggers())){
+                return new QuartzInstance(scheduler, stripes);
+            }
+            
+            // members of shared schedules are kept in memory
+            if(this.config.getPersistenceType() != null && this.config.getPersistenceType() != PersistenceType.NO){
+                throw new WorkerException("Trigger multiplexing does not support persistence");
+            }
+            
+            // shared schedules run on the pool of scheduler, so the concurrency cap applies to all fires
+            WorkerThreadPool pool;
+            
+            try {
+                pool = WorkerThreadPool.of(scheduler.getSchedulerName());
+            }
+            catch(SchedulerException ex){
+                throw new WorkerException("Could not read scheduler name", ex);
+            }
+            
+            if(pool == null){
+                throw new WorkerException("Trigger multiplexing requires the worker thread pool");
+            }
+            
+            var multiplexer = new TriggerMultiplexer(this.worker, executors, this.schedulerChannel, pool);
+            
+            // shared jobs find the multiplexer in context
+            try {
+                scheduler.getContext().put(JobConstants.TRIGGER_MULTIPLEXER, multiplexer);
+            }
+            catch(SchedulerException ex){
+                throw new WorkerException("Could not add trigger multiplexer to scheduler", ex);
+            }
+            
+            return new QuartzInstance(scheduler, stripes, multiplexer);
+        }
+        
+        // timing wheel keeps everything in memory
+        if(this.config.getPersistenceType() != null && this.config.getPersistenceType() != PersistenceType.NO){
+            throw new WorkerException("Timing wheel engine does not support persistence");
+        }
+        
+        // quartz listeners have nothing to listen to
+        if(!this.schedulerListeners.isEmpty() || !this.jobListeners.isEmpty() || !this.triggerListeners.isEmpty()){
+            throw new WorkerException("Timing wheel engine does not support quartz listeners");
+        }
+        
+        return new TimingWheelEngine(this.worker, this.factory, this.jobModules, this.schedulerChannel, this.config);
+    }
+    
     /**
      * Build a ready-to-use worker controller
      * 
@@ -352,15 +522,27 @@ public class WorkerControllerBuilder {
             throw new WorkerException("Worker Instance is required");
         }
         
-        // create a scheduler instance
-        var scheduler = this.initScheduler();
+        // decorate channel to batch reports if requested
+        if(this.batchingOptions != null && !(this.schedulerChannel instanceof BatchingSchedulerChannel)){
+            this.schedulerChannel = new BatchingSchedulerChannel(this.schedulerChannel, this.batchingOptions);
+        }
+        
+        // use spool directory from configuration if options are not given
+        if(this.spoolOptions == null && this.config.getSpoolDirectory() != null && !this.config.getSpoolDirectory().isBlank()){
+            this.spoolOptions = SpoolOptions.builder().directory(this.config.getSpoolDirectory()).build();
+        }
+        
+        // decorate channel to spool reports on disk if requested
+        if(this.spoolOptions != null && !(this.schedulerChannel instanceof SpoolingSchedulerChannel)){
+            this.schedulerChannel = new SpoolingSchedulerChannel(this.schedulerChannel, this.spoolOptions);
+        }
+        
+        // create a scheduling engine
+        var instance = this.initEngine();
      
         // list of all listeners
         var allListeners = new ArrayList<WorkerListener>();
         
-        // create a quartz instance
-        var instance = new QuartzInstance(scheduler);
-        
         // if polling rate is specified create a supervisor
         if(this.config.getPollingRate() != null && this.config.getPollingRate() > 0){
             allListeners.add(new PollingWorkerListener(this.worker, instance, this.schedulerChannel, this.config));
@@ -370,7 +552,7 @@ public class WorkerControllerBuilder {
         allListeners.addAll(this.listeners);
         
         // in case of standalone scheduler at least one listener should be there
-        if(this.config.getPersistenceType() == PersistenceType.NO){
+        if(this.config.getPersistenceType() == PersistenceType.NO && allListeners.isEmpty()){
             throw new WorkerException("Workers without persistence needs at least one external listener or a positive polling rate");
         }
         
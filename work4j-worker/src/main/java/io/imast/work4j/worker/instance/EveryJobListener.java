@@ -7,8 +7,11 @@ import io.imast.work4j.model.iterate.IterationInput;
 import io.imast.work4j.model.iterate.IterationStatus;
 import io.imast.work4j.model.cluster.ClusterWorker;
 import io.imast.work4j.worker.JobConstants;
+import io.imast.work4j.worker.bulkhead.Bulkhead;
 import io.imast.work4j.worker.job.JobOps;
 import java.util.Date;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import lombok.extern.slf4j.Slf4j;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
@@ -32,6 +35,11 @@ public class EveryJobListener implements JobListener {
      */
     protected final SchedulerChannel schedulerChannel;
     
+    /**
+     * The iteration reporter
+     */
+    protected final IterationReporter reporter;
+    
     /**
      * Creates new instance of Every Job Listener
      * 
@@ -41,6 +49,7 @@ public class EveryJobListener implements JobListener {
     public EveryJobListener(ClusterWorker worker, SchedulerChannel schedulerChannel) {
         this.worker = worker;
         this.schedulerChannel = schedulerChannel;   
+        this.reporter = new IterationReporter(schedulerChannel, "EveryJobListener");
     }
     
     /**
@@ -52,7 +61,7 @@ public class EveryJobListener implements JobListener {
     public String getName() {
         return "WORK4J_JOB_LISTENER";
     }
-
+    
     /**
      * The job is about to be executed
      * 
@@ -61,7 +70,7 @@ public class EveryJobListener implements JobListener {
     @Override
     public void jobToBeExecuted(JobExecutionContext context) {
     }
-
+    
     /**
      * The job execution is vetoed by trigger listener
      * 
@@ -69,8 +78,15 @@ public class EveryJobListener implements JobListener {
      */
     @Override
     public void jobExecutionVetoed(JobExecutionContext context) {
+        
+        // give back the permit if admitted fire is vetoed by other listener
+        var admitted = context.get(JobConstants.BULKHEAD_ADMITTED);
+        
+        if(admitted instanceof Bulkhead){
+            ((Bulkhead) admitted).cancelAdmitted();
+        }
     }
-
+    
     /**
      * The job was executed 
      * 
@@ -79,7 +95,39 @@ public class EveryJobListener implements JobListener {
      */
     @Override
     public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
-
+        
+        // shared schedules report iterations of members themselves
+        if(JobConstants.MULTIPLEX_GROUP.equals(context.getJobDetail().getKey().getGroup())){
+            return;
+        }
+        
+        // asynchronous job is reported when its stage completes
+        var stage = context.get(JobConstants.ASYNC_STAGE);
+        
+        if(jobException == null && stage instanceof CompletionStage){
+            
+            var fireTime = context.getFireTime() == null ? System.currentTimeMillis() : context.getFireTime().getTime();
+            
+            ((CompletionStage<?>) stage).whenComplete((value, error) -> {
+                var failure = error == null ? null : new JobExecutionException("Error while executing the job instance", error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                this.report(context, failure, System.currentTimeMillis() - fireTime);
+            });
+            
+            return;
+        }
+        
+        this.report(context, jobException, context.getJobRunTime());
+    }
+    
+    /**
+     * Reports the iteration of job
+     * 
+     * @param context The job execution context
+     * @param jobException The job exception
+     * @param runtime The job run time
+     */
+    protected void report(JobExecutionContext context, JobExecutionException jobException, long runtime) {
+        
         // the job execution id
         var executionId = JobOps.<String>getValue(context.getJobDetail().getJobDataMap(), JobConstants.PAYLOAD_JOB_EXECUTION_ID);
         
@@ -103,9 +151,6 @@ public class EveryJobListener implements JobListener {
             return;
         }
         
-        // the job run time
-        var runtime = context.getJobRunTime();
-        
         // create iteration entity
         var iteration = IterationInput.builder()
                 .executionId(executionId)
@@ -118,7 +163,7 @@ public class EveryJobListener implements JobListener {
                 .timestamp(new Date())
                 .build();
         
-        // register iteration and get the result
-        this.schedulerChannel.iterate(iteration).subscribe();
+        // register iteration (retried if scheduler pushes back)
+        this.reporter.report(iteration);
     }    
 }
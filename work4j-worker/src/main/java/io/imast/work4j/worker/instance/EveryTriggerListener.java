@@ -1,6 +1,11 @@
 package io.imast.work4j.worker.instance;
 
+import io.imast.core.Str;
 import io.imast.work4j.channel.SchedulerChannel;
+import io.imast.work4j.worker.JobConstants;
+import io.imast.work4j.worker.bulkhead.OverflowPolicy;
+import io.imast.work4j.worker.job.ExecutorCache;
+import io.imast.work4j.worker.job.JobOps;
 import lombok.extern.slf4j.Slf4j;
 import org.quartz.JobExecutionContext;
 import org.quartz.Trigger;
@@ -19,15 +24,31 @@ public class EveryTriggerListener implements TriggerListener {
      */
     protected final SchedulerChannel schedulerChannel;
     
+    /**
+     * The executor cache admitting fires of job types (no veto if missing)
+     */
+    protected final ExecutorCache executors;
+    
     /**
      * Creates new instance of Every Job Listener
      * 
      * @param schedulerChannel The scheduler channel
      */
     public EveryTriggerListener(SchedulerChannel schedulerChannel) {
+        this(schedulerChannel, null);
+    }
+    
+    /**
+     * Creates new instance of Every Job Listener
+     * 
+     * @param schedulerChannel The scheduler channel
+     * @param executors The executor cache admitting fires of job types
+     */
+    public EveryTriggerListener(SchedulerChannel schedulerChannel, ExecutorCache executors) {
         this.schedulerChannel = schedulerChannel;
+        this.executors = executors;
     }
-
+    
     /**
      * Gets the name of listener
      * 
@@ -37,7 +58,7 @@ public class EveryTriggerListener implements TriggerListener {
     public String getName() {
         return "WORK4J_TRIGGER_LISTENER";
     }
-
+    
     /**
      * The trigger fired event handler
      * 
@@ -47,9 +68,9 @@ public class EveryTriggerListener implements TriggerListener {
     @Override
     public void triggerFired(Trigger trigger, JobExecutionContext context) {
     }
-
+    
     /**
-     * Veto the job execution
+     * Veto the job execution (if the vetoing bulkhead of job type is full)
      * 
      * @param trigger The trigger to fire
      * @param context The job execution context
@@ -57,9 +78,34 @@ public class EveryTriggerListener implements TriggerListener {
      */
     @Override
     public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+        
+        if(this.executors == null){
+            return false;
+        }
+        
+        // the job type (shared schedules have none)
+        var type = JobOps.<String>getValue(context.getJobDetail().getJobDataMap(), JobConstants.PAYLOAD_JOB_TYPE);
+        
+        if(Str.blank(type)){
+            return false;
+        }
+        
+        // the limit of type is reached
+        if(!this.executors.admit(type)){
+            log.debug("EveryTriggerListener: Fire of {} is vetoed, the concurrency limit of type {} is reached", context.getJobDetail().getKey(), type);
+            return true;
+        }
+        
+        // the admitted fire holds the permit
+        var bulkhead = this.executors.getBulkhead(type);
+        
+        if(bulkhead != null && bulkhead.getPolicy() == OverflowPolicy.VETO){
+            context.put(JobConstants.BULKHEAD_ADMITTED, bulkhead);
+        }
+        
         return false;
     }
-
+    
     /**
      * The trigger misfired event handler
      * 
@@ -68,7 +114,7 @@ public class EveryTriggerListener implements TriggerListener {
     @Override
     public void triggerMisfired(Trigger trigger) {
     }
-
+    
     /**
      * The trigger completion trigger
      * 
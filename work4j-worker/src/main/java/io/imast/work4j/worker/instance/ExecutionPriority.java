@@ -0,0 +1,45 @@
+package io.imast.work4j.worker.instance;
+
+import io.imast.work4j.model.TriggerDefinition;
+import io.imast.work4j.model.execution.JobExecution;
+import org.quartz.Trigger;
+
+/**
+ * The priority of execution fires
+ * 
+ * The priority of trigger wins over the priority of job options, the quartz default is used if none
+ * is given. Quartz fires triggers of the same fire time by priority, the dispatch queues of worker
+ * (bulkhead queues and the queue of shared schedules) run queued fires by priority and then in order
+ * of arrival, so bulk work absorbs the delay when the worker is saturated.
+ * 
+ * @author davitp
+ */
+public class ExecutionPriority {
+    
+    /**
+     * The default priority
+     */
+    public static final int DEFAULT = Trigger.DEFAULT_PRIORITY;
+    
+    /**
+     * Gets the priority of fires of execution trigger
+     * 
+     * @param execution The job execution
+     * @param trigger The trigger definition
+     * @return Returns priority
+     */
+    public static int of(JobExecution execution, TriggerDefinition trigger){
+        
+        // the priority of trigger
+        if(trigger != null && trigger.getPriority() != null){
+            return trigger.getPriority();
+        }
+        
+        // the priority of execution
+        if(execution != null && execution.getOptions() != null && execution.getOptions().getPriority() != null){
+            return execution.getOptions().getPriority();
+        }
+        
+        return DEFAULT;
+    }
+}
@@ -0,0 +1,186 @@
+package io.imast.work4j.worker.instance;
+
+import io.imast.work4j.channel.SchedulerChannel;
+import io.imast.work4j.model.iterate.IngestionStatus;
+import io.imast.work4j.model.iterate.IterationInput;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * The reporter of iterations honoring the backpressure of scheduler
+ * 
+ * Rejected iterations are submitted again with exponential backoff (and dropped with an error once
+ * retries are exhausted). Throttled and rejected receipts pause the next submissions of reporter for
+ * a while, so a saturated scheduler gets fewer reports instead of losing them. The number of reports
+ * waiting for delivery is bounded, reports over the bound are dropped (and counted) so that sustained
+ * push-back does not grow the heap with the fire rate.
+ * 
+ * @author davitp
+ */
+@Slf4j
+public class IterationReporter {
+
+    /**
+     * The default number of retries of rejected iteration
+     */
+    public static final int DEFAULT_RETRIES = 8;
+    
+    /**
+     * The default first backoff of rejected iteration
+     */
+    public static final Duration DEFAULT_BACKOFF = Duration.ofMillis(200);
+    
+    /**
+     * The default maximum backoff of rejected iteration
+     */
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(10);
+    
+    /**
+     * The default pause after throttled receipt
+     */
+    public static final Duration DEFAULT_THROTTLE_PAUSE = Duration.ofMillis(100);
+    
+    /**
+     * The default maximum number of reports waiting for delivery
+     */
+    public static final int DEFAULT_MAX_PENDING = 10000;
+    
+    /**
+     * The scheduler channel
+     */
+    protected final SchedulerChannel channel;
+    
+    /**
+     * The name of reporting component (for logs)
+     */
+    protected final String source;
+    
+    /**
+     * The time until submissions are paused (epoch milliseconds)
+     */
+    protected volatile long pausedUntil;
+    
+    /**
+     * The number of reports waiting for delivery
+     */
+    protected final AtomicInteger pending;
+    
+    /**
+     * The number of dropped reports
+     */
+    protected final AtomicLong dropped;
+    
+    /**
+     * Creates new iteration reporter
+     * 
+     * @param channel The scheduler channel
+     * @param source The name of reporting component
+     */
+    public IterationReporter(SchedulerChannel channel, String source){
+        this.channel = channel;
+        this.source = source;
+        this.pending = new AtomicInteger();
+        this.dropped = new AtomicLong();
+    }
+    
+    /**
+     * Submits the iteration retrying if rejected
+     * 
+     * @param iteration The iteration to report
+     */
+    public void report(IterationInput iteration){
+        
+        // too many reports are waiting, drop this one
+        if(this.pending.incrementAndGet() > DEFAULT_MAX_PENDING){
+            
+            this.pending.decrementAndGet();
+            
+            var total = this.dropped.incrementAndGet();
+            
+            // do not flood the log under sustained push-back
+            if(total % 1000 == 1){
+                log.error("{}: Too many iterations are waiting for delivery, dropped iteration of execution {} ({} dropped so far)", this.source, iteration.getExecutionId(), total);
+            }
+            
+            return;
+        }
+        
+        Mono.defer(() -> this.submit(iteration))
+                .retryWhen(Retry.backoff(DEFAULT_RETRIES, DEFAULT_BACKOFF).maxBackoff(DEFAULT_MAX_BACKOFF).filter(error -> error instanceof RejectedIteration))
+                .doFinally(signal -> this.pending.decrementAndGet())
+                .subscribe(receipt -> {}, error -> log.error("{}: Iteration of execution {} was not reported: {}", this.source, iteration.getExecutionId(), error.toString()));
+    }
+    
+    /**
+     * Gets the number of reports waiting for delivery
+     * 
+     * @return Returns pending count
+     */
+    public int getPending(){
+        return this.pending.get();
+    }
+    
+    /**
+     * Gets the number of dropped reports
+     * 
+     * @return Returns dropped count
+     */
+    public long getDropped(){
+        return this.dropped.get();
+    }
+    
+    /**
+     * Submits the iteration once the pause is over
+     * 
+     * @param iteration The iteration to report
+     * @return Returns the accepted receipt or rejection error
+     */
+    protected Mono<?> submit(IterationInput iteration){
+        
+        var wait = this.pausedUntil - System.currentTimeMillis();
+        var submit = Mono.defer(() -> this.channel.submit(iteration)).flatMap(receipt -> {
+            
+            // scheduler is close to saturation, slow down the next ones
+            if(receipt.getStatus() == IngestionStatus.THROTTLED){
+                this.pause(DEFAULT_THROTTLE_PAUSE);
+            }
+            
+            // scheduler pushed back, submit again later
+            if(receipt.getStatus() == IngestionStatus.REJECTED){
+                log.warn("{}: Iteration of execution {} was rejected by scheduler (pending {}), will retry", this.source, iteration.getExecutionId(), receipt.getPending());
+                this.pause(DEFAULT_BACKOFF);
+                return Mono.error(new RejectedIteration());
+            }
+            
+            return Mono.just(receipt);
+        });
+        
+        return wait > 0 ? Mono.delay(Duration.ofMillis(wait)).then(submit) : submit;
+    }
+    
+    /**
+     * Pauses the submissions
+     * 
+     * @param duration The pause duration
+     */
+    protected void pause(Duration duration){
+        this.pausedUntil = Math.max(this.pausedUntil, System.currentTimeMillis() + duration.toMillis());
+    }
+    
+    /**
+     * The rejection of iteration by scheduler
+     */
+    protected static class RejectedIteration extends RuntimeException {
+        
+        /**
+         * Creates new rejection (without stack trace)
+         */
+        protected RejectedIteration(){
+            super("Iteration was rejected by scheduler", null, false, false);
+        }
+    }
+}
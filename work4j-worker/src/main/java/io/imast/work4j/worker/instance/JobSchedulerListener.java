@@ -2,6 +2,9 @@ package io.imast.work4j.worker.instance;
 
 import io.imast.work4j.channel.SchedulerChannel;
 import io.imast.work4j.model.execution.CompletionSeverity;
+import io.imast.work4j.worker.JobConstants;
+import io.imast.work4j.worker.job.ExecutorCache;
+import io.vavr.control.Try;
 import lombok.extern.slf4j.Slf4j;
 import org.quartz.JobDetail;
 import org.quartz.JobKey;
@@ -41,7 +44,7 @@ public class JobSchedulerListener implements SchedulerListener {
         this.scheduler = scheduler;
         this.schedulerChannel = schedulerChannel;
     }
-
+    
     /**
      * The job is scheduled
      * 
@@ -50,7 +53,7 @@ public class JobSchedulerListener implements SchedulerListener {
     @Override
     public void jobScheduled(Trigger trigger) {
     }
-
+    
     /**
      * The job is unscheduled
      * 
@@ -59,7 +62,7 @@ public class JobSchedulerListener implements SchedulerListener {
     @Override
     public void jobUnscheduled(TriggerKey triggerKey) {
     }
-
+    
     /**
      * The trigger is finalized
      * 
@@ -68,6 +71,11 @@ public class JobSchedulerListener implements SchedulerListener {
     @Override
     public void triggerFinalized(Trigger trigger) {
         
+        // shared schedules are not executions
+        if(JobConstants.MULTIPLEX_GROUP.equals(trigger.getKey().getGroup())){
+            return;
+        }
+        
         // indicates if all done
         var done = true;
         
@@ -75,9 +83,11 @@ public class JobSchedulerListener implements SchedulerListener {
             // get triggers of job
             var keys = this.scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals(trigger.getKey().getGroup()));
             
-            // check all other trigger states
+            // check all other trigger states (the finalized one may not be marked complete yet)
             for(var key : keys){
-                done = this.scheduler.getTriggerState(key) == TriggerState.COMPLETE;
+                if(!key.equals(trigger.getKey()) && this.scheduler.getTriggerState(key) != TriggerState.COMPLETE){
+                    done = false;
+                }
             }
         }
         catch(SchedulerException error){
@@ -87,11 +97,24 @@ public class JobSchedulerListener implements SchedulerListener {
         
         // report completed
         if(done){
+            
+            var executionId = trigger.getJobKey().getName();
+            
             // update job and get 
-            this.schedulerChannel.complete(trigger.getJobKey().getName(), CompletionSeverity.SUCCESS).subscribe();
+            Runnable complete = () -> this.schedulerChannel.complete(executionId, CompletionSeverity.SUCCESS).subscribe();
+            
+            // the last fire may still be in flight (asynchronous or queued), complete once it is done
+            var cache = Try.of(() -> (ExecutorCache) this.scheduler.getContext().get(JobConstants.EXECUTOR_CACHE)).getOrNull();
+            
+            if(cache == null){
+                complete.run();
+                return;
+            }
+            
+            cache.whenSettled(executionId, complete);
         }
     }
-
+    
     /**
      * The trigger is paused
      * 
@@ -100,7 +123,7 @@ public class JobSchedulerListener implements SchedulerListener {
     @Override
     public void triggerPaused(TriggerKey triggerKey) {
     }
-
+    
     /**
      * The triggers are paused
      * 
@@ -109,7 +132,7 @@ public class JobSchedulerListener implements SchedulerListener {
     @Override
     public void triggersPaused(String triggerGroup) {
     }
-
+    
     /**
      * The trigger is resumed
      * 
@@ -127,7 +150,7 @@ public class JobSchedulerListener implements SchedulerListener {
     @Override
     public void triggersResumed(String triggerGroup) {
     }
-
+    
     /**
      * The job is added
      * 
@@ -136,7 +159,7 @@ public class JobSchedulerListener implements SchedulerListener {
     @Override
     public void jobAdded(JobDetail jobDetail) {
     }
-
+    
     /**
      * The job is deleted
      * 
@@ -145,7 +168,7 @@ public class JobSchedulerListener implements SchedulerListener {
     @Override
     public void jobDeleted(JobKey jobKey) {       
     }
-
+    
     /**
      * The job is paused
      * 
@@ -154,7 +177,7 @@ public class JobSchedulerListener implements SchedulerListener {
     @Override
     public void jobPaused(JobKey jobKey) {
     }
-
+    
     /**
      * The job group is paused
      * 
@@ -163,7 +186,7 @@ public class JobSchedulerListener implements SchedulerListener {
     @Override
     public void jobsPaused(String jobGroup) {
     }
-
+    
     /**
      * The job is resumed
      * 
@@ -172,7 +195,7 @@ public class JobSchedulerListener implements SchedulerListener {
     @Override
     public void jobResumed(JobKey jobKey) {
     }
-
+    
     /**
      * The job group is resumed 
      * 
@@ -181,7 +204,7 @@ public class JobSchedulerListener implements SchedulerListener {
     @Override
     public void jobsResumed(String jobGroup) {
     }
-
+    
     /**
      * The scheduler error happened
      * 
@@ -191,42 +214,42 @@ public class JobSchedulerListener implements SchedulerListener {
     @Override
     public void schedulerError(String msg, SchedulerException cause) {
     }
-
+    
     /**
      * The scheduler is in standby mode
      */
     @Override
     public void schedulerInStandbyMode() {
     }
-
+    
     /**
      * The scheduler started
      */
     @Override
     public void schedulerStarted() {
     }
-
+    
     /**
      * The scheduler is starting
      */
     @Override
     public void schedulerStarting() {
     }
-
+    
     /**
      * The scheduler shutdown
      */
     @Override
     public void schedulerShutdown() {
     }
-
+    
     /**
      * The scheduler is shutting down
      */
     @Override
     public void schedulerShuttingdown() {
     }
-
+    
     /**
      * The scheduling data is cleared
      */
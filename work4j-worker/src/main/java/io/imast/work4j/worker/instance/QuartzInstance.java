@@ -7,26 +7,39 @@ import io.imast.work4j.model.execution.JobExecution;
 import io.imast.work4j.worker.JobConstants;
 import lombok.extern.slf4j.Slf4j;
 import io.imast.work4j.worker.WorkerException;
+import io.imast.work4j.worker.job.MultiplexJob;
 import io.imast.work4j.worker.job.QuartzExecutorJob;
 import io.vavr.control.Try;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.quartz.CronExpression;
 import org.quartz.CronScheduleBuilder;
 import org.quartz.JobBuilder;
 import org.quartz.JobDetail;
 import org.quartz.JobKey;
+import org.quartz.ObjectAlreadyExistsException;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
 import org.quartz.SimpleScheduleBuilder;
 import org.quartz.Trigger;
 import org.quartz.TriggerBuilder;
 import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.listeners.SchedulerListenerSupport;
 
 /**
  * A quartz worker implementation
@@ -34,12 +47,52 @@ import org.quartz.impl.matchers.GroupMatcher;
  * @author davitp
  */
 @Slf4j
-public class QuartzInstance {
+public class QuartzInstance implements SchedulingEngine {
+    
+    /**
+     * The default number of lock stripes
+     */
+    public static final int DEFAULT_STRIPES = 64;
     
     /**
      * The quartz scheduler instance
      */
     protected final Scheduler scheduler;
+    
+    /**
+     * The shadow registry of scheduled executions
+     */
+    protected final Set<ExecutionKey> shadowExecutions;
+    
+    /**
+     * The shadow registry of paused executions
+     */
+    protected final Set<ExecutionKey> shadowPaused;
+    
+    /**
+     * Indicates that shadow registry should be reloaded from store
+     */
+    protected volatile boolean shadowStale;
+    
+    /**
+     * The version of shadow registry (incremented on every change)
+     */
+    protected final AtomicLong shadowVersion;
+    
+    /**
+     * The striped locks of executions (operations on the same key are ordered)
+     */
+    protected final ReentrantLock[] stripes;
+    
+    /**
+     * The multiplexer of identical schedules (null if every execution has own triggers)
+     */
+    protected final TriggerMultiplexer multiplexer;
+    
+    /**
+     * The lock of shared schedule changes (joins and leaves with their store calls are ordered)
+     */
+    protected final ReentrantLock multiplexLock;
         
     /**
      * Creates new quartz worker instance
@@ -47,7 +100,47 @@ public class QuartzInstance {
      * @param scheduler The scheduler instance
      */
     public QuartzInstance(Scheduler scheduler){
+        this(scheduler, DEFAULT_STRIPES);
+    }
+    
+    /**
+     * Creates new quartz worker instance
+     * 
+     * @param scheduler The scheduler instance
+     * @param stripes The number of lock stripes
+     */
+    public QuartzInstance(Scheduler scheduler, int stripes){
+        this(scheduler, stripes, null);
+    }
+    
+    /**
+     * Creates new quartz worker instance
+     * 
+     * @param scheduler The scheduler instance
+     * @param stripes The number of lock stripes
+     * @param multiplexer The multiplexer of identical schedules (or null)
+     */
+    public QuartzInstance(Scheduler scheduler, int stripes, TriggerMultiplexer multiplexer){
         this.scheduler = scheduler;
+        this.multiplexer = multiplexer;
+        this.multiplexLock = new ReentrantLock();
+        this.stripes = new ReentrantLock[Math.max(1, stripes)];
+        
+        for(var i = 0; i < this.stripes.length; ++i){
+            this.stripes[i] = new ReentrantLock();
+        }
+        
+        this.shadowExecutions = ConcurrentHashMap.newKeySet();
+        this.shadowPaused = ConcurrentHashMap.newKeySet();
+        this.shadowStale = true;
+        this.shadowVersion = new AtomicLong();
+        
+        // keep shadow registry in sync with changes made by quartz itself
+        var listening = Try.run(() -> this.scheduler.getListenerManager().addSchedulerListener(new ShadowListener()));
+        
+        if(listening.isFailure()){
+            log.warn("QuartzInstance: Could not register shadow registry listener, reading state from store", listening.getCause());
+        }
     }
     
     /**
@@ -55,6 +148,7 @@ public class QuartzInstance {
      * 
      * @throws WorkerException 
      */
+    @Override
     public void start() throws WorkerException{
         try {
             this.scheduler.start();
@@ -68,12 +162,18 @@ public class QuartzInstance {
      * 
      * @throws WorkerException 
      */
+    @Override
     public void stop() throws WorkerException{
         try {
             this.scheduler.shutdown();
         } catch (SchedulerException ex) {
             throw new WorkerException("Could not stop quartz worker", ex);
         }
+        finally {
+            if(this.multiplexer != null){
+                this.multiplexer.shutdown();
+            }
+        }
     }
     
     /**
@@ -82,15 +182,57 @@ public class QuartzInstance {
      * @param execution The job execution to schedule
      * @throws io.imast.work4j.worker.WorkerException
      */
+    @Override
     public void schedule(JobExecution execution) throws WorkerException{
         
         if(execution == null){
             return;
         }
         
-        synchronized(this.scheduler){
+        var lock = this.stripe(this.jobKey(execution));
+        
+        lock.lock();
+        try {
             this.scheduleImpl(execution);
         }
+        finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Schedules the burst of job executions in one store call
+     * 
+     * @param executions The job executions to schedule
+     * @throws io.imast.work4j.worker.WorkerException
+     */
+    @Override
+    public void scheduleAll(Collection<JobExecution> executions) throws WorkerException{
+        
+        if(executions == null || executions.isEmpty()){
+            return;
+        }
+        
+        // reload shadow from store if unknown (before taking any stripe)
+        if(this.shadowStale){
+            this.reconcile();
+        }
+        
+        // lock stripes of all the executions in ascending order
+        var locked = this.lockAll(executions.stream()
+                .filter(Objects::nonNull)
+                .map(this::jobKey)
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray());
+        
+        try {
+            this.scheduleAllImpl(executions);
+        }
+        finally {
+            this.unlockAll(locked);
+        }
     }
     
     /**
@@ -99,11 +241,18 @@ public class QuartzInstance {
      * @param key The execution key
      * @throws io.imast.work4j.worker.WorkerException
      */
+    @Override
     public void pause(ExecutionKey key) throws WorkerException{
         
-        synchronized(this.scheduler){
+        var lock = this.stripe(key);
+        
+        lock.lock();
+        try {
             this.pauseImpl(key);
         }
+        finally {
+            lock.unlock();
+        }
     }
     
     /**
@@ -112,11 +261,18 @@ public class QuartzInstance {
      * @param key The execution key
      * @throws io.imast.work4j.worker.WorkerException
      */
+    @Override
     public void resume(ExecutionKey key) throws WorkerException{
         
-        synchronized(this.scheduler){
+        var lock = this.stripe(key);
+        
+        lock.lock();
+        try {
             this.resumeImpl(key);
         }
+        finally {
+            lock.unlock();
+        }
     }
         
     /**
@@ -125,24 +281,153 @@ public class QuartzInstance {
      * @param key The execution key
      * @throws io.imast.work4j.worker.WorkerException
      */
+    @Override
     public void unschedule(ExecutionKey key) throws WorkerException{        
-        synchronized(this.scheduler){
+        var lock = this.stripe(key);
+        
+        lock.lock();
+        try {
             this.unscheduleImpl(key);
         }
+        finally {
+            lock.unlock();
+        }
     }
     
     /**
-     * Gets all group names
+     * Gets all group names (from shadow registry)
      * 
      * @return Returns group names
      * @throws io.imast.work4j.worker.WorkerException
      */
+    @Override
     public Set<ExecutionKey> getExecutions() throws WorkerException{
+        
+        // reload from store if unknown
+        if(this.shadowStale){
+            this.reconcile();
+        }
+        
+        return new HashSet<>(this.shadowExecutions);
+    }
+    
+    /**
+     * Get the paused execution ids (from shadow registry)
+     * 
+     * @return Returns the paused executions
+     * @throws WorkerException 
+     */
+    @Override
+    public Set<ExecutionKey> getPausedExecutions() throws WorkerException {
+        
+        // reload from store if unknown
+        if(this.shadowStale){
+            this.reconcile();
+        }
+        
+        return new HashSet<>(this.shadowPaused);
+    }
+    
+    /**
+     * Gets the live read-only view of scheduled executions (no copy is made)
+     * 
+     * @return Returns view of executions
+     * @throws WorkerException 
+     */
+    @Override
+    public Set<ExecutionKey> getExecutionsView() throws WorkerException {
+        
+        // reload from store if unknown
+        if(this.shadowStale){
+            this.reconcile();
+        }
+        
+        return Collections.unmodifiableSet(this.shadowExecutions);
+    }
+    
+    /**
+     * Gets the live read-only view of paused executions (no copy is made)
+     * 
+     * @return Returns view of paused executions
+     * @throws WorkerException 
+     */
+    @Override
+    public Set<ExecutionKey> getPausedExecutionsView() throws WorkerException {
+        
+        // reload from store if unknown
+        if(this.shadowStale){
+            this.reconcile();
+        }
+        
+        return Collections.unmodifiableSet(this.shadowPaused);
+    }
+    
+    /**
+     * Gets the version of shadow registry
+     * 
+     * The version changes whenever executions or paused executions change, so a caller can
+     * skip re-reading the views if the version is the same as on previous read.
+     * 
+     * @return Returns the shadow version
+     */
+    @Override
+    public long getShadowVersion(){
+        return this.shadowVersion.get();
+    }
+    
+    /**
+     * Reloads the shadow registry from the job store (full scan)
+     * 
+     * @throws WorkerException 
+     */
+    @Override
+    public void reconcile() throws WorkerException {
+        
+        // full scan excludes all the changes, so take every stripe in order
+        var locked = this.lockAll(IntStream.range(0, this.stripes.length).toArray());
+        
+        try {
+            // read all from store
+            var executions = this.readExecutions();
+            var paused = this.readPausedExecutions();
+            
+            // replace the shadow state
+            var changed = this.shadowExecutions.retainAll(executions);
+            changed |= this.shadowExecutions.addAll(executions);
+            changed |= this.shadowPaused.retainAll(paused);
+            changed |= this.shadowPaused.addAll(paused);
+            this.shadowStale = false;
+            
+            // bump version only on real change
+            if(changed){
+                this.shadowVersion.incrementAndGet();
+            }
+        }
+        finally {
+            this.unlockAll(locked);
+        }
+    }
+    
+    /**
+     * Reads all execution keys from store
+     * 
+     * @return Returns execution keys
+     * @throws io.imast.work4j.worker.WorkerException
+     */
+    protected Set<ExecutionKey> readExecutions() throws WorkerException{
         try { 
-            return this.scheduler.getJobKeys(GroupMatcher.anyJobGroup())
+            var result = this.scheduler.getJobKeys(GroupMatcher.anyJobGroup())
                     .stream()
+                    .filter(key -> !JobConstants.MULTIPLEX_GROUP.equals(key.getGroup()))
                     .map(key -> new ExecutionKey(key.getName(), key.getGroup()))
                     .collect(Collectors.toSet());
+            
+            // executions sharing schedules are not in store
+            if(this.multiplexer != null){
+                result.addAll(this.multiplexer.getExecutions());
+            }
+            
+            return result;
         }
         catch(SchedulerException ex){
             throw new WorkerException("Unable to read job execution keys", ex);
@@ -150,18 +435,26 @@ public class QuartzInstance {
     }
     
     /**
-     * Get the paused execution ids
+     * Reads the paused execution keys from store
      * 
      * @return Returns the paused executions
      * @throws WorkerException 
      */
-    public Set<ExecutionKey> getPausedExecutions() throws WorkerException {
+    protected Set<ExecutionKey> readPausedExecutions() throws WorkerException {
     
         try {
-            return this.scheduler.getPausedTriggerGroups()
+            var result = this.scheduler.getPausedTriggerGroups()
                     .stream()
+                    .filter(group -> !JobConstants.MULTIPLEX_GROUP.equals(group))
                     .map(ExecutionKey::from)
                     .collect(Collectors.toSet());
+            
+            // executions sharing schedules are paused in multiplexer
+            if(this.multiplexer != null){
+                result.addAll(this.multiplexer.getPausedExecutions());
+            }
+            
+            return result;
         }
         catch(SchedulerException ex){
             throw new WorkerException("Unable to read paused job execution keys (trigger groups)", ex);
@@ -192,6 +485,12 @@ public class QuartzInstance {
      */
     protected void scheduleImpl(JobExecution execution) throws WorkerException{
         
+        // join the shared schedules if possible
+        if(this.multiplexer != null && this.multiplexer.eligible(execution)){
+            this.joinAll(List.of(execution));
+            return;
+        }
+        
         var jobKey = this.jobKey(execution);
         
         // the job key
@@ -199,11 +498,18 @@ public class QuartzInstance {
         
         try {
             // check if job exists
-            var exists = this.scheduler.checkExists(key);
+            var stored = this.scheduler.checkExists(key);
+            var exists = stored || (this.multiplexer != null && this.multiplexer.contains(jobKey));
             
             // do not create if exists
             if(exists){
                 log.warn("QuartzInstance: Unable to schedule job that has been already scheduled");
+                
+                // stored by other node, track it so that it is not reloaded until reconcile
+                if(stored){
+                    this.adopt(jobKey, this.scheduler.getPausedTriggerGroups());
+                }
+                
                 return;
             }
             
@@ -225,8 +531,24 @@ public class QuartzInstance {
             // pause the job will make sure nothing runs before finally inserted
             this.pauseImpl(jobKey);
             
-            // add job to scheduler
-            this.scheduler.scheduleJob(jobDetail, triggers, true);
+            // add job to scheduler (never replacing job stored in the meantime)
+            try {
+                this.scheduler.scheduleJob(jobDetail, triggers, false);
+            }
+            catch(ObjectAlreadyExistsException error){
+                log.warn("QuartzInstance: Unable to schedule job that has been already scheduled by other node");
+                
+                // give back the group paused above
+                if(execution.getStatus() == ExecutionStatus.ACTIVE){
+                    this.resumeImpl(jobKey);
+                }
+                
+                this.adopt(jobKey, this.scheduler.getPausedTriggerGroups());
+                return;
+            }
+            
+            // track in shadow registry
+            this.track(this.shadowExecutions.add(jobKey));
             
             // if initial status is active then need to resume whatever was paused
             if(execution.getStatus() == ExecutionStatus.ACTIVE){
@@ -240,6 +562,122 @@ public class QuartzInstance {
         }
     }
         
+    /**
+     * Schedules the burst of job executions
+     * 
+     * All the jobs and triggers are built up front and stored with single scheduleJobs call (one
+     * transaction for JDBC store). Existence is checked against shadow registry (reconciled by the
+     * caller) only, jobs stored by other nodes of clustered store are never replaced: the burst then
+     * fails as a whole and is scheduled one by one, adopting the existing jobs. Paused trigger groups
+     * are read once, groups of executions that start paused are paused before storing unless already
+     * paused, and groups of active executions left paused by a previous execution are resumed after
+     * storing. Quartz has no call to pause or resume a set of groups, so these stay one call per group.
+     * 
+     * @param executions The job executions to schedule
+     * @throws io.imast.work4j.worker.WorkerException
+     */
+    protected void scheduleAllImpl(Collection<JobExecution> executions) throws WorkerException{
+        
+        // the jobs to store with triggers
+        var jobs = new HashMap<JobDetail, Set<? extends Trigger>>();
+        
+        // the keys of stored executions
+        var scheduled = new HashMap<ExecutionKey, JobExecution>();
+        
+        // the executions joining shared schedules
+        var multiplexed = new ArrayList<JobExecution>();
+        
+        for(var execution : executions){
+            
+            if(execution == null){
+                continue;
+            }
+            
+            // shared schedules are joined separately
+            if(this.multiplexer != null && this.multiplexer.eligible(execution)){
+                multiplexed.add(execution);
+                continue;
+            }
+            
+            var jobKey = this.jobKey(execution);
+            
+            // do not create if exists or repeated in the burst
+            if(this.shadowExecutions.contains(jobKey) || scheduled.containsKey(jobKey) || (this.multiplexer != null && this.multiplexer.contains(jobKey))){
+                log.warn("QuartzInstance: Unable to schedule job that has been already scheduled");
+                continue;
+            }
+            
+            // try create job
+            var jobDetail = this.createJob(JobKey.jobKey(jobKey.getExecutionId(), jobKey.getJobId()), execution);
+            
+            // skip if not created
+            if(jobDetail == null){
+                log.error("QuartzInstance: Unable to create job via factory");
+                continue;
+            }
+            
+            // init data and triggers
+            jobs.put(this.initJob(jobDetail, execution), this.createTriggers(execution));
+            scheduled.put(jobKey, execution);
+        }
+        
+        // join shared schedules
+        if(!multiplexed.isEmpty()){
+            this.joinAll(multiplexed);
+        }
+        
+        // nothing to store
+        if(jobs.isEmpty()){
+            return;
+        }
+        
+        try {
+            // the groups left paused in store
+            var pausedGroups = this.scheduler.getPausedTriggerGroups();
+            
+            // executions that should not run are paused before stored
+            for(var entry : scheduled.entrySet()){
+                
+                if(entry.getValue().getStatus() == ExecutionStatus.ACTIVE){
+                    continue;
+                }
+                
+                // the group is already paused, only track it
+                if(pausedGroups.contains(entry.getKey().toString())){
+                    this.track(this.shadowPaused.add(entry.getKey()));
+                    continue;
+                }
+                
+                this.pauseImpl(entry.getKey());
+            }
+            
+            // add all jobs to scheduler at once (never replacing jobs stored in the meantime)
+            try {
+                this.scheduler.scheduleJobs(jobs, false);
+            }
+            catch(ObjectAlreadyExistsException error){
+                log.warn("QuartzInstance: Some of {} job executions were stored by other node, scheduling one by one", scheduled.size());
+                this.scheduleEach(scheduled.values());
+                return;
+            }
+            
+            // track in shadow registry
+            scheduled.keySet().forEach(key -> this.track(this.shadowExecutions.add(key)));
+            
+            // resume active executions that landed in a group left paused
+            for(var entry : scheduled.entrySet()){
+                if(entry.getValue().getStatus() == ExecutionStatus.ACTIVE && pausedGroups.contains(entry.getKey().toString())){
+                    this.resumeImpl(entry.getKey());
+                }
+            }
+            
+            log.info(String.format("QuartzInstance: %s Job Executions are scheduled", scheduled.size()));
+        }
+        catch(SchedulerException error){
+            throw new WorkerException(String.format("QuartzInstance: Failed to schedule %s job executions", scheduled.size()), error);
+        }
+    }
+    
     /**
      * Unschedule the job
      * 
@@ -248,11 +686,21 @@ public class QuartzInstance {
      */
     protected void unscheduleImpl(ExecutionKey key) throws WorkerException{
         
+        // leave the shared schedules
+        if(this.multiplexer != null && this.multiplexer.contains(key)){
+            this.leave(key);
+            return;
+        }
+        
         // try the unschedule procedure
         try {
             // remove job
             this.scheduler.deleteJob(JobKey.jobKey(key.getExecutionId(), key.getJobId()));
-
+            
+            // forget in shadow registry
+            this.track(this.shadowExecutions.remove(key));
+            this.track(this.shadowPaused.remove(key));
+            
             log.info(String.format("QuartzInstance: Job Execution %s is unscheduled", key));
         }
         catch (SchedulerException error){
@@ -267,9 +715,19 @@ public class QuartzInstance {
      * @throws io.imast.work4j.worker.WorkerException
      */
     protected void pauseImpl(ExecutionKey key) throws WorkerException{
+        
+        // shared schedules skip paused members
+        if(this.multiplexer != null && this.multiplexer.setPaused(key, true)){
+            this.track(this.shadowPaused.add(key));
+            return;
+        }
+        
         try {
             // pause trigger group identifier by job execution id
             this.scheduler.pauseTriggers(GroupMatcher.triggerGroupEquals(key.toString()));
+            
+            // track in shadow registry
+            this.track(this.shadowPaused.add(key));
         } catch (SchedulerException error) {
             throw new WorkerException(String.format("QuartzInstance: Failed to pause the triggers of job execution %s", key.toString()), error);
         }
@@ -282,14 +740,141 @@ public class QuartzInstance {
      * @throws io.imast.work4j.worker.WorkerException
      */
     protected void resumeImpl(ExecutionKey key) throws WorkerException{
+        
+        // shared schedules dispatch resumed members again
+        if(this.multiplexer != null && this.multiplexer.setPaused(key, false)){
+            this.track(this.shadowPaused.remove(key));
+            return;
+        }
+        
         try {
             // pause trigger group identifier by job execution id
             this.scheduler.resumeTriggers(GroupMatcher.triggerGroupEquals(key.toString()));
+            
+            // track in shadow registry
+            this.track(this.shadowPaused.remove(key));
         } catch (SchedulerException error) {
             throw new WorkerException(String.format("QuartzInstance: Failed to resume the triggers of job execution %s", key.toString()), error);
         }
     }
     
+    /**
+     * Adds the executions to shared schedules (stripes of executions are held)
+     * 
+     * Only the schedules that had no members get a quartz job and trigger, all of them are stored
+     * with single call.
+     * 
+     * @param executions The eligible job executions
+     * @throws io.imast.work4j.worker.WorkerException
+     */
+    protected void joinAll(Collection<JobExecution> executions) throws WorkerException{
+        
+        // the jobs of new schedules
+        var jobs = new HashMap<JobDetail, Set<? extends Trigger>>();
+        
+        // the joined executions
+        var joined = new ArrayList<JobExecution>();
+        
+        this.multiplexLock.lock();
+        try {
+            for(var execution : executions){
+                
+                var jobKey = this.jobKey(execution);
+                
+                // do not join if exists
+                if(this.shadowExecutions.contains(jobKey) || this.multiplexer.contains(jobKey)){
+                    log.warn("QuartzInstance: Unable to schedule job that has been already scheduled");
+                    continue;
+                }
+                
+                // members that should not run are paused before joining
+                var created = this.multiplexer.join(jobKey, execution, execution.getStatus() != ExecutionStatus.ACTIVE);
+                
+                for(var schedule : created){
+                    
+                    var key = JobKey.jobKey(schedule.getId(), JobConstants.MULTIPLEX_GROUP);
+                    
+                    // the shared job
+                    var job = JobBuilder.newJob(MultiplexJob.class)
+                            .withIdentity(key)
+                            .storeDurably(false)
+                            .build();
+                    
+                    // the shared trigger
+                    var trigger = TriggerBuilder.newTrigger()
+                            .withIdentity(schedule.getId(), JobConstants.MULTIPLEX_GROUP)
+                            .withSchedule(CronScheduleBuilder.cronSchedule(schedule.getCron()).inTimeZone(this.getTimezone(schedule.getTimezone())))
+                            .withPriority(schedule.getPriority())
+                            .build();
+                    
+                    jobs.put(job, Set.of(trigger));
+                }
+                
+                joined.add(execution);
+            }
+            
+            // add new schedules at once
+            if(!jobs.isEmpty()){
+                this.scheduler.scheduleJobs(jobs, true);
+            }
+        }
+        catch(SchedulerException error){
+            
+            // forget the members of schedules that could not be stored
+            joined.forEach(execution -> this.multiplexer.leave(this.jobKey(execution)));
+            
+            throw new WorkerException(String.format("QuartzInstance: Failed to schedule %s shared schedules", jobs.size()), error);
+        }
+        finally {
+            this.multiplexLock.unlock();
+        }
+        
+        // track in shadow registry
+        for(var execution : joined){
+            
+            var jobKey = this.jobKey(execution);
+            
+            this.track(this.shadowExecutions.add(jobKey));
+            
+            if(execution.getStatus() != ExecutionStatus.ACTIVE){
+                this.track(this.shadowPaused.add(jobKey));
+            }
+        }
+        
+        log.info(String.format("QuartzInstance: %s Job Executions joined shared schedules (%s new)", joined.size(), jobs.size()));
+    }
+    
+    /**
+     * Removes the execution from shared schedules (stripe of execution is held)
+     * 
+     * @param key The execution key
+     * @throws io.imast.work4j.worker.WorkerException
+     */
+    protected void leave(ExecutionKey key) throws WorkerException{
+        
+        this.multiplexLock.lock();
+        try {
+            // schedules without members are deleted
+            var emptied = this.multiplexer.leave(key);
+            
+            if(!emptied.isEmpty()){
+                this.scheduler.deleteJobs(emptied.stream().map(id -> JobKey.jobKey(id, JobConstants.MULTIPLEX_GROUP)).collect(Collectors.toList()));
+            }
+        }
+        catch(SchedulerException error){
+            throw new WorkerException(String.format("QuartzInstance: Failed to delete shared schedules of job %s", key), error);
+        }
+        finally {
+            this.multiplexLock.unlock();
+        }
+        
+        // forget in shadow registry
+        this.track(this.shadowExecutions.remove(key));
+        this.track(this.shadowPaused.remove(key));
+        
+        log.info(String.format("QuartzInstance: Job Execution %s is unscheduled", key));
+    }
+    
     /**
      * Creates the job corresponding to the execution
      * 
@@ -314,7 +899,7 @@ public class QuartzInstance {
      * @return Returns job details instance
      */
     public JobDetail initJob(JobDetail job, JobExecution execution){
-
+        
         // the data map
         var systemData = new HashMap<String, Object>();
         
@@ -338,7 +923,7 @@ public class QuartzInstance {
         
         return job;
     }
-
+    
     /**
      * Try get time zone from string
      * 
@@ -399,15 +984,15 @@ public class QuartzInstance {
      * @return Returns job triggers
      */
     private Set<Trigger> cronTrigger(JobExecution execution, TriggerDefinition trigger){
-
+        
         // the key
         var key = this.triggerKey(execution, trigger);
         
         // result quartz triggers
         var result = new HashSet<Trigger>();
         
-        // cron expression
-        var cronExpression = trigger.getCron();
+        // cron expression (shifted by spread offset of execution)
+        var cronExpression = TriggerJitter.cron(execution.getId(), trigger);
         
         // check validity 
         if(Str.blank(cronExpression) || !CronExpression.isValidExpression(cronExpression)){
@@ -424,8 +1009,9 @@ public class QuartzInstance {
         // create trigger
         var triggerBuilder = TriggerBuilder.newTrigger()
             .withIdentity(key.getTriggerName(), key.getExecutionKey())
-            .withSchedule(schedule);
-
+            .withSchedule(schedule)
+            .withPriority(ExecutionPriority.of(execution, trigger));
+        
         // if start time is given
         if(trigger.getStartAt() != null){
             triggerBuilder.startAt(trigger.getStartAt());
@@ -435,7 +1021,7 @@ public class QuartzInstance {
         if(trigger.getEndAt() != null){
             triggerBuilder.endAt(trigger.getEndAt());
         }
-
+        
         // schedule job with cron trigger
         result.add(triggerBuilder.build());
         
@@ -457,25 +1043,23 @@ public class QuartzInstance {
         var periodMs = trigger.getPeriod();
         
         // if not given
-        if(periodMs == null || periodMs == 0.0){
+        if(periodMs == null || periodMs <= 0){
             log.warn("WorkerFactory: Cannot create static period trigger because of missing period.");
             return result;
         }
         
-        // convert to seconds
-        var periodSecond = (int) (periodMs / 1000.0);
-        
         // the key
         var key = this.triggerKey(execution, trigger);
         
-        // create trigger
+        // create trigger (keep millisecond precision of period)
         var triggerBuilder = TriggerBuilder.newTrigger()
                 .withIdentity(key.getTriggerName(), key.getExecutionKey())
-                .withSchedule(SimpleScheduleBuilder.repeatSecondlyForever(periodSecond));
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule().withIntervalInMilliseconds(periodMs).repeatForever())
+                .withPriority(ExecutionPriority.of(execution, trigger));
         
-        // if start time is given
-        if(trigger.getStartAt() != null){
-            triggerBuilder.startAt(trigger.getStartAt());
+        // the start time shifted by phase offset of execution
+        if(trigger.getStartAt() != null || TriggerJitter.offset(execution.getId(), trigger) > 0){
+            triggerBuilder.startAt(new Date(TriggerJitter.start(execution.getId(), trigger, System.currentTimeMillis())));
         }
         
         // if end time is given
@@ -505,7 +1089,8 @@ public class QuartzInstance {
         
         // create trigger
         var triggerBuilder = TriggerBuilder.newTrigger()
-                .withIdentity(key.getTriggerName(), key.getExecutionKey());
+                .withIdentity(key.getTriggerName(), key.getExecutionKey())
+                .withPriority(ExecutionPriority.of(execution, trigger));
         
          // if start time is given
         if(trigger.getStartAt() != null){
@@ -572,4 +1157,184 @@ public class QuartzInstance {
         
         return result;
     }
+    
+    /**
+     * Gets the stripe index of the execution key
+     * 
+     * @param key The execution key
+     * @return Returns stripe index
+     */
+    protected int stripeIndex(ExecutionKey key){
+        
+        // spread the hash to use high bits as well
+        var hash = key.hashCode();
+        
+        return Math.floorMod(hash ^ (hash >>> 16), this.stripes.length);
+    }
+    
+    /**
+     * Gets the lock of the execution key
+     * 
+     * @param key The execution key
+     * @return Returns the striped lock
+     */
+    protected ReentrantLock stripe(ExecutionKey key){
+        return this.stripes[this.stripeIndex(key)];
+    }
+    
+    /**
+     * Locks the stripes (indexes should be ascending to avoid deadlocks)
+     * 
+     * @param indexes The stripe indexes
+     * @return Returns the locked indexes
+     */
+    protected int[] lockAll(int[] indexes){
+        
+        for(var i = 0; i < indexes.length; ++i){
+            this.stripes[indexes[i]].lock();
+        }
+        
+        return indexes;
+    }
+    
+    /**
+     * Unlocks the stripes in reverse order
+     * 
+     * @param indexes The stripe indexes
+     */
+    protected void unlockAll(int[] indexes){
+        for(var i = indexes.length - 1; i >= 0; --i){
+            this.stripes[indexes[i]].unlock();
+        }
+    }
+    
+    /**
+     * Schedules the job executions one by one (existing jobs are skipped)
+     * 
+     * @param executions The job executions to schedule
+     */
+    protected void scheduleEach(Collection<JobExecution> executions){
+        for(var execution : executions){
+            try {
+                this.scheduleImpl(execution);
+            }
+            catch(WorkerException error){
+                log.error("QuartzInstance: Failed to schedule the job execution {}", execution.getId(), error);
+            }
+        }
+    }
+    
+    /**
+     * Tracks the execution found in store but not in shadow registry
+     * 
+     * @param key The execution key
+     * @param pausedGroups The paused trigger groups in store
+     */
+    protected void adopt(ExecutionKey key, Set<String> pausedGroups){
+        
+        this.track(this.shadowExecutions.add(key));
+        
+        if(pausedGroups.contains(key.toString())){
+            this.track(this.shadowPaused.add(key));
+        }
+    }
+    
+    /**
+     * Tracks the change of shadow registry
+     * 
+     * @param changed If the shadow set was changed
+     */
+    protected void track(boolean changed){
+        if(changed){
+            this.shadowVersion.incrementAndGet();
+        }
+    }
+    
+    /**
+     * The listener of quartz changes to keep shadow registry up to date
+     */
+    protected class ShadowListener extends SchedulerListenerSupport {
+        
+        /**
+         * The job is added
+         * 
+         * @param jobDetail The job details
+         */
+        @Override
+        public void jobAdded(JobDetail jobDetail) {
+            
+            // shared schedules are not executions
+            if(JobConstants.MULTIPLEX_GROUP.equals(jobDetail.getKey().getGroup())){
+                return;
+            }
+            
+            track(shadowExecutions.add(new ExecutionKey(jobDetail.getKey().getName(), jobDetail.getKey().getGroup())));
+        }
+        
+        /**
+         * The job is deleted (also when non-durable job has no triggers left)
+         * 
+         * @param jobKey The job key
+         */
+        @Override
+        public void jobDeleted(JobKey jobKey) {
+            
+            // shared schedules are not executions
+            if(JobConstants.MULTIPLEX_GROUP.equals(jobKey.getGroup())){
+                return;
+            }
+            
+            track(shadowExecutions.remove(new ExecutionKey(jobKey.getName(), jobKey.getGroup())));
+        }
+        
+        /**
+         * The trigger group is paused
+         * 
+         * @param triggerGroup The trigger group (null for all groups)
+         */
+        @Override
+        public void triggersPaused(String triggerGroup) {
+            
+            if(triggerGroup == null){
+                shadowStale = true;
+                return;
+            }
+            
+            // shared schedules are not executions
+            if(JobConstants.MULTIPLEX_GROUP.equals(triggerGroup)){
+                return;
+            }
+            
+            track(shadowPaused.add(ExecutionKey.from(triggerGroup)));
+        }
+        
+        /**
+         * The trigger group is resumed
+         * 
+         * @param triggerGroup The trigger group (null for all groups)
+         */
+        @Override
+        public void triggersResumed(String triggerGroup) {
+            
+            if(triggerGroup == null){
+                shadowStale = true;
+                return;
+            }
+            
+            // shared schedules are not executions
+            if(JobConstants.MULTIPLEX_GROUP.equals(triggerGroup)){
+                return;
+            }
+            
+            track(shadowPaused.remove(ExecutionKey.from(triggerGroup)));
+        }
+        
+        /**
+         * All the scheduling data is cleared
+         */
+        @Override
+        public void schedulingDataCleared() {
+            shadowStale = true;
+        }
+    }
 }
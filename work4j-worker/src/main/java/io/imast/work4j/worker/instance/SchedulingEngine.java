@@ -0,0 +1,114 @@
+package io.imast.work4j.worker.instance;
+
+import io.imast.work4j.model.execution.JobExecution;
+import io.imast.work4j.worker.WorkerException;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * The engine that arms and runs job executions on a worker
+ * 
+ * @author davitp
+ */
+public interface SchedulingEngine {
+    
+    /**
+     * Starts the engine
+     * 
+     * @throws WorkerException 
+     */
+    public void start() throws WorkerException;
+    
+    /**
+     * Stops the engine
+     * 
+     * @throws WorkerException 
+     */
+    public void stop() throws WorkerException;
+    
+    /**
+     * Schedules the job execution
+     * 
+     * @param execution The job execution to schedule
+     * @throws WorkerException 
+     */
+    public void schedule(JobExecution execution) throws WorkerException;
+    
+    /**
+     * Schedules the burst of job executions
+     * 
+     * @param executions The job executions to schedule
+     * @throws WorkerException 
+     */
+    public void scheduleAll(Collection<JobExecution> executions) throws WorkerException;
+    
+    /**
+     * Pause the job execution
+     * 
+     * @param key The execution key
+     * @throws WorkerException 
+     */
+    public void pause(ExecutionKey key) throws WorkerException;
+    
+    /**
+     * Resume the job execution
+     * 
+     * @param key The execution key
+     * @throws WorkerException 
+     */
+    public void resume(ExecutionKey key) throws WorkerException;
+    
+    /**
+     * Unschedule the job execution
+     * 
+     * @param key The execution key
+     * @throws WorkerException 
+     */
+    public void unschedule(ExecutionKey key) throws WorkerException;
+    
+    /**
+     * Gets the copy of scheduled executions
+     * 
+     * @return Returns execution keys
+     * @throws WorkerException 
+     */
+    public Set<ExecutionKey> getExecutions() throws WorkerException;
+    
+    /**
+     * Gets the copy of paused executions
+     * 
+     * @return Returns execution keys
+     * @throws WorkerException 
+     */
+    public Set<ExecutionKey> getPausedExecutions() throws WorkerException;
+    
+    /**
+     * Gets the live read-only view of scheduled executions
+     * 
+     * @return Returns execution keys
+     * @throws WorkerException 
+     */
+    public Set<ExecutionKey> getExecutionsView() throws WorkerException;
+    
+    /**
+     * Gets the live read-only view of paused executions
+     * 
+     * @return Returns execution keys
+     * @throws WorkerException 
+     */
+    public Set<ExecutionKey> getPausedExecutionsView() throws WorkerException;
+    
+    /**
+     * Gets the version of local state (changes whenever executions or paused executions change)
+     * 
+     * @return Returns the version
+     */
+    public long getShadowVersion();
+    
+    /**
+     * Reconciles the local state with the underlying store
+     * 
+     * @throws WorkerException 
+     */
+    public void reconcile() throws WorkerException;
+}
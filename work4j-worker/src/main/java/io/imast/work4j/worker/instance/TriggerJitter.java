@@ -0,0 +1,194 @@
+package io.imast.work4j.worker.instance;
+
+import io.imast.work4j.model.TriggerDefinition;
+
+/**
+ * The deterministic phase offsets of periodic and cron triggers
+ * 
+ * Executions created at the same moment with the same period (or sharing a cron expression such as
+ * the top of the hour) would otherwise fire in lockstep. The offset is derived from execution id and
+ * trigger name only, so an execution keeps the same phase on every worker and after every reschedule,
+ * while different executions spread evenly over the window.
+ * 
+ * @author davitp
+ */
+public class TriggerJitter {
+    
+    /**
+     * Gets the phase offset of the periodic trigger
+     * 
+     * @param executionId The execution id
+     * @param trigger The trigger definition
+     * @return Returns offset in milliseconds (zero if no jitter)
+     */
+    public static long offset(String executionId, TriggerDefinition trigger){
+        
+        // no jitter requested
+        if(trigger.getJitter() == null || trigger.getJitter() <= 0){
+            return 0;
+        }
+        
+        // the window is never wider than period
+        var window = trigger.getPeriod() == null || trigger.getPeriod() <= 0 ? trigger.getJitter() : Math.min(trigger.getJitter(), trigger.getPeriod());
+        
+        return Math.floorMod(hash(executionId, trigger), window);
+    }
+    
+    /**
+     * Gets the first fire time of the periodic trigger shifted by phase offset
+     * 
+     * Without explicit start time the phase is anchored to the period boundaries of epoch rather than
+     * to the scheduling moment, so executions (re)scheduled at the same time keep their spread and an
+     * execution keeps its phase across reschedules. The first fire is the next aligned time.
+     * 
+     * @param executionId The execution id
+     * @param trigger The trigger definition
+     * @param now The current time
+     * @return Returns epoch milliseconds of first fire
+     */
+    public static long start(String executionId, TriggerDefinition trigger, long now){
+        
+        // the phase offset
+        var offset = offset(executionId, trigger);
+        
+        // explicit start is shifted as is
+        if(trigger.getStartAt() != null){
+            return trigger.getStartAt().getTime() + offset;
+        }
+        
+        // no jitter or no period to align with
+        if(offset == 0 || trigger.getPeriod() == null || trigger.getPeriod() <= 0){
+            return now;
+        }
+        
+        // the aligned time within current period
+        var start = now - Math.floorMod(now, trigger.getPeriod()) + offset;
+        
+        return start < now ? start + trigger.getPeriod() : start;
+    }
+    
+    /**
+     * Gets the cron expression of trigger shifted by spread offset of execution
+     * 
+     * Only plain numeric second, minute and hour fields are shifted, so the window is capped by the
+     * first field that is not a plain number: a minute for every-minute expressions, an hour for
+     * hourly ones and a day for daily ones without day restrictions. The fire is only delayed and
+     * never leaves its unit (the window is also capped by the time left until the end of unit), so
+     * it never fires before the scheduled time whatever the higher fields are. The shift has second
+     * resolution.
+     * 
+     * @param executionId The execution id
+     * @param trigger The trigger definition
+     * @return Returns shifted cron expression (or original if no spread)
+     */
+    public static String cron(String executionId, TriggerDefinition trigger){
+        
+        var expression = trigger.getCron();
+        
+        // no spread requested
+        if(expression == null || trigger.getSpreadWindow() == null || trigger.getSpreadWindow() < 1000){
+            return expression;
+        }
+        
+        // quartz fields: second minute hour day-of-month month day-of-week [year]
+        var fields = expression.trim().split("\\s+");
+        
+        if(fields.length < 6 || !plain(fields[0])){
+            return expression;
+        }
+        
+        // the shiftable fields and the unit they wrap in
+        var minute = plain(fields[1]);
+        var hour = minute && plain(fields[2]);
+        var anyDay = isAny(fields[3]) && isAny(fields[5]);
+        var unit = !minute ? 60 : (hour && anyDay ? 86400 : 3600);
+        
+        // current position within unit
+        var position = Integer.parseInt(fields[0]);
+        
+        if(minute){
+            position += 60 * Integer.parseInt(fields[1]);
+        }
+        
+        if(unit == 86400){
+            position += 3600 * Integer.parseInt(fields[2]);
+        }
+        
+        // the window in seconds (shifted fire stays within unit)
+        var window = Math.min(trigger.getSpreadWindow() / 1000, unit - position);
+        
+        if(window <= 1){
+            return expression;
+        }
+        
+        // stable offset within window
+        var offset = Math.floorMod(hash(executionId, trigger), window);
+        
+        if(offset == 0){
+            return expression;
+        }
+        
+        // shifted position (later within the same unit)
+        position += (int) offset;
+        
+        fields[0] = String.valueOf(position % 60);
+        
+        if(minute){
+            fields[1] = String.valueOf(position / 60 % 60);
+        }
+        
+        if(unit == 86400){
+            fields[2] = String.valueOf(position / 3600);
+        }
+        
+        return String.join(" ", fields);
+    }
+    
+    /**
+     * Checks if cron field is a plain number
+     * 
+     * @param field The field
+     * @return Returns true if plain number
+     */
+    private static boolean plain(String field){
+        return !field.isEmpty() && field.chars().allMatch(Character::isDigit);
+    }
+    
+    /**
+     * Checks if cron day field does not restrict days
+     * 
+     * @param field The field
+     * @return Returns true if any day
+     */
+    private static boolean isAny(String field){
+        return "*".equals(field) || "?".equals(field);
+    }
+    
+    /**
+     * Gets the stable hash of execution and trigger
+     * 
+     * @param executionId The execution id
+     * @param trigger The trigger definition
+     * @return Returns mixed hash
+     */
+    private static long hash(String executionId, TriggerDefinition trigger){
+        return mix(31L * (executionId == null ? 0 : executionId.hashCode()) + (trigger.getName() == null ? 0 : trigger.getName().hashCode()));
+    }
+    
+    /**
+     * Mixes the bits of hash (64-bit finalizer of murmur3)
+     * 
+     * @param hash The hash
+     * @return Returns mixed hash
+     */
+    private static long mix(long hash){
+        
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        
+        return hash;
+    }
+}
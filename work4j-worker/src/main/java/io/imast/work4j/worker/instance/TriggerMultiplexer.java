@@ -0,0 +1,628 @@
+package io.imast.work4j.worker.instance;
+
+import io.imast.core.Str;
+import io.imast.work4j.channel.SchedulerChannel;
+import io.imast.work4j.model.TriggerDefinition;
+import io.imast.work4j.model.TriggerType;
+import io.imast.work4j.model.cluster.ClusterWorker;
+import io.imast.work4j.model.execution.JobExecution;
+import io.imast.work4j.model.iterate.IterationInput;
+import io.imast.work4j.model.iterate.IterationStatus;
+import io.imast.work4j.worker.job.ExecutorCache;
+import io.imast.work4j.worker.wheel.WheelExecutorContext;
+import io.vavr.control.Try;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.CronExpression;
+
+/**
+ * The registry of executions sharing quartz triggers with identical schedules
+ * 
+ * Executions whose triggers are all plain cron triggers (no start or end time) join a schedule
+ * identified by the cron expression, time zone and priority. Quartz holds a single job and trigger per schedule,
+ * so the store size and the cost of trigger acquisition depend on the number of distinct schedules
+ * only. When the shared trigger fires, the members of schedule are put into the dispatch queue and handed
+ * over to the worker pool of quartz scheduler (same threads and concurrency cap as other jobs) in order of priority, paused members are skipped (also if paused while queued).
+ * A member has at most one fire waiting in queue, fires of member that is still waiting are coalesced
+ * (as misfired quartz triggers would be), so the queue never grows beyond the number of members. The
+ * registry itself does not touch quartz, the quartz instance creates and deletes the schedule jobs it reports.
+ * 
+ * @author davitp
+ */
+@Slf4j
+public class TriggerMultiplexer {
+
+    /**
+     * The worker instance
+     */
+    protected final ClusterWorker worker;
+    
+    /**
+     * The resolved executors by job type
+     */
+    protected final ExecutorCache executors;
+    
+    /**
+     * The scheduler channel
+     */
+    protected final SchedulerChannel channel;
+    
+    /**
+     * The iteration reporter
+     */
+    protected final IterationReporter reporter;
+    
+    /**
+     * The member executions
+     */
+    protected final ConcurrentHashMap<ExecutionKey, Member> members;
+    
+    /**
+     * The member triggers by schedule
+     */
+    protected final ConcurrentHashMap<String, ConcurrentHashMap<ExecutionKey, TriggerDefinition>> schedules;
+    
+    /**
+     * The dispatch queue ordered by priority
+     */
+    protected final PriorityBlockingQueue<Dispatch> queue;
+    
+    /**
+     * The pool running the fires (shared with quartz scheduler)
+     */
+    protected final WorkerThreadPool pool;
+    
+    /**
+     * The thread handing over queued fires to pool
+     */
+    protected final Thread dispatcher;
+    
+    /**
+     * The arrival order of dispatched fires
+     */
+    protected final AtomicLong sequence;
+    
+    /**
+     * Creates new trigger multiplexer
+     * 
+     * @param worker The worker instance
+     * @param executors The resolved executors by job type
+     * @param channel The scheduler channel
+     * @param pool The worker pool of quartz scheduler
+     */
+    public TriggerMultiplexer(ClusterWorker worker, ExecutorCache executors, SchedulerChannel channel, WorkerThreadPool pool){
+        this.worker = worker;
+        this.executors = executors;
+        this.channel = channel;
+        this.reporter = new IterationReporter(channel, "TriggerMultiplexer");
+        this.members = new ConcurrentHashMap<>();
+        this.schedules = new ConcurrentHashMap<>();
+        this.sequence = new AtomicLong();
+        this.queue = new PriorityBlockingQueue<>();
+        this.pool = pool;
+        
+        // single thread hands over fires by priority and then by arrival
+        this.dispatcher = new Thread(this::loop, String.format("WORK4J_MUX_%s_Dispatcher", worker == null ? "WORKER" : worker.getName()));
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+    
+    /**
+     * Stops the dispatching (the pool is shut down by quartz scheduler)
+     */
+    public void shutdown(){
+        this.dispatcher.interrupt();
+        this.queue.clear();
+    }
+    
+    /**
+     * Checks if execution can be multiplexed
+     * 
+     * @param execution The job execution
+     * @return Returns true if all triggers are plain cron triggers of distinct schedules
+     */
+    public boolean eligible(JobExecution execution){
+        
+        var triggers = execution.getTriggers();
+        
+        if(triggers == null || triggers.isEmpty()){
+            return false;
+        }
+        
+        var seen = new HashSet<String>();
+        
+        for(var trigger : triggers){
+            
+            // only unbounded cron triggers share schedule
+            if(trigger == null || trigger.getType() != TriggerType.CRON || trigger.getStartAt() != null || trigger.getEndAt() != null){
+                return false;
+            }
+            
+            var cron = TriggerJitter.cron(execution.getId(), trigger);
+            
+            if(Str.blank(cron) || !CronExpression.isValidExpression(cron)){
+                return false;
+            }
+            
+            // the same schedule twice in execution
+            if(!seen.add(this.scheduleId(cron, trigger.getTimezone(), ExecutionPriority.of(execution, trigger)))){
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Adds the execution to its schedules (caller serializes joins and leaves)
+     * 
+     * @param key The execution key
+     * @param execution The job execution
+     * @param paused If execution is paused initially
+     * @return Returns the schedules which had no members before
+     */
+    public List<Schedule> join(ExecutionKey key, JobExecution execution, boolean paused){
+        
+        var created = new ArrayList<Schedule>();
+        var scheduleIds = new ArrayList<String>();
+        
+        for(var trigger : execution.getTriggers()){
+            
+            var cron = TriggerJitter.cron(execution.getId(), trigger);
+            var priority = ExecutionPriority.of(execution, trigger);
+            var id = this.scheduleId(cron, trigger.getTimezone(), priority);
+            
+            var schedule = this.schedules.computeIfAbsent(id, k -> new ConcurrentHashMap<>());
+            
+            if(schedule.isEmpty()){
+                created.add(new Schedule(id, cron, trigger.getTimezone(), priority));
+            }
+            
+            schedule.put(key, trigger);
+            scheduleIds.add(id);
+        }
+        
+        this.members.put(key, new Member(execution, scheduleIds, paused));
+        
+        // resolve executor of type before first fire
+        this.executors.resolve(execution.getType());
+        
+        return created;
+    }
+    
+    /**
+     * Removes the execution from its schedules (caller serializes joins and leaves)
+     * 
+     * @param key The execution key
+     * @return Returns the ids of schedules left without members
+     */
+    public List<String> leave(ExecutionKey key){
+        
+        var member = this.members.remove(key);
+        
+        if(member == null){
+            return List.of();
+        }
+        
+        this.executors.evict(key.getExecutionId());
+        
+        var emptied = new ArrayList<String>();
+        
+        for(var id : member.schedules){
+            
+            var schedule = this.schedules.get(id);
+            
+            if(schedule == null){
+                continue;
+            }
+            
+            schedule.remove(key);
+            
+            if(schedule.isEmpty()){
+                this.schedules.remove(id);
+                emptied.add(id);
+            }
+        }
+        
+        return emptied;
+    }
+    
+    /**
+     * Checks if execution is multiplexed
+     * 
+     * @param key The execution key
+     * @return Returns true if member
+     */
+    public boolean contains(ExecutionKey key){
+        return this.members.containsKey(key);
+    }
+    
+    /**
+     * Sets the pause state of member
+     * 
+     * @param key The execution key
+     * @param paused The pause state
+     * @return Returns true if member
+     */
+    public boolean setPaused(ExecutionKey key, boolean paused){
+        
+        var member = this.members.get(key);
+        
+        if(member == null){
+            return false;
+        }
+        
+        member.paused = paused;
+        
+        return true;
+    }
+    
+    /**
+     * Gets the member executions
+     * 
+     * @return Returns execution keys
+     */
+    public Set<ExecutionKey> getExecutions(){
+        return new HashSet<>(this.members.keySet());
+    }
+    
+    /**
+     * Gets the paused member executions
+     * 
+     * @return Returns execution keys
+     */
+    public Set<ExecutionKey> getPausedExecutions(){
+        
+        var result = new HashSet<ExecutionKey>();
+        
+        this.members.forEach((key, member) -> {
+            if(member.paused){
+                result.add(key);
+            }
+        });
+        
+        return result;
+    }
+    
+    /**
+     * Gets the number of schedules
+     * 
+     * @return Returns number of schedules with members
+     */
+    public int getScheduleCount(){
+        return this.schedules.size();
+    }
+    
+    /**
+     * Puts the active members of fired schedule into dispatch queue
+     * 
+     * @param scheduleId The schedule id
+     * @return Returns the number of dispatched members
+     */
+    public int dispatch(String scheduleId){
+        
+        var schedule = this.schedules.get(scheduleId);
+        
+        if(schedule == null){
+            return 0;
+        }
+        
+        var dispatched = 0;
+        
+        for(var entry : schedule.entrySet()){
+            
+            var member = this.members.get(entry.getKey());
+            
+            // skip paused members
+            if(member == null || member.paused){
+                continue;
+            }
+            
+            // the previous fire of member is still waiting, coalesce
+            if(!member.pending.compareAndSet(false, true)){
+                log.debug("TriggerMultiplexer: Fire of execution {} is skipped, the previous fire is still waiting", member.execution.getId());
+                continue;
+            }
+            
+            var definition = entry.getValue();
+            var priority = ExecutionPriority.of(member.execution, definition);
+            
+            this.queue.add(new Dispatch(priority, this.sequence.getAndIncrement(), () -> {
+                
+                member.pending.set(false);
+                
+                // paused while queued
+                if(!member.paused){
+                    this.run(member.execution, definition, priority);
+                }
+            }));
+            
+            dispatched++;
+        }
+        
+        return dispatched;
+    }
+    
+    /**
+     * Hands over the queued fires to pool (waits for a free slot of pool)
+     */
+    protected void loop(){
+        
+        while(!Thread.currentThread().isInterrupted()){
+            
+            try {
+                var next = this.queue.take();
+                
+                // not handed over unless stopping
+                if(!this.pool.runInThread(next) && !Thread.currentThread().isInterrupted()){
+                    log.warn("TriggerMultiplexer: Could not hand over the fire to pool");
+                }
+            }
+            catch(InterruptedException error){
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * Gets the schedule id of cron expression, time zone and priority
+     * 
+     * @param cron The cron expression
+     * @param timezone The time zone
+     * @param priority The priority
+     * @return Returns schedule id
+     */
+    protected String scheduleId(String cron, String timezone, int priority){
+        
+        var id = Str.blank(timezone) ? cron : String.format("%s|%s", cron, timezone);
+        
+        // default priority keeps plain ids
+        return priority == ExecutionPriority.DEFAULT ? id : String.format("%s|p%s", id, priority);
+    }
+    
+    /**
+     * Runs the job execution and reports the iteration
+     * 
+     * @param execution The job execution
+     * @param definition The fired trigger definition
+     * @param priority The priority of fire
+     */
+    protected void run(JobExecution execution, TriggerDefinition definition, int priority){
+        
+        var context = new WheelExecutorContext(execution, definition.getPayload(), this.executors.getModules(execution.getType()));
+        var start = System.currentTimeMillis();
+        
+        // the limit of type is reached
+        if(!this.executors.admit(execution.getType())){
+            log.debug("TriggerMultiplexer: Fire of execution {} is vetoed, the concurrency limit of type {} is reached", execution.getId(), execution.getType());
+            return;
+        }
+        
+        // try execute job and remember the failure
+        var result = Try.of(() -> this.executors.execute(execution.getId(), execution.getType(), context, true, priority));
+        
+        // report asynchronous or queued job when done (the pool permit is held until then unless bulkhead of type limits it)
+        if(result.isSuccess() && result.get() != null){
+            Runnable release = this.executors.getBulkhead(execution.getType()) == null ? WorkerThreadPool.detachPermit() : () -> {};
+            result.get().whenComplete((value, error) -> {
+                this.report(execution, context, start, error);
+                release.run();
+            });
+            return;
+        }
+        
+        this.report(execution, context, start, result.isSuccess() ? null : result.getCause());
+    }
+    
+    /**
+     * Reports the iteration of job execution
+     * 
+     * @param execution The job execution
+     * @param context The context of fire
+     * @param start The start time
+     * @param failure The failure if any
+     */
+    protected void report(JobExecution execution, WheelExecutorContext context, long start, Throwable failure){
+        
+        // if silent reporting is enabled will just silently skip iteration report
+        if(execution.getOptions() != null && execution.getOptions().isSilentIterations()){
+            return;
+        }
+        
+        // create iteration entity
+        var iteration = IterationInput.builder()
+                .executionId(execution.getId())
+                .jobId(execution.getJobId())
+                .worker(this.worker == null ? null : this.worker.getName())
+                .runtime(System.currentTimeMillis() - start)
+                .status(failure == null ? IterationStatus.SUCCESS : IterationStatus.FAILURE)
+                .payload(context.getOutput())
+                .message(failure == null ? null : failure.toString())
+                .timestamp(new Date())
+                .build();
+        
+        // register iteration (retried if scheduler pushes back)
+        this.reporter.report(iteration);
+    }
+    
+    /**
+     * The dispatched fire ordered by priority and then by arrival
+     */
+    protected static class Dispatch implements Runnable, Comparable<Dispatch> {
+        
+        /**
+         * The priority of fire
+         */
+        protected final int priority;
+        
+        /**
+         * The arrival order
+         */
+        protected final long sequence;
+        
+        /**
+         * The run of fire
+         */
+        protected final Runnable runnable;
+        
+        /**
+         * Creates new dispatched fire
+         * 
+         * @param priority The priority of fire
+         * @param sequence The arrival order
+         * @param runnable The run of fire
+         */
+        protected Dispatch(int priority, long sequence, Runnable runnable){
+            this.priority = priority;
+            this.sequence = sequence;
+            this.runnable = runnable;
+        }
+        
+        /**
+         * Runs the fire
+         */
+        @Override
+        public void run(){
+            this.runnable.run();
+        }
+        
+        /**
+         * Compares with other fire (higher priority first)
+         * 
+         * @param other The other fire
+         * @return Returns comparison result
+         */
+        @Override
+        public int compareTo(Dispatch other){
+            
+            var result = Integer.compare(other.priority, this.priority);
+            
+            return result != 0 ? result : Long.compare(this.sequence, other.sequence);
+        }
+    }
+    
+    /**
+     * The member execution
+     */
+    protected static class Member {
+        
+        /**
+         * The job execution
+         */
+        protected final JobExecution execution;
+        
+        /**
+         * The ids of joined schedules
+         */
+        protected final List<String> schedules;
+        
+        /**
+         * Indicates if member is paused
+         */
+        protected volatile boolean paused;
+        
+        /**
+         * Indicates if member has a fire waiting in queue
+         */
+        protected final AtomicBoolean pending;
+        
+        /**
+         * Creates new member
+         * 
+         * @param execution The job execution
+         * @param schedules The ids of joined schedules
+         * @param paused If paused initially
+         */
+        protected Member(JobExecution execution, List<String> schedules, boolean paused){
+            this.execution = execution;
+            this.schedules = schedules;
+            this.paused = paused;
+            this.pending = new AtomicBoolean();
+        }
+    }
+    
+    /**
+     * The schedule shared by members
+     */
+    public static class Schedule {
+        
+        /**
+         * The schedule id
+         */
+        private final String id;
+        
+        /**
+         * The cron expression
+         */
+        private final String cron;
+        
+        /**
+         * The time zone
+         */
+        private final String timezone;
+        
+        /**
+         * The priority
+         */
+        private final int priority;
+        
+        /**
+         * Creates new schedule
+         * 
+         * @param id The schedule id
+         * @param cron The cron expression
+         * @param timezone The time zone
+         * @param priority The priority
+         */
+        public Schedule(String id, String cron, String timezone, int priority){
+            this.id = id;
+            this.cron = cron;
+            this.timezone = timezone;
+            this.priority = priority;
+        }
+        
+        /**
+         * Gets the schedule id
+         * 
+         * @return Returns schedule id
+         */
+        public String getId(){
+            return this.id;
+        }
+        
+        /**
+         * Gets the cron expression
+         * 
+         * @return Returns cron expression
+         */
+        public String getCron(){
+            return this.cron;
+        }
+        
+        /**
+         * Gets the time zone
+         * 
+         * @return Returns time zone
+         */
+        public String getTimezone(){
+            return this.timezone;
+        }
+        
+        /**
+         * Gets the priority
+         * 
+         * @return Returns priority
+         */
+        public int getPriority(){
+            return this.priority;
+        }
+    }
+}
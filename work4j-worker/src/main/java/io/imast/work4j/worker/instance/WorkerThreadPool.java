@@ -0,0 +1,404 @@
+package io.imast.work4j.worker.instance;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.SchedulerConfigException;
+import org.quartz.spi.ThreadPool;
+
+/**
+ * The quartz thread pool with concurrency cap separate from thread count
+ * 
+ * When virtual threads are requested and the JVM supports them (Java 21 or later) every job runs
+ * on its own virtual thread and only the cap limits concurrency, so IO-bound jobs do not hold
+ * platform threads while waiting. Otherwise jobs run on platform threads, thread count of them are
+ * kept and more are started on demand (and retired when idle) while the cap allows. A job started
+ * asynchronously may detach its permit from the thread and release it when done, so the cap counts
+ * jobs in flight rather than busy threads and freed threads take new fires while the cap allows.
+ * The pool is configured by quartz through properties
+ * "org.quartz.threadPool.threadCount", "org.quartz.threadPool.maxConcurrency" and 
+ * "org.quartz.threadPool.virtual". Initialized pools are registered by scheduler instance name, so
+ * that other dispatchers of the same scheduler (shared schedules) run on the same threads and permits.
+ * 
+ * @author davitp
+ */
+@Slf4j
+public class WorkerThreadPool implements ThreadPool {
+    
+    /**
+     * The permit of job running on current thread
+     */
+    protected static final ThreadLocal<Permit> CURRENT = new ThreadLocal<>();
+    
+    /**
+     * The initialized pools by scheduler instance name
+     */
+    protected static final ConcurrentHashMap<String, WorkerThreadPool> POOLS = new ConcurrentHashMap<>();
+    
+    /**
+     * Does nothing (there is no permit to release)
+     */
+    protected static final Runnable NO_PERMIT = () -> {};
+    
+    /**
+     * The time to keep idle platform threads over thread count (seconds)
+     */
+    protected static final long IDLE_TIMEOUT = 60;
+    
+    /**
+     * The number of platform threads kept
+     */
+    protected int threadCount = 10;
+    
+    /**
+     * The maximum number of concurrently running jobs (thread count if not set)
+     */
+    protected int maxConcurrency;
+    
+    /**
+     * Use virtual threads if supported
+     */
+    protected boolean virtual;
+    
+    /**
+     * The scheduler instance name
+     */
+    protected String instanceName;
+    
+    /**
+     * The scheduler instance id
+     */
+    protected String instanceId;
+    
+    /**
+     * The effective concurrency cap
+     */
+    protected int capacity;
+    
+    /**
+     * The permits of running jobs
+     */
+    protected Semaphore permits;
+    
+    /**
+     * The executor running jobs
+     */
+    protected ExecutorService executor;
+    
+    /**
+     * Indicates if pool is shut down
+     */
+    protected volatile boolean shutdown;
+    
+    /**
+     * Sets the number of platform threads
+     * 
+     * @param threadCount The thread count
+     */
+    public void setThreadCount(int threadCount){
+        this.threadCount = threadCount;
+    }
+    
+    /**
+     * Sets the maximum number of concurrently running jobs
+     * 
+     * @param maxConcurrency The concurrency cap
+     */
+    public void setMaxConcurrency(int maxConcurrency){
+        this.maxConcurrency = maxConcurrency;
+    }
+    
+    /**
+     * Sets if virtual threads should be used
+     * 
+     * @param virtual The virtual flag
+     */
+    public void setVirtual(boolean virtual){
+        this.virtual = virtual;
+    }
+    
+    /**
+     * Initializes the pool
+     * 
+     * @throws SchedulerConfigException 
+     */
+    @Override
+    public void initialize() throws SchedulerConfigException {
+        
+        if(this.threadCount <= 0){
+            throw new SchedulerConfigException("Thread count must be > 0");
+        }
+        
+        // the cap defaults to thread count
+        var cap = this.maxConcurrency > 0 ? this.maxConcurrency : this.threadCount;
+        
+        // try virtual threads if requested
+        this.executor = this.virtual ? createVirtualExecutor() : null;
+        
+        // fallback to platform threads, the permits bound the number of busy threads by the cap
+        if(this.executor == null){
+            
+            if(this.virtual){
+                log.warn("WorkerThreadPool: Virtual threads are not supported by this JVM, running on platform threads");
+            }
+            
+            this.executor = new ThreadPoolExecutor(this.threadCount, Integer.MAX_VALUE, IDLE_TIMEOUT, TimeUnit.SECONDS, new SynchronousQueue<>(), this.platformThreads());
+        }
+        
+        this.capacity = cap;
+        this.permits = new Semaphore(cap);
+        
+        // share with other dispatchers of scheduler
+        if(this.instanceName != null){
+            POOLS.put(this.instanceName, this);
+        }
+    }
+    
+    /**
+     * Runs the job runnable when a permit is available
+     * 
+     * @param runnable The runnable
+     * @return Returns true if accepted
+     */
+    @Override
+    public boolean runInThread(Runnable runnable) {
+        
+        if(runnable == null || this.shutdown){
+            return false;
+        }
+        
+        try {
+            // wait for a free slot
+            this.permits.acquire();
+        }
+        catch(InterruptedException error){
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        
+        var permit = new Permit(this.permits);
+        
+        try {
+            this.executor.execute(() -> {
+                CURRENT.set(permit);
+                try {
+                    runnable.run();
+                }
+                finally {
+                    CURRENT.remove();
+                    
+                    // detached permit is released by the job
+                    if(!permit.detached){
+                        permit.release();
+                    }
+                }
+            });
+        }
+        catch(RuntimeException error){
+            permit.release();
+            log.error("WorkerThreadPool: Could not run the job", error);
+            return false;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Blocks until at least one slot is available
+     * 
+     * @return Returns the number of available slots
+     */
+    @Override
+    public int blockForAvailableThreads() {
+        
+        // nothing to wait
+        if(this.shutdown){
+            return 0;
+        }
+        
+        try {
+            // take and give back a permit to wait for a slot
+            this.permits.acquire();
+            this.permits.release();
+        }
+        catch(InterruptedException error){
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+        
+        return Math.max(1, this.permits.availablePermits());
+    }
+    
+    /**
+     * Gets the size of pool (concurrency cap)
+     * 
+     * @return Returns pool size
+     */
+    @Override
+    public int getPoolSize() {
+        return this.capacity;
+    }
+    
+    /**
+     * Shuts down the pool
+     * 
+     * @param waitForJobsToComplete Wait for running jobs
+     */
+    @Override
+    public void shutdown(boolean waitForJobsToComplete) {
+        
+        this.shutdown = true;
+        
+        // no longer shared
+        if(this.instanceName != null){
+            POOLS.remove(this.instanceName, this);
+        }
+        
+        if(this.executor == null){
+            return;
+        }
+        
+        this.executor.shutdown();
+        
+        // do not wait
+        if(!waitForJobsToComplete){
+            return;
+        }
+        
+        try {
+            while(!this.executor.awaitTermination(1, TimeUnit.SECONDS)){
+                log.debug("WorkerThreadPool: Waiting for running jobs to complete");
+            }
+        }
+        catch(InterruptedException error){
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Sets the scheduler instance id
+     * 
+     * @param schedInstId The instance id
+     */
+    @Override
+    public void setInstanceId(String schedInstId) {
+        this.instanceId = schedInstId;
+    }
+    
+    /**
+     * Sets the scheduler instance name
+     * 
+     * @param schedName The instance name
+     */
+    @Override
+    public void setInstanceName(String schedName) {
+        this.instanceName = schedName;
+    }
+    
+    /**
+     * Gets the initialized pool of scheduler
+     * 
+     * @param instanceName The scheduler instance name
+     * @return Returns pool or null if scheduler does not run on worker pool
+     */
+    public static WorkerThreadPool of(String instanceName){
+        return instanceName == null ? null : POOLS.get(instanceName);
+    }
+    
+    /**
+     * Detaches the permit of job running on current thread, the thread is given back when job returns
+     * but the permit is held until the returned action is run (at most once)
+     * 
+     * @return Returns the action releasing permit (does nothing if not running in this pool)
+     */
+    public static Runnable detachPermit(){
+        
+        var permit = CURRENT.get();
+        
+        if(permit == null){
+            return NO_PERMIT;
+        }
+        
+        permit.detached = true;
+        
+        return permit::release;
+    }
+    
+    /**
+     * Creates the factory of named platform threads
+     * 
+     * @return Returns thread factory
+     */
+    protected ThreadFactory platformThreads(){
+        
+        var counter = new AtomicInteger();
+        
+        return runnable -> {
+            var thread = new Thread(runnable, String.format("%s_Worker-%s", this.instanceName, counter.incrementAndGet()));
+            thread.setDaemon(false);
+            return thread;
+        };
+    }
+    
+    /**
+     * Creates the virtual thread per task executor if supported (resolved reflectively to run on Java 11)
+     * 
+     * @return Returns executor or null if not supported
+     */
+    protected static ExecutorService createVirtualExecutor(){
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch(ReflectiveOperationException | RuntimeException error){
+            return null;
+        }
+    }
+    
+    /**
+     * The permit of running job
+     */
+    protected static class Permit {
+        
+        /**
+         * The permits of pool
+         */
+        private final Semaphore permits;
+        
+        /**
+         * Indicates if permit is released
+         */
+        private final AtomicBoolean released;
+        
+        /**
+         * Indicates if permit is detached from thread
+         */
+        private volatile boolean detached;
+        
+        /**
+         * Creates new permit
+         * 
+         * @param permits The permits of pool
+         */
+        protected Permit(Semaphore permits){
+            this.permits = permits;
+            this.released = new AtomicBoolean();
+        }
+        
+        /**
+         * Releases the permit once
+         */
+        protected void release(){
+            if(this.released.compareAndSet(false, true)){
+                this.permits.release();
+            }
+        }
+    }
+}
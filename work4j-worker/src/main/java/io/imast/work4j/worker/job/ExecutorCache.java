@@ -0,0 +1,523 @@
+package io.imast.work4j.worker.job;
+
+import io.imast.core.Str;
+import io.imast.work4j.execution.AsyncJobExecutor;
+import io.imast.work4j.execution.ExecutorReuse;
+import io.imast.work4j.execution.JobExecutor;
+import io.imast.work4j.execution.JobExecutorContext;
+import io.imast.work4j.execution.JobExecutorException;
+import io.imast.work4j.execution.ReusableJobExecutor;
+import io.imast.work4j.worker.JobConstants;
+import io.imast.work4j.worker.WorkerFactory;
+import io.imast.work4j.worker.bulkhead.Bulkhead;
+import io.imast.work4j.worker.bulkhead.OverflowPolicy;
+import io.imast.work4j.worker.instance.ExecutionPriority;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.JobKey;
+import org.quartz.listeners.SchedulerListenerSupport;
+
+/**
+ * The cache of resolved executor suppliers, modules and reusable executors
+ * 
+ * The supplier and modules of job type are resolved once (instead of reading scheduler context on
+ * every fire). Executors implementing ReusableJobExecutor are kept according to their reuse policy:
+ * singletons per job execution until the execution is evicted, pooled ones per job type up to the
+ * pool size. Other executors are created for every fire as before, and those implementing
+ * AsyncJobExecutor are started without waiting for them (reusable executors are always synchronous).
+ * Fires of types with bulkhead are executed within the concurrency limit of type. The stages of fires
+ * still in flight are tracked per execution, so that completion and eviction of execution can wait for them.
+ * 
+ * @author davitp
+ */
+@Slf4j
+public class ExecutorCache {
+
+    /**
+     * The default number of idle pooled executors per job type
+     */
+    public static final int DEFAULT_POOL_SIZE = 10;
+    
+    /**
+     * The worker factory
+     */
+    protected final WorkerFactory factory;
+    
+    /**
+     * The modules by job type
+     */
+    protected final Map<String, Map<String, Object>> jobModules;
+    
+    /**
+     * The resolved job types
+     */
+    protected final ConcurrentHashMap<String, ResolvedType> types;
+    
+    /**
+     * The singleton executors by job execution id
+     */
+    protected final ConcurrentHashMap<String, ReusableJobExecutor> singletons;
+    
+    /**
+     * The maximum number of idle pooled executors per job type
+     */
+    protected final int poolSize;
+    
+    /**
+     * The settlement of fires in flight by job execution id
+     */
+    protected final ConcurrentHashMap<String, CompletableFuture<Void>> inflight;
+    
+    /**
+     * Creates new executor cache
+     * 
+     * @param factory The worker factory
+     * @param jobModules The modules by job type
+     * @param poolSize The maximum number of idle pooled executors per job type
+     */
+    public ExecutorCache(WorkerFactory factory, Map<String, Map<String, Object>> jobModules, int poolSize){
+        this.factory = factory;
+        this.jobModules = jobModules == null ? Map.of() : jobModules;
+        this.types = new ConcurrentHashMap<>();
+        this.singletons = new ConcurrentHashMap<>();
+        this.poolSize = Math.max(0, poolSize);
+        this.inflight = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Resolves the supplier and modules of job type
+     * 
+     * @param type The job type
+     * @return Returns resolved type or null if no supplier is registered (not cached)
+     */
+    public ResolvedType resolve(String type){
+        
+        if(Str.blank(type)){
+            return null;
+        }
+        
+        var resolved = this.types.get(type);
+        
+        if(resolved != null){
+            return resolved;
+        }
+        
+        var supplier = this.factory.getExecutor(type);
+        
+        // could be registered later
+        if(supplier == null){
+            log.error("ExecutorCache: No supplier for type: " + type);
+            return null;
+        }
+        
+        var modules = this.jobModules.get(type);
+        
+        return this.types.computeIfAbsent(type, k -> new ResolvedType(supplier, modules == null ? Map.of() : modules));
+    }
+    
+    /**
+     * Resolves all the types registered in factory
+     */
+    public void resolveAll(){
+        this.factory.getTypes().forEach(this::resolve);
+    }
+    
+    /**
+     * Gets the modules of job type
+     * 
+     * @param type The job type
+     * @return Returns modules or null if type is not resolved
+     */
+    public Map<String, Object> getModules(String type){
+        
+        var resolved = this.resolve(type);
+        
+        return resolved == null ? null : resolved.modules;
+    }
+    
+    /**
+     * Gets the bulkhead of job type
+     * 
+     * @param type The job type
+     * @return Returns bulkhead or null
+     */
+    public Bulkhead getBulkhead(String type){
+        return this.factory.getBulkhead(type);
+    }
+    
+    /**
+     * Admits the fire of job type up front (vetoing bulkheads only, the permit is then held by the fire)
+     * 
+     * @param type The job type
+     * @return Returns false if fire should be skipped
+     */
+    public boolean admit(String type){
+        
+        var bulkhead = this.factory.getBulkhead(type);
+        
+        return bulkhead == null || bulkhead.getPolicy() != OverflowPolicy.VETO || bulkhead.tryAdmit();
+    }
+    
+    /**
+     * Executes the fire of job execution with cached or new executor
+     * 
+     * @param executionId The job execution id
+     * @param type The job type
+     * @param context The context of fire
+     * @return Returns the stage of asynchronous executor or null if already done
+     * @throws JobExecutorException
+     */
+    public CompletionStage<?> execute(String executionId, String type, JobExecutorContext context) throws JobExecutorException {
+        return this.execute(executionId, type, context, false, ExecutionPriority.DEFAULT);
+    }
+    
+    /**
+     * Executes the fire of job execution within the bulkhead of type
+     * 
+     * @param executionId The job execution id
+     * @param type The job type
+     * @param context The context of fire
+     * @param admitted If fire is admitted by admit method
+     * @param priority The priority of fire in bulkhead queue
+     * @return Returns the stage of asynchronous executor or bulkhead queue or null if already done
+     * @throws JobExecutorException
+     */
+    public CompletionStage<?> execute(String executionId, String type, JobExecutorContext context, boolean admitted, int priority) throws JobExecutorException {
+        
+        var bulkhead = this.factory.getBulkhead(type);
+        
+        // no limits for type
+        if(bulkhead == null){
+            return this.executeDirect(executionId, type, context);
+        }
+        
+        // admitted fire holds the permit already
+        if(admitted && bulkhead.getPolicy() == OverflowPolicy.VETO){
+            return bulkhead.executeAdmitted(() -> this.executeDirect(executionId, type, context));
+        }
+        
+        return bulkhead.execute(() -> this.executeDirect(executionId, type, context), priority);
+    }
+    
+    /**
+     * Executes the fire of job execution with cached or new executor (no bulkhead)
+     * 
+     * @param executionId The job execution id
+     * @param type The job type
+     * @param context The context of fire
+     * @return Returns the stage of asynchronous executor or null if already done
+     * @throws JobExecutorException
+     */
+    protected CompletionStage<?> executeDirect(String executionId, String type, JobExecutorContext context) throws JobExecutorException {
+        
+        var resolved = this.resolve(type);
+        
+        if(resolved == null){
+            throw new JobExecutorException("The requested job type is not supporeted");
+        }
+        
+        // singleton of execution
+        var singleton = executionId == null ? null : this.singletons.get(executionId);
+        
+        if(singleton != null){
+            singleton.execute(context);
+            return null;
+        }
+        
+        // borrow idle pooled executor
+        var pooled = resolved.borrow();
+        
+        if(pooled != null){
+            try {
+                pooled.execute(context);
+            }
+            finally {
+                this.giveBack(resolved, pooled);
+            }
+            return null;
+        }
+        
+        // create new instance using supplier
+        JobExecutor executor;
+        
+        try {
+            executor = resolved.supplier.apply(context);
+        }
+        catch(RuntimeException error){
+            throw new JobExecutorException("Unable to create an executor from given supplier", error);
+        }
+        
+        if(executor == null){
+            throw new JobExecutorException("Supplier of executor returned null. Cannot execute...");
+        }
+        
+        // asynchronous executors are only started
+        if(executor instanceof AsyncJobExecutor){
+            return ((AsyncJobExecutor) executor).executeAsync();
+        }
+        
+        // plain executors are not reused
+        if(!(executor instanceof ReusableJobExecutor)){
+            executor.execute();
+            return null;
+        }
+        
+        var reusable = (ReusableJobExecutor) executor;
+        var reuse = reusable.getReuse();
+        
+        // keep singleton of execution (the first one wins)
+        if(reuse == ExecutorReuse.SINGLETON && executionId != null){
+            
+            var existing = this.singletons.putIfAbsent(executionId, reusable);
+            
+            if(existing != null){
+                reusable.close();
+                reusable = existing;
+            }
+            
+            reusable.execute(context);
+            return null;
+        }
+        
+        try {
+            reusable.execute(context);
+        }
+        finally {
+            if(reuse == ExecutorReuse.POOLED){
+                this.giveBack(resolved, reusable);
+            }
+            else {
+                reusable.close();
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Tracks the stage of fire in flight until it is settled (completed or failed)
+     * 
+     * @param executionId The job execution id
+     * @param stage The stage of fire
+     */
+    public void track(String executionId, CompletionStage<?> stage){
+        
+        if(executionId == null || stage == null){
+            return;
+        }
+        
+        var settled = stage.handle((value, error) -> (Void) null).toCompletableFuture();
+        
+        // join with other fires of execution in flight
+        var merged = this.inflight.merge(executionId, settled, (current, next) -> CompletableFuture.allOf(current, next));
+        
+        // forget once settled unless joined meanwhile
+        merged.whenComplete((value, error) -> this.inflight.remove(executionId, merged));
+    }
+    
+    /**
+     * Runs the action once the fires of execution in flight are settled (at once if nothing is in flight)
+     * 
+     * @param executionId The job execution id
+     * @param action The action to run
+     */
+    public void whenSettled(String executionId, Runnable action){
+        
+        var settled = executionId == null ? null : this.inflight.get(executionId);
+        
+        if(settled == null){
+            action.run();
+            return;
+        }
+        
+        settled.whenComplete((value, error) -> action.run());
+    }
+    
+    /**
+     * Evicts the singleton executor of job execution
+     * 
+     * @param executionId The job execution id
+     */
+    public void evict(String executionId){
+        
+        if(executionId == null){
+            return;
+        }
+        
+        var singleton = this.singletons.remove(executionId);
+        
+        if(singleton != null){
+            singleton.close();
+        }
+    }
+    
+    /**
+     * Closes all the cached executors and stops dedicated pools of bulkheads
+     */
+    public void clear(){
+        
+        this.factory.getBulkheads().forEach(Bulkhead::shutdown);
+        
+        this.singletons.keySet().forEach(this::evict);
+        
+        this.types.values().forEach(resolved -> {
+            
+            var idle = resolved.borrow();
+            
+            while(idle != null){
+                idle.close();
+                idle = resolved.borrow();
+            }
+        });
+    }
+    
+    /**
+     * Gets the quartz listener evicting singletons of deleted jobs
+     * 
+     * @return Returns scheduler listener
+     */
+    public SchedulerListenerSupport evictionListener(){
+        return new EvictionListener();
+    }
+    
+    /**
+     * Returns the pooled executor or closes it if pool is full
+     * 
+     * @param resolved The resolved type
+     * @param executor The executor
+     */
+    protected void giveBack(ResolvedType resolved, ReusableJobExecutor executor){
+        if(!resolved.offer(executor, this.poolSize)){
+            executor.close();
+        }
+    }
+    
+    /**
+     * The resolved job type
+     */
+    public static class ResolvedType {
+        
+        /**
+         * The executor supplier
+         */
+        private final Function<JobExecutorContext, JobExecutor> supplier;
+        
+        /**
+         * The modules of job type
+         */
+        private final Map<String, Object> modules;
+        
+        /**
+         * The idle pooled executors
+         */
+        private final ConcurrentLinkedDeque<ReusableJobExecutor> idle;
+        
+        /**
+         * The number of idle pooled executors
+         */
+        private final AtomicInteger idleCount;
+        
+        /**
+         * Creates new resolved type
+         * 
+         * @param supplier The executor supplier
+         * @param modules The modules of job type
+         */
+        public ResolvedType(Function<JobExecutorContext, JobExecutor> supplier, Map<String, Object> modules){
+            this.supplier = supplier;
+            this.modules = modules;
+            this.idle = new ConcurrentLinkedDeque<>();
+            this.idleCount = new AtomicInteger();
+        }
+        
+        /**
+         * Gets the executor supplier
+         * 
+         * @return Returns supplier
+         */
+        public Function<JobExecutorContext, JobExecutor> getSupplier(){
+            return this.supplier;
+        }
+        
+        /**
+         * Gets the modules of job type
+         * 
+         * @return Returns modules
+         */
+        public Map<String, Object> getModules(){
+            return this.modules;
+        }
+        
+        /**
+         * Borrows the idle executor
+         * 
+         * @return Returns executor or null
+         */
+        protected ReusableJobExecutor borrow(){
+            
+            var executor = this.idle.pollFirst();
+            
+            if(executor != null){
+                this.idleCount.decrementAndGet();
+            }
+            
+            return executor;
+        }
+        
+        /**
+         * Offers the executor to pool
+         * 
+         * @param executor The executor
+         * @param limit The maximum number of idle executors
+         * @return Returns false if pool is full
+         */
+        protected boolean offer(ReusableJobExecutor executor, int limit){
+            
+            if(this.idleCount.incrementAndGet() > limit){
+                this.idleCount.decrementAndGet();
+                return false;
+            }
+            
+            this.idle.offerFirst(executor);
+            
+            return true;
+        }
+    }
+    
+    /**
+     * The listener evicting singletons of deleted quartz jobs
+     */
+    protected class EvictionListener extends SchedulerListenerSupport {
+        
+        /**
+         * The job is deleted (also when non-durable job has no triggers left)
+         * 
+         * @param jobKey The job key
+         */
+        @Override
+        public void jobDeleted(JobKey jobKey) {
+            
+            // shared schedules are not executions
+            if(JobConstants.MULTIPLEX_GROUP.equals(jobKey.getGroup())){
+                return;
+            }
+            
+            // queued or asynchronous fires may still use the singleton
+            whenSettled(jobKey.getName(), () -> evict(jobKey.getName()));
+        }
+        
+        /**
+         * The scheduler shutdown
+         */
+        @Override
+        public void schedulerShutdown() {
+            clear();
+        }
+    }
+}
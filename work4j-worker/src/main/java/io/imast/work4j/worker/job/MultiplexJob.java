@@ -0,0 +1,37 @@
+package io.imast.work4j.worker.job;
+
+import io.imast.work4j.worker.JobConstants;
+import io.imast.work4j.worker.instance.TriggerMultiplexer;
+import io.vavr.control.Try;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+
+/**
+ * The quartz job of shared schedule, fans the fire out to member executions
+ * 
+ * @author davitp
+ */
+public class MultiplexJob implements Job {
+
+    /**
+     * Dispatch the members of fired schedule
+     * 
+     * @param context The execution context
+     * @throws JobExecutionException Throws if something went wrong
+     */
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        
+        // the multiplexer from scheduler context
+        var multiplexer = Try.of(() -> (TriggerMultiplexer) context.getScheduler().getContext().get(JobConstants.TRIGGER_MULTIPLEXER)).getOrNull();
+        
+        // nothing to do without multiplexer
+        if(multiplexer == null){
+            throw new JobExecutionException("Trigger multiplexer is missing");
+        }
+        
+        // the schedule is the job name
+        multiplexer.dispatch(context.getJobDetail().getKey().getName());
+    }
+}
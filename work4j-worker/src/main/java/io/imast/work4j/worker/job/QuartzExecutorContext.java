@@ -1,5 +1,6 @@
 package io.imast.work4j.worker.job;
 
+import io.imast.core.Lang;
 import io.imast.work4j.execution.JobExecutorContext;
 import io.imast.work4j.worker.JobConstants;
 import java.util.HashMap;
@@ -18,13 +19,29 @@ public class QuartzExecutorContext implements JobExecutorContext {
      */
     private final JobExecutionContext context;
     
+    /**
+     * The resolved modules of job type (read from scheduler context if missing)
+     */
+    private final Map<String, Object> modules;
+    
     /**
      * Creates new quartz executor context
      * 
      * @param context The inner-quartz context
      */
     public QuartzExecutorContext(JobExecutionContext context){
+        this(context, null);
+    }
+    
+    /**
+     * Creates new quartz executor context
+     * 
+     * @param context The inner-quartz context
+     * @param modules The resolved modules of job type
+     */
+    public QuartzExecutorContext(JobExecutionContext context, Map<String, Object> modules){
         this.context = context;
+        this.modules = modules;
     }
     
     /**
@@ -87,7 +104,11 @@ public class QuartzExecutorContext implements JobExecutorContext {
      */
     @Override
     public <T> T getModuleOr(String key, T defaultValue){
-        return JobOps.getContextModule(key, this.getType(), this.context);
+        
+        // the module from resolved or scheduler context modules
+        T module = this.modules != null ? Lang.safeCast(this.modules.get(key)) : JobOps.getContextModule(key, this.getType(), this.context);
+        
+        return module == null ? defaultValue : module;
     }
     
     /**
@@ -2,7 +2,10 @@ package io.imast.work4j.worker.job;
 
 import io.imast.core.Str;
 import io.imast.work4j.execution.JobExecutorException;
+import io.imast.work4j.worker.JobConstants;
+import io.imast.work4j.worker.instance.WorkerThreadPool;
 import io.vavr.control.Try;
+import java.util.concurrent.CompletionStage;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
@@ -14,6 +17,27 @@ import org.quartz.JobExecutionException;
  */
 public class QuartzExecutorJob implements Job {
 
+    /**
+     * The executor cache (read from scheduler context if missing)
+     */
+    protected final ExecutorCache executors;
+    
+    /**
+     * Creates new quartz executor job (for quartz job factories)
+     */
+    public QuartzExecutorJob(){
+        this(null);
+    }
+    
+    /**
+     * Creates new quartz executor job
+     * 
+     * @param executors The executor cache
+     */
+    public QuartzExecutorJob(ExecutorCache executors){
+        this.executors = executors;
+    }
+    
     /**
      * Create and invoke corresponding executor by type 
      * 
@@ -23,43 +47,48 @@ public class QuartzExecutorJob implements Job {
     @Override
     public void execute(JobExecutionContext context) throws JobExecutionException {
         
-        // wrap context into an abstract type
-        var executorContext = new QuartzExecutorContext(context);
+        // the executor cache
+        var cache = this.executors != null ? this.executors : Try.of(() -> (ExecutorCache) context.getScheduler().getContext().get(JobConstants.EXECUTOR_CACHE)).getOrNull();
+        
+        // no cache, something went wrong
+        if(cache == null){
+            throw new JobExecutionException("The executor cache is missing");
+        }
         
         // try get type
-        var type = executorContext.getType();
+        var type = JobOps.<String>getValue(context.getJobDetail().getJobDataMap(), JobConstants.PAYLOAD_JOB_TYPE);
         
         // nothing to do without type
         if(Str.blank(type)){
             throw new JobExecutionException("Type is missing");
         }
         
-        // try get supplier
-        var supplier = JobOps.getExecutor(type, context);
+        // wrap context into an abstract type with resolved modules
+        var executorContext = new QuartzExecutorContext(context, cache.getModules(type));
         
-        // could not find supplier, something went wrong
-        if(supplier == null){
-            throw new JobExecutionException("The requested job type is not supporeted");
+        // try execute job and report otherwise
+        CompletionStage<?> stage;
+        try {
+            stage = cache.execute(executorContext.getExecutionId(), type, executorContext, context.get(JobConstants.BULKHEAD_ADMITTED) != null, context.getTrigger().getPriority());
+        } catch (JobExecutorException ex) {
+            throw new JobExecutionException("Error while executing the job instance", ex);
         }
         
-        // create new instance using supplier
-        var tryInstance = Try.of(() -> supplier.apply(executorContext));
-        
-        // could not create instance from supplier, almost not possible 
-        if(!tryInstance.isSuccess()){
-            throw new JobExecutionException("Unable to create an executor from given supplier", tryInstance.getCause());
+        // nothing in flight
+        if(stage == null){
+            return;
         }
         
-        // could not create instance from supplier, almost not possible 
-        if(tryInstance.get() == null){
-            throw new JobExecutionException("Supplier of executor returned null. Cannot execute...");
+        // the pool permit is held until done unless bulkhead of type limits the fires in flight
+        if(cache.getBulkhead(type) == null){
+            var release = WorkerThreadPool.detachPermit();
+            stage = stage.whenComplete((value, error) -> release.run());
         }
         
-        // try execute job and report otherwise
-        try {
-            tryInstance.get().execute();
-        } catch (JobExecutorException ex) {
-            throw new JobExecutionException("Error while executing the job instance", ex);
-        }
+        // the execution is completed (and its singleton evicted) only after the stage is done
+        cache.track(executorContext.getExecutionId(), stage);
+        
+        // asynchronous or queued job is reported by listener when done
+        context.put(JobConstants.ASYNC_STAGE, stage);
     }   
 }
@@ -0,0 +1,52 @@
+package io.imast.work4j.worker.job;
+
+import org.quartz.Job;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.simpl.SimpleJobFactory;
+import org.quartz.spi.TriggerFiredBundle;
+
+/**
+ * The quartz job factory of worker
+ * 
+ * Creates executor jobs directly with the executor cache, so a fire neither instantiates the job by
+ * reflection nor copies the data map into bean properties nor reads the scheduler context. Other job
+ * classes are created by the simple quartz factory.
+ * 
+ * @author davitp
+ */
+public class WorkerJobFactory extends SimpleJobFactory {
+    
+    /**
+     * The executor cache
+     */
+    protected final ExecutorCache executors;
+    
+    /**
+     * Creates new worker job factory
+     * 
+     * @param executors The executor cache
+     */
+    public WorkerJobFactory(ExecutorCache executors){
+        this.executors = executors;
+    }
+    
+    /**
+     * Creates the job instance of fired trigger
+     * 
+     * @param bundle The fired bundle
+     * @param scheduler The scheduler
+     * @return Returns job instance
+     * @throws SchedulerException 
+     */
+    @Override
+    public Job newJob(TriggerFiredBundle bundle, Scheduler scheduler) throws SchedulerException {
+        
+        // executor jobs share the cache
+        if(bundle.getJobDetail().getJobClass() == QuartzExecutorJob.class){
+            return new QuartzExecutorJob(this.executors);
+        }
+        
+        return super.newJob(bundle, scheduler);
+    }
+}
@@ -0,0 +1,477 @@
+package io.imast.work4j.worker.spool;
+
+import io.imast.work4j.worker.WorkerException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The append-only, memory-mapped and segmented journal of worker reports
+ * 
+ * Each segment is a preallocated file of fixed size holding records as [length][crc32][kind][payload]. 
+ * A zero length marks the end of written data. The reading position is persisted in a checkpoint file 
+ * so reports survive restarts (delivery is at-least-once).
+ * 
+ * @author davitp
+ */
+@Slf4j
+public class ReportSpool implements AutoCloseable {
+    
+    /**
+     * The record header size (length, crc and kind)
+     */
+    private static final int HEADER = 9;
+    
+    /**
+     * The segment file prefix
+     */
+    private static final String SEGMENT_PREFIX = "spool-";
+    
+    /**
+     * The segment file suffix
+     */
+    private static final String SEGMENT_SUFFIX = ".log";
+    
+    /**
+     * The checkpoint file name
+     */
+    private static final String CHECKPOINT = "spool.checkpoint";
+    
+    /**
+     * The spool directory
+     */
+    protected final Path directory;
+    
+    /**
+     * The size of segment
+     */
+    protected final int segmentSize;
+    
+    /**
+     * The maximum number of segments on disk
+     */
+    protected final int maxSegments;
+    
+    /**
+     * The mapped segments by sequence
+     */
+    protected final TreeMap<Long, MappedByteBuffer> segments;
+    
+    /**
+     * The checkpoint file
+     */
+    protected final RandomAccessFile checkpoint;
+    
+    /**
+     * The sequence of segment being written
+     */
+    protected volatile long writeSegment;
+    
+    /**
+     * The published write position within segment
+     */
+    protected volatile int writeOffset;
+    
+    /**
+     * The sequence of segment being read
+     */
+    protected long readSegment;
+    
+    /**
+     * The read position within segment
+     */
+    protected int readOffset;
+    
+    /**
+     * Opens the spool in the given directory (recovering existing segments)
+     * 
+     * @param directory The spool directory
+     * @param segmentSize The size of segment in bytes
+     * @param maxSegments The maximum number of segments on disk
+     * @throws WorkerException
+     */
+    public ReportSpool(Path directory, int segmentSize, int maxSegments) throws WorkerException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.segments = new TreeMap<>();
+        
+        try{
+            Files.createDirectories(directory);
+            
+            // map existing segments
+            for(var sequence : this.existingSegments()){
+                this.segments.put(sequence, this.map(sequence));
+            }
+            
+            // start with the first segment if nothing is there
+            if(this.segments.isEmpty()){
+                this.segments.put(0L, this.map(0L));
+            }
+            
+            // recover the write position as the end of valid records in last segment
+            this.writeSegment = this.segments.lastKey();
+            this.writeOffset = this.scanEnd(this.segments.lastEntry().getValue());
+            
+            // recover the read position from checkpoint
+            this.checkpoint = new RandomAccessFile(directory.resolve(CHECKPOINT).toFile(), "rw");
+            this.loadCheckpoint();
+        }
+        catch(IOException error){
+            throw new WorkerException("Could not open report spool", error);
+        }
+    }
+    
+    /**
+     * Appends the record to the spool (never blocks on network)
+     * 
+     * @param kind The record kind
+     * @param payload The record payload
+     * @return Returns false if spool is full
+     */
+    public synchronized boolean append(byte kind, byte[] payload){
+        
+        // the record size
+        var size = HEADER + payload.length;
+        
+        // record can never fit into the segment
+        if(size + 4 > this.segmentSize){
+            throw new IllegalArgumentException("The report is larger than spool segment");
+        }
+        
+        // roll to the next segment if record does not fit (keep space for end marker)
+        if(this.writeOffset + size + 4 > this.segmentSize){
+            
+            // spool is full
+            if(this.segments.size() >= this.maxSegments){
+                return false;
+            }
+            
+            try{
+                var next = this.writeSegment + 1;
+                this.segments.put(next, this.map(next));
+                this.writeSegment = next;
+                this.writeOffset = 0;
+            }
+            catch(IOException error){
+                log.error("ReportSpool: Could not create spool segment", error);
+                return false;
+            }
+        }
+        
+        // the crc of record
+        var crc = new CRC32();
+        crc.update(kind);
+        crc.update(payload);
+        
+        // write the record body first and then length to publish it
+        var buffer = this.segments.get(this.writeSegment).duplicate();
+        buffer.position(this.writeOffset + 4);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(kind);
+        buffer.put(payload);
+        buffer.putInt(this.writeOffset, payload.length);
+        
+        this.writeOffset += size;
+        
+        return true;
+    }
+    
+    /**
+     * Reads the next records after the read position (does not advance it)
+     * 
+     * @param max The maximum number of records
+     * @return Returns records
+     */
+    public List<SpoolRecord> peek(int max){
+        
+        // the result
+        var result = new ArrayList<SpoolRecord>();
+        
+        // the cursor
+        var segment = this.readSegment;
+        var offset = this.readOffset;
+        
+        synchronized(this){
+            
+            while(result.size() < max){
+                
+                // the published end of segment
+                var end = segment == this.writeSegment ? this.writeOffset : this.segmentSize;
+                var buffer = this.segments.get(segment);
+                
+                // the length of next record
+                var length = buffer == null || offset + HEADER > end ? 0 : buffer.getInt(offset);
+                
+                // end of segment, move to the next one if any
+                if(length <= 0){
+                    
+                    if(segment >= this.writeSegment){
+                        break;
+                    }
+                    
+                    segment++;
+                    offset = 0;
+                    continue;
+                }
+                
+                // read record
+                var view = buffer.duplicate();
+                view.position(offset + 4);
+                
+                var crc = view.getInt();
+                var kind = view.get();
+                var payload = new byte[length];
+                view.get(payload);
+                
+                // validate record
+                var check = new CRC32();
+                check.update(kind);
+                check.update(payload);
+                
+                if((int) check.getValue() == crc){
+                    result.add(new SpoolRecord(kind, payload));
+                }
+                else{
+                    log.warn("ReportSpool: Skipping corrupted record in segment {} at {}", segment, offset);
+                }
+                
+                offset += HEADER + length;
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Advances the read position by the given number of records and persists checkpoint
+     * 
+     * @param count The number of consumed records
+     */
+    public synchronized void commit(int count){
+        
+        for(var i = 0; i < count; ){
+            
+            // the published end of segment
+            var end = this.readSegment == this.writeSegment ? this.writeOffset : this.segmentSize;
+            var buffer = this.segments.get(this.readSegment);
+            var length = buffer == null || this.readOffset + HEADER > end ? 0 : buffer.getInt(this.readOffset);
+            
+            // move to the next segment and drop the consumed one
+            if(length <= 0){
+                
+                if(this.readSegment >= this.writeSegment){
+                    break;
+                }
+                
+                this.release(this.readSegment);
+                this.readSegment++;
+                this.readOffset = 0;
+                continue;
+            }
+            
+            this.readOffset += HEADER + length;
+            i++;
+        }
+        
+        this.saveCheckpoint();
+    }
+    
+    /**
+     * Checks if there are unread records
+     * 
+     * @return Returns true if spool is empty
+     */
+    public synchronized boolean isEmpty(){
+        return this.readSegment == this.writeSegment && this.readOffset >= this.writeOffset;
+    }
+    
+    /**
+     * Forces the written data to storage
+     */
+    public synchronized void force(){
+        this.segments.values().forEach(MappedByteBuffer::force);
+    }
+    
+    /**
+     * Closes the spool
+     */
+    @Override
+    public synchronized void close() {
+        try{
+            this.force();
+            this.saveCheckpoint();
+            this.checkpoint.getFD().sync();
+            this.checkpoint.close();
+        }
+        catch(IOException error){
+            log.error("ReportSpool: Could not close spool", error);
+        }
+    }
+    
+    /**
+     * Maps the segment file
+     * 
+     * @param sequence The segment sequence
+     * @return Returns mapped buffer
+     * @throws IOException 
+     */
+    protected MappedByteBuffer map(long sequence) throws IOException {
+        try(var channel = FileChannel.open(this.segmentPath(sequence), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)){
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, this.segmentSize);
+        }
+    }
+    
+    /**
+     * Releases and deletes the consumed segment
+     * 
+     * @param sequence The segment sequence
+     */
+    protected void release(long sequence){
+        
+        // never delete the segment being written
+        if(sequence >= this.writeSegment){
+            return;
+        }
+        
+        this.segments.remove(sequence);
+        
+        try{
+            Files.deleteIfExists(this.segmentPath(sequence));
+        }
+        catch(IOException error){
+            log.warn("ReportSpool: Could not delete consumed segment {}", sequence);
+        }
+    }
+    
+    /**
+     * Finds the end of valid records in the segment
+     * 
+     * @param buffer The segment buffer
+     * @return Returns end offset
+     */
+    protected int scanEnd(ByteBuffer buffer){
+        
+        var offset = 0;
+        
+        while(offset + HEADER + 4 <= this.segmentSize){
+            
+            var length = buffer.getInt(offset);
+            
+            // end of data or garbage
+            if(length <= 0 || offset + HEADER + length + 4 > this.segmentSize){
+                break;
+            }
+            
+            // validate record to detect torn writes
+            var view = buffer.duplicate();
+            view.position(offset + 4);
+            
+            var crc = view.getInt();
+            var kind = view.get();
+            var payload = new byte[length];
+            view.get(payload);
+            
+            var check = new CRC32();
+            check.update(kind);
+            check.update(payload);
+            
+            if((int) check.getValue() != crc){
+                break;
+            }
+            
+            offset += HEADER + length;
+        }
+        
+        // clear the torn tail marker so new records start cleanly
+        if(offset + 4 <= this.segmentSize){
+            buffer.putInt(offset, 0);
+        }
+        
+        return offset;
+    }
+    
+    /**
+     * Loads the read position from checkpoint
+     * 
+     * @throws IOException 
+     */
+    protected void loadCheckpoint() throws IOException {
+        
+        // default is the beginning of the oldest segment
+        this.readSegment = this.segments.firstKey();
+        this.readOffset = 0;
+        
+        // no checkpoint yet
+        if(this.checkpoint.length() < 12){
+            return;
+        }
+        
+        this.checkpoint.seek(0);
+        
+        var segment = this.checkpoint.readLong();
+        var offset = this.checkpoint.readInt();
+        
+        // use checkpoint only if it points to existing data
+        if(this.segments.containsKey(segment) && offset >= 0 && (segment < this.writeSegment || offset <= this.writeOffset)){
+            this.readSegment = segment;
+            this.readOffset = offset;
+        }
+        
+        // drop fully consumed older segments
+        for(var sequence : new ArrayList<>(this.segments.headMap(this.readSegment).keySet())){
+            this.release(sequence);
+        }
+    }
+    
+    /**
+     * Persists the read position
+     */
+    protected void saveCheckpoint(){
+        try{
+            this.checkpoint.seek(0);
+            this.checkpoint.writeLong(this.readSegment);
+            this.checkpoint.writeInt(this.readOffset);
+        }
+        catch(IOException error){
+            log.error("ReportSpool: Could not save spool checkpoint", error);
+        }
+    }
+    
+    /**
+     * Gets the existing segment sequences
+     * 
+     * @return Returns sorted sequences
+     * @throws IOException 
+     */
+    protected List<Long> existingSegments() throws IOException {
+        try(var files = Files.list(this.directory)){
+            return files.map(p -> p.getFileName().toString())
+                    .filter(n -> n.startsWith(SEGMENT_PREFIX) && n.endsWith(SEGMENT_SUFFIX))
+                    .map(n -> Long.parseLong(n.substring(SEGMENT_PREFIX.length(), n.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+    
+    /**
+     * Gets the path of segment
+     * 
+     * @param sequence The segment sequence
+     * @return Returns segment path
+     */
+    protected Path segmentPath(long sequence){
+        return this.directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+}
@@ -0,0 +1,72 @@
+package io.imast.work4j.worker.spool;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The options of disk-backed report spool
+ * 
+ * @author davitp
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SpoolOptions {
+    
+    /**
+     * The spool directory
+     */
+    private String directory;
+    
+    /**
+     * The size of a single segment file in bytes
+     */
+    @Builder.Default
+    private int segmentSize = 16 * 1024 * 1024;
+    
+    /**
+     * The maximum number of segments on disk (reports are rejected when reached)
+     */
+    @Builder.Default
+    private int maxSegments = 64;
+    
+    /**
+     * The maximum number of reports replayed in a batch
+     */
+    @Builder.Default
+    private int batchSize = 100;
+    
+    /**
+     * The delay between replays when spool is empty
+     */
+    @Builder.Default
+    private Duration replayInterval = Duration.ofMillis(200);
+    
+    /**
+     * The delay before retrying replay after failure
+     */
+    @Builder.Default
+    private Duration retryDelay = Duration.ofSeconds(5);
+    
+    /**
+     * The timeout of a single replay request
+     */
+    @Builder.Default
+    private Duration requestTimeout = Duration.ofSeconds(30);
+    
+    /**
+     * The interval of forcing spool data to storage
+     */
+    @Builder.Default
+    private Duration flushInterval = Duration.ofSeconds(1);
+    
+    /**
+     * The number of times a report refused by controller is replayed before it is dead-lettered
+     */
+    @Builder.Default
+    private int maxAttempts = 10;
+}
@@ -0,0 +1,24 @@
+package io.imast.work4j.worker.spool;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The record read from the spool
+ * 
+ * @author davitp
+ */
+@Data
+@AllArgsConstructor
+public class SpoolRecord {
+    
+    /**
+     * The kind of record
+     */
+    private byte kind;
+    
+    /**
+     * The record payload
+     */
+    private byte[] payload;
+}
@@ -0,0 +1,482 @@
+package io.imast.work4j.worker.spool;
+
+import io.imast.core.json.Json;
+import io.imast.work4j.channel.SchedulerChannel;
+import io.imast.work4j.channel.batch.ExecutionCompletion;
+import io.imast.work4j.channel.index.ExecutionIndexSnapshot;
+import io.imast.work4j.model.cluster.ClusterWorker;
+import io.imast.work4j.model.cluster.WorkerHeartbeat;
+import io.imast.work4j.model.cluster.WorkerJoinInput;
+import io.imast.work4j.model.execution.CompletionSeverity;
+import io.imast.work4j.model.execution.ExecutionIndexEntry;
+import io.imast.work4j.model.execution.JobExecution;
+import io.imast.work4j.model.iterate.Iteration;
+import io.imast.work4j.model.iterate.IterationInput;
+import io.imast.work4j.model.iterate.IterationReceipt;
+import io.imast.work4j.worker.WorkerException;
+import io.vavr.control.Try;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The scheduler channel decorator that spools iteration and completion reports on disk
+ * 
+ * Reports are appended to a memory-mapped journal and acknowledged immediately, so quartz 
+ * threads never wait for the controller. A background replayer drains the journal in batches 
+ * while controller is reachable and keeps the reports on disk during outages and restarts.
+ * 
+ * A report the controller keeps refusing (answers without confirming it, e.g. completion of deleted
+ * execution) is moved to the dead-letter file of spool directory after the maximum number of attempts,
+ * so it does not block the reports behind it. Reports that cannot be decoded are dead-lettered at once.
+ * 
+ * @author davitp
+ */
+@Slf4j
+public class SpoolingSchedulerChannel implements SchedulerChannel, AutoCloseable {
+    
+    /**
+     * The iteration record kind
+     */
+    private static final byte ITERATION = 1;
+    
+    /**
+     * The completion record kind
+     */
+    private static final byte COMPLETION = 2;
+    
+    /**
+     * The dead-letter file name
+     */
+    private static final String DEAD_LETTER = "dead-letter.log";
+    
+    /**
+     * The target channel
+     */
+    protected final SchedulerChannel channel;
+    
+    /**
+     * The spool options
+     */
+    protected final SpoolOptions options;
+    
+    /**
+     * The report spool
+     */
+    protected final ReportSpool spool;
+    
+    /**
+     * The replaying executor
+     */
+    protected final ScheduledExecutorService replayer;
+    
+    /**
+     * Indicates if channel is closed
+     */
+    protected volatile boolean closed;
+    
+    /**
+     * The number of times the head report was refused by controller (replayer thread only)
+     */
+    protected int headAttempts;
+    
+    /**
+     * Creates new instance of spooling scheduler channel
+     * 
+     * @param channel The target channel
+     * @param options The spool options
+     * @throws WorkerException
+     */
+    public SpoolingSchedulerChannel(SchedulerChannel channel, SpoolOptions options) throws WorkerException {
+        this.channel = channel;
+        this.options = options;
+        this.spool = new ReportSpool(Path.of(options.getDirectory()), options.getSegmentSize(), options.getMaxSegments());
+        this.replayer = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "work4j-report-spool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        // start replaying and periodic flushing
+        this.replayer.schedule(this::replay, 0, TimeUnit.MILLISECONDS);
+        this.replayer.scheduleWithFixedDelay(this.spool::force, options.getFlushInterval().toMillis(), options.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Pull job groups for the given cluster
+     * 
+     * @param cluster The target cluster
+     * @return Returns execution index entries
+     */
+    @Override
+    public Mono<List<ExecutionIndexEntry>> executionIndex(String cluster) {
+        return this.channel.executionIndex(cluster);
+    }
+    
+    /**
+     * Pull job groups the given worker is able to run (by types and labels)
+     * 
+     * @param cluster The target cluster
+     * @param worker The registered worker name
+     * @return Returns execution index entries
+     */
+    @Override
+    public Mono<List<ExecutionIndexEntry>> executionIndex(String cluster, String worker) {
+        return this.channel.executionIndex(cluster, worker);
+    }
+    
+    /**
+     * Pull versioned job groups the given worker is able to run (not modified if version matches)
+     * 
+     * @param cluster The target cluster
+     * @param worker The registered worker name
+     * @param etag The last known index version (if any)
+     * @return Returns execution index snapshot
+     */
+    @Override
+    public Mono<ExecutionIndexSnapshot> executionIndex(String cluster, String worker, String etag) {
+        return this.channel.executionIndex(cluster, worker, etag);
+    }
+    
+    /**
+     * Exchange current status with modified entries
+     * 
+     * @param ids The executions request ids
+     * @return Returns executions response
+     */
+    @Override
+    public Mono<List<JobExecution>> executions(List<String> ids) {
+        return this.channel.executions(ids);
+    }
+    
+    /**
+     * Streams the executions by identifiers loading chunks on demand with bounded concurrency
+     * 
+     * @param ids The executions request ids
+     * @param chunkSize The number of executions to load in a single request
+     * @param concurrency The maximum number of chunk requests in flight
+     * @return Returns stream of executions
+     */
+    @Override
+    public Flux<JobExecution> executionStream(List<String> ids, int chunkSize, int concurrency) {
+        return this.channel.executionStream(ids, chunkSize, concurrency);
+    }
+    
+    /**
+     * Spools the completion of job execution (result is not available)
+     * 
+     * @param id The identifier of job execution
+     * @param severity The severity of completion
+     * @return Returns empty result
+     */
+    @Override
+    public Mono<JobExecution> complete(String id, CompletionSeverity severity) {
+        return this.append(COMPLETION, new ExecutionCompletion(id, severity));
+    }
+    
+    /**
+     * Spools iteration information (result is not available)
+     * 
+     * @param iteration The iteration to register
+     * @return Returns empty result
+     */
+    @Override
+    public Mono<Iteration> iterate(IterationInput iteration) {
+        return this.append(ITERATION, iteration);
+    }
+    
+    /**
+     * Spools iteration information (receipt is not available)
+     * 
+     * @param iteration The iteration to register
+     * @return Returns empty result
+     */
+    @Override
+    public Mono<IterationReceipt> submit(IterationInput iteration) {
+        return this.append(ITERATION, iteration);
+    }
+    
+    /**
+     * Registers worker into the scheduler
+     * 
+     * @param input The worker input to register
+     * @return Returns registered worker
+     */
+    @Override
+    public Mono<ClusterWorker> registration(WorkerJoinInput input) {
+        return this.channel.registration(input);
+    }
+    
+    /**
+     * Send a Heartbeat signal to from worker scheduler
+     * 
+     * @param heartbeat The worker reported heartbeat
+     * @return Returns updated agent definition
+     */
+    @Override
+    public Mono<ClusterWorker> heartbeat(WorkerHeartbeat heartbeat) {
+        return this.channel.heartbeat(heartbeat);
+    }
+    
+    /**
+     * Stops replaying, persists the spool and closes the target channel if closeable
+     */
+    @Override
+    public void close() {
+        
+        // already closed
+        if(this.closed){
+            return;
+        }
+        
+        this.closed = true;
+        
+        // stop replayer and wait for the batch in progress
+        this.replayer.shutdownNow();
+        Try.of(() -> this.replayer.awaitTermination(this.options.getRequestTimeout().toMillis(), TimeUnit.MILLISECONDS));
+        
+        // persist spool
+        this.spool.close();
+        
+        // close target channel
+        if(this.channel instanceof AutoCloseable){
+            Try.run(() -> ((AutoCloseable) this.channel).close());
+        }
+    }
+    
+    /**
+     * Appends the report to spool
+     * 
+     * @param <T> The type of result
+     * @param kind The record kind
+     * @param report The report object
+     * @return Returns empty result or error if spool is full
+     */
+    protected <T> Mono<T> append(byte kind, Object report){
+        
+        // channel is closed
+        if(this.closed){
+            return Mono.error(new WorkerException("Report spool is closed"));
+        }
+        
+        // try append
+        var appended = Try.of(() -> this.spool.append(kind, Json.to(report).getBytes(StandardCharsets.UTF_8)));
+        
+        // could not serialize or write
+        if(appended.isFailure()){
+            log.error("SpoolingSchedulerChannel: Could not spool report", appended.getCause());
+            return Mono.error(appended.getCause());
+        }
+        
+        // spool is full
+        if(!appended.get()){
+            log.warn("SpoolingSchedulerChannel: Report spool is full, dropping report");
+            return Mono.error(new WorkerException("Report spool is full"));
+        }
+        
+        return Mono.empty();
+    }
+    
+    /**
+     * Replays the next batch of spooled reports and reschedules itself
+     */
+    protected void replay(){
+        
+        // the delay of next replay
+        var delay = this.options.getReplayInterval().toMillis();
+        
+        try{
+            
+            // the next records
+            var records = this.spool.peek(this.options.getBatchSize());
+            
+            // take leading records of same kind
+            var count = 0;
+            while(count < records.size() && records.get(count).getKind() == records.get(0).getKind()){
+                count++;
+            }
+            
+            if(count > 0){
+                
+                var kind = records.get(0).getKind();
+                
+                // decode the leading records (the first one that can not be decoded ends the batch)
+                var reports = new ArrayList<Object>();
+                
+                for(var record : records.subList(0, count)){
+                    
+                    var decoded = this.decode(kind, record);
+                    
+                    if(decoded == null){
+                        break;
+                    }
+                    
+                    reports.add(decoded);
+                }
+                
+                // the head can never be delivered
+                if(reports.isEmpty()){
+                    this.deadLetter(records.get(0), "could not be decoded");
+                    delay = 0;
+                }
+                else {
+                    delay = this.deliver(kind, reports);
+                }
+            }
+        }
+        catch(Throwable error){
+            log.error("SpoolingSchedulerChannel: Could not replay spooled reports", error);
+            delay = this.options.getRetryDelay().toMillis();
+        }
+        
+        // schedule the next replay
+        if(!this.closed){
+            var next = delay;
+            Try.run(() -> this.replayer.schedule(this::replay, next, TimeUnit.MILLISECONDS));
+        }
+    }
+    
+    /**
+     * Delivers the decoded reports and commits the confirmed prefix
+     * 
+     * @param kind The kind of reports
+     * @param reports The decoded reports
+     * @return Returns the delay of next replay
+     */
+    protected long deliver(byte kind, List<Object> reports){
+        
+        var confirmed = this.send(kind, reports);
+        
+        // not answered (controller unreachable or failed), keep everything
+        if(confirmed < 0){
+            return this.options.getRetryDelay().toMillis();
+        }
+        
+        if(confirmed > 0){
+            this.spool.commit(confirmed);
+            this.headAttempts = 0;
+        }
+        
+        if(confirmed == reports.size()){
+            return 0;
+        }
+        
+        // the head was answered but not confirmed, give up on it after the maximum attempts
+        if(confirmed == 0 && ++this.headAttempts >= this.options.getMaxAttempts()){
+            this.deadLetter(this.spool.peek(1).get(0), String.format("was not confirmed after %s attempts", this.headAttempts));
+            return 0;
+        }
+        
+        return this.options.getRetryDelay().toMillis();
+    }
+    
+    /**
+     * Decodes the spooled record
+     * 
+     * @param kind The kind of record
+     * @param record The spooled record
+     * @return Returns the report or null if can not be decoded
+     */
+    protected Object decode(byte kind, SpoolRecord record){
+        
+        var json = new String(record.getPayload(), StandardCharsets.UTF_8);
+        
+        var decoded = Try.of(() -> {
+            
+            if(kind == ITERATION){
+                return (Object) Json.from(json, IterationInput.class);
+            }
+            
+            if(kind == COMPLETION){
+                return (Object) Json.from(json, ExecutionCompletion.class);
+            }
+            
+            return null;
+        });
+        
+        return decoded.isSuccess() ? decoded.get() : null;
+    }
+    
+    /**
+     * Moves the head record out of spool into dead-letter file
+     * 
+     * @param record The head record
+     * @param reason The reason of dead-lettering
+     */
+    protected void deadLetter(SpoolRecord record, String reason){
+        
+        log.error("SpoolingSchedulerChannel: Spooled report of kind {} {}, moving to dead-letter file", record.getKind(), reason);
+        
+        // the line of dead-letter file: kind and payload (raw line breaks are never inside json strings)
+        var line = String.format("%s\t%s%n", record.getKind(), new String(record.getPayload(), StandardCharsets.UTF_8).replaceAll("\\s*\\R\\s*", " "));
+        
+        var written = Try.run(() -> Files.write(Path.of(this.options.getDirectory()).resolve(DEAD_LETTER), line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        
+        if(written.isFailure()){
+            log.error("SpoolingSchedulerChannel: Could not write dead-letter file, dropping report {}", line.trim(), written.getCause());
+        }
+        
+        this.spool.commit(1);
+        this.headAttempts = 0;
+    }
+    
+    /**
+     * Sends the batch of reports through the target channel
+     * 
+     * @param kind The kind of reports
+     * @param reports The batch of reports
+     * @return Returns the number of leading reports confirmed by controller or -1 if not answered
+     */
+    @SuppressWarnings("unchecked")
+    protected int send(byte kind, List<Object> reports){
+        
+        // the timeout of request
+        var timeout = this.options.getRequestTimeout();
+        
+        // deliver reports
+        var result = Try.of(() -> {
+            
+            if(kind == ITERATION){
+                return (List<?>) this.channel.iterateAll((List<IterationInput>) (List<?>) reports).block(timeout);
+            }
+            
+            return (List<?>) this.channel.completeAll((List<ExecutionCompletion>) (List<?>) reports).block(timeout);
+        });
+        
+        // not delivered, keep in spool
+        if(result.isFailure()){
+            log.warn("SpoolingSchedulerChannel: Could not deliver {} spooled reports, will retry", reports.size(), result.getCause());
+            return -1;
+        }
+        
+        // empty result (e.g. controller side failure) confirms nothing
+        var delivered = result.get();
+        
+        if(delivered == null){
+            log.warn("SpoolingSchedulerChannel: Delivery of {} spooled reports was not confirmed, will retry", reports.size());
+            return -1;
+        }
+        
+        // only the leading non-null results are confirmed
+        var confirmed = 0;
+        
+        while(confirmed < reports.size() && confirmed < delivered.size() && delivered.get(confirmed) != null){
+            confirmed++;
+        }
+        
+        if(confirmed < reports.size()){
+            log.warn("SpoolingSchedulerChannel: Only {} of {} spooled reports were confirmed, will retry the rest", confirmed, reports.size());
+        }
+        
+        return confirmed;
+    }
+}
@@ -0,0 +1,87 @@
+package io.imast.work4j.worker.wheel;
+
+import io.imast.work4j.model.execution.JobExecution;
+import io.imast.work4j.worker.instance.ExecutionKey;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The execution armed in timing wheel engine
+ * 
+ * @author davitp
+ */
+public class ArmedExecution {
+    
+    /**
+     * The execution key
+     */
+    protected final ExecutionKey key;
+    
+    /**
+     * The job execution (kept as given, no copies of payload)
+     */
+    protected final JobExecution execution;
+    
+    /**
+     * The armed triggers
+     */
+    protected ArmedTrigger[] triggers;
+    
+    /**
+     * The number of triggers that may fire again
+     */
+    protected int pending;
+    
+    /**
+     * Indicates if execution is paused
+     */
+    protected volatile boolean paused;
+    
+    /**
+     * Indicates that no trigger fires again (completed once the fires in flight are done)
+     */
+    protected volatile boolean done;
+    
+    /**
+     * The number of fires queued or running
+     */
+    protected final AtomicInteger inflight;
+    
+    /**
+     * Creates new armed execution
+     * 
+     * @param key The execution key
+     * @param execution The job execution
+     */
+    public ArmedExecution(ExecutionKey key, JobExecution execution){
+        this.key = key;
+        this.execution = execution;
+        this.inflight = new AtomicInteger();
+    }
+    
+    /**
+     * Gets the execution key
+     * 
+     * @return Returns execution key
+     */
+    public ExecutionKey getKey(){
+        return this.key;
+    }
+    
+    /**
+     * Gets the job execution
+     * 
+     * @return Returns job execution
+     */
+    public JobExecution getExecution(){
+        return this.execution;
+    }
+    
+    /**
+     * Checks if execution is paused
+     * 
+     * @return Returns true if paused
+     */
+    public boolean isPaused(){
+        return this.paused;
+    }
+}
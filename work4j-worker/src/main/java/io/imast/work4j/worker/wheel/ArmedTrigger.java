@@ -0,0 +1,154 @@
+package io.imast.work4j.worker.wheel;
+
+import io.imast.work4j.model.TriggerDefinition;
+import io.imast.work4j.worker.instance.ExecutionPriority;
+import io.imast.work4j.worker.instance.TriggerJitter;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.quartz.CronExpression;
+
+/**
+ * The trigger armed in timing wheel
+ * 
+ * Holds only what is needed to compute the next fire time, the payload is read from the
+ * trigger definition of the execution when fired.
+ * 
+ * @author davitp
+ */
+public class ArmedTrigger extends TimerEntry {
+    
+    /**
+     * The owner execution
+     */
+    protected final ArmedExecution owner;
+    
+    /**
+     * The trigger definition
+     */
+    protected final TriggerDefinition definition;
+    
+    /**
+     * The cron expression (shared between triggers with same expression)
+     */
+    protected final CronExpression cron;
+    
+    /**
+     * The period in milliseconds (zero if not periodic)
+     */
+    protected final long period;
+    
+    /**
+     * The end time in epoch milliseconds (max value if not given)
+     */
+    protected final long endAt;
+    
+    /**
+     * The priority of fires
+     */
+    protected final int priority;
+    
+    /**
+     * Indicates that the last fire is held until execution is resumed
+     */
+    protected boolean held;
+    
+    /**
+     * Indicates that the fire is waiting in dispatch queue
+     */
+    protected final AtomicBoolean queued;
+    
+    /**
+     * Creates new armed trigger
+     * 
+     * @param owner The owner execution
+     * @param definition The trigger definition
+     * @param cron The cron expression if cron trigger
+     * @param period The period if periodic trigger
+     */
+    public ArmedTrigger(ArmedExecution owner, TriggerDefinition definition, CronExpression cron, long period){
+        this.owner = owner;
+        this.definition = definition;
+        this.cron = cron;
+        this.period = period;
+        this.endAt = definition.getEndAt() == null ? Long.MAX_VALUE : definition.getEndAt().getTime();
+        this.priority = ExecutionPriority.of(owner.execution, definition);
+        this.queued = new AtomicBoolean();
+    }
+    
+    /**
+     * Computes the first fire time
+     * 
+     * @param now The current time
+     * @return Returns epoch milliseconds or negative if never fires
+     */
+    public long first(long now){
+        
+        // cron fires at first valid time at or after start
+        if(this.cron != null){
+            var start = this.definition.getStartAt() == null ? now : this.definition.getStartAt().getTime();
+            return this.bounded(this.cron.getNextValidTimeAfter(new Date(Math.max(start, now) - 1000)));
+        }
+        
+        // periodic fires are shifted by phase offset of execution (aligned to period if no start)
+        var start = this.period > 0 
+                ? TriggerJitter.start(this.owner.getExecution().getId(), this.definition, now) 
+                : (this.definition.getStartAt() == null ? now : this.definition.getStartAt().getTime());
+        
+        return start > this.endAt ? -1 : start;
+    }
+    
+    /**
+     * Computes the next fire time after the last one
+     * 
+     * @return Returns epoch milliseconds or negative if never fires again
+     */
+    public long next(){
+        
+        // cron is evaluated after last fire time
+        if(this.cron != null){
+            return this.bounded(this.cron.getNextValidTimeAfter(new Date(this.deadline)));
+        }
+        
+        // one time trigger
+        if(this.period <= 0){
+            return -1;
+        }
+        
+        var next = this.deadline + this.period;
+        
+        return next > this.endAt ? -1 : next;
+    }
+    
+    /**
+     * Gets the trigger definition
+     * 
+     * @return Returns trigger definition
+     */
+    public TriggerDefinition getDefinition(){
+        return this.definition;
+    }
+    
+    /**
+     * Gets the owner execution
+     * 
+     * @return Returns owner
+     */
+    public ArmedExecution getOwner(){
+        return this.owner;
+    }
+    
+    /**
+     * Bounds the time with end time
+     * 
+     * @param time The time
+     * @return Returns epoch milliseconds or negative
+     */
+    private long bounded(Date time){
+        
+        if(time == null || time.getTime() > this.endAt){
+            return -1;
+        }
+        
+        return time.getTime();
+    }
+}
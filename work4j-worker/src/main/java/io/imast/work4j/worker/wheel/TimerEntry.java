@@ -0,0 +1,57 @@
+package io.imast.work4j.worker.wheel;
+
+/**
+ * The entry of timing wheel (an intrusive node of bucket list)
+ * 
+ * @author davitp
+ */
+public abstract class TimerEntry {
+    
+    /**
+     * The deadline in epoch milliseconds
+     */
+    protected long deadline;
+    
+    /**
+     * The tick the entry is placed for (may be capped by wheel range)
+     */
+    protected long tick;
+    
+    /**
+     * The level of wheel (negative if not armed)
+     */
+    protected int level = -1;
+    
+    /**
+     * The slot in level
+     */
+    protected int slot;
+    
+    /**
+     * The previous entry in bucket
+     */
+    protected TimerEntry prev;
+    
+    /**
+     * The next entry in bucket
+     */
+    protected TimerEntry next;
+    
+    /**
+     * Gets the deadline in epoch milliseconds
+     * 
+     * @return Returns deadline
+     */
+    public long getDeadline(){
+        return this.deadline;
+    }
+    
+    /**
+     * Checks if entry is armed in wheel
+     * 
+     * @return Returns true if armed
+     */
+    public boolean isArmed(){
+        return this.level >= 0;
+    }
+}
@@ -0,0 +1,283 @@
+package io.imast.work4j.worker.wheel;
+
+import java.util.function.Consumer;
+
+/**
+ * The hierarchical timing wheel
+ * 
+ * Six levels of 64 buckets each, level N bucket spans 64^N ticks. An entry is linked into the bucket
+ * of the lowest level covering its distance, so insert and cancel are O(1). When a lower level wraps
+ * around, the current bucket of the upper level is cascaded down. Entries beyond the range of wheel
+ * are parked in the top level and re-inserted when cascaded. The wheel is not thread-safe.
+ * 
+ * @author davitp
+ */
+public class TimingWheel {
+    
+    /**
+     * The bits of level index
+     */
+    private static final int WHEEL_BITS = 6;
+    
+    /**
+     * The number of buckets in level
+     */
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    
+    /**
+     * The mask of bucket index
+     */
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    
+    /**
+     * The number of levels
+     */
+    private static final int LEVELS = 6;
+    
+    /**
+     * The maximum distance in ticks
+     */
+    private static final long MAX_DISTANCE = (1L << (WHEEL_BITS * LEVELS)) - 1;
+    
+    /**
+     * The tick duration in milliseconds
+     */
+    protected final long tickMs;
+    
+    /**
+     * The bucket heads by level and slot
+     */
+    protected final TimerEntry[][] buckets;
+    
+    /**
+     * The last processed tick
+     */
+    protected long currentTick;
+    
+    /**
+     * The number of armed entries
+     */
+    protected int size;
+    
+    /**
+     * Creates new timing wheel
+     * 
+     * @param tickMs The tick duration in milliseconds
+     * @param startMs The start time in epoch milliseconds
+     */
+    public TimingWheel(long tickMs, long startMs){
+        this.tickMs = Math.max(1, tickMs);
+        this.buckets = new TimerEntry[LEVELS][WHEEL_SIZE];
+        this.currentTick = startMs / this.tickMs;
+    }
+    
+    /**
+     * Arms the entry for its deadline (entries already due fire on next tick)
+     * 
+     * @param entry The entry to arm
+     */
+    public void add(TimerEntry entry){
+        
+        // re-arm if armed
+        if(entry.isArmed()){
+            this.remove(entry);
+        }
+        
+        // the tick at or after deadline
+        entry.tick = Math.max(this.currentTick + 1, Math.floorDiv(entry.deadline + this.tickMs - 1, this.tickMs));
+        
+        this.link(entry);
+        this.size++;
+    }
+    
+    /**
+     * Cancels the entry
+     * 
+     * @param entry The entry to cancel
+     * @return Returns true if entry was armed
+     */
+    public boolean remove(TimerEntry entry){
+        
+        if(!entry.isArmed()){
+            return false;
+        }
+        
+        this.unlink(entry);
+        this.size--;
+        
+        return true;
+    }
+    
+    /**
+     * Advances the wheel up to the given time and passes the due entries to consumer
+     * 
+     * @param nowMs The current time in epoch milliseconds
+     * @param expired The consumer of due entries (entries are not armed anymore)
+     */
+    public void advance(long nowMs, Consumer<TimerEntry> expired){
+        
+        var target = nowMs / this.tickMs;
+        
+        while(this.currentTick < target){
+            
+            // nothing armed, jump to the target
+            if(this.size == 0){
+                this.currentTick = target;
+                return;
+            }
+            
+            this.currentTick++;
+            
+            // cascade upper levels that start new round at this tick (top-down)
+            for(var level = LEVELS - 1; level > 0; --level){
+                if((this.currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0){
+                    this.cascade(level, (int) ((this.currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK));
+                }
+            }
+            
+            // fire the current bucket of lowest level
+            var entry = this.detach(0, (int) (this.currentTick & WHEEL_MASK));
+            
+            while(entry != null){
+                
+                var next = entry.next;
+                entry.prev = null;
+                entry.next = null;
+                
+                // parked entry which is still not due
+                if(entry.deadline > nowMs && Math.floorDiv(entry.deadline + this.tickMs - 1, this.tickMs) > this.currentTick){
+                    entry.tick = Math.floorDiv(entry.deadline + this.tickMs - 1, this.tickMs);
+                    this.link(entry);
+                }
+                else{
+                    this.size--;
+                    expired.accept(entry);
+                }
+                
+                entry = next;
+            }
+        }
+    }
+    
+    /**
+     * Gets the number of armed entries
+     * 
+     * @return Returns size
+     */
+    public int size(){
+        return this.size;
+    }
+    
+    /**
+     * Gets the time of next tick
+     * 
+     * @return Returns epoch milliseconds
+     */
+    public long nextTickTime(){
+        return (this.currentTick + 1) * this.tickMs;
+    }
+    
+    /**
+     * Moves the bucket entries down to lower levels
+     * 
+     * @param level The level
+     * @param slot The slot
+     */
+    protected void cascade(int level, int slot){
+        
+        var entry = this.detach(level, slot);
+        
+        while(entry != null){
+            
+            var next = entry.next;
+            entry.prev = null;
+            entry.next = null;
+            
+            // parked entries get their real tick back
+            entry.tick = Math.max(this.currentTick, Math.floorDiv(entry.deadline + this.tickMs - 1, this.tickMs));
+            this.link(entry);
+            
+            entry = next;
+        }
+    }
+    
+    /**
+     * Links the entry into the bucket by its tick
+     * 
+     * @param entry The entry
+     */
+    protected void link(TimerEntry entry){
+        
+        // the distance from current tick (capped by range of wheel)
+        var distance = entry.tick - this.currentTick;
+        
+        if(distance > MAX_DISTANCE){
+            distance = MAX_DISTANCE;
+            entry.tick = this.currentTick + MAX_DISTANCE;
+        }
+        
+        // the lowest level covering the distance
+        var level = 0;
+        while(level < LEVELS - 1 && distance >= (1L << (WHEEL_BITS * (level + 1)))){
+            level++;
+        }
+        
+        var slot = (int) ((entry.tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        
+        // push to head
+        var head = this.buckets[level][slot];
+        
+        entry.level = level;
+        entry.slot = slot;
+        entry.prev = null;
+        entry.next = head;
+        
+        if(head != null){
+            head.prev = entry;
+        }
+        
+        this.buckets[level][slot] = entry;
+    }
+    
+    /**
+     * Unlinks the entry from its bucket
+     * 
+     * @param entry The entry
+     */
+    protected void unlink(TimerEntry entry){
+        
+        if(entry.prev != null){
+            entry.prev.next = entry.next;
+        }
+        else{
+            this.buckets[entry.level][entry.slot] = entry.next;
+        }
+        
+        if(entry.next != null){
+            entry.next.prev = entry.prev;
+        }
+        
+        entry.prev = null;
+        entry.next = null;
+        entry.level = -1;
+    }
+    
+    /**
+     * Detaches the whole bucket
+     * 
+     * @param level The level
+     * @param slot The slot
+     * @return Returns the head of detached list (entries are marked as not armed)
+     */
+    protected TimerEntry detach(int level, int slot){
+        
+        var head = this.buckets[level][slot];
+        this.buckets[level][slot] = null;
+        
+        for(var entry = head; entry != null; entry = entry.next){
+            entry.level = -1;
+        }
+        
+        return head;
+    }
+}
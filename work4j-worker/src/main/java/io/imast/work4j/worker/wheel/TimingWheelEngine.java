@@ -0,0 +1,916 @@
+package io.imast.work4j.worker.wheel;
+
+import io.imast.core.Str;
+import io.imast.work4j.channel.SchedulerChannel;
+import io.imast.work4j.model.TriggerDefinition;
+import io.imast.work4j.model.cluster.ClusterWorker;
+import io.imast.work4j.model.execution.CompletionSeverity;
+import io.imast.work4j.model.execution.ExecutionStatus;
+import io.imast.work4j.model.execution.JobExecution;
+import io.imast.work4j.model.iterate.IterationInput;
+import io.imast.work4j.model.iterate.IterationStatus;
+import io.imast.work4j.worker.ThreadPoolType;
+import io.imast.work4j.worker.WorkerConfiguration;
+import io.imast.work4j.worker.WorkerException;
+import io.imast.work4j.worker.WorkerFactory;
+import io.imast.work4j.worker.instance.ExecutionKey;
+import io.imast.work4j.worker.instance.SchedulingEngine;
+import io.imast.work4j.worker.instance.TriggerJitter;
+import io.imast.work4j.worker.instance.IterationReporter;
+import io.imast.work4j.worker.instance.WorkerThreadPool;
+import io.imast.work4j.worker.job.ExecutorCache;
+import io.vavr.control.Try;
+import java.text.ParseException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.CronExpression;
+import org.quartz.SchedulerConfigException;
+
+/**
+ * The in-memory scheduling engine based on hierarchical timing wheel
+ * 
+ * An alternative to quartz for workers without persistence. Every trigger is a single wheel node
+ * referencing the job execution as received (no job details, data maps or trigger objects), arming
+ * and cancelling are O(1), and pause or resume only flip a flag of execution. A single timer thread
+ * advances the wheel every tick and puts the due runs into the dispatch queue without waiting, a
+ * dispatcher thread hands them over to the worker thread pool in order of priority (across ticks)
+ * as slots free up. A trigger has at most one fire waiting in queue, fires of trigger still waiting
+ * are coalesced. Iterations are reported through the scheduler channel the same way quartz listeners
+ * do, an execution is reported completed once its triggers are done and the fires in flight (also
+ * asynchronous ones) are over. Custom quartz listeners are not supported by this engine.
+ * 
+ * @author davitp
+ */
+@Slf4j
+public class TimingWheelEngine implements SchedulingEngine {
+
+    /**
+     * The default tick in milliseconds
+     */
+    public static final long DEFAULT_TICK = 10;
+    
+    /**
+     * The worker instance
+     */
+    protected final ClusterWorker worker;
+    
+    /**
+     * The resolved executors by job type
+     */
+    protected final ExecutorCache executors;
+    
+    /**
+     * The scheduler channel
+     */
+    protected final SchedulerChannel channel;
+    
+    /**
+     * The iteration reporter
+     */
+    protected final IterationReporter reporter;
+    
+    /**
+     * The timing wheel (guarded by wheel lock)
+     */
+    protected final TimingWheel wheel;
+    
+    /**
+     * The lock of wheel
+     */
+    protected final ReentrantLock wheelLock;
+    
+    /**
+     * The armed executions
+     */
+    protected final ConcurrentHashMap<ExecutionKey, ArmedExecution> executions;
+    
+    /**
+     * The paused executions
+     */
+    protected final Set<ExecutionKey> paused;
+    
+    /**
+     * The version of local state
+     */
+    protected final AtomicLong version;
+    
+    /**
+     * The parsed cron expressions by expression and time zone (guarded by wheel lock)
+     */
+    protected final Map<String, CronExpression> crons;
+    
+    /**
+     * The pool running the jobs
+     */
+    protected final WorkerThreadPool pool;
+    
+    /**
+     * The tick in milliseconds
+     */
+    protected final long tick;
+    
+    /**
+     * The name of engine instance
+     */
+    protected final String name;
+    
+    /**
+     * The due triggers of current tick (timer thread only)
+     */
+    protected final List<ArmedTrigger> due;
+    
+    /**
+     * The finished executions of current tick (timer thread only)
+     */
+    protected final List<ArmedExecution> finished;
+    
+    /**
+     * The dispatch queue ordered by priority
+     */
+    protected final PriorityBlockingQueue<Dispatch> queue;
+    
+    /**
+     * The arrival order of dispatched fires
+     */
+    protected final AtomicLong sequence;
+    
+    /**
+     * The timer thread
+     */
+    protected Thread timer;
+    
+    /**
+     * The thread handing over queued fires to pool
+     */
+    protected Thread dispatcher;
+    
+    /**
+     * Indicates if engine is running
+     */
+    protected volatile boolean running;
+    
+    /**
+     * Creates new timing wheel engine
+     * 
+     * @param worker The worker instance
+     * @param factory The worker factory
+     * @param jobModules The modules by job type
+     * @param channel The scheduler channel
+     * @param config The worker configuration
+     */
+    public TimingWheelEngine(ClusterWorker worker, WorkerFactory factory, Map<String, Map<String, Object>> jobModules, SchedulerChannel channel, WorkerConfiguration config){
+        this.worker = worker;
+        this.executors = new ExecutorCache(factory, jobModules, config.getExecutorPoolSize() == null ? (config.getParallelism() == null ? ExecutorCache.DEFAULT_POOL_SIZE : config.getParallelism().intValue()) : config.getExecutorPoolSize());
+        this.channel = channel;
+        this.reporter = new IterationReporter(channel, "TimingWheelEngine");
+        this.tick = config.getWheelTick() == null || config.getWheelTick() <= 0 ? DEFAULT_TICK : config.getWheelTick();
+        this.wheel = new TimingWheel(this.tick, System.currentTimeMillis());
+        this.wheelLock = new ReentrantLock();
+        this.executions = new ConcurrentHashMap<>();
+        this.paused = ConcurrentHashMap.newKeySet();
+        this.version = new AtomicLong();
+        this.crons = new HashMap<>();
+        this.due = new ArrayList<>();
+        this.finished = new ArrayList<>();
+        this.queue = new PriorityBlockingQueue<>();
+        this.sequence = new AtomicLong();
+        this.name = "WORK4J_" + (worker == null ? "WHEEL" : worker.getName());
+        
+        // the pool with the same settings as quartz one
+        this.pool = new WorkerThreadPool();
+        this.pool.setInstanceName(this.name);
+        this.pool.setThreadCount(config.getParallelism() == null ? 10 : config.getParallelism().intValue());
+        this.pool.setVirtual(config.getThreadPoolType() == ThreadPoolType.VIRTUAL);
+        
+        if(config.getMaxConcurrency() != null){
+            this.pool.setMaxConcurrency(config.getMaxConcurrency());
+        }
+    }
+    
+    /**
+     * Starts the engine
+     * 
+     * @throws WorkerException
+     */
+    @Override
+    public void start() throws WorkerException {
+        
+        try {
+            this.pool.initialize();
+        }
+        catch(SchedulerConfigException error){
+            throw new WorkerException("Could not start timing wheel worker", error);
+        }
+        
+        this.running = true;
+        
+        // single timer thread advances the wheel
+        this.timer = new Thread(this::loop, String.format("%s_Timer", this.name));
+        this.timer.setDaemon(true);
+        this.timer.start();
+        
+        // single dispatcher hands over fires by priority and then by arrival
+        this.dispatcher = new Thread(this::dispatch, String.format("%s_Dispatcher", this.name));
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+    
+    /**
+     * Stops the engine
+     * 
+     * @throws WorkerException
+     */
+    @Override
+    public void stop() throws WorkerException {
+        
+        this.running = false;
+        
+        // stop the timer and dispatcher
+        for(var thread : new Thread[]{ this.timer, this.dispatcher }){
+            
+            if(thread == null){
+                continue;
+            }
+            
+            thread.interrupt();
+            
+            var joined = Try.run(() -> thread.join());
+            
+            if(joined.isFailure()){
+                throw new WorkerException("Could not stop timing wheel worker", joined.getCause());
+            }
+        }
+        
+        this.queue.clear();
+        
+        this.pool.shutdown(false);
+        this.executors.clear();
+    }
+    
+    /**
+     * Schedules the job execution
+     * 
+     * @param execution The job execution to schedule
+     * @throws WorkerException
+     */
+    @Override
+    public void schedule(JobExecution execution) throws WorkerException {
+        
+        if(execution == null){
+            return;
+        }
+        
+        this.wheelLock.lock();
+        try {
+            this.arm(execution, System.currentTimeMillis());
+        }
+        finally {
+            this.wheelLock.unlock();
+        }
+    }
+    
+    /**
+     * Schedules the burst of job executions under single lock
+     * 
+     * @param executions The job executions to schedule
+     * @throws WorkerException
+     */
+    @Override
+    public void scheduleAll(Collection<JobExecution> executions) throws WorkerException {
+        
+        if(executions == null || executions.isEmpty()){
+            return;
+        }
+        
+        var now = System.currentTimeMillis();
+        
+        this.wheelLock.lock();
+        try {
+            for(var execution : executions){
+                if(execution != null){
+                    this.arm(execution, now);
+                }
+            }
+        }
+        finally {
+            this.wheelLock.unlock();
+        }
+    }
+    
+    /**
+     * Pause the job execution (triggers stay armed, runs are skipped)
+     * 
+     * @param key The execution key
+     * @throws WorkerException
+     */
+    @Override
+    public void pause(ExecutionKey key) throws WorkerException {
+        
+        var armed = this.executions.get(key);
+        
+        if(armed == null){
+            return;
+        }
+        
+        armed.paused = true;
+        this.track(this.paused.add(key));
+    }
+    
+    /**
+     * Resume the job execution
+     * 
+     * @param key The execution key
+     * @throws WorkerException
+     */
+    @Override
+    public void resume(ExecutionKey key) throws WorkerException {
+        
+        var armed = this.executions.get(key);
+        
+        if(armed == null){
+            return;
+        }
+        
+        armed.paused = false;
+        
+        // last fires held while paused run now
+        this.wheelLock.lock();
+        try {
+            var now = System.currentTimeMillis();
+            
+            for(var trigger : armed.triggers){
+                if(trigger.held){
+                    trigger.held = false;
+                    trigger.deadline = now;
+                    this.wheel.add(trigger);
+                }
+            }
+        }
+        finally {
+            this.wheelLock.unlock();
+        }
+        
+        this.track(this.paused.remove(key));
+    }
+    
+    /**
+     * Unschedule the job execution
+     * 
+     * @param key The execution key
+     * @throws WorkerException
+     */
+    @Override
+    public void unschedule(ExecutionKey key) throws WorkerException {
+        
+        var armed = this.executions.remove(key);
+        
+        if(armed == null){
+            return;
+        }
+        
+        // cancel triggers
+        this.wheelLock.lock();
+        try {
+            for(var trigger : armed.triggers){
+                this.wheel.remove(trigger);
+            }
+        }
+        finally {
+            this.wheelLock.unlock();
+        }
+        
+        this.paused.remove(key);
+        this.executors.evict(key.getExecutionId());
+        this.track(true);
+        
+        log.info(String.format("TimingWheelEngine: Job Execution %s is unscheduled", key));
+    }
+    
+    /**
+     * Gets the copy of scheduled executions
+     * 
+     * @return Returns execution keys
+     */
+    @Override
+    public Set<ExecutionKey> getExecutions() {
+        return new HashSet<>(this.executions.keySet());
+    }
+    
+    /**
+     * Gets the copy of paused executions
+     * 
+     * @return Returns execution keys
+     */
+    @Override
+    public Set<ExecutionKey> getPausedExecutions() {
+        return new HashSet<>(this.paused);
+    }
+    
+    /**
+     * Gets the live read-only view of scheduled executions
+     * 
+     * @return Returns execution keys
+     */
+    @Override
+    public Set<ExecutionKey> getExecutionsView() {
+        return Collections.unmodifiableSet(this.executions.keySet());
+    }
+    
+    /**
+     * Gets the live read-only view of paused executions
+     * 
+     * @return Returns execution keys
+     */
+    @Override
+    public Set<ExecutionKey> getPausedExecutionsView() {
+        return Collections.unmodifiableSet(this.paused);
+    }
+    
+    /**
+     * Gets the version of local state
+     * 
+     * @return Returns the version
+     */
+    @Override
+    public long getShadowVersion() {
+        return this.version.get();
+    }
+    
+    /**
+     * Nothing to reconcile as memory is the only store
+     */
+    @Override
+    public void reconcile() {
+    }
+    
+    /**
+     * Gets the number of armed triggers
+     * 
+     * @return Returns number of triggers
+     */
+    public int getArmedCount(){
+        
+        this.wheelLock.lock();
+        try {
+            return this.wheel.size();
+        }
+        finally {
+            this.wheelLock.unlock();
+        }
+    }
+    
+    /**
+     * Arms the execution triggers (wheel lock is held)
+     * 
+     * @param execution The job execution
+     * @param now The current time
+     */
+    protected void arm(JobExecution execution, long now){
+        
+        var key = new ExecutionKey(execution.getId(), execution.getJobId());
+        
+        // do not create if exists
+        if(this.executions.containsKey(key)){
+            log.warn("TimingWheelEngine: Unable to schedule job that has been already scheduled");
+            return;
+        }
+        
+        // resolve executor of type before first fire
+        this.executors.resolve(execution.getType());
+        
+        var armed = new ArmedExecution(key, execution);
+        var definitions = execution.getTriggers() == null ? List.<TriggerDefinition>of() : execution.getTriggers();
+        var triggers = new ArrayList<ArmedTrigger>(definitions.size());
+        
+        for(var definition : definitions){
+            
+            var trigger = this.createTrigger(armed, definition);
+            
+            if(trigger == null){
+                continue;
+            }
+            
+            // the first fire time
+            var first = trigger.first(now);
+            
+            if(first < 0){
+                continue;
+            }
+            
+            trigger.deadline = first;
+            triggers.add(trigger);
+        }
+        
+        // nothing would ever fire
+        if(triggers.isEmpty()){
+            log.warn(String.format("TimingWheelEngine: Job Execution %s has no triggers to arm", execution.getId()));
+            return;
+        }
+        
+        armed.triggers = triggers.toArray(new ArmedTrigger[0]);
+        armed.pending = armed.triggers.length;
+        armed.paused = execution.getStatus() != ExecutionStatus.ACTIVE;
+        
+        // register before arming
+        this.executions.put(key, armed);
+        
+        if(armed.paused){
+            this.paused.add(key);
+        }
+        
+        for(var trigger : armed.triggers){
+            this.wheel.add(trigger);
+        }
+        
+        this.track(true);
+        
+        log.info(String.format("TimingWheelEngine: Job Execution %s%s (ID: %s) is scheduled", execution.getFolder(), execution.getName(), execution.getId()));
+    }
+    
+    /**
+     * Creates the armed trigger for definition (wheel lock is held)
+     * 
+     * @param armed The owner execution
+     * @param definition The trigger definition
+     * @return Returns trigger or null if not valid
+     */
+    protected ArmedTrigger createTrigger(ArmedExecution armed, TriggerDefinition definition){
+        
+        if(definition == null || definition.getType() == null){
+            return null;
+        }
+        
+        switch(definition.getType()){
+            case CRON:
+                
+                // the expression shifted by spread offset of execution
+                var expression = TriggerJitter.cron(armed.getExecution().getId(), definition);
+                
+                var cron = this.cron(expression, definition.getTimezone());
+                
+                if(cron == null){
+                    log.warn("TimingWheelEngine: Skipping cron trigger as it is not valid: " + expression);
+                    return null;
+                }
+                
+                return new ArmedTrigger(armed, definition, cron, 0);
+            case PERIODIC:
+                
+                if(definition.getPeriod() == null || definition.getPeriod() <= 0){
+                    log.warn("TimingWheelEngine: Cannot create static period trigger because of missing period.");
+                    return null;
+                }
+                
+                return new ArmedTrigger(armed, definition, null, definition.getPeriod());
+            case ONCE:
+                return new ArmedTrigger(armed, definition, null, 0);
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Gets the shared cron expression (wheel lock is held)
+     * 
+     * @param expression The expression
+     * @param timezone The time zone
+     * @return Returns cron expression or null if not valid
+     */
+    protected CronExpression cron(String expression, String timezone){
+        
+        if(Str.blank(expression) || !CronExpression.isValidExpression(expression)){
+            return null;
+        }
+        
+        return this.crons.computeIfAbsent(expression + "|" + timezone, k -> {
+            try {
+                var cron = new CronExpression(expression);
+                
+                // use time zone if given
+                var zone = Str.blank(timezone) ? null : Try.of(() -> ZoneId.of(timezone)).getOrNull();
+                
+                if(zone != null){
+                    cron.setTimeZone(TimeZone.getTimeZone(zone));
+                }
+                
+                return cron;
+            }
+            catch(ParseException error){
+                return null;
+            }
+        });
+    }
+    
+    /**
+     * The timer loop
+     */
+    protected void loop(){
+        
+        while(this.running){
+            
+            var nextTick = 0L;
+            
+            // advance wheel and collect due runs
+            this.wheelLock.lock();
+            try {
+                this.wheel.advance(System.currentTimeMillis(), this::expired);
+                nextTick = this.wheel.nextTickTime();
+            }
+            finally {
+                this.wheelLock.unlock();
+            }
+            
+            // queue due runs (never waits for the pool)
+            for(var trigger : this.due){
+                this.queue.add(new Dispatch(trigger.priority, this.sequence.getAndIncrement(), () -> {
+                    trigger.queued.set(false);
+                    this.fire(trigger);
+                }));
+            }
+            
+            // report finished executions without fires in flight
+            for(var armed : this.finished){
+                this.complete(armed);
+            }
+            
+            this.due.clear();
+            this.finished.clear();
+            
+            // sleep until next tick
+            var delay = nextTick - System.currentTimeMillis();
+            
+            if(delay > 0){
+                try {
+                    Thread.sleep(delay);
+                }
+                catch(InterruptedException error){
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Hands over the queued fires to pool (waits for a free slot of pool)
+     */
+    protected void dispatch(){
+        
+        while(!Thread.currentThread().isInterrupted()){
+            
+            try {
+                var next = this.queue.take();
+                
+                // not handed over unless stopping
+                if(!this.pool.runInThread(next) && !Thread.currentThread().isInterrupted()){
+                    log.warn("TimingWheelEngine: Could not hand over the fire to pool");
+                }
+            }
+            catch(InterruptedException error){
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * Handles the expired trigger (wheel lock is held)
+     * 
+     * @param entry The expired entry
+     */
+    protected void expired(TimerEntry entry){
+        
+        var trigger = (ArmedTrigger) entry;
+        var owner = trigger.owner;
+        
+        // the next fire time
+        var next = trigger.next();
+        
+        // paused execution keeps the last fire until resumed
+        if(owner.paused && next < 0){
+            trigger.held = true;
+            return;
+        }
+        
+        // run if not paused, the previous fire still waiting in queue is coalesced
+        if(!owner.paused){
+            if(trigger.queued.compareAndSet(false, true)){
+                owner.inflight.incrementAndGet();
+                this.due.add(trigger);
+            }
+            else {
+                log.debug("TimingWheelEngine: Fire of execution {} is skipped, the previous fire is still waiting", owner.execution.getId());
+            }
+        }
+        
+        // re-arm for next fire
+        if(next >= 0){
+            trigger.deadline = next;
+            this.wheel.add(trigger);
+            return;
+        }
+        
+        // all triggers are done, completed now unless fires are in flight (completed by the last one then)
+        if(--owner.pending == 0){
+            
+            owner.done = true;
+            
+            if(owner.inflight.get() == 0){
+                this.finished.add(owner);
+            }
+        }
+    }
+    
+    /**
+     * Runs the fire of trigger and completes the execution if it was the last one in flight
+     * 
+     * @param trigger The fired trigger
+     */
+    protected void fire(ArmedTrigger trigger){
+        
+        var owner = trigger.owner;
+        
+        Runnable done = () -> {
+            if(owner.inflight.decrementAndGet() == 0 && owner.done){
+                this.complete(owner);
+            }
+        };
+        
+        // paused or unscheduled while queued
+        if(owner.paused || this.executions.get(owner.key) != owner){
+            done.run();
+            return;
+        }
+        
+        this.run(owner, trigger.definition, trigger.priority, done);
+    }
+    
+    /**
+     * Runs the job execution and reports the iteration
+     * 
+     * @param armed The armed execution
+     * @param definition The fired trigger definition
+     * @param priority The priority of fire
+     * @param done The action run once the fire is over (also if vetoed)
+     */
+    protected void run(ArmedExecution armed, TriggerDefinition definition, int priority, Runnable done){
+        
+        var execution = armed.execution;
+        var context = new WheelExecutorContext(execution, definition.getPayload(), this.executors.getModules(execution.getType()));
+        var start = System.currentTimeMillis();
+        
+        // the limit of type is reached
+        if(!this.executors.admit(execution.getType())){
+            log.debug("TimingWheelEngine: Fire of execution {} is vetoed, the concurrency limit of type {} is reached", execution.getId(), execution.getType());
+            done.run();
+            return;
+        }
+        
+        // try execute job and remember the failure
+        var result = Try.of(() -> this.executors.execute(execution.getId(), execution.getType(), context, true, priority));
+        
+        // report asynchronous or queued job when done (the pool permit is held until then unless bulkhead of type limits it)
+        if(result.isSuccess() && result.get() != null){
+            Runnable release = this.executors.getBulkhead(execution.getType()) == null ? WorkerThreadPool.detachPermit() : () -> {};
+            result.get().whenComplete((value, error) -> {
+                this.report(execution, context, start, error);
+                release.run();
+                done.run();
+            });
+            return;
+        }
+        
+        this.report(execution, context, start, result.isSuccess() ? null : result.getCause());
+        done.run();
+    }
+    
+    /**
+     * Reports the iteration of job execution
+     * 
+     * @param execution The job execution
+     * @param context The context of fire
+     * @param start The start time
+     * @param failure The failure if any
+     */
+    protected void report(JobExecution execution, WheelExecutorContext context, long start, Throwable failure){
+        
+        // if silent reporting is enabled will just silently skip iteration report
+        if(execution.getOptions() != null && execution.getOptions().isSilentIterations()){
+            return;
+        }
+        
+        // create iteration entity
+        var iteration = IterationInput.builder()
+                .executionId(execution.getId())
+                .jobId(execution.getJobId())
+                .worker(this.worker == null ? null : this.worker.getName())
+                .runtime(System.currentTimeMillis() - start)
+                .status(failure == null ? IterationStatus.SUCCESS : IterationStatus.FAILURE)
+                .payload(context.getOutput())
+                .message(failure == null ? null : failure.toString())
+                .timestamp(new Date())
+                .build();
+        
+        // register iteration (retried if scheduler pushes back)
+        this.reporter.report(iteration);
+    }
+    
+    /**
+     * Removes the finished execution and reports completion
+     * 
+     * @param armed The armed execution
+     */
+    protected void complete(ArmedExecution armed){
+        
+        // could be unscheduled meanwhile
+        if(!this.executions.remove(armed.key, armed)){
+            return;
+        }
+        
+        this.paused.remove(armed.key);
+        this.executors.evict(armed.key.getExecutionId());
+        this.track(true);
+        
+        this.channel.complete(armed.execution.getId(), CompletionSeverity.SUCCESS).subscribe();
+    }
+    
+    /**
+     * Tracks the change of local state
+     * 
+     * @param changed If the state was changed
+     */
+    protected void track(boolean changed){
+        if(changed){
+            this.version.incrementAndGet();
+        }
+    }
+    
+    /**
+     * The dispatched fire ordered by priority and then by arrival
+     */
+    protected static class Dispatch implements Runnable, Comparable<Dispatch> {
+        
+        /**
+         * The priority of fire
+         */
+        protected final int priority;
+        
+        /**
+         * The arrival order
+         */
+        protected final long sequence;
+        
+        /**
+         * The run of fire
+         */
+        protected final Runnable runnable;
+        
+        /**
+         * Creates new dispatched fire
+         * 
+         * @param priority The priority of fire
+         * @param sequence The arrival order
+         * @param runnable The run of fire
+         */
+        protected Dispatch(int priority, long sequence, Runnable runnable){
+            this.priority = priority;
+            this.sequence = sequence;
+            this.runnable = runnable;
+        }
+        
+        /**
+         * Runs the fire
+         */
+        @Override
+        public void run(){
+            this.runnable.run();
+        }
+        
+        /**
+         * Compares with other fire (higher priority first)
+         * 
+         * @param other The other fire
+         * @return Returns comparison result
+         */
+        @Override
+        public int compareTo(Dispatch other){
+            
+            var result = Integer.compare(other.priority, this.priority);
+            
+            return result != 0 ? result : Long.compare(this.sequence, other.sequence);
+        }
+    }
+}
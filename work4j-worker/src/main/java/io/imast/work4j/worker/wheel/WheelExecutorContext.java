@@ -0,0 +1,219 @@
+package io.imast.work4j.worker.wheel;
+
+import io.imast.core.Lang;
+import io.imast.work4j.execution.JobExecutorContext;
+import io.imast.work4j.model.execution.JobExecution;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The executor context of timing wheel engine (reads the job execution directly)
+ * 
+ * @author davitp
+ */
+public class WheelExecutorContext implements JobExecutorContext {
+    
+    /**
+     * The job execution
+     */
+    private final JobExecution execution;
+    
+    /**
+     * The trigger payload
+     */
+    private final Map<String, Object> triggerPayload;
+    
+    /**
+     * The modules of job type
+     */
+    private final Map<String, Object> modules;
+    
+    /**
+     * The output of run
+     */
+    private Map<String, Object> output;
+    
+    /**
+     * Creates new timing wheel executor context
+     * 
+     * @param execution The job execution
+     * @param triggerPayload The trigger payload
+     * @param modules The modules of job type
+     */
+    public WheelExecutorContext(JobExecution execution, Map<String, Object> triggerPayload, Map<String, Object> modules){
+        this.execution = execution;
+        this.triggerPayload = triggerPayload == null ? Map.of() : triggerPayload;
+        this.modules = modules == null ? Map.of() : modules;
+    }
+    
+    /**
+     * Get job execution id
+     * 
+     * @return Returns job execution id
+     */
+    @Override
+    public String getExecutionId(){
+        return this.execution.getId();
+    }
+    
+    /**
+     * Get job definition id
+     * 
+     * @return Returns job definition id
+     */
+    @Override
+    public String getDefinitionId(){
+        return this.execution.getJobId();
+    }
+    
+    /**
+     * Get job code
+     * 
+     * @return Returns job code
+     */
+    @Override
+    public String getName(){
+        return this.execution.getName();
+    }
+    
+    /**
+     * Get job group
+     * 
+     * @return Returns job group
+     */
+    @Override
+    public String getFolder(){
+        return this.execution.getFolder();
+    }
+    
+    /**
+     * Get job type
+     * 
+     * @return Returns job type
+     */
+    @Override
+    public String getType(){
+        return this.execution.getType();
+    }
+    
+    /**
+     * The a module instance identified by given key
+     * 
+     * @param <T> The type of module to cast to
+     * @param key The key of module within the type of job
+     * @param defaultValue The default value to consider if missing
+     * @return Returns the registered module instance if any or default
+     */
+    @Override
+    public <T> T getModuleOr(String key, T defaultValue){
+        
+        var module = this.modules.get(key);
+        
+        return module == null ? defaultValue : Lang.safeCast(module);
+    }
+    
+    /**
+     * Gets the job value by given key
+     * 
+     * @param <T> The type of job payload value
+     * @param key The key of value
+     * @param defaultValue The default value to consider
+     * @return Returns the value identified by given key 
+     */
+    @Override
+    public <T> T getJobValueOr(String key, T defaultValue){
+        return valueOr(this.execution.getPayload(), key, defaultValue);
+    }
+    
+    /**
+     * Gets the trigger value by given key
+     * 
+     * @param <T> The type of trigger payload value
+     * @param key The key of value
+     * @param defaultValue The default value to consider
+     * @return Returns the value identified by given key 
+     */
+    @Override
+    public <T> T getTriggerValue(String key, T defaultValue){
+        return valueOr(this.triggerPayload, key, defaultValue);
+    }
+    
+    /**
+     * Gets the (trigger or job) value by given key
+     * 
+     * @param <T> The type of (trigger or job) payload value
+     * @param key The key of value
+     * @param defaultValue The default value to consider
+     * @return Returns the value identified by given key 
+     */
+    @Override
+    public <T> T getValue(String key, T defaultValue){
+        
+        // trigger values override job values
+        if(this.triggerPayload.containsKey(key)){
+            return valueOr(this.triggerPayload, key, defaultValue);
+        }
+        
+        return this.getJobValueOr(key, defaultValue);
+    }
+    
+    /**
+     * Puts the value into output
+     * 
+     * @param key The output entry key
+     * @param value The output entry value
+     */
+    @Override
+    public void putOutput(String key, Object value){
+        
+        if(this.output == null){
+            this.output = new HashMap<>();
+        }
+        
+        this.output.put(key, value);
+    }
+    
+    /**
+     * Puts the value into output
+     * 
+     * @param other The other values
+     */
+    @Override
+    public void putOutput(Map<String, Object> other){
+        
+        if(this.output == null){
+            this.output = new HashMap<>();
+        }
+        
+        this.output.putAll(other);
+    }
+    
+    /**
+     * Gets the output of run
+     * 
+     * @return Returns output or null
+     */
+    public Map<String, Object> getOutput(){
+        return this.output;
+    }
+    
+    /**
+     * Gets the value from map
+     * 
+     * @param <T> The type of value
+     * @param map The map
+     * @param key The key
+     * @param defaultValue The default value
+     * @return Returns the value or default
+     */
+    private static <T> T valueOr(Map<String, Object> map, String key, T defaultValue){
+        
+        if(map == null){
+            return defaultValue;
+        }
+        
+        var value = map.getOrDefault(key, defaultValue);
+        
+        return value == null ? null : Lang.<T>safeCast(value);
+    }
+}
@@ -0,0 +1,281 @@
+package io.imast.work4j.worker.controller;
+
+import io.imast.work4j.model.execution.ExecutionIndexEntry;
+import io.imast.work4j.model.execution.ExecutionStatus;
+import io.imast.work4j.worker.instance.ExecutionKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The merge-join diff between execution index and local state
+ * 
+ * @author davitp
+ */
+public class ExecutionIndexDiffTest {
+
+    /**
+     * The statuses of index entries
+     */
+    private static final ExecutionStatus[] STATUSES = { ExecutionStatus.ACTIVE, ExecutionStatus.ACTIVE, ExecutionStatus.ACTIVE, ExecutionStatus.PAUSED, ExecutionStatus.COMPLETED };
+    
+    /**
+     * The index and local state are matched by id and job, whatever the order of index
+     */
+    @Test
+    public void matchesRegardlessOfOrder(){
+        
+        var entries = new ArrayList<>(List.of(
+                entry("5f1d7a000000000000000003", "j1", ExecutionStatus.ACTIVE),
+                entry("5f1d7a000000000000000001", "j1", ExecutionStatus.PAUSED),
+                entry("5f1d7a000000000000000004", "j2", ExecutionStatus.COMPLETED),
+                entry("5f1d7a000000000000000002", "j3", ExecutionStatus.ACTIVE),
+                entry("5f1d7a000000000000000006", "j1", ExecutionStatus.ACTIVE)));
+        
+        var local = new HashSet<>(List.of(
+                key("5f1d7a000000000000000001", "j1"),
+                key("5f1d7a000000000000000002", "j3"),
+                key("5f1d7a000000000000000004", "j2"),
+                key("5f1d7a000000000000000005", "j1"),
+                key("5f1d7a000000000000000006", "j9")));
+        
+        var paused = new HashSet<>(List.of(key("5f1d7a000000000000000002", "j3")));
+        
+        var diff = new ExecutionIndexDiff();
+        
+        assertTrue(diff.compute(entries, local, paused));
+        
+        // missing locally and moved to the other job
+        assertEquals(Set.of("5f1d7a000000000000000003", "5f1d7a000000000000000006"), new HashSet<>(diff.addedIds()));
+        
+        // completed, not in index and moved to the other job
+        assertEquals(Set.of(key("5f1d7a000000000000000004", "j2"), key("5f1d7a000000000000000005", "j1"), key("5f1d7a000000000000000006", "j9")), deleted(diff));
+        assertEquals(Set.of(key("5f1d7a000000000000000001", "j1")), paused(diff));
+        assertEquals(Set.of(key("5f1d7a000000000000000002", "j3")), resumed(diff));
+        
+        // the sorted index gives the same result
+        Collections.sort(entries, (a, b) -> a.getId().compareTo(b.getId()));
+        
+        assertTrue(diff.compute(entries, local, paused));
+        assertEquals(Set.of("5f1d7a000000000000000003", "5f1d7a000000000000000006"), new HashSet<>(diff.addedIds()));
+        assertEquals(3, diff.getDeletedCount());
+    }
+    
+    /**
+     * The in-sync state requires no change
+     */
+    @Test
+    public void inSyncUnchanged(){
+        
+        var entries = List.of(entry("a", "j", ExecutionStatus.ACTIVE), entry("b", "j", ExecutionStatus.PAUSED));
+        var local = Set.of(key("a", "j"), key("b", "j"));
+        var paused = Set.of(key("b", "j"));
+        
+        var diff = new ExecutionIndexDiff();
+        
+        assertFalse(diff.compute(entries, local, paused, 1));
+        assertFalse(diff.compute(entries, local, paused, 1));
+        assertEquals(2, diff.getLocalCount());
+        assertEquals(1, diff.getLocalPausedCount());
+    }
+    
+    /**
+     * The ObjectIds, plain string ids and their mix give the same result as the hash-based diff
+     */
+    @Test
+    public void packedAndStringIds(){
+        this.randomized(i -> String.format("%08x%016x", i * 7919 % 100000, (long) i * 0x9E3779B97F4A7C15L));
+        this.randomized(i -> "execution-" + i);
+        this.randomized(i -> i % 5 == 0 ? "execution-" + i : String.format("%024x", i));
+    }
+    
+    /**
+     * Runs the random rounds against the hash-based diff while local state changes between versions
+     * 
+     * @param ids The id generator
+     */
+    private void randomized(IntFunction<String> ids){
+        
+        var random = new Random(7);
+        var diff = new ExecutionIndexDiff();
+        
+        // the index by id and the local state
+        var index = new HashMap<String, ExecutionIndexEntry>();
+        var local = new HashSet<ExecutionKey>();
+        var paused = new HashSet<ExecutionKey>();
+        var version = 0L;
+        var next = 0;
+        
+        for(var round = 0; round < 200; ++round){
+            
+            // change the index
+            for(var i = 0; i < 1 + random.nextInt(20); ++i){
+                
+                var id = ids.apply(next++);
+                
+                index.put(id, entry(id, "j" + random.nextInt(3), STATUSES[random.nextInt(STATUSES.length)]));
+            }
+            
+            var indexIds = new ArrayList<>(index.keySet());
+            
+            for(var i = 0; i < random.nextInt(5) && !indexIds.isEmpty(); ++i){
+                index.remove(indexIds.get(random.nextInt(indexIds.size())));
+            }
+            
+            // change the local state now and then (new version)
+            if(round % 3 != 2){
+                
+                for(var id : indexIds){
+                    
+                    var roll = random.nextInt(100);
+                    
+                    // add missing, remove present, move to the other job, toggle pause
+                    if(roll < 10){
+                        local.add(key(id, "j" + random.nextInt(3)));
+                    }
+                    else if(roll < 14){
+                        local.removeIf(key -> key.getExecutionId().equals(id));
+                    }
+                    else if(roll < 18){
+                        local.stream().filter(key -> key.getExecutionId().equals(id)).findFirst().ifPresent(key -> {
+                            if(!paused.remove(key)){
+                                paused.add(key);
+                            }
+                        });
+                    }
+                }
+                
+                // one local key per execution
+                var seen = new HashSet<String>();
+                local.removeIf(key -> !seen.add(key.getExecutionId()));
+                paused.retainAll(local);
+                
+                version++;
+            }
+            
+            // the index shuffled or sorted
+            var entries = new ArrayList<>(index.values());
+            
+            if(random.nextBoolean()){
+                Collections.sort(entries, (a, b) -> a.getId().compareTo(b.getId()));
+            }
+            else{
+                Collections.shuffle(entries, random);
+            }
+            
+            var changed = diff.compute(entries, local, paused, version);
+            
+            // the expected diff
+            var added = new HashSet<String>();
+            var deleted = new HashSet<ExecutionKey>();
+            var toPause = new HashSet<ExecutionKey>();
+            var toResume = new HashSet<ExecutionKey>();
+            var localById = new HashMap<String, ExecutionKey>();
+            
+            local.forEach(key -> localById.put(key.getExecutionId(), key));
+            
+            for(var entry : entries){
+                
+                var key = localById.get(entry.getId());
+                
+                if(key == null){
+                    added.add(entry.getId());
+                }
+                else if(!key.getJobId().equals(entry.getJobId())){
+                    added.add(entry.getId());
+                    deleted.add(key);
+                }
+                else if(entry.getStatus() == ExecutionStatus.COMPLETED){
+                    deleted.add(key);
+                }
+                else if(entry.getStatus() == ExecutionStatus.PAUSED && !paused.contains(key)){
+                    toPause.add(key);
+                }
+                else if(entry.getStatus() == ExecutionStatus.ACTIVE && paused.contains(key)){
+                    toResume.add(key);
+                }
+            }
+            
+            local.stream().filter(key -> !index.containsKey(key.getExecutionId())).forEach(deleted::add);
+            
+            assertEquals(added, new HashSet<>(diff.addedIds()), "round " + round);
+            assertEquals(deleted, deleted(diff), "round " + round);
+            assertEquals(toPause, paused(diff), "round " + round);
+            assertEquals(toResume, resumed(diff), "round " + round);
+            assertEquals(!added.isEmpty() || !deleted.isEmpty() || !toPause.isEmpty() || !toResume.isEmpty(), changed);
+            assertEquals(local.size(), diff.getLocalCount());
+            assertEquals(paused.size(), diff.getLocalPausedCount());
+            
+            diff.clear();
+        }
+    }
+    
+    /**
+     * Gets the keys to delete
+     * 
+     * @param diff The diff
+     * @return Returns keys
+     */
+    private static Set<ExecutionKey> deleted(ExecutionIndexDiff diff){
+        var result = new HashSet<ExecutionKey>();
+        diff.forEachDeleted(result::add);
+        return result;
+    }
+    
+    /**
+     * Gets the keys to pause
+     * 
+     * @param diff The diff
+     * @return Returns keys
+     */
+    private static Set<ExecutionKey> paused(ExecutionIndexDiff diff){
+        var result = new HashSet<ExecutionKey>();
+        diff.forEachPaused(result::add);
+        return result;
+    }
+    
+    /**
+     * Gets the keys to resume
+     * 
+     * @param diff The diff
+     * @return Returns keys
+     */
+    private static Set<ExecutionKey> resumed(ExecutionIndexDiff diff){
+        var result = new HashSet<ExecutionKey>();
+        diff.forEachResumed(result::add);
+        return result;
+    }
+    
+    /**
+     * Creates the index entry
+     * 
+     * @param id The execution id
+     * @param jobId The job id
+     * @param status The status
+     * @return Returns index entry
+     */
+    private static ExecutionIndexEntry entry(String id, String jobId, ExecutionStatus status){
+        return ExecutionIndexEntry.builder().id(id).jobId(jobId).status(status).build();
+    }
+    
+    /**
+     * Creates the execution key
+     * 
+     * @param id The execution id
+     * @param jobId The job id
+     * @return Returns key
+     */
+    private static ExecutionKey key(String id, String jobId){
+        return new ExecutionKey(id, jobId);
+    }
+}
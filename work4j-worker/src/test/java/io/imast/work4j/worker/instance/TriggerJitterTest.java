@@ -0,0 +1,108 @@
+package io.imast.work4j.worker.instance;
+
+import io.imast.work4j.model.TriggerDefinition;
+import io.imast.work4j.model.TriggerType;
+import java.util.Date;
+import java.util.HashSet;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The phase offsets of periodic and cron triggers
+ * 
+ * @author davitp
+ */
+public class TriggerJitterTest {
+
+    /**
+     * The period of triggers
+     */
+    private static final long PERIOD = 60000L;
+    
+    /**
+     * The offset is stable and within the jitter window
+     */
+    @Test
+    public void offsetWithinWindow(){
+        
+        var trigger = periodic(PERIOD, 10000L);
+        var offsets = new HashSet<Long>();
+        
+        for(var i = 0; i < 1000; i++){
+            
+            var offset = TriggerJitter.offset("execution" + i, trigger);
+            
+            assertTrue(offset >= 0 && offset < 10000L, String.valueOf(offset));
+            assertEquals(offset, TriggerJitter.offset("execution" + i, trigger));
+            
+            offsets.add(offset);
+        }
+        
+        // executions are spread over the window
+        assertTrue(offsets.size() > 900, String.valueOf(offsets.size()));
+    }
+    
+    /**
+     * The window never exceeds the period and no jitter means no offset
+     */
+    @Test
+    public void offsetBounds(){
+        
+        for(var i = 0; i < 1000; i++){
+            assertTrue(TriggerJitter.offset("execution" + i, periodic(1000L, PERIOD)) < 1000L);
+        }
+        
+        assertEquals(0L, TriggerJitter.offset("execution", periodic(PERIOD, null)));
+        assertEquals(0L, TriggerJitter.offset("execution", periodic(PERIOD, 0L)));
+    }
+    
+    /**
+     * The start without explicit time is the next period boundary shifted by offset
+     */
+    @Test
+    public void startAlignedToPeriod(){
+        
+        var trigger = periodic(PERIOD, PERIOD);
+        
+        for(var i = 0; i < 100; i++){
+            
+            var id = "execution" + i;
+            var offset = TriggerJitter.offset(id, trigger);
+            
+            // the phase is same whenever the execution is scheduled
+            for(var now : new long[]{ 1_600_000_000_000L, 1_600_000_000_000L + 1, 1_600_000_000_000L + offset, 1_600_000_017_345L, 1_600_000_059_999L }){
+                
+                var start = TriggerJitter.start(id, trigger, now);
+                
+                assertTrue(start >= now && start < now + PERIOD, id + ": " + start + " for " + now);
+                assertEquals(offset, Math.floorMod(start, PERIOD), id);
+            }
+        }
+    }
+    
+    /**
+     * The explicit start is shifted as is and no jitter starts immediately
+     */
+    @Test
+    public void startExplicitOrImmediate(){
+        
+        var now = 1_600_000_017_345L;
+        var trigger = TriggerDefinition.builder().name("trigger").type(TriggerType.PERIODIC).period(PERIOD).jitter(PERIOD).startAt(new Date(now - 5000L)).build();
+        
+        assertEquals(now - 5000L + TriggerJitter.offset("execution", trigger), TriggerJitter.start("execution", trigger, now));
+        assertEquals(now, TriggerJitter.start("execution", periodic(PERIOD, null), now));
+    }
+    
+    /**
+     * Creates the periodic trigger
+     * 
+     * @param period The period
+     * @param jitter The jitter
+     * @return Returns trigger definition
+     */
+    static TriggerDefinition periodic(long period, Long jitter){
+        return TriggerDefinition.builder().name("trigger").type(TriggerType.PERIODIC).period(period).jitter(jitter).build();
+    }
+}
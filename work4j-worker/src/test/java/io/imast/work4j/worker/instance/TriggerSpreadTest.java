@@ -0,0 +1,90 @@
+package io.imast.work4j.worker.instance;
+
+import io.imast.work4j.model.TriggerDefinition;
+import io.imast.work4j.model.TriggerType;
+import java.util.Date;
+import org.junit.jupiter.api.Test;
+import org.quartz.CronExpression;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The spread of cron triggers over the window
+ * 
+ * @author davitp
+ */
+public class TriggerSpreadTest {
+
+    /**
+     * The fires are only delayed and stay within the window
+     */
+    @Test
+    public void hourlyShiftedWithinWindow() throws Exception {
+        
+        var base = new CronExpression("0 0 * * * ?");
+        var from = new Date(1_600_000_000_000L);
+        var original = base.getNextValidTimeAfter(from).getTime();
+        var shifted = 0;
+        
+        for(var i = 0; i < 200; i++){
+            
+            var expression = TriggerJitter.cron("execution" + i, cron("0 0 * * * ?", 600000L));
+            var fire = new CronExpression(expression).getNextValidTimeAfter(from).getTime();
+            
+            assertTrue(fire >= original && fire < original + 600000L, expression);
+            assertEquals(expression, TriggerJitter.cron("execution" + i, cron("0 0 * * * ?", 600000L)));
+            
+            if(fire != original){
+                shifted++;
+            }
+        }
+        
+        assertTrue(shifted > 190, String.valueOf(shifted));
+    }
+    
+    /**
+     * The window is capped by the unit of first non-plain field
+     */
+    @Test
+    public void windowCappedByUnit() throws Exception {
+        
+        for(var i = 0; i < 200; i++){
+            
+            // every minute shifts seconds only
+            var minutely = TriggerJitter.cron("execution" + i, cron("0 * * * * ?", 3600000L)).split(" ");
+            
+            assertEquals("*", minutely[1]);
+            assertTrue(Integer.parseInt(minutely[0]) < 60);
+            
+            // late in the hour stays within the hour
+            var late = TriggerJitter.cron("execution" + i, cron("30 58 * * * ?", 3600000L)).split(" ");
+            
+            assertEquals("*", late[2]);
+            assertTrue(Integer.parseInt(late[1]) * 60 + Integer.parseInt(late[0]) >= 58 * 60 + 30);
+        }
+    }
+    
+    /**
+     * The expressions that cannot be shifted safely are kept
+     */
+    @Test
+    public void unshiftableKept(){
+        
+        assertEquals("*/5 * * * * ?", TriggerJitter.cron("execution", cron("*/5 * * * * ?", 600000L)));
+        assertEquals("0 0 * * * ?", TriggerJitter.cron("execution", cron("0 0 * * * ?", null)));
+        assertEquals("0 0 * * * ?", TriggerJitter.cron("execution", cron("0 0 * * * ?", 999L)));
+        assertEquals("59 59 * * * ?", TriggerJitter.cron("execution", cron("59 59 * * * ?", 600000L)));
+    }
+    
+    /**
+     * Creates the cron trigger
+     * 
+     * @param expression The cron expression
+     * @param window The spread window
+     * @return Returns trigger definition
+     */
+    static TriggerDefinition cron(String expression, Long window){
+        return TriggerDefinition.builder().name("trigger").type(TriggerType.CRON).cron(expression).spreadWindow(window).build();
+    }
+}
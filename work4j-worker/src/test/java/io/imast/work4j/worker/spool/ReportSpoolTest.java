@@ -0,0 +1,168 @@
+package io.imast.work4j.worker.spool;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The disk-backed journal of worker reports
+ * 
+ * @author davitp
+ */
+public class ReportSpoolTest {
+
+    /**
+     * The record header size (length, crc and kind)
+     */
+    private static final int HEADER = 9;
+    
+    /**
+     * The spool directory
+     */
+    @TempDir
+    Path directory;
+    
+    /**
+     * The records are read in order across segments and survive reopening
+     */
+    @Test
+    public void orderAcrossSegmentsAndRestart() throws Exception {
+        
+        try(var spool = new ReportSpool(this.directory, 64, 16)){
+            
+            for(var i = 0; i < 10; i++){
+                assertTrue(spool.append((byte) 1, payload("report" + i)));
+            }
+            
+            assertEquals(List.of("report0", "report1", "report2"), texts(spool.peek(3)));
+            
+            spool.commit(3);
+        }
+        
+        try(var spool = new ReportSpool(this.directory, 64, 16)){
+            
+            assertEquals(List.of("report3", "report4", "report5", "report6", "report7", "report8", "report9"), texts(spool.peek(100)));
+            
+            spool.commit(7);
+            
+            assertTrue(spool.isEmpty());
+        }
+    }
+    
+    /**
+     * The torn tail of last segment is dropped on recovery and overwritten by new records
+     */
+    @Test
+    public void tornTailRecovered() throws Exception {
+        
+        try(var spool = new ReportSpool(this.directory, 1024, 4)){
+            spool.append((byte) 1, payload("first"));
+            spool.append((byte) 1, payload("second"));
+            spool.append((byte) 1, payload("third"));
+        }
+        
+        // corrupt the payload of the last record
+        corrupt(0, 2 * HEADER + "first".length() + "second".length() + HEADER);
+        
+        try(var spool = new ReportSpool(this.directory, 1024, 4)){
+            
+            assertEquals(List.of("first", "second"), texts(spool.peek(100)));
+            
+            spool.append((byte) 1, payload("fourth"));
+            
+            assertEquals(List.of("first", "second", "fourth"), texts(spool.peek(100)));
+        }
+    }
+    
+    /**
+     * The corrupted record of sealed segment is skipped while the rest is delivered
+     */
+    @Test
+    public void corruptedSealedRecordSkipped() throws Exception {
+        
+        try(var spool = new ReportSpool(this.directory, 64, 4)){
+            for(var i = 0; i < 6; i++){
+                spool.append((byte) 1, payload("report" + i));
+            }
+        }
+        
+        // corrupt the second record of the first segment
+        corrupt(0, HEADER + "report0".length() + HEADER);
+        
+        try(var spool = new ReportSpool(this.directory, 64, 4)){
+            
+            var texts = texts(spool.peek(100));
+            
+            assertFalse(texts.contains("report1"));
+            assertEquals(List.of("report0", "report2", "report3", "report4", "report5"), texts);
+        }
+    }
+    
+    /**
+     * The spool rejects records once all segments are used
+     */
+    @Test
+    public void fullSpoolRejects() throws Exception {
+        
+        try(var spool = new ReportSpool(this.directory, 64, 2)){
+            
+            var accepted = 0;
+            
+            while(spool.append((byte) 1, payload("reportX"))){
+                accepted++;
+            }
+            
+            // three records fit a segment (keeping the end marker)
+            assertEquals(6, accepted);
+            
+            // consuming the first segment frees it
+            spool.commit(4);
+            
+            assertTrue(spool.append((byte) 1, payload("reportX")));
+        }
+    }
+    
+    /**
+     * Flips a byte of the segment
+     * 
+     * @param segment The segment sequence
+     * @param position The position of byte
+     * @throws Exception
+     */
+    private void corrupt(long segment, int position) throws Exception {
+        try(var file = new RandomAccessFile(this.directory.resolve(String.format("spool-%020d.log", segment)).toFile(), "rw")){
+            file.seek(position);
+            var value = file.read();
+            file.seek(position);
+            file.write(value ^ 0xFF);
+        }
+    }
+    
+    /**
+     * Gets the payload of text
+     * 
+     * @param text The text
+     * @return Returns payload
+     */
+    private static byte[] payload(String text){
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Gets the texts of records
+     * 
+     * @param records The records
+     * @return Returns texts
+     */
+    private static List<String> texts(List<SpoolRecord> records){
+        return records.stream().map(record -> new String(record.getPayload(), StandardCharsets.UTF_8)).collect(Collectors.toList());
+    }
+}
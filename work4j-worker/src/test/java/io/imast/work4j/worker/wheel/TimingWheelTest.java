@@ -0,0 +1,178 @@
+package io.imast.work4j.worker.wheel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The hierarchical timing wheel
+ * 
+ * @author davitp
+ */
+public class TimingWheelTest {
+
+    /**
+     * The tick duration
+     */
+    private static final long TICK = 10L;
+    
+    /**
+     * The start time of wheel (not aligned to any level)
+     */
+    private static final long START = 1_600_000_000_123L;
+    
+    /**
+     * The entries fire on the first tick at or after deadline, across level and cascade boundaries
+     */
+    @Test
+    public void firesAtDeadlineAcrossLevels(){
+        
+        var wheel = new TimingWheel(TICK, START);
+        var entries = new ArrayList<Entry>();
+        
+        // the distances in ticks around boundaries of levels
+        for(var distance : new long[]{ 1, 2, 63, 64, 65, 4095, 4096, 4097, 262143, 262144, 262145 }){
+            for(var shift : new long[]{ -TICK + 1, 0, 1 }){
+                
+                var entry = new Entry(START + distance * TICK + shift);
+                
+                entries.add(entry);
+                wheel.add(entry);
+            }
+        }
+        
+        assertEquals(entries.size(), wheel.size());
+        
+        // advance in random steps and record the window each entry fired in
+        var fired = new HashMap<Entry, long[]>();
+        var random = new Random(42);
+        var now = START;
+        
+        while(wheel.size() > 0){
+            
+            var previous = now;
+            now += 1 + random.nextInt(500);
+            
+            var window = new long[]{ previous, now };
+            wheel.advance(now, entry -> fired.put((Entry) entry, window));
+        }
+        
+        assertEquals(entries.size(), fired.size());
+        
+        for(var entry : entries){
+            
+            // the tick entry is due at
+            var due = Math.floorDiv(entry.getDeadline() + TICK - 1, TICK);
+            var window = fired.get(entry);
+            
+            assertFalse(entry.isArmed());
+            assertTrue(window[1] / TICK >= due, "fired early: " + entry.getDeadline());
+            assertTrue(window[0] / TICK < due, "fired late: " + entry.getDeadline());
+        }
+    }
+    
+    /**
+     * The entries in the past fire on the next tick
+     */
+    @Test
+    public void pastDeadlineFiresOnNextTick(){
+        
+        var wheel = new TimingWheel(TICK, START);
+        var late = new Entry(START - 100000L);
+        var due = new Entry(START);
+        
+        wheel.add(late);
+        wheel.add(due);
+        
+        var fired = new ArrayList<Entry>();
+        
+        wheel.advance(START + TICK - 1 - START % TICK, entry -> fired.add((Entry) entry));
+        assertTrue(fired.isEmpty());
+        
+        wheel.advance(wheel.nextTickTime(), entry -> fired.add((Entry) entry));
+        assertEquals(2, fired.size());
+        assertEquals(0, wheel.size());
+    }
+    
+    /**
+     * The cancelled entries never fire and re-arming moves the entry
+     */
+    @Test
+    public void removeAndRearm(){
+        
+        var wheel = new TimingWheel(TICK, START);
+        var cancelled = new Entry(START + 4096 * TICK);
+        var moved = new Entry(START + 4096 * TICK);
+        
+        wheel.add(cancelled);
+        wheel.add(moved);
+        
+        assertTrue(wheel.remove(cancelled));
+        assertFalse(wheel.remove(cancelled));
+        
+        // re-arm sooner
+        moved.deadline = START + 5 * TICK;
+        wheel.add(moved);
+        
+        assertEquals(1, wheel.size());
+        
+        var fired = new ArrayList<Entry>();
+        
+        wheel.advance(START + 6 * TICK, entry -> fired.add((Entry) entry));
+        assertEquals(List.of(moved), fired);
+        
+        wheel.advance(START + 5000 * TICK, entry -> fired.add((Entry) entry));
+        assertEquals(List.of(moved), fired);
+    }
+    
+    /**
+     * The entries beyond the range of wheel are parked in the top level and never fire early
+     */
+    @Test
+    public void overflowParkedInTopLevel(){
+        
+        var wheel = new TimingWheel(1L, START);
+        var far = new Entry(START + (1L << 40));
+        var near = new Entry(START + (1L << 24) + 7);
+        
+        wheel.add(far);
+        wheel.add(near);
+        
+        // parked at the edge of range
+        assertEquals(5, far.level);
+        assertEquals(START + (1L << 36) - 1, far.tick);
+        
+        var fired = new ArrayList<Entry>();
+        
+        // cascade through the fourth level keeps the parked entry
+        wheel.advance(START + (1L << 24) + 7, entry -> fired.add((Entry) entry));
+        
+        assertEquals(List.of(near), fired);
+        assertTrue(far.isArmed());
+        assertEquals(1, wheel.size());
+        
+        assertTrue(wheel.remove(far));
+        assertEquals(0, wheel.size());
+    }
+    
+    /**
+     * The test entry
+     */
+    private static class Entry extends TimerEntry {
+        
+        /**
+         * Creates new entry
+         * 
+         * @param deadline The deadline
+         */
+        Entry(long deadline){
+            this.deadline = deadline;
+        }
+    }
+}